@@ -20,7 +20,8 @@ CREATE TABLE `employees` (
   `last_update_date` datetime DEFAULT NULL,
   `document` varchar(50) NOT NULL,
   PRIMARY KEY (`id`),
-  UNIQUE KEY `document` (`document`)
+  UNIQUE KEY `document` (`document`),
+  KEY `idx_employees_hire_date` (`hire_date`)
 ) ENGINE=InnoDB AUTO_INCREMENT=69 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 -- Dumping data for table `employees`
@@ -39,7 +40,8 @@ CREATE TABLE `departments` (
   `creation_date` datetime DEFAULT CURRENT_TIMESTAMP,
   `last_update_date` datetime DEFAULT NULL,
   PRIMARY KEY (`id`),
-  UNIQUE KEY `name` (`name`)
+  UNIQUE KEY `name` (`name`),
+  KEY `idx_departments_creation_date` (`creation_date`)
 ) ENGINE=InnoDB AUTO_INCREMENT=28 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 -- Dumping data for table `departments`
@@ -55,6 +57,8 @@ CREATE TABLE `departaments_has_employees` (
   `level` enum('JUNIOR','MID','SENIOR') DEFAULT NULL,
   `salary` decimal(15,2) unsigned NOT NULL,
   PRIMARY KEY (`id_departament`, `id_employee`),
+  KEY `idx_departaments_has_employees_level_salary` (`id_departament`, `level`, `salary`),
+  KEY `idx_departaments_has_employees_level_employee` (`id_departament`, `level`, `id_employee`),
   CONSTRAINT `fk_departments_has_employees_departments` FOREIGN KEY (`id_departament`) REFERENCES `departments` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_departments_has_employees_employees` FOREIGN KEY (`id_employee`) REFERENCES `employees` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
@@ -66,6 +70,26 @@ INSERT INTO `departaments_has_employees` (`id_departament`, `id_employee`, `leve
 (24, 52, 'JUNIOR', 1200.00),
 (24, 61, 'JUNIOR', 1200.00);
 
+-- Table structure for table `department_payroll_summary`
+-- Headcount and salary total per department and level, changed in the same transaction of the jobs
+DROP TABLE IF EXISTS `department_payroll_summary`;
+CREATE TABLE `department_payroll_summary` (
+  `id_departament` bigint NOT NULL,
+  `level` enum('JUNIOR','MID','SENIOR') NOT NULL,
+  `headcount` bigint NOT NULL DEFAULT 0,
+  `salary_total` decimal(20,2) NOT NULL DEFAULT 0,
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id_departament`, `level`),
+  CONSTRAINT `fk_department_payroll_summary_departments` FOREIGN KEY (`id_departament`) REFERENCES `departments` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- Summary of the jobs dumped
+INSERT INTO `department_payroll_summary` (`id_departament`, `level`, `headcount`, `salary_total`)
+SELECT `id_departament`, `level`, COUNT(*), SUM(`salary`)
+FROM `departaments_has_employees`
+WHERE `level` IS NOT NULL
+GROUP BY `id_departament`, `level`;
+
 -- Table structure for table `normal_employees`
 DROP TABLE IF EXISTS `normal_employees`;
 CREATE TABLE `normal_employees` (
@@ -94,6 +118,25 @@ CREATE TABLE `superior_employees` (
 INSERT INTO `superior_employees` (`id`, `work_experience`) VALUES
 (61, 10);
 
+-- Table structure for table `department_deletion_jobs`
+-- Progress of the departments deleted in chunks, committed with each chunk so a stopped deletion is resumed
+-- No foreign key, the job outlives the department it deletes
+DROP TABLE IF EXISTS `department_deletion_jobs`;
+CREATE TABLE `department_deletion_jobs` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `id_departament` bigint NOT NULL,
+  `department_name` varchar(50) NOT NULL,
+  `status` enum('RUNNING','FINISHED') NOT NULL DEFAULT 'RUNNING',
+  `last_employee_id` bigint NOT NULL DEFAULT 0,
+  `employees_deleted` bigint NOT NULL DEFAULT 0,
+  `started_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  `finished_at` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `department_deletion_jobs_departament` (`id_departament`),
+  KEY `idx_department_deletion_jobs_status` (`status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
 -- Table structure for table `users`
 DROP TABLE IF EXISTS `users`;
 CREATE TABLE `users` (
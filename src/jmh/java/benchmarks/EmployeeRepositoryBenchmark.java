@@ -0,0 +1,120 @@
+package benchmarks;
+
+import database.DbConnection;
+import domain.department.Department;
+import domain.employee.Employee;
+import domain.employee.NormalEmployee;
+import dto.employee.EmployeeBaseDTO;
+import mappers.impl.NormalEmployeeMapperImpl;
+import mappers.impl.SuperiorEmployeeMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import repositories.impl.DepartmentRepositoryImpl;
+import repositories.impl.EmployeeRepositoryImpl;
+import services.EmployeeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Find and save paths against the database of the docker-compose.yml.
+    The employees are hired in a department created for the run, deleted with them in the tear down.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeRepositoryBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 1_000;
+    private static final int PAGE_SIZE = 20;
+
+    private final EmployeeRepositoryImpl repository = new EmployeeRepositoryImpl();
+    private final DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+    private final EmployeeService service = new EmployeeService(new NormalEmployeeMapperImpl(),
+            new SuperiorEmployeeMapperImpl(), repository);
+
+    @Param({"100"})
+    private int batchSize;
+
+    private Department department;
+    private long[] ids;
+    private String[] documents;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        department = Department.builder().name("Benchmark " + System.currentTimeMillis()).build();
+        departmentRepository.save(department);
+
+        final List<Employee> employees = this.newEmployees(SEEDED_EMPLOYEES);
+        repository.saveAll(employees);
+
+        ids = employees.stream().mapToLong(Employee::getId).toArray();
+        documents = employees.stream().map(Employee::getDocument).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        departmentRepository.deleteById(department.getId());
+        DbConnection.shutdown();
+    }
+
+    @Benchmark
+    public Optional<EmployeeBaseDTO> findById() {
+        return repository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public Optional<EmployeeBaseDTO> findByDocument() {
+        return repository.findByDocument(documents[ThreadLocalRandom.current().nextInt(documents.length)]);
+    }
+
+    @Benchmark
+    public List<EmployeeBaseDTO> findByName() {
+        return repository.findByName("Benchmark");
+    }
+
+    @Benchmark
+    public List<EmployeeBaseDTO> findByNamePage() {
+        return repository.findByName("Benchmark", ids[ThreadLocalRandom.current().nextInt(ids.length)], PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<EmployeeBaseDTO> findByAgePage() {
+        return repository.findByAge(34, 0, PAGE_SIZE);
+    }
+
+    //Hire of the menu: base employee, jobs and specific employee in one TransactionContext unit
+    @Benchmark
+    public Employee save() {
+        final NormalEmployee employee = Fixtures.normalEmployee("Benchmark Normal", Fixtures.jobs(department));
+        employee.setId(null);
+        service.hire(employee);
+        return employee;
+    }
+
+    @Benchmark
+    public List<Employee> saveAll() {
+        final List<Employee> employees = this.newEmployees(batchSize);
+        repository.saveAll(employees);
+        return employees;
+    }
+
+    private List<Employee> newEmployees(final int size) {
+
+        final List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Employee employee = i % 2 == 0
+                    ? Fixtures.normalEmployee("Benchmark Normal", Fixtures.jobs(department))
+                    : Fixtures.superiorEmployee("Benchmark Superior", Fixtures.jobs(department));
+            employee.setId(null);
+            employees.add(employee);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,39 @@
+package benchmarks;
+
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeToStringBenchmark {
+
+    //Employees shown in the menus usually have one job, the import accepts many
+    @Param({"1", "5"})
+    private int jobs;
+
+    private NormalEmployee normalEmployee;
+    private SuperiorEmployee superiorEmployee;
+
+    @Setup
+    public void setUp() {
+        normalEmployee = Fixtures.normalEmployee("Michelangelo", Fixtures.jobs(Fixtures.departments(jobs)));
+        superiorEmployee = Fixtures.superiorEmployee("Raphael", Fixtures.jobs(Fixtures.departments(jobs)));
+    }
+
+    @Benchmark
+    public String normalEmployeeToString() {
+        return normalEmployee.toString();
+    }
+
+    @Benchmark
+    public String superiorEmployeeToString() {
+        return superiorEmployee.toString();
+    }
+}
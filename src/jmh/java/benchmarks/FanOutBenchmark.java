@@ -0,0 +1,115 @@
+package benchmarks;
+
+import database.DbConnection;
+import domain.department.Department;
+import domain.employee.Employee;
+import dto.employee.EmployeeBaseDTO;
+import executor.BoundedExecutor;
+import mappers.impl.NormalEmployeeMapperImpl;
+import mappers.impl.SuperiorEmployeeMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import repositories.impl.DepartmentRepositoryImpl;
+import repositories.impl.EmployeeRepositoryImpl;
+import services.EmployeeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+/*
+    Serial path against the bounded executor. The simulated benchmark blocks like a JDBC round trip without
+    a database. The find by ids benchmarks hydrate employees of the database of the docker-compose.yml, one
+    find per id in the executor against all of them in one IN list.
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ExecutorState {
+
+        @Param({"serial", "bounded"})
+        private String mode;
+
+        //Same default max size of the pool
+        @Param({"10"})
+        private int maxConcurrent;
+
+        private BoundedExecutor executor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = mode.equals("serial") ? BoundedExecutor.serial() : BoundedExecutor.virtual(maxConcurrent);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DatabaseState {
+
+        private static final int EMPLOYEES = 100;
+
+        private final EmployeeRepositoryImpl repository = new EmployeeRepositoryImpl();
+        private final DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+
+        private Department department;
+        private List<Long> ids;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+
+            department = Department.builder().name("Fan out " + System.currentTimeMillis()).build();
+            departmentRepository.save(department);
+
+            final List<Employee> employees = new ArrayList<>(EMPLOYEES);
+            for (int i = 0; i < EMPLOYEES; i++) {
+                final Employee employee = Fixtures.normalEmployee("Fan Out", Fixtures.jobs(department));
+                employee.setId(null);
+                employees.add(employee);
+            }
+            repository.saveAll(employees);
+
+            ids = employees.stream().map(Employee::getId).toList();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            departmentRepository.deleteById(department.getId());
+            DbConnection.shutdown();
+        }
+    }
+
+    private static final List<Long> CALLS = LongStream.rangeClosed(1, 32).boxed().toList();
+
+    //Calls of one millisecond, like small queries in a local network
+    @Benchmark
+    public List<Long> simulatedCalls(final ExecutorState executors) {
+        return executors.executor.map(CALLS, id -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            return id;
+        });
+    }
+
+    //One find by id per employee, at the same time in the executor
+    @Benchmark
+    public List<Optional<EmployeeBaseDTO>> findByIdEach(final ExecutorState executors, final DatabaseState database) {
+        return executors.executor.map(database.ids, database.repository::findById);
+    }
+
+    //All the employees in one IN list, the executor is not used
+    @Benchmark
+    public List<Employee> findByIds(final DatabaseState database) {
+        return new EmployeeService(new NormalEmployeeMapperImpl(), new SuperiorEmployeeMapperImpl(),
+                database.repository).findByIds(database.ids);
+    }
+}
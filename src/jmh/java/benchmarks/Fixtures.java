@@ -0,0 +1,106 @@
+package benchmarks;
+
+import domain.department.Department;
+import domain.department.Level;
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import dto.employee.NormalEmployeeDTO;
+import dto.employee.SuperiorEmployeeDTO;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Employees with the same shape of the ones hydrated by the repository
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Fixtures {
+
+    //Documents unique between runs, with the pattern xxx.xxx.xxx-xx
+    private static final AtomicLong documents = new AtomicLong(System.currentTimeMillis() % 10_000_000_000L * 10);
+
+    static String nextDocument() {
+        final String digits = String.format("%011d", documents.incrementAndGet() % 100_000_000_000L);
+        return String.format("%s.%s.%s-%s", digits.substring(0, 3), digits.substring(3, 6),
+                digits.substring(6, 9), digits.substring(9));
+    }
+
+    static Map<Department, Map<Level, BigDecimal>> jobs(final Department... departments) {
+
+        final Map<Department, Map<Level, BigDecimal>> dls = new TreeMap<>(Comparator.comparing(Department::getName));
+        for (int i = 0; i < departments.length; i++) {
+            dls.put(departments[i], Map.of(Level.values()[i % Level.values().length], new BigDecimal("2500.00").add(BigDecimal.valueOf(i * 100L))));
+        }
+        return dls;
+    }
+
+    static Department[] departments(final int size) {
+
+        final Department[] departments = new Department[size];
+        for (int i = 0; i < size; i++) {
+            departments[i] = Department.builder()
+                    .id((long) i + 1)
+                    .name("Department " + (i + 1))
+                    .creationDate(LocalDateTime.of(2020, 1, 1, 8, 0))
+                    .build();
+        }
+        return departments;
+    }
+
+    static NormalEmployee normalEmployee(final String name, final Map<Department, Map<Level, BigDecimal>> dls) {
+        return NormalEmployee.builder()
+                .id(1L)
+                .name(name)
+                .document(nextDocument())
+                .birthDate(LocalDate.of(1990, 10, 10))
+                .age(34)
+                .departmentsAndLevelsAndSalaries(dls)
+                .hasFaculty(true)
+                .hireDate(LocalDateTime.of(2024, 5, 20, 9, 30))
+                .build();
+    }
+
+    static SuperiorEmployee superiorEmployee(final String name, final Map<Department, Map<Level, BigDecimal>> dls) {
+        return SuperiorEmployee.builder()
+                .id(2L)
+                .name(name)
+                .document(nextDocument())
+                .birthDate(LocalDate.of(1980, 3, 15))
+                .age(44)
+                .departmentsAndLevelsAndSalaries(dls)
+                .workExperience(15)
+                .hireDate(LocalDateTime.of(2024, 5, 20, 9, 30))
+                .build();
+    }
+
+    static NormalEmployeeDTO normalEmployeeDTO(final Map<Department, Map<Level, BigDecimal>> dls) {
+        return NormalEmployeeDTO.builder()
+                .id(1L)
+                .name("Michelangelo")
+                .document(nextDocument())
+                .birthDate(LocalDate.of(1990, 10, 10))
+                .age(34)
+                .departamentsAndLevelsAndSalaries(dls)
+                .hasFaculty(true)
+                .hireDate(LocalDateTime.of(2024, 5, 20, 9, 30))
+                .build();
+    }
+
+    static SuperiorEmployeeDTO superiorEmployeeDTO(final Map<Department, Map<Level, BigDecimal>> dls) {
+        return SuperiorEmployeeDTO.builder()
+                .id(2L)
+                .name("Raphael")
+                .document(nextDocument())
+                .birthDate(LocalDate.of(1980, 3, 15))
+                .age(44)
+                .departamentsAndLevelsAndSalaries(dls)
+                .workExperience(15)
+                .hireDate(LocalDateTime.of(2024, 5, 20, 9, 30))
+                .build();
+    }
+}
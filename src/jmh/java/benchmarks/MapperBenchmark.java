@@ -0,0 +1,42 @@
+package benchmarks;
+
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import dto.employee.NormalEmployeeDTO;
+import dto.employee.SuperiorEmployeeDTO;
+import mappers.impl.NormalEmployeeMapperImpl;
+import mappers.impl.SuperiorEmployeeMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final NormalEmployeeMapperImpl normalMapper = new NormalEmployeeMapperImpl();
+    private final SuperiorEmployeeMapperImpl superiorMapper = new SuperiorEmployeeMapperImpl();
+
+    private NormalEmployeeDTO normalDto;
+    private SuperiorEmployeeDTO superiorDto;
+
+    @Setup
+    public void setUp() {
+        normalDto = Fixtures.normalEmployeeDTO(Fixtures.jobs(Fixtures.departments(3)));
+        superiorDto = Fixtures.superiorEmployeeDTO(Fixtures.jobs(Fixtures.departments(3)));
+    }
+
+    @Benchmark
+    public NormalEmployee normalDtoToEntity() {
+        return normalMapper.dtoToEntity(normalDto);
+    }
+
+    @Benchmark
+    public SuperiorEmployee superiorDtoToEntity() {
+        return superiorMapper.dtoToEntity(superiorDto);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import database.metrics.QueryMetrics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Overhead of QueryMetrics on a prepare, execute and fetch, against a driver that answers at once.
+    With no rows the difference between the instrumented and the plain benchmarks is the cost per statement,
+    each row adds two clock reads and the reflective calls of the proxied result set.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryMetricsBenchmark {
+
+    private static final String SQL = "SELECT id FROM employees WHERE age = ?";
+
+    @Param({"0", "20"})
+    private int rows;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() {
+        final PreparedStatement statement = this.newStatement();
+        connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> "prepareStatement".equals(method.getName()) ? statement : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        QueryMetrics.reset();
+    }
+
+    @Benchmark
+    public void plain(final Blackhole bh) throws SQLException {
+        this.run(connection.prepareStatement(SQL), bh);
+    }
+
+    @Benchmark
+    public void instrumented(final Blackhole bh) throws SQLException {
+        this.run(QueryMetrics.prepare(connection, "benchmark.findByAge", SQL), bh);
+    }
+
+    private void run(final PreparedStatement ps, final Blackhole bh) throws SQLException {
+        ps.setInt(1, 30);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) bh.consume(rs.getLong(1));
+        }
+    }
+
+    private PreparedStatement newStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> "executeQuery".equals(method.getName()) ? this.newResultSet() : null);
+    }
+
+    private ResultSet newResultSet() {
+
+        final int[] row = {0};
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++row[0] <= rows;
+                    case "getLong" -> (long) row[0];
+                    default -> null;
+                });
+    }
+}
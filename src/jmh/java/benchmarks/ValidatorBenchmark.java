@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.EmployeeService;
+import services.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+//Validators without repositories, they only run the regular expressions
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private final EmployeeService employeeService = new EmployeeService(null, null, null);
+    private final UserService userService = new UserService(null, null);
+
+    @State(Scope.Benchmark)
+    public static class Names {
+        //Simple and compound names walk different branches of the pattern
+        @Param({"Michelangelo", "Anne-Marie O'neil"})
+        private String name;
+    }
+
+    @Benchmark
+    public String validateAndFormatName(final Names names) {
+        return employeeService.validateAndFormatName(names.name);
+    }
+
+    @Benchmark
+    public void validateDocument() {
+        employeeService.validateDocument("123.456.789-10");
+    }
+
+    @Benchmark
+    public void validateUsername() {
+        userService.validateUsername("michelangelo@");
+    }
+
+    @Benchmark
+    public void validatePassword() {
+        userService.validatePassword("sist1ne#chapel");
+    }
+}
@@ -4,6 +4,8 @@ package app;
 import controllers.DepartmentController;
 import controllers.EmployeeController;
 import controllers.UserController;
+import database.DbConnection;
+import database.metrics.QueryMetrics;
 import domain.department.Department;
 import domain.employee.Employee;
 import domain.user.User;
@@ -13,6 +15,9 @@ import enums.employee.EmployeeMenuOption;
 import enums.menu.DefaultMessage;
 import enums.menu.MenuOption;
 import enums.user.UserMenuOption;
+import executor.BoundedExecutor;
+import exceptions.DbConnectionException;
+import exceptions.DepartmentException;
 import exceptions.EmployeeException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -21,34 +26,132 @@ import mappers.impl.DepartmentMapperImpl;
 import mappers.impl.NormalEmployeeMapperImpl;
 import mappers.impl.SuperiorEmployeeMapperImpl;
 import mappers.impl.UserMapperImpl;
+import repositories.impl.CachedDepartmentRepositoryImpl;
+import repositories.impl.CachedEmployeeRepositoryImpl;
 import repositories.impl.DepartmentRepositoryImpl;
 import repositories.impl.EmployeeRepositoryImpl;
+import repositories.impl.PayrollReportRepositoryImpl;
 import repositories.impl.UserRepositoryImpl;
+import services.DepartmentDeletionService;
 import services.DepartmentService;
+import services.EmployeeExportService;
 import services.EmployeeService;
+import services.PayrollReportService;
+import services.PayrollSummaryReconciler;
 import services.UserService;
 import utils.EnumListUtils;
 import utils.ReaderUtils;
 
 import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
 
 @Log4j2
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Application {
-    private final static DepartmentController dc = new DepartmentController(
-            new DepartmentService(new DepartmentRepositoryImpl(), new DepartmentMapperImpl())
+    //Departments almost never change, the menus read them before each hire and delete
+    private final static DepartmentRepositoryImpl departmentDatabase = new DepartmentRepositoryImpl();
+    private final static CachedDepartmentRepositoryImpl departmentRepository = new CachedDepartmentRepositoryImpl(
+            departmentDatabase, 1_000, 300_000
     );
-    private final static EmployeeController ec = new EmployeeController(
-            new EmployeeService(new NormalEmployeeMapperImpl(), new SuperiorEmployeeMapperImpl(), new EmployeeRepositoryImpl())
+
+    //Latency of the statements logged every five minutes
+    private final static long METRICS_DUMP_INTERVAL_MILLIS = 300_000;
+
+    //Employees shown per page in the show menu
+    private final static int PAGE_SIZE = 20;
+
+    private final static DepartmentService ds = new DepartmentService(departmentRepository, new DepartmentMapperImpl());
+    private final static PayrollReportService payroll = new PayrollReportService(new PayrollReportRepositoryImpl());
+
+    //Drifts of the payroll summary fixed and logged every hour
+    private final static long PAYROLL_RECONCILIATION_INTERVAL_MILLIS = 3_600_000;
+
+    //Big departments deleted in chunks of employees, with a pause between the chunks
+    private final static int DELETION_CHUNK_SIZE = 500;
+    private final static long DELETION_PAUSE_MILLIS = 200;
+    private final static DepartmentDeletionService deletionService = new DepartmentDeletionService(departmentRepository);
+
+    //Independent calls fanned out, never more than the connections of the pool
+    private final static BoundedExecutor executor = BoundedExecutor.virtual(DbConnection.getConfig().getMaxSize());
+
+    //Employees read again in each update and show flow, bounded by employees plus jobs
+    private final static EmployeeRepositoryImpl employeeDatabase = new EmployeeRepositoryImpl();
+    private final static CachedEmployeeRepositoryImpl employeeRepository = new CachedEmployeeRepositoryImpl(
+            employeeDatabase, 10_000, 300_000
     );
+
+    //Departments renamed or deleted evict the cached employees with a job in them, and drop their names
+    static {
+        departmentRepository.addInvalidationListener(employeeRepository::evictDepartment);
+        departmentDatabase.addEmployeesDeletedListener(employeeDatabase::removeNames);
+    }
+
+    private final static EmployeeService es = new EmployeeService(new NormalEmployeeMapperImpl(), new SuperiorEmployeeMapperImpl(),
+            employeeRepository, executor);
+
+    private final static DepartmentController dc = new DepartmentController(ds);
+    private final static EmployeeController ec = new EmployeeController(es);
+    //Registrations and logins of usernames not registered answered without the database
+    private final static double USERNAME_FILTER_FALSE_POSITIVE_RATE = 0.001;
+    private final static UserRepositoryImpl userRepository = new UserRepositoryImpl(USERNAME_FILTER_FALSE_POSITIVE_RATE);
+
     private final static UserController uc = new UserController(
-            new UserService(new UserRepositoryImpl(), new UserMapperImpl())
+            new UserService(userRepository, new UserMapperImpl())
     );
 
+    /*
+        Without arguments opens the menus, with arguments runs one command without interaction, see CommandRunner.
+        "run <file>" runs many commands in this JVM, sharing the connection pool warmed by the first one.
+        The exit status is 1 when any command failed.
+    */
     public static void main(String[] args) {
-        mainMenu();
+
+        QueryMetrics.startLogDump(METRICS_DUMP_INTERVAL_MILLIS);
+        resumeDeletions();
+        loadUsernames();
+        final PayrollSummaryReconciler reconciler = new PayrollSummaryReconciler(payroll, PAYROLL_RECONCILIATION_INTERVAL_MILLIS);
+
+        int failures = 0;
+        if (args.length > 0) {
+            failures = new CommandRunner(es, ds, deletionService, payroll, new EmployeeExportService(employeeRepository),
+                    DELETION_CHUNK_SIZE, DELETION_PAUSE_MILLIS).run(args);
+        } else {
+            mainMenu();
+        }
+
+        log.info("Department cache: {}", departmentRepository.getStats());
+        log.info("Employee cache: {}", employeeRepository.getStats());
+        userRepository.getUsernamesFilter().ifPresent(filter ->
+                log.info("Usernames filter: {}, {} lookups without the database", filter, userRepository.getSkippedLookups()));
+        QueryMetrics.stopLogDump();
+        QueryMetrics.logDump();
+        executor.close();
+        deletionService.close();
+        reconciler.close();
+        DbConnection.shutdown();
         System.out.println("Thanks for use! :)");
+
+        if (failures > 0) System.exit(1);
+    }
+
+    //Deletions stopped by the end of the last run continue in the background
+    private static void resumeDeletions() {
+        try {
+            deletionService.resumeUnfinished(DELETION_CHUNK_SIZE, DELETION_PAUSE_MILLIS, job -> log.info("{}", job));
+        } catch (DepartmentException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    //Without the filter loaded now, the first lookup loads it
+    private static void loadUsernames() {
+        try {
+            log.info("Usernames filter: {}", userRepository.loadUsernames());
+        } catch (DbConnectionException e) {
+            log.error(e.getMessage());
+        }
     }
 
     public static void mainMenu() {
@@ -125,7 +228,7 @@ public final class Application {
                         System.out.printf("Employee after update:\n %s", employee);
                     }
                     case SHOW -> {
-                        ec.find().forEach(employee -> System.out.printf("%s \n", employee));
+                        ec.show(PAGE_SIZE, employee -> System.out.printf("%s \n", employee));
                     }
                     case DELETE -> {
                         System.out.println("Employees dismissed: " + ec.delete(dc.findAll()));
@@ -172,7 +275,26 @@ public final class Application {
                         dc.find().forEach(d -> System.out.printf("%s\n", d));
                     }
                     case DELETE -> {
-                        System.out.printf("Departament closed! %d employees dismissed! \n", dc.delete());
+
+                        final Department department = dc.chooseDepartmentToDelete();
+
+                        //In chunks in the background, the menu stays free while the employees are dismissed
+                        deletionService.deleteInBackground(department, DELETION_CHUNK_SIZE, DELETION_PAUSE_MILLIS,
+                                        job -> System.out.printf("%s\n", job))
+                                .whenComplete((job, e) -> {
+                                    if (Objects.nonNull(e)) {
+                                        final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                                        log.error(cause.getMessage());
+                                    } else {
+                                        System.out.printf("Departament %s closed! %d employees dismissed! \n",
+                                                job.getDepartmentName(), job.getEmployeesDeleted());
+                                    }
+                                });
+
+                        System.out.printf("Closing departament %s in the background..\n", department.getName());
+                    }
+                    case PAYROLL -> {
+                        System.out.print(payroll.report());
                     }
                     case OUT -> {
                         return;
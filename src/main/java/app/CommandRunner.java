@@ -0,0 +1,306 @@
+package app;
+
+import domain.department.Department;
+import domain.department.Level;
+import domain.employee.Employee;
+import enums.employee.ExportFormat;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.log4j.Log4j2;
+import services.DepartmentDeletionService;
+import services.DepartmentService;
+import services.EmployeeExportService;
+import services.EmployeeImportService;
+import services.EmployeeService;
+import services.PayrollReportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+    Headless mode: runs commands from the arguments or from a file, one per line, without menus nor System.in prompts.
+    All the commands of a run share the services and the connection pool of the JVM.
+    A failed command is logged and counted, the next commands still run.
+
+    hire <name> <document> <birth date> <NORMAL|SUPERIOR> <YES|NO|work experience> <department:level:salary|...>
+    find-employee <id|document|name> <value>
+    update-salary <document> <department> <salary>
+    delete-department <id|name> <value>
+    payroll [summary|reconcile]
+    import <csv file> [chunk size] [errors file]
+    export <file.csv|file.jsonl>[.gz]
+    run <command file, or - for the standard input>
+
+    Arguments with spaces go between double quotes, lines starting with # are comments.
+    The hire arguments are the columns of a row of the import, they can´t have its separator ;
+*/
+@Log4j2
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class CommandRunner {
+
+    private static final int DEFAULT_IMPORT_CHUNK_SIZE = 1_000;
+
+    //Separator of the columns of the import
+    private static final String HIRE_SEPARATOR = ";";
+
+    private EmployeeService employeeService;
+    private DepartmentService departmentService;
+    private DepartmentDeletionService deletionService;
+    private PayrollReportService payrollService;
+    private EmployeeExportService exportService;
+    private int deletionChunkSize;
+    private long deletionPauseMillis;
+
+    //Returns 1 when the command failed, for a command file when any of its commands failed
+    public int run(final String[] args) {
+        return this.execute(Arrays.asList(args), true) ? 0 : 1;
+    }
+
+    //Runs each line of the file, "-" reads the standard input
+    public int runFile(final String file) {
+
+        int failures = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                lineNumber++;
+                if (line.isBlank() || line.strip().startsWith("#")) continue;
+
+                final List<String> command;
+                try {
+                    command = tokenize(line);
+                } catch (IllegalArgumentException e) {
+                    log.error("Line {}: {}", lineNumber, e.getMessage());
+                    failures++;
+                    continue;
+                }
+
+                if (!this.execute(command, false)) {
+                    log.error("Line {} failed: {}", lineNumber, line);
+                    failures++;
+                }
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error reading %s: %s", file, e.getMessage()), e);
+        }
+
+        System.out.printf("%d commands failed\n", failures);
+        return failures;
+    }
+
+    //Splits by spaces, keeping together the text between double quotes
+    public static List<String> tokenize(final String line) {
+
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean hasToken = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            final char ch = line.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+                hasToken = true;
+            } else if (Character.isWhitespace(ch) && !quoted) {
+                if (hasToken) tokens.add(token.toString());
+                token.setLength(0);
+                hasToken = false;
+            } else {
+                token.append(ch);
+                hasToken = true;
+            }
+        }
+
+        if (quoted) throw new IllegalArgumentException("Double quote not closed!");
+        if (hasToken) tokens.add(token.toString());
+        return tokens;
+    }
+
+    private boolean execute(final List<String> command, final boolean allowRun) {
+
+        if (command.isEmpty()) return true;
+
+        final String name = command.get(0).toLowerCase(Locale.ROOT);
+        final List<String> args = command.subList(1, command.size());
+
+        try {
+            switch (name) {
+                case "hire" -> this.hire(args);
+                case "find-employee" -> this.findEmployee(args);
+                case "update-salary" -> this.updateSalary(args);
+                case "delete-department" -> this.deleteDepartment(args);
+                case "payroll" -> this.payroll(args);
+                case "import" -> this.importEmployees(args);
+                case "export" -> this.exportEmployees(args);
+                case "run" -> {
+                    if (!allowRun) throw new IllegalArgumentException("Command files can´t run other command files!");
+                    this.expect(args, 1, "run <command file, or - for the standard input>");
+                    return this.runFile(args.get(0)) == 0;
+                }
+                default -> throw new IllegalArgumentException(String.format("Unknown command %s!", command.get(0)));
+            }
+            return true;
+
+        } catch (RuntimeException e) {
+            log.error("{}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void hire(final List<String> args) {
+
+        final String usage = "hire <name> <document> <birth date> <NORMAL|SUPERIOR> <YES|NO|work experience> <department:level:salary|...>";
+        this.expect(args, 6, usage);
+        if (args.size() > 6) throw new IllegalArgumentException(String.format("Usage: %s", usage));
+
+        //Same columns of a row of the import, a separator inside an argument would shift the columns
+        args.stream()
+                .filter(arg -> arg.contains(HIRE_SEPARATOR))
+                .findFirst()
+                .ifPresent(arg -> {
+                    throw new IllegalArgumentException(String.format("Argument %s can´t have %s!", arg, HIRE_SEPARATOR));
+                });
+
+        final Employee employee = this.importService().parseEmployee(String.join(HIRE_SEPARATOR, args), this.departmentsByName());
+        employeeService.hire(employee);
+
+        System.out.printf("Employee %s hired with id %s\n", employee.getName(), employee.getId());
+    }
+
+    private void findEmployee(final List<String> args) {
+
+        this.expect(args, 2, "find-employee <id|document|name> <value>");
+
+        final String value = args.get(1);
+        final List<Employee> employees = switch (args.get(0).toLowerCase(Locale.ROOT)) {
+            case "id" -> employeeService.findById(this.parseLong(value, "id"));
+            case "document" -> employeeService.findByDocument(value);
+            case "name" -> employeeService.findByName(value);
+            default -> throw new IllegalArgumentException(String.format("Unknown find option %s!", args.get(0)));
+        };
+
+        employees.forEach(employee -> System.out.printf("%s \n", employee));
+    }
+
+    private void updateSalary(final List<String> args) {
+
+        this.expect(args, 3, "update-salary <document> <department> <salary>");
+
+        final Employee employee = employeeService.findByDocument(args.get(0)).get(0);
+
+        final Department department = employee.getDepartmentsAndLevelsAndSalaries().keySet().stream()
+                .filter(d -> d.getName().equalsIgnoreCase(args.get(1)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Employee %s does not work in department %s!",
+                        employee.getName(), args.get(1))));
+
+        final Map.Entry<Level, BigDecimal> job = employee.getDepartmentsAndLevelsAndSalaries().get(department)
+                .entrySet().iterator().next();
+        final BigDecimal newSalary = employeeService.validateAndFormatSalary(args.get(2));
+
+        employeeService.updateSalary(employee, department, newSalary, job.getValue());
+        System.out.printf("Salary of %s in %s updated from %s to %s\n", employee.getName(), department.getName(),
+                job.getValue(), newSalary);
+    }
+
+    //In chunks, like a deletion in the background
+    private void deleteDepartment(final List<String> args) {
+
+        this.expect(args, 2, "delete-department <id|name> <value>");
+
+        final String value = args.get(1);
+        final Department department = switch (args.get(0).toLowerCase(Locale.ROOT)) {
+            case "id" -> departmentService.findById(this.parseLong(value, "id"));
+            case "name" -> departmentService.findByName(value).stream()
+                    .filter(d -> d.getName().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Department %s not found!", value)));
+            default -> throw new IllegalArgumentException(String.format("Unknown delete option %s!", args.get(0)));
+        };
+
+        final long employees = deletionService.deleteInChunks(department, deletionChunkSize, deletionPauseMillis,
+                job -> log.info("{}", job)).getEmployeesDeleted();
+
+        System.out.printf("Departament %s closed! %d employees dismissed!\n", department.getName(), employees);
+    }
+
+    private void payroll(final List<String> args) {
+
+        final String option = args.isEmpty() ? "" : args.get(0).toLowerCase(Locale.ROOT);
+
+        switch (option) {
+            case "" -> System.out.print(payrollService.report());
+            case "summary" -> System.out.print(payrollService.summaryReport());
+            //The drifts are logged by the service
+            case "reconcile" -> System.out.printf("Payroll summary reconciled, %d drifts fixed\n",
+                    payrollService.reconcileSummary().size());
+            default -> throw new IllegalArgumentException(String.format("Unknown payroll option %s!", args.get(0)));
+        }
+    }
+
+    private void importEmployees(final List<String> args) {
+
+        this.expect(args, 1, "import <csv file> [chunk size] [errors file]");
+
+        final Path input = Path.of(args.get(0));
+        final int chunkSize = args.size() > 1 ? (int) this.parseLong(args.get(1), "chunk size") : DEFAULT_IMPORT_CHUNK_SIZE;
+        final Path errors = args.size() > 2 ? Path.of(args.get(2)) : Path.of(args.get(0) + ".errors");
+
+        final EmployeeImportService.Report report = this.importService().importCsv(input, errors, chunkSize);
+        System.out.printf("Import finished: %s! Rejected rows in %s\n", report, errors);
+    }
+
+    private void exportEmployees(final List<String> args) {
+
+        this.expect(args, 1, "export <file.csv|file.jsonl>[.gz]");
+
+        final String file = args.get(0);
+        final boolean gzip = file.toLowerCase(Locale.ROOT).endsWith(".gz");
+
+        final EmployeeExportService.Report report = exportService.export(Path.of(file), ExportFormat.of(file), gzip);
+        System.out.printf("Export finished: %s in %s\n", report, file);
+    }
+
+    private EmployeeImportService importService() {
+        return new EmployeeImportService(employeeService, departmentService);
+    }
+
+    //Case insensitive, read from the departments cache
+    private Map<String, Department> departmentsByName() {
+        return departmentService.findAll().stream()
+                .collect(Collectors.toMap(d -> d.getName().toLowerCase(), Function.identity()));
+    }
+
+    private void expect(final List<String> args, final int minimum, final String usage) {
+        if (args.size() < minimum) throw new IllegalArgumentException(String.format("Usage: %s", usage));
+    }
+
+    private long parseLong(final String value, final String title) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s: %s!", title, value), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class CacheStats {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache[size=%d, hits=%d, misses=%d, evictions=%d, hit rate=%.2f%%]",
+                size, hits, misses, evictions, this.getHitRate() * 100);
+    }
+}
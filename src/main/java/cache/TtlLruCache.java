@@ -0,0 +1,145 @@
+package cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/*
+    Least recently used entries are evicted above the max size, entries older than the ttl are not returned.
+    With a weigher the max size bounds the sum of the weights of the entries instead of their number.
+*/
+public final class TtlLruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ToIntFunction<V> weigher;
+
+    //Moved to the end on each get, the eldest entry is the least recently used
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TtlLruCache(final int maxSize, final long ttlMillis) {
+        this(maxSize, ttlMillis, v -> 1, System::nanoTime);
+    }
+
+    public TtlLruCache(final int maxSize, final long ttlMillis, final LongSupplier clock) {
+        this(maxSize, ttlMillis, v -> 1, clock);
+    }
+
+    public TtlLruCache(final int maxWeight, final long ttlMillis, final ToIntFunction<V> weigher) {
+        this(maxWeight, ttlMillis, weigher, System::nanoTime);
+    }
+
+    public TtlLruCache(final int maxSize, final long ttlMillis, final ToIntFunction<V> weigher, final LongSupplier clock) {
+
+        if (maxSize < 1) throw new IllegalArgumentException("Cache max size should be at least one!");
+        if (ttlMillis < 1) throw new IllegalArgumentException("Cache ttl should be at least one millisecond!");
+
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.weigher = Objects.requireNonNull(weigher, "Cache weigher can´t be null!");
+        this.clock = clock;
+    }
+
+    public synchronized Optional<V> get(final K key) {
+
+        final Entry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+
+        if (clock.getAsLong() - entry.loadedAt() > ttlNanos) {
+            this.remove(key);
+            evictions++;
+            misses++;
+            return Optional.empty();
+        }
+
+        //Insertion order, a get is the only access refreshing the entry
+        entries.remove(key);
+        entries.put(key, entry);
+
+        hits++;
+        return Optional.of(entry.value());
+    }
+
+    //Reads without counting as an access, used to find what to invalidate
+    public synchronized Optional<V> peek(final K key) {
+        return Optional.ofNullable(entries.get(key)).map(Entry::value);
+    }
+
+    public synchronized void put(final K key, final V value) {
+
+        Objects.requireNonNull(value, "Cached value can´t be null!");
+
+        final Entry<V> entry = new Entry<>(value, clock.getAsLong(), Math.max(1, weigher.applyAsInt(value)));
+        final Entry<V> old = entries.remove(key);
+        entries.put(key, entry);
+        if (old != null) weight -= old.weight();
+        weight += entry.weight();
+
+        //The entry just added is kept even when it alone is heavier than the max size
+        final Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (weight > maxSize && entries.size() > 1) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(final K key) {
+        this.remove(key);
+    }
+
+    //Removes only the entries matched, without flushing all the cache
+    public synchronized int invalidateIf(final BiPredicate<K, V> predicate) {
+
+        int removed = 0;
+        for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<K, Entry<V>> e = it.next();
+            if (predicate.test(e.getKey(), e.getValue().value())) {
+                weight -= e.getValue().weight();
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, entries.size());
+    }
+
+    private void remove(final K key) {
+        final Entry<V> old = entries.remove(key);
+        if (old != null) weight -= old.weight();
+    }
+
+    private record Entry<V>(V value, long loadedAt, int weight) {
+    }
+}
@@ -55,10 +55,10 @@ public final class DepartmentController {
         service.updateByOption(DepartmentUpdateOption.NAME, department);
     }
 
-    public int delete() {
+    public Department chooseDepartmentToDelete() {
         final DepartmentDeleteOption option = readElement("delete option",
                 List.of(DepartmentDeleteOption.values()));
-        return service.deleteByOption(option);
+        return service.findByDeleteOption(option);
     }
 
 }
@@ -7,6 +7,7 @@ import enums.employee.EmployeeDeleteOption;
 import enums.employee.EmployeeFindOption;
 import enums.employee.EmployeeType;
 import enums.employee.EmployeeUpdateOption;
+import enums.menu.YesOrNo;
 import lombok.AllArgsConstructor;
 import services.EmployeeService;
 
@@ -16,6 +17,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
 
 @AllArgsConstructor
 public final class EmployeeController {
@@ -42,11 +45,7 @@ public final class EmployeeController {
         final Employee employee = service.createEmployee(name, document, birthDate, age, dls, type);
         service.defineSpecificAtributtes(employee);
 
-        //Not commit here, and throw exception if there are problems
-        service.saveBaseEmployee(employee);
-
-        //This method closes the connection opened above and commit the changes!
-        service.saveSpecificEmployee(employee);
+        service.hire(employee);
     }
 
     public List<Employee> find() {
@@ -55,6 +54,25 @@ public final class EmployeeController {
         return service.findByOption(option);
     }
 
+    //Shows one page at a time, asking before loading the next one
+    public void show(final int pageSize, final Consumer<Employee> action) {
+
+        final EmployeeFindOption option = readElement("find option",
+                getEnumList(EmployeeFindOption.class));
+        final LongFunction<List<Employee>> pages = service.pagesByOption(option, pageSize);
+
+        long afterId = 0;
+        List<Employee> page;
+        do {
+            page = pages.apply(afterId);
+            page.forEach(action);
+
+            if (page.size() < pageSize) return;
+            afterId = page.get(page.size() - 1).getId();
+
+        } while (readElement("Show next page?", getEnumList(YesOrNo.class)) == YesOrNo.YES);
+    }
+
     public Employee chooseEmployeeToUpdate(final List<Employee> employeesFound) {
         return employeesFound.size() == 1
                 ? employeesFound.get(0)
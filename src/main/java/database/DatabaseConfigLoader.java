@@ -0,0 +1,242 @@
+package database;
+
+import database.pool.PoolConfig;
+import exceptions.DbConnectionException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+/*
+    Loads the pool configuration, each source overriding the previous one:
+    - database.properties in the classpath
+    - the file in the db.config system property or DB_CONFIG environment variable
+    - environment variables, db.pool.maxSize is read from DB_POOL_MAX_SIZE
+    - system properties, like -Ddb.pool.maxSize=20
+    All the values are validated together, the errors are reported in one exception.
+*/
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DatabaseConfigLoader {
+
+    private static final String RESOURCE = "database.properties";
+    private static final String FILE_KEY = "db.config";
+    private static final String PREFIX = "db.";
+    private static final String DRIVER_PREFIX = "db.driver.";
+
+    //Connector/J properties with their own keys, key in the configuration to the name in the driver
+    private static final Map<String, String> DRIVER_BOOLEANS = orderedMap(
+            "db.rewriteBatchedStatements", "rewriteBatchedStatements",
+            "db.useServerPrepStmts", "useServerPrepStmts",
+            "db.cachePrepStmts", "cachePrepStmts",
+            "db.useCursorFetch", "useCursorFetch",
+            "db.cacheServerConfiguration", "cacheServerConfiguration",
+            "db.elideSetAutoCommits", "elideSetAutoCommits"
+    );
+
+    private static final Map<String, String> DRIVER_INTEGERS = orderedMap(
+            "db.connectTimeoutMillis", "connectTimeout",
+            "db.socketTimeoutMillis", "socketTimeout",
+            "db.defaultFetchSize", "defaultFetchSize",
+            "db.prepStmtCacheSize", "prepStmtCacheSize",
+            "db.prepStmtCacheSqlLimit", "prepStmtCacheSqlLimit"
+    );
+
+    private static final List<String> POOL_KEYS = List.of(
+            "db.url", "db.username", "db.password",
+            "db.pool.minSize", "db.pool.maxSize", "db.pool.idleTimeoutMillis", "db.pool.evictionIntervalMillis",
+            "db.pool.borrowTimeoutMillis", "db.pool.validationTimeoutSeconds", "db.pool.validationBypassMillis",
+            "db.pool.statementCacheSize"
+    );
+
+    public static PoolConfig load() {
+        return load(System.getenv(), System.getProperties());
+    }
+
+    static PoolConfig load(final Map<String, String> env, final Properties system) {
+
+        final Properties merged = new Properties();
+        final List<String> sources = new ArrayList<>();
+
+        try (InputStream in = DatabaseConfigLoader.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                merged.load(in);
+                sources.add("classpath:" + RESOURCE);
+            }
+        } catch (IOException e) {
+            throw new DbConnectionException(String.format("Error reading %s: %s", RESOURCE, e.getMessage()));
+        }
+
+        final String file = system.getProperty(FILE_KEY, env.get(envName(FILE_KEY)));
+        if (Objects.nonNull(file)) {
+            try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                merged.load(reader);
+                sources.add(file);
+            } catch (IOException e) {
+                throw new DbConnectionException(String.format("Error reading database configuration %s: %s", file, e.getMessage()));
+            }
+        }
+
+        final List<String> knownKeys = new ArrayList<>(POOL_KEYS);
+        knownKeys.addAll(DRIVER_BOOLEANS.keySet());
+        knownKeys.addAll(DRIVER_INTEGERS.keySet());
+
+        for (String key : knownKeys) {
+            final String value = env.get(envName(key));
+            if (Objects.nonNull(value)) {
+                merged.setProperty(key, value);
+                if (!sources.contains("environment")) sources.add("environment");
+            }
+        }
+
+        for (String key : system.stringPropertyNames()) {
+            if (key.startsWith(PREFIX) && !key.equals(FILE_KEY)) {
+                merged.setProperty(key, system.getProperty(key));
+                if (!sources.contains("system properties")) sources.add("system properties");
+            }
+        }
+
+        final PoolConfig config = build(merged);
+
+        log.info("Database configuration from {}: {} as {}, pool {} to {} connections, driver {}",
+                sources, config.getUrl(), config.getUsername(), config.getMinSize(), config.getMaxSize(),
+                config.getDriverProperties());
+
+        return config;
+    }
+
+    static PoolConfig build(final Properties properties) {
+
+        final Values values = new Values(properties);
+        final PoolConfig.PoolConfigBuilder builder = PoolConfig.builder();
+
+        values.text("db.url", true).ifPresent(url -> {
+            if (!url.startsWith("jdbc:mysql:")) values.errors.add(String.format("db.url %s is not a MySQL jdbc url", url));
+            if (url.contains("?")) values.errors.add("db.url should not have properties, use the db. keys");
+            builder.url(url);
+        });
+        values.text("db.username", true).ifPresent(builder::username);
+        values.text("db.password", false).ifPresent(builder::password);
+
+        values.integer("db.pool.minSize", 0).ifPresent(builder::minSize);
+        values.integer("db.pool.maxSize", 1).ifPresent(builder::maxSize);
+        values.longValue("db.pool.idleTimeoutMillis", 1).ifPresent(builder::idleTimeoutMillis);
+        values.longValue("db.pool.evictionIntervalMillis", 1).ifPresent(builder::evictionIntervalMillis);
+        values.longValue("db.pool.borrowTimeoutMillis", 1).ifPresent(builder::borrowTimeoutMillis);
+        values.integer("db.pool.validationTimeoutSeconds", 1).ifPresent(builder::validationTimeoutSeconds);
+        values.longValue("db.pool.validationBypassMillis", 0).ifPresent(builder::validationBypassMillis);
+        values.integer("db.pool.statementCacheSize", 0).ifPresent(builder::statementCacheSize);
+
+        DRIVER_BOOLEANS.forEach((key, name) ->
+                values.bool(key).ifPresent(v -> builder.driverProperty(name, String.valueOf(v))));
+        DRIVER_INTEGERS.forEach((key, name) ->
+                values.integer(key, 0).ifPresent(v -> builder.driverProperty(name, String.valueOf(v))));
+
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PREFIX) && key.length() > DRIVER_PREFIX.length()) {
+                builder.driverProperty(key.substring(DRIVER_PREFIX.length()), properties.getProperty(key).trim());
+            }
+        }
+
+        final PoolConfig config = builder.build();
+        final Map<String, String> driver = config.getDriverProperties();
+
+        if (config.getMinSize() > config.getMaxSize()) {
+            values.errors.add(String.format("db.pool.minSize %d is greater than db.pool.maxSize %d",
+                    config.getMinSize(), config.getMaxSize()));
+        }
+
+        //Connector/J only opens server cursors for server prepared statements
+        if ("true".equals(driver.get("useCursorFetch")) && !"true".equals(driver.get("useServerPrepStmts"))) {
+            values.errors.add("db.useCursorFetch needs db.useServerPrepStmts=true");
+        }
+        if (!"true".equals(driver.get("useCursorFetch")) && !"0".equals(driver.getOrDefault("defaultFetchSize", "0"))) {
+            log.warn("db.defaultFetchSize has no effect without db.useCursorFetch=true, all rows are read at once");
+        }
+
+        if (!values.errors.isEmpty()) {
+            throw new DbConnectionException("Invalid database configuration: " + String.join("; ", values.errors));
+        }
+
+        return config;
+    }
+
+    //db.pool.maxSize -> DB_POOL_MAX_SIZE
+    static String envName(final String key) {
+        return key.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                .replace('.', '_')
+                .toUpperCase(Locale.ROOT);
+    }
+
+    private static Map<String, String> orderedMap(final String... keysAndValues) {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) map.put(keysAndValues[i], keysAndValues[i + 1]);
+        return map;
+    }
+
+    //Reads typed values, keeping the errors to report all of them at once
+    private static final class Values {
+
+        private final Properties properties;
+        private final List<String> errors = new ArrayList<>();
+
+        Values(final Properties properties) {
+            this.properties = properties;
+        }
+
+        Optional<String> text(final String key, final boolean required) {
+
+            final String value = properties.getProperty(key);
+            if (Objects.isNull(value) || (required && value.isBlank())) {
+                if (required) errors.add(key + " is required");
+                return Optional.empty();
+            }
+            return Optional.of(value.trim());
+        }
+
+        Optional<Integer> integer(final String key, final int min) {
+            return this.longValue(key, min).flatMap(v -> {
+                if (v <= Integer.MAX_VALUE) return Optional.of(v.intValue());
+                errors.add(String.format("%s %d is too big", key, v));
+                return Optional.empty();
+            });
+        }
+
+        Optional<Long> longValue(final String key, final long min) {
+            return this.text(key, false).flatMap(value -> {
+                try {
+                    final long v = Long.parseLong(value);
+                    if (v >= min) return Optional.of(v);
+                    errors.add(String.format("%s should be at least %d but was %d", key, min, v));
+                } catch (NumberFormatException e) {
+                    errors.add(String.format("%s should be a number but was %s", key, value));
+                }
+                return Optional.empty();
+            });
+        }
+
+        Optional<Boolean> bool(final String key) {
+            return this.text(key, false).flatMap(value -> {
+                if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+                    return Optional.of(Boolean.parseBoolean(value));
+                }
+                errors.add(String.format("%s should be true or false but was %s", key, value));
+                return Optional.empty();
+            });
+        }
+    }
+}
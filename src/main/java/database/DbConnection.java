@@ -1,36 +1,91 @@
 package database;
 
+import cache.CacheStats;
+import database.pool.ConnectionPool;
+import database.pool.PoolConfig;
+import database.pool.PoolStats;
 import exceptions.DbConnectionException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
+import java.util.Objects;
 
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class DbConnection {
-    private static Connection connection;
 
-    public static Connection getConnection() {
+    //Lazy and thread safe, the pool is created in the first borrow
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = createPool();
+    }
 
-        try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection("jdbc:mysql://localhost/company", "root", "root");
-            }
+    private static volatile boolean poolCreated;
+    private static volatile PoolConfig config;
 
+    //Replaces the configuration loaded from the files and environment, only before the first connection
+    public static synchronized void configure(final PoolConfig poolConfig) {
+        if (poolCreated) throw new DbConnectionException("Pool already created, configure before the first connection!");
+        config = Objects.requireNonNull(poolConfig, "Pool config can´t be null!");
+    }
+
+    private static ConnectionPool createPool() {
+
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException e) {
             throw new DbConnectionException("MySQL Drive not found!");
+        }
+
+        final ConnectionPool pool = new ConnectionPool(getConfig());
+
+        poolCreated = true;
+        return pool;
+    }
+
+    //Configuration of the pool, without creating it. Loaded and validated in the first call if not configured
+    public static PoolConfig getConfig() {
+
+        PoolConfig current = config;
+        if (Objects.nonNull(current)) return current;
+
+        synchronized (DbConnection.class) {
+            if (Objects.isNull(config)) config = DatabaseConfigLoader.load();
+            return config;
+        }
+    }
+
+    //Inside a unit of work returns its connection, otherwise closing the returned connection gives it back to the pool
+    public static Connection getConnection() {
+        final Connection current = TransactionContext.currentConnection();
+        return Objects.nonNull(current) ? current : borrowConnection();
+    }
+
+    static Connection borrowConnection() {
+        try {
+            return PoolHolder.POOL.getConnection();
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
+    }
+
+    public static DataSource getDataSource() {
+        return PoolHolder.POOL;
+    }
+
+    public static PoolStats getPoolStats() {
+        return PoolHolder.POOL.getStats();
+    }
+
+    public static CacheStats getStatementCacheStats() {
+        return PoolHolder.POOL.getStatementCacheStats();
+    }
 
-        return connection;
+    //Not open the pool only to close it
+    public static void shutdown() {
+        if (poolCreated) PoolHolder.POOL.close();
     }
 
 }
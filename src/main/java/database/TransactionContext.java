@@ -0,0 +1,220 @@
+package database;
+
+import exceptions.DbConnectionException;
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/*
+    Unit of work bound to the thread that began it. Until it is closed, every DbConnection.getConnection()
+    of the thread receives the same pooled connection in one transaction, so the repositories called in
+    the unit commit or roll back together and two threads never share a connection.
+
+    TransactionContext.inTransaction(() -> ...repositories...);
+
+    Closing without commit rolls back. The repositories´ own commits, setAutoCommit and close calls are ignored
+    inside the unit. A context begun inside another joins it, and the outer one only commits if all the inner
+    ones committed. The actions of afterCommit run once the outermost unit commits and are dropped on rollback.
+*/
+@Log4j2
+public final class TransactionContext implements AutoCloseable {
+
+    private static final ThreadLocal<Unit> CURRENT = new ThreadLocal<>();
+
+    private final Unit unit;
+    private final boolean outermost;
+    private boolean committed;
+    private boolean closed;
+
+    private TransactionContext(final Unit unit, final boolean outermost) {
+        this.unit = unit;
+        this.outermost = outermost;
+    }
+
+    public static TransactionContext begin() {
+
+        final Unit current = CURRENT.get();
+        if (current != null) return new TransactionContext(current, false);
+
+        final Connection c = DbConnection.borrowConnection();
+        try {
+            c.setAutoCommit(false);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw new DbConnectionException(e.getMessage());
+        }
+
+        final Unit unit = new Unit(c);
+        CURRENT.set(unit);
+        return new TransactionContext(unit, true);
+    }
+
+    //Runs the work in a unit of work committed at the end, or rolled back if the work throws
+    public static <T> T inTransaction(final Supplier<T> work) {
+
+        Objects.requireNonNull(work, "Work can´t be null!");
+
+        try (TransactionContext tx = begin()) {
+            final T result = work.get();
+            tx.commit();
+            return result;
+        }
+    }
+
+    public static void inTransaction(final Runnable work) {
+
+        Objects.requireNonNull(work, "Work can´t be null!");
+
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    //Runs the action after the commit of the unit of the thread, or now when the thread has no unit
+    public static void afterCommit(final Runnable action) {
+
+        Objects.requireNonNull(action, "Action can´t be null!");
+
+        final Unit unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+            return;
+        }
+        unit.afterCommit.add(action);
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    //Connection of the unit of the thread, closing it does not give it back to the pool
+    static Connection currentConnection() {
+        final Unit unit = CURRENT.get();
+        return unit == null ? null : unit.shared;
+    }
+
+    public void commit() {
+
+        this.checkOpen();
+        committed = true;
+
+        if (!outermost) return;
+
+        try {
+            if (unit.rollbackOnly) {
+                unit.connection.rollback();
+                throw new DbConnectionException("Transaction rolled back, an inner unit of work failed!");
+            }
+            unit.connection.commit();
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+
+        //Already committed, a failing action can´t undo it nor stop the others
+        for (Runnable action : unit.afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.warn("Error after the commit of the unit of work: {}", e.getMessage());
+            }
+        }
+        unit.afterCommit.clear();
+    }
+
+    public void setRollbackOnly() {
+        this.checkOpen();
+        unit.rollbackOnly = true;
+    }
+
+    @Override
+    public void close() {
+
+        if (closed) return;
+        closed = true;
+
+        if (!committed) unit.rollbackOnly = true;
+        if (!outermost) return;
+
+        CURRENT.remove();
+        try {
+            if (!committed) unit.connection.rollback();
+            unit.connection.setAutoCommit(true);
+
+        } catch (SQLException e) {
+            //The pool rolls back again and discards the connection if it is broken
+            log.warn("Error ending the unit of work: {}", e.getMessage());
+        } finally {
+            closeQuietly(unit.connection);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new DbConnectionException("Unit of work already closed!");
+    }
+
+    private static void closeQuietly(final Connection c) {
+        try {
+            c.close();
+        } catch (SQLException e) {
+            log.warn("Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class Unit implements InvocationHandler {
+
+        private final Connection connection;
+        private final Connection shared;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private boolean rollbackOnly;
+
+        Unit(final Connection connection) {
+            this.connection = Objects.requireNonNull(connection);
+            this.shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                //The unit decides when the transaction ends and when the connection goes back to the pool
+                case "close", "setAutoCommit" -> {
+                    return null;
+                }
+                case "commit" -> {
+                    if (CURRENT.get() != this) throw new SQLException("Unit of work already closed!");
+                    return null;
+                }
+                case "getAutoCommit" -> {
+                    return false;
+                }
+                case "rollback" -> {
+                    if (args == null) rollbackOnly = true;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
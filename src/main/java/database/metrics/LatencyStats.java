@@ -0,0 +1,33 @@
+package database.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.concurrent.TimeUnit;
+
+//Nanoseconds recorded by a histogram in one moment
+@Getter
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class LatencyStats {
+
+    static final LatencyStats EMPTY = new LatencyStats(0, 0, 0, 0, 0, 0);
+
+    private long count;
+    private long meanNanos;
+    private long p50Nanos;
+    private long p95Nanos;
+    private long p99Nanos;
+    private long maxNanos;
+
+    @Override
+    public String toString() {
+        return String.format("p50=%.1fus p95=%.1fus p99=%.1fus max=%.1fus",
+                micros(p50Nanos), micros(p95Nanos), micros(p99Nanos), micros(maxNanos));
+    }
+
+    private static double micros(final long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,273 @@
+package database.metrics;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Registry of the latency of the statements by a stable name like employee.findByName.
+    The repositories prepare through it, the statements returned time the executes and their result sets
+    time the fetch and count the rows, without changing the code that uses them.
+*/
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class QueryMetrics {
+
+    private static final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+
+    //Proxy classes resolved once, Proxy.newProxyInstance looks them up in every call
+    private static final Constructor<?> PREPARED_STATEMENT_PROXY = proxyConstructor(PreparedStatement.class);
+    private static final Constructor<?> STATEMENT_PROXY = proxyConstructor(Statement.class);
+    private static final Constructor<?> RESULT_SET_PROXY = proxyConstructor(ResultSet.class);
+
+    private static ScheduledExecutorService dumper;
+
+    public static StatementMetrics of(final String name) {
+        return statements.computeIfAbsent(name, StatementMetrics::new);
+    }
+
+    public static Optional<StatementStats> find(final String name) {
+        return Optional.ofNullable(statements.get(name)).map(StatementMetrics::snapshot);
+    }
+
+    //Slowest statements first, by the time spent executing them
+    public static List<StatementStats> snapshot() {
+        return statements.values().stream()
+                .map(StatementMetrics::snapshot)
+                .sorted(Comparator.comparingLong((StatementStats s) -> s.getExecute().getMeanNanos() * s.getExecutions()).reversed())
+                .toList();
+    }
+
+    public static void reset() {
+        statements.values().forEach(StatementMetrics::reset);
+    }
+
+    public static PreparedStatement prepare(final Connection c, final String name, final String sql)
+            throws SQLException {
+
+        final StatementMetrics metrics = of(name);
+        final long start = System.nanoTime();
+        try {
+            return instrument(c.prepareStatement(sql), PREPARED_STATEMENT_PROXY, metrics, start);
+        } catch (SQLException e) {
+            metrics.recordError();
+            throw e;
+        }
+    }
+
+    public static PreparedStatement prepare(final Connection c, final String name, final String sql,
+                                            final int autoGeneratedKeys)
+            throws SQLException {
+
+        final StatementMetrics metrics = of(name);
+        final long start = System.nanoTime();
+        try {
+            return instrument(c.prepareStatement(sql, autoGeneratedKeys), PREPARED_STATEMENT_PROXY, metrics, start);
+        } catch (SQLException e) {
+            metrics.recordError();
+            throw e;
+        }
+    }
+
+    public static PreparedStatement prepare(final Connection c, final String name, final String sql,
+                                            final int resultSetType, final int resultSetConcurrency)
+            throws SQLException {
+
+        final StatementMetrics metrics = of(name);
+        final long start = System.nanoTime();
+        try {
+            return instrument(c.prepareStatement(sql, resultSetType, resultSetConcurrency),
+                    PREPARED_STATEMENT_PROXY, metrics, start);
+        } catch (SQLException e) {
+            metrics.recordError();
+            throw e;
+        }
+    }
+
+    public static Statement create(final Connection c, final String name) throws SQLException {
+
+        final StatementMetrics metrics = of(name);
+        final long start = System.nanoTime();
+        try {
+            return instrument(c.createStatement(), STATEMENT_PROXY, metrics, start);
+        } catch (SQLException e) {
+            metrics.recordError();
+            throw e;
+        }
+    }
+
+    //Logs all the statements every interval, in a daemon thread
+    public static synchronized void startLogDump(final long intervalMillis) {
+
+        if (intervalMillis < 1) throw new IllegalArgumentException("Dump interval should be at least one millisecond!");
+        if (dumper != null) return;
+
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "query-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(QueryMetrics::logDump, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopLogDump() {
+        if (dumper == null) return;
+        dumper.shutdownNow();
+        dumper = null;
+    }
+
+    public static void logDump() {
+        snapshot().stream()
+                .filter(s -> s.getExecutions() > 0 || s.getErrors() > 0)
+                .forEach(s -> log.info("Query {}", s));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Statement> T instrument(final Statement statement, final Constructor<?> proxy,
+                                                      final StatementMetrics metrics, final long prepareStart) {
+
+        metrics.recordPrepare(System.nanoTime() - prepareStart);
+        return (T) newProxy(proxy, new TimedStatement(statement, metrics));
+    }
+
+    private static Constructor<?> proxyConstructor(final Class<?> type) {
+        try {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> null)
+                    .getClass()
+                    .getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object newProxy(final Constructor<?> proxy, final InvocationHandler handler) {
+        try {
+            return proxy.newInstance(handler);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TimedStatement implements InvocationHandler {
+
+        private final Statement statement;
+        private final StatementMetrics metrics;
+
+        TimedStatement(final Statement statement, final StatementMetrics metrics) {
+            this.statement = statement;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+            if (!method.getName().startsWith("execute")) return invokeTarget(statement, method, args);
+
+            final long start = System.nanoTime();
+            final Object result;
+            try {
+                result = invokeTarget(statement, method, args);
+            } catch (Throwable e) {
+                metrics.recordError();
+                throw e;
+            } finally {
+                metrics.recordExecute(System.nanoTime() - start);
+            }
+
+            if (result instanceof ResultSet rs) {
+                return newProxy(RESULT_SET_PROXY, new TimedResultSet(rs, metrics));
+            }
+            if (result instanceof Integer changed) metrics.recordRows(changed);
+            if (result instanceof Long changed) metrics.recordRows(changed);
+            if (result instanceof int[] batch) {
+                //SUCCESS_NO_INFO is counted as one row
+                for (int changed : batch) metrics.recordRows(changed == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, changed));
+            }
+
+            return result;
+        }
+    }
+
+    private static final class TimedResultSet implements InvocationHandler {
+
+        private final ResultSet rs;
+        private final StatementMetrics metrics;
+
+        private long fetchNanos;
+        private long rowsRead;
+        private boolean recorded;
+
+        TimedResultSet(final ResultSet rs, final StatementMetrics metrics) {
+            this.rs = rs;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "next" -> {
+                    final long start = System.nanoTime();
+                    final boolean hasRow;
+                    try {
+                        hasRow = rs.next();
+                    } catch (SQLException e) {
+                        metrics.recordError();
+                        throw e;
+                    } finally {
+                        fetchNanos += System.nanoTime() - start;
+                    }
+
+                    if (hasRow) rowsRead++;
+                    else this.record();
+                    return hasRow;
+                }
+                case "close" -> {
+                    try {
+                        rs.close();
+                    } finally {
+                        this.record();
+                    }
+                    return null;
+                }
+                default -> {
+                    return invokeTarget(rs, method, args);
+                }
+            }
+        }
+
+        //Once per result set, at the end of the rows or when it is closed before
+        private void record() {
+            if (recorded) return;
+            recorded = true;
+            metrics.recordFetch(fetchNanos, rowsRead);
+        }
+    }
+
+    private static Object invokeTarget(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package database.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Counters of one named statement, shared by all the threads running it
+public final class StatementMetrics {
+
+    @Getter
+    private final String name;
+
+    private final LatencyHistogram prepare = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram fetch = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    StatementMetrics(final String name) {
+        this.name = name;
+    }
+
+    public void recordPrepare(final long nanos) {
+        prepare.record(nanos);
+    }
+
+    public void recordExecute(final long nanos) {
+        execute.record(nanos);
+    }
+
+    //Time spent in ResultSet.next() until the result set is closed
+    public void recordFetch(final long nanos, final long rowsRead) {
+        fetch.record(nanos);
+        rows.add(rowsRead);
+    }
+
+    public void recordRows(final long rowsChanged) {
+        rows.add(rowsChanged);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public StatementStats snapshot() {
+        return new StatementStats(name, prepare.snapshot(), execute.snapshot(), fetch.snapshot(), rows.sum(), errors.sum());
+    }
+
+    void reset() {
+        prepare.reset();
+        execute.reset();
+        fetch.reset();
+        rows.reset();
+        errors.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package database.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class StatementStats {
+
+    private String name;
+    private LatencyStats prepare;
+    private LatencyStats execute;
+    private LatencyStats fetch;
+    private long rows;
+    private long errors;
+
+    public long getExecutions() {
+        return execute.getCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[executions=%d, rows=%d, errors=%d, prepare(%s), execute(%s), fetch(%s)]",
+                name, getExecutions(), rows, errors, prepare, execute, fetch);
+    }
+}
@@ -0,0 +1,269 @@
+package database.pool;
+
+import cache.CacheStats;
+import exceptions.DbConnectionException;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+@Log4j2
+public final class ConnectionPool implements DataSource, AutoCloseable {
+
+    @Getter
+    private final PoolConfig config;
+
+    //Most recently returned first, keeping the hot connections in use and letting the cold ones expire
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    //One permit per connection that may be lent at the same time
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final StatementCache.Counters statementCacheCounters = new StatementCache.Counters();
+
+    public ConnectionPool(final PoolConfig config) {
+
+        Objects.requireNonNull(config, "Pool config can´t be null!");
+        Objects.requireNonNull(config.getUrl(), "Database url can´t be null!");
+
+        if (config.getMaxSize() < 1) throw new DbConnectionException("Pool max size should be at least one!");
+        if (config.getStatementCacheSize() < 0) throw new DbConnectionException("Statement cache size can´t be negative!");
+        if (config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+            throw new DbConnectionException(String.format("Pool min size %d should be between 0 and the max size %d!",
+                    config.getMinSize(), config.getMaxSize()));
+        }
+
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictAndFill,
+                config.getEvictionIntervalMillis(),
+                config.getEvictionIntervalMillis(),
+                TimeUnit.MILLISECONDS);
+
+        //Not fail in the startup if the database is down, the borrowers receive the error
+        this.fillToMinSize();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (closed) throw new SQLException("Connection pool is closed!");
+
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLTransientConnectionException(String.format(
+                        "Timeout after %dms waiting for a connection! %s", config.getBorrowTimeoutMillis(), this.getStats()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection!", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (this.validateOnBorrow(pc)) break;
+                validationFailures.increment();
+                this.destroy(pc);
+            }
+
+            if (pc == null) pc = this.create();
+
+            borrowed.increment();
+            return pc.lease();
+
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean validateOnBorrow(final PooledConnection pc) {
+        final long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pc.getLastUsedNanos());
+        return idleMillis < config.getValidationBypassMillis() || pc.isValid(config.getValidationTimeoutSeconds());
+    }
+
+    //Called by the connection handle on close
+    void release(final PooledConnection pc) {
+
+        try {
+            if (closed) {
+                this.destroy(pc);
+                return;
+            }
+
+            try {
+                pc.reset();
+                idle.offerFirst(pc);
+            } catch (SQLException e) {
+                log.warn("Discarding broken connection: {}", e.getMessage());
+                this.destroy(pc);
+            }
+
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        final Properties properties = new Properties();
+        properties.putAll(config.getDriverProperties());
+        if (Objects.nonNull(config.getUsername())) properties.setProperty("user", config.getUsername());
+        if (Objects.nonNull(config.getPassword())) properties.setProperty("password", config.getPassword());
+
+        final Connection physical = DriverManager.getConnection(config.getUrl(), properties);
+        total.incrementAndGet();
+        created.increment();
+        return new PooledConnection(physical, this, statementCacheCounters);
+    }
+
+    private void destroy(final PooledConnection pc) {
+        total.decrementAndGet();
+        destroyed.increment();
+        pc.closePhysical();
+    }
+
+    private void evictAndFill() {
+
+        try {
+            for (PooledConnection pc : idle) {
+
+                if (total.get() <= config.getMinSize()) break;
+
+                final long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pc.getLastUsedNanos());
+
+                //Remove only if no borrower took it in the meantime
+                if (idleMillis >= config.getIdleTimeoutMillis() && idle.remove(pc)) this.destroy(pc);
+            }
+
+            this.fillToMinSize();
+
+        } catch (RuntimeException e) {
+            log.error("Pool maintenance failure: {}", e.getMessage());
+        }
+    }
+
+    private void fillToMinSize() {
+        while (!closed && total.get() < config.getMinSize()) {
+            try {
+                idle.offerLast(this.create());
+            } catch (SQLException e) {
+                log.warn("Could not open the minimum pool connections: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public PoolStats getStats() {
+        final int idleCount = idle.size();
+        final int totalCount = total.get();
+        return new PoolStats(
+                totalCount,
+                idleCount,
+                config.getMaxSize() - permits.availablePermits(),
+                permits.getQueueLength(),
+                borrowed.sum(),
+                created.sum(),
+                destroyed.sum(),
+                borrowTimeouts.sum(),
+                validationFailures.sum()
+        );
+    }
+
+    //Prepared statements reused by all the connections, size is the statements cached now
+    public CacheStats getStatementCacheStats() {
+        return new CacheStats(
+                statementCacheCounters.hits.sum(),
+                statementCacheCounters.misses.sum(),
+                statementCacheCounters.evictions.sum(),
+                statementCacheCounters.size.get()
+        );
+    }
+
+    @Override
+    public void close() {
+
+        if (closed) return;
+        closed = true;
+
+        evictor.shutdownNow();
+
+        //Lent connections are destroyed when returned
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) this.destroy(pc);
+
+        log.info("Connection pool closed. {} Statements {}", this.getStats(), this.getStatementCacheStats());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials!");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException(String.format("Pool is not a wrapper for %s!", iface.getName()));
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
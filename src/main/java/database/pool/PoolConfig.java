@@ -0,0 +1,47 @@
+package database.pool;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public final class PoolConfig {
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    //Connector/J properties sent when each connection is opened, instead of in the url
+    @Singular
+    private final Map<String, String> driverProperties;
+
+    //Connections kept open even when the app is idle
+    @Builder.Default
+    private final int minSize = 2;
+    @Builder.Default
+    private final int maxSize = 10;
+
+    //Idle connections above the min size are closed after this time
+    @Builder.Default
+    private final long idleTimeoutMillis = 600_000;
+    @Builder.Default
+    private final long evictionIntervalMillis = 30_000;
+
+    //How long a caller waits for a free connection before failing
+    @Builder.Default
+    private final long borrowTimeoutMillis = 30_000;
+
+    @Builder.Default
+    private final int validationTimeoutSeconds = 5;
+
+    //Connections returned less than this time ago are not validated again on borrow
+    @Builder.Default
+    private final long validationBypassMillis = 500;
+
+    //Prepared statements kept open per connection, 0 disables the cache
+    @Builder.Default
+    private final int statementCacheSize = 64;
+}
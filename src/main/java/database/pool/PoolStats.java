@@ -0,0 +1,27 @@
+package database.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class PoolStats {
+
+    private int total;
+    private int idle;
+    private int active;
+    private int waiting;
+    private long borrowed;
+    private long created;
+    private long destroyed;
+    private long borrowTimeouts;
+    private long validationFailures;
+
+    @Override
+    public String toString() {
+        return String.format("Pool[total=%d, idle=%d, active=%d, waiting=%d, borrowed=%d, created=%d, destroyed=%d, timeouts=%d, invalid=%d]",
+                total, idle, active, waiting, borrowed, created, destroyed, borrowTimeouts, validationFailures);
+    }
+}
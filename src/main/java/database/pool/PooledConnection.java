@@ -0,0 +1,192 @@
+package database.pool;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Physical connection owned by the pool, callers only receive short-lived handles of it
+@Log4j2
+final class PooledConnection {
+
+    //Session settings a borrower can change that the next borrower must not inherit
+    private static final Set<String> SETTERS = Set.of("setReadOnly", "setTransactionIsolation", "setCatalog", "setSchema");
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Connection physical;
+    private final ConnectionPool pool;
+    private final List<Statement> openStatements = new ArrayList<>();
+
+    //Value of each setting before its first change, read only when a borrower changes it
+    private final Map<String, Object> initialSettings = new HashMap<>();
+    private final StatementCache statementCache;
+
+    @Getter(AccessLevel.PACKAGE)
+    private volatile long lastUsedNanos;
+
+    PooledConnection(final Connection physical, final ConnectionPool pool, final StatementCache.Counters counters) {
+        this.physical = physical;
+        this.pool = pool;
+        this.statementCache = new StatementCache(physical, pool.getConfig().getStatementCacheSize(), counters);
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+    //Each borrow receives a new handle, so a closed handle can´t touch the connection of the next borrower
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle()
+        );
+    }
+
+    boolean isValid(final int timeoutSeconds) {
+        try {
+            return physical.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    //Leaves the connection as a new borrower expects it, throws if the connection is unusable
+    void reset() throws SQLException {
+
+        //Statements not closed by the caller would leak on the server side, the cached ones go back to the cache
+        for (Statement st : openStatements) {
+            if (isClosedQuietly(st)) continue;
+            try {
+                st.close();
+            } catch (SQLException e) {
+                log.warn("Error closing leaked statement: {}", e.getMessage());
+            }
+        }
+        openStatements.clear();
+
+        //Unfinished transactions are never handed to the next borrower
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+
+        //Outside of a transaction, some drivers reject the changes of read only and isolation inside one
+        this.restoreSettings();
+
+        physical.clearWarnings();
+        lastUsedNanos = System.nanoTime();
+    }
+
+    private void rememberSetting(final String setter) throws SQLException {
+
+        if (initialSettings.containsKey(setter)) return;
+
+        initialSettings.put(setter, switch (setter) {
+            case "setReadOnly" -> physical.isReadOnly();
+            case "setTransactionIsolation" -> physical.getTransactionIsolation();
+            case "setCatalog" -> physical.getCatalog();
+            default -> physical.getSchema();
+        });
+    }
+
+    private void restoreSettings() throws SQLException {
+
+        for (Map.Entry<String, Object> setting : initialSettings.entrySet()) {
+
+            //Not set when the connection was created, nothing to go back to
+            if (setting.getValue() == null) continue;
+
+            switch (setting.getKey()) {
+                case "setReadOnly" -> {
+                    if (physical.isReadOnly() != (boolean) setting.getValue()) physical.setReadOnly((boolean) setting.getValue());
+                }
+                case "setTransactionIsolation" -> {
+                    final int isolation = (int) setting.getValue();
+                    if (physical.getTransactionIsolation() != isolation) physical.setTransactionIsolation(isolation);
+                }
+                case "setCatalog" -> {
+                    if (!setting.getValue().equals(physical.getCatalog())) physical.setCatalog((String) setting.getValue());
+                }
+                default -> {
+                    if (!setting.getValue().equals(physical.getSchema())) physical.setSchema((String) setting.getValue());
+                }
+            }
+        }
+        initialSettings.clear();
+    }
+
+    void closePhysical() {
+        statementCache.clear();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            log.warn("Error closing physical connection: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isClosedQuietly(final Statement st) {
+        try {
+            return st.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+
+        private boolean closed;
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled" + physical;
+                }
+            }
+
+            if (closed) throw new SQLException("Connection has already been returned to the pool!");
+            if (SETTERS.contains(method.getName())) rememberSetting(method.getName());
+
+            try {
+                final Object cached = statementCache.prepare((Connection) proxy, method, args);
+                final Object result = cached != null ? cached : method.invoke(physical, args);
+                if (result instanceof Statement st) {
+                    //The ones closed by the caller are dropped, so a long borrow only keeps the open ones
+                    openStatements.removeIf(PooledConnection::isClosedQuietly);
+                    openStatements.add(st);
+                    StatementScope.register(st);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package database.pool;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Prepared statements of one physical connection kept open after the caller closes them, keyed by the sql and
+    the prepare options, so the next prepare of the same sql is not parsed again by the driver and the server.
+    Only the statements not in use are in the cache, the least recently returned is closed when it is full.
+    A connection is used by one borrower at a time, so the cache is not synchronized.
+*/
+@Log4j2
+final class StatementCache {
+
+    //Prepare options not informed by the caller
+    private static final int NONE = Integer.MIN_VALUE;
+
+    //Settings the caller can change that are not reset on return, the statement is closed instead of cached
+    private static final Set<String> NOT_REUSABLE = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows",
+            "setMaxFieldSize", "setEscapeProcessing", "setPoolable", "closeOnCompletion", "setCursorName"
+    );
+
+    private static final Constructor<?> PREPARED_STATEMENT_PROXY = proxyConstructor();
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<Key, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(final Connection physical, final int maxSize, final Counters counters) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.counters = counters;
+    }
+
+    //Null when the method is not a cacheable prepare, the caller prepares it in the physical connection
+    PreparedStatement prepare(final Connection handle, final Method method, final Object[] args) throws SQLException {
+
+        if (maxSize < 1) return null;
+
+        final Key key = Key.of(method, args);
+        if (key == null) return null;
+
+        PreparedStatement ps = idle.remove(key);
+        if (ps != null) {
+            counters.hits.increment();
+            counters.size.decrementAndGet();
+        } else {
+            counters.misses.increment();
+            ps = key.prepare(physical);
+        }
+
+        try {
+            return (PreparedStatement) PREPARED_STATEMENT_PROXY.newInstance(new Logical(key, ps, handle));
+        } catch (ReflectiveOperationException e) {
+            ps.close();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //The physical statements are closed with the physical connection
+    void clear() {
+        counters.size.addAndGet(-idle.size());
+        idle.clear();
+    }
+
+    private void giveBack(final Key key, final PreparedStatement ps, final boolean reusable, final boolean timeoutSet) {
+
+        if (!reusable || idle.containsKey(key)) {
+            closeQuietly(ps);
+            return;
+        }
+
+        try {
+            final ResultSet rs = ps.getResultSet();
+            if (rs != null) rs.close();
+            ps.clearParameters();
+            ps.clearBatch();
+            ps.clearWarnings();
+            if (timeoutSet) ps.setQueryTimeout(0);
+        } catch (SQLException e) {
+            log.debug("Statement not cached, reset failed: {}", e.getMessage());
+            closeQuietly(ps);
+            return;
+        }
+
+        idle.put(key, ps);
+        counters.size.incrementAndGet();
+
+        if (idle.size() > maxSize) {
+            final Iterator<PreparedStatement> eldest = idle.values().iterator();
+            closeQuietly(eldest.next());
+            eldest.remove();
+            counters.size.decrementAndGet();
+            counters.evictions.increment();
+        }
+    }
+
+    private static void closeQuietly(final PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            log.warn("Error closing cached statement: {}", e.getMessage());
+        }
+    }
+
+    private static Constructor<?> proxyConstructor() {
+        try {
+            return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[]{PreparedStatement.class}, (p, m, args) -> null)
+                    .getClass()
+                    .getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //Shared by all the connections of the pool
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    private record Key(String sql, int autoGeneratedKeys, int resultSetType, int resultSetConcurrency) {
+
+        //prepareStatement(sql), prepareStatement(sql, autoGeneratedKeys) and prepareStatement(sql, type, concurrency)
+        static Key of(final Method method, final Object[] args) {
+
+            if (!method.getName().equals("prepareStatement") || !(args[0] instanceof String sql)) return null;
+
+            final Class<?>[] types = method.getParameterTypes();
+            if (types.length == 1) return new Key(sql, NONE, NONE, NONE);
+            if (types.length == 2 && types[1] == int.class) return new Key(sql, (int) args[1], NONE, NONE);
+            if (types.length == 3) return new Key(sql, NONE, (int) args[1], (int) args[2]);
+
+            return null;
+        }
+
+        PreparedStatement prepare(final Connection c) throws SQLException {
+            if (autoGeneratedKeys != NONE) return c.prepareStatement(sql, autoGeneratedKeys);
+            if (resultSetType != NONE) return c.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            return c.prepareStatement(sql);
+        }
+    }
+
+    //Statement lent to the caller, closing it returns the physical statement to the cache
+    private final class Logical implements InvocationHandler {
+
+        private final Key key;
+        private final PreparedStatement ps;
+        private final Connection handle;
+
+        private boolean closed;
+        private boolean reusable = true;
+        private boolean timeoutSet;
+
+        Logical(final Key key, final PreparedStatement ps, final Connection handle) {
+            this.key = key;
+            this.ps = ps;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+            final String name = method.getName();
+            switch (name) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        giveBack(key, ps, reusable, timeoutSet);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || ps.isClosed();
+                }
+                case "cancel" -> {
+                    //Called by other threads, never throws because the statement was returned
+                    if (!closed) ps.cancel();
+                    return null;
+                }
+                case "getConnection" -> {
+                    return handle;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Cached" + ps;
+                }
+            }
+
+            if (closed) throw new SQLException("Statement has already been closed!");
+
+            if (NOT_REUSABLE.contains(name)) reusable = false;
+            if (name.equals("setQueryTimeout")) timeoutSet = true;
+
+            try {
+                return method.invoke(ps, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
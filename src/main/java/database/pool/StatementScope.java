@@ -0,0 +1,87 @@
+package database.pool;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+    Query timeout and cancellation of a call. While the call runs in a thread, every statement created by the
+    connections of the pool receives Statement.setQueryTimeout and is remembered, so cancel() from any thread
+    cancels the statement running in the database.
+*/
+@Log4j2
+public final class StatementScope {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private final int queryTimeoutSeconds;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private StatementScope(final int queryTimeoutSeconds) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+
+    //JDBC timeouts are in seconds, rounded up
+    public static StatementScope withTimeout(final Duration timeout) {
+
+        Objects.requireNonNull(timeout, "Timeout can´t be null!");
+        if (timeout.isNegative() || timeout.isZero()) throw new IllegalArgumentException("Timeout should be positive!");
+
+        final long seconds = (timeout.toMillis() + 999) / 1000;
+        return new StatementScope((int) Math.min(Integer.MAX_VALUE, Math.max(1, seconds)));
+    }
+
+    public <T> T run(final Supplier<T> call) {
+
+        if (cancelled) throw new CancellationException("Call cancelled before it started!");
+
+        final StatementScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+            statements.clear();
+        }
+    }
+
+    public void cancel() {
+
+        cancelled = true;
+
+        for (Statement st : statements) {
+            try {
+                st.cancel();
+            } catch (SQLException e) {
+                //Already closed or finished
+                log.debug("Statement not cancelled: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    //Called by the connections of the pool for each statement created
+    static void register(final Statement st) throws SQLException {
+
+        final StatementScope scope = CURRENT.get();
+        if (scope == null) return;
+
+        if (scope.cancelled) throw new SQLTimeoutException("Call cancelled or timed out!");
+
+        st.setQueryTimeout(scope.queryTimeoutSeconds);
+        scope.statements.add(st);
+    }
+}
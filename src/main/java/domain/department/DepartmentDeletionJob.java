@@ -0,0 +1,31 @@
+package domain.department;
+
+import enums.departament.DeletionStatus;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+//Deletion of a department in chunks of employees, the progress is saved with each chunk
+@Builder
+@Getter
+public final class DepartmentDeletionJob {
+    private final Long id;
+    private final long departmentId;
+    private final String departmentName;
+    @Setter
+    private DeletionStatus status;
+    //Employees are deleted in the order of their ids, the next chunk starts after this id
+    @Setter
+    private long lastEmployeeId;
+    @Setter
+    private long employeesDeleted;
+    private final LocalDateTime startedAt;
+
+    @Override
+    public String toString() {
+        return String.format("Deletion of department %s (%d): %s, %d employees deleted, last employee id %d",
+                departmentName, departmentId, status, employeesDeleted, lastEmployeeId);
+    }
+}
@@ -0,0 +1,24 @@
+package domain.department;
+
+import enums.employee.SalaryAdjustmentType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+//Change of the salary of every employee of the department in the level
+@Builder
+@Getter
+public final class SalaryAdjustment {
+    private final Department department;
+    private final Level level;
+    private final SalaryAdjustmentType type;
+    //Percent like 7 or -2.5, or the amount added to each salary like 150.00
+    private final BigDecimal amount;
+
+    @Override
+    public String toString() {
+        return String.format("%s %s%s %s", department.getName(), amount.signum() >= 0 ? "+" : "", amount,
+                type == SalaryAdjustmentType.PERCENT ? "% for " + level : "for " + level);
+    }
+}
@@ -0,0 +1,25 @@
+package dto.departament;
+
+import domain.department.Level;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Map;
+
+@Builder
+@Getter
+@FieldDefaults(makeFinal = true)
+public final class DepartmentPayrollDTO {
+    private long departmentId;
+    private String departmentName;
+    private PayrollTotalsDTO totals;
+    private Map<Level, PayrollTotalsDTO> levels;
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(String.format("%s: %s\n", departmentName, totals));
+        levels.forEach((level, totals) -> sb.append(String.format("    %s: %s\n", level, totals)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package dto.departament;
+
+import domain.department.Level;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+//Totals of the payroll summary different of the totals of the jobs, found by the reconciliation
+@Builder
+@Getter
+@FieldDefaults(makeFinal = true)
+public final class PayrollDriftDTO {
+    private long departmentId;
+    private Level level;
+    private long expectedHeadcount;
+    private long summaryHeadcount;
+    private BigDecimal expectedTotal;
+    private BigDecimal summaryTotal;
+
+    @Override
+    public String toString() {
+        return String.format("Department %d %s: summary with %d employees and total %s, jobs with %d employees and total %s",
+                departmentId, level, summaryHeadcount, summaryTotal, expectedHeadcount, expectedTotal);
+    }
+}
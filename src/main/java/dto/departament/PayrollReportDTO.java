@@ -0,0 +1,30 @@
+package dto.departament;
+
+import domain.department.Level;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+    Payroll by department, by level and of the whole company, rolled up from the same slices.
+    Out of the departments the headcount counts jobs, an employee of two departments is counted twice.
+*/
+@Builder
+@Getter
+@FieldDefaults(makeFinal = true)
+public final class PayrollReportDTO {
+    private List<DepartmentPayrollDTO> departments;
+    private Map<Level, PayrollTotalsDTO> levels;
+    private PayrollTotalsDTO overall;
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        departments.forEach(sb::append);
+        levels.forEach((level, totals) -> sb.append(String.format("All %s: %s\n", level, totals)));
+        return sb.append(String.format("Overall: %s\n", overall)).toString();
+    }
+}
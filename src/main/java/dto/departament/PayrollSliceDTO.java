@@ -0,0 +1,18 @@
+package dto.departament;
+
+import domain.department.Level;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+//Aggregates of the salaries of one level in one department, a row of the GROUP BY
+@Builder
+@Getter
+@FieldDefaults(makeFinal = true)
+public final class PayrollSliceDTO {
+    private long departmentId;
+    private String departmentName;
+    //Null for the jobs without a level
+    private Level level;
+    private PayrollTotalsDTO totals;
+}
@@ -0,0 +1,50 @@
+package dto.departament;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+//Aggregates of a group of salaries, merged without the salaries themselves
+@Builder
+@Getter
+@FieldDefaults(makeFinal = true)
+public final class PayrollTotalsDTO {
+
+    public static final PayrollTotalsDTO EMPTY = PayrollTotalsDTO.builder()
+            .headcount(0)
+            .total(BigDecimal.ZERO)
+            .build();
+
+    //Jobs, one per employee in a department, so out of a department an employee of two departments counts twice
+    private long headcount;
+    private BigDecimal total;
+    //Null without salaries, or when read from the payroll summary
+    private BigDecimal min;
+    private BigDecimal max;
+
+    public BigDecimal getAverage() {
+        return headcount == 0 ? BigDecimal.ZERO : total.divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_EVEN);
+    }
+
+    public PayrollTotalsDTO merge(final PayrollTotalsDTO other) {
+
+        if (other.headcount == 0) return this;
+        if (headcount == 0) return other;
+
+        return PayrollTotalsDTO.builder()
+                .headcount(headcount + other.headcount)
+                .total(total.add(other.total))
+                .min(min == null || other.min == null ? null : min.min(other.min))
+                .max(max == null || other.max == null ? null : max.max(other.max))
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        final String totals = String.format("%d jobs, total %s, average %s", headcount, total, this.getAverage());
+        return min == null ? totals : String.format("%s, min %s, max %s", totals, min, max);
+    }
+}
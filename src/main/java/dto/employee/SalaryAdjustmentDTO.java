@@ -0,0 +1,34 @@
+package dto.employee;
+
+import domain.department.Level;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+//Totals of the salaries adjusted, or that would be adjusted in a dry run
+@Builder
+@Getter
+@FieldDefaults(makeFinal = true)
+public final class SalaryAdjustmentDTO {
+    private long departmentId;
+    private Level level;
+    private long employees;
+    private BigDecimal totalBefore;
+    private BigDecimal totalAfter;
+    //Salaries that would be below zero, the adjustment is not applied when there are any
+    private long negativeSalaries;
+    private int chunks;
+    private boolean dryRun;
+
+    public BigDecimal getDelta() {
+        return totalAfter.subtract(totalBefore);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%d employees of department %d %s: %s -> %s (delta %s) in %d chunks",
+                dryRun ? "[dry run] " : "", employees, departmentId, level, totalBefore, totalAfter, this.getDelta(), chunks);
+    }
+}
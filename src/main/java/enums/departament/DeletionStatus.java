@@ -0,0 +1,5 @@
+package enums.departament;
+
+public enum DeletionStatus {
+    RUNNING, FINISHED
+}
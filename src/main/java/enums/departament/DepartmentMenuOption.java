@@ -1,5 +1,5 @@
 package enums.departament;
 
 public enum DepartmentMenuOption {
-    OUT, CREATE, UPDATE, SHOW, DELETE
+    OUT, CREATE, UPDATE, SHOW, DELETE, PAYROLL
 }
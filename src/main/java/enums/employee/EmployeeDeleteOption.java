@@ -2,5 +2,5 @@ package enums.employee;
 
 
 public enum EmployeeDeleteOption {
-    ID, NAME, DOCUMENT, HIRE_DATE, DEPARTMENT;
+    ID, NAME, DOCUMENT, HIRE_DATE, HIRE_DATE_RANGE, DEPARTMENT;
 }
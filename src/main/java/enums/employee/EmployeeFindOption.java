@@ -2,5 +2,5 @@ package enums.employee;
 
 
 public enum EmployeeFindOption {
-    ID, NAME, DOCUMENT, AGE, HIRE_DATE,
+    ID, NAME, DOCUMENT, AGE, HIRE_DATE, HIRE_DATE_RANGE
 }
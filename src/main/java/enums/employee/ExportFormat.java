@@ -0,0 +1,13 @@
+package enums.employee;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV, JSONL;
+
+    //By the extension, ignoring a final .gz: .jsonl or .json are JSON Lines, anything else csv
+    public static ExportFormat of(final String fileName) {
+        final String name = fileName.toLowerCase(Locale.ROOT).replaceFirst("\\.gz$", "");
+        return name.endsWith(".jsonl") || name.endsWith(".json") ? JSONL : CSV;
+    }
+}
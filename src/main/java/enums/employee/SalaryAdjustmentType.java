@@ -0,0 +1,5 @@
+package enums.employee;
+
+public enum SalaryAdjustmentType {
+    PERCENT, ABSOLUTE;
+}
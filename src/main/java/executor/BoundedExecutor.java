@@ -0,0 +1,158 @@
+package executor;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    Runs independent database calls at the same time, at most maxConcurrent of them, so they never wait for
+    more connections than the pool has. Each call runs in its own thread and so in its own unit of work.
+    Uses a virtual thread per task when the JDK has them (21+), otherwise a fixed pool of maxConcurrent threads.
+    The serial executor runs the calls in the caller thread, one after another.
+*/
+@Log4j2
+public final class BoundedExecutor implements AutoCloseable {
+
+    @Getter
+    private final int maxConcurrent;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    private BoundedExecutor(final int maxConcurrent, final ExecutorService executor) {
+        this.maxConcurrent = maxConcurrent;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public static BoundedExecutor virtual(final int maxConcurrent) {
+
+        if (maxConcurrent < 1) throw new IllegalArgumentException("Max concurrent calls should be at least one!");
+
+        return new BoundedExecutor(maxConcurrent, newVirtualThreadPerTaskExecutor()
+                .orElseGet(() -> newPlatformExecutor(maxConcurrent)));
+    }
+
+    public static BoundedExecutor serial() {
+        return new BoundedExecutor(1, null);
+    }
+
+    public boolean isSerial() {
+        return executor == null;
+    }
+
+    public <T> CompletableFuture<T> submit(final Supplier<T> call) {
+        Objects.requireNonNull(call, "Call can´t be null!");
+        return this.submit(call, null);
+    }
+
+    //Results in the order of the inputs, after a failure no other call starts and the first failure is thrown
+    public <T, R> List<R> map(final List<T> inputs, final Function<T, R> call) {
+
+        Objects.requireNonNull(inputs, "Inputs can´t be null!");
+        Objects.requireNonNull(call, "Call can´t be null!");
+
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        final List<CompletableFuture<R>> futures = new ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            futures.add(this.submit(() -> {
+                try {
+                    return call.apply(input);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                }
+            }, failure));
+        }
+
+        final List<R> results = new ArrayList<>(inputs.size());
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException | CancellationException e) {
+                futures.forEach(f -> f.cancel(false));
+                //A call skipped before the one that failed is joined first
+                throw Objects.requireNonNullElse(failure.get(), unwrap(e));
+            }
+        }
+
+        return results;
+    }
+
+    //Skipped when failure is set once the permit is acquired
+    private <T> CompletableFuture<T> submit(final Supplier<T> call, final AtomicReference<RuntimeException> failure) {
+
+        if (this.isSerial()) {
+            if (Objects.nonNull(failure) && Objects.nonNull(failure.get())) {
+                return CompletableFuture.failedFuture(new CancellationException("Skipped after a failed call!"));
+            }
+            try {
+                return CompletableFuture.completedFuture(call.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting to run!");
+            }
+
+            try {
+                if (Objects.nonNull(failure) && Objects.nonNull(failure.get())) {
+                    throw new CancellationException("Skipped after a failed call!");
+                }
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) executor.shutdown();
+    }
+
+    private static RuntimeException unwrap(final RuntimeException e) {
+        return e instanceof CompletionException && e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    private static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads not available in Java {}, using platform threads", Runtime.version().feature());
+            return Optional.empty();
+        }
+    }
+
+    private static ExecutorService newPlatformExecutor(final int threads) {
+
+        final AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            final Thread t = new Thread(r, "bounded-executor-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
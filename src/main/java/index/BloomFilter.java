@@ -0,0 +1,135 @@
+package index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Set of strings answering "surely not present" or "maybe present" in a fixed array of bits.
+    Each string sets k bits chosen by double hashing, a lookup with any of its bits clear is a definite miss.
+    The size is calculated from the expected insertions and the false positive rate wanted, strings can´t be
+    removed, so the filter should be rebuilt when it holds many more strings than expected.
+*/
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final LongAdder insertions = new LongAdder();
+
+    public BloomFilter(final long expectedInsertions, final double falsePositiveRate) {
+
+        if (expectedInsertions < 1) throw new IllegalArgumentException("Expected insertions should be at least one!");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate should be between 0 and 1!");
+        }
+
+        //m = -n ln(p) / ln(2)², rounded up to whole words
+        final long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        final long wordCount = Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+        if (wordCount > Integer.MAX_VALUE) throw new IllegalArgumentException("Bloom filter too big!");
+
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bits = wordCount * Long.SIZE;
+
+        //k = m / n ln(2)
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * LN2));
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public void put(final String value) {
+
+        final long h1 = hash(value);
+        final long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashes; i++) this.set(Math.floorMod(h1 + i * h2, bits));
+        insertions.increment();
+    }
+
+    public boolean mightContain(final String value) {
+
+        final long h1 = hash(value);
+        final long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+            if (!this.get(Math.floorMod(h1 + i * h2, bits))) return false;
+        }
+        return true;
+    }
+
+    //More strings than the filter was sized for, the false positive rate is going up
+    public boolean isSaturated() {
+        return insertions.sum() > expectedInsertions;
+    }
+
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public long getMemoryBytes() {
+        return bits / Byte.SIZE;
+    }
+
+    //(1 - e^(-k n / m))^k with the strings inserted until now
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashes * insertions.sum() / bits), hashes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BloomFilter[insertions=%d/%d, bits=%d, hashes=%d, memory=%.1f KB, fpp=%.4f%% (target %.4f%%)]",
+                insertions.sum(), expectedInsertions, bits, hashes, this.getMemoryBytes() / 1024.0,
+                this.getExpectedFalsePositiveRate() * 100, falsePositiveRate * 100);
+    }
+
+    private void set(final long bit) {
+
+        final int index = (int) (bit >>> 6);
+        final long mask = 1L << bit;
+
+        long word;
+        while (((word = words.get(index)) & mask) == 0) {
+            if (words.compareAndSet(index, word, word | mask)) return;
+        }
+    }
+
+    private boolean get(final long bit) {
+        return (words.get((int) (bit >>> 6)) & (1L << bit)) != 0;
+    }
+
+    //FNV-1a over the chars, spread by the murmur finalizer
+    private static long hash(final String value) {
+
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,240 @@
+package index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/*
+    In memory index of names by their sequences of three characters, answering the same ids of a
+    LIKE '%text%' with a case and accent insensitive collation without scanning the table.
+    Each trigram keeps a sorted array of ids, the search intersects the arrays of the trigrams of the text
+    and confirms the candidates against the indexed names. Texts of one or two characters read the array of
+    that sequence, the names also index their single characters and pairs.
+*/
+public final class TrigramIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}");
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, IdList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(final long id, final String name) {
+        lock.writeLock().lock();
+        try {
+            this.removeLocked(id);
+
+            final String normalized = normalize(name);
+            names.put(id, normalized);
+            for (long gram : grams(normalized)) postings.computeIfAbsent(gram, g -> new IdList()).add(id);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final long id) {
+        lock.writeLock().lock();
+        try {
+            this.removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(final Iterable<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) this.removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Removes the ids with exactly this name, ignoring case and accents
+    public int removeByName(final String name) {
+
+        final String normalized = normalize(name);
+        final List<Long> ids = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, String> e : names.entrySet()) {
+                if (e.getValue().equals(normalized)) ids.add(e.getKey());
+            }
+            for (Long id : ids) this.removeLocked(id);
+            return ids.size();
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Ascending ids whose name contains the text
+    public List<Long> search(final String text) {
+
+        final String normalized = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            //Every name contains the empty text
+            if (normalized.isEmpty()) {
+                final List<Long> ids = new ArrayList<>(names.keySet());
+                ids.sort(Comparator.naturalOrder());
+                return ids;
+            }
+
+            final List<IdList> lists = new ArrayList<>();
+            for (long gram : searchGrams(normalized)) {
+                final IdList list = postings.get(gram);
+                if (list == null) return new ArrayList<>();
+                lists.add(list);
+            }
+
+            //Walks the smallest list, checking the others by binary search
+            lists.sort(Comparator.comparingInt(IdList::size));
+            final IdList smallest = lists.get(0);
+
+            final List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < smallest.size(); i++) {
+
+                final long id = smallest.get(i);
+
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) inAll = lists.get(j).contains(id);
+
+                //The trigrams can be in the name out of order, so confirm the whole text
+                if (inAll && names.get(id).contains(normalized)) ids.add(id);
+            }
+
+            return ids;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(final long id) {
+
+        final String old = names.remove(id);
+        if (old == null) return;
+
+        for (long gram : grams(old)) {
+            final IdList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size() == 0) postings.remove(gram);
+        }
+    }
+
+    public static String normalize(final String text) {
+        return ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    //Texts shorter than a trigram are a gram themselves
+    private static Set<Long> searchGrams(final String normalized) {
+        if (normalized.length() < GRAM) return Set.of(gram(normalized, 0, normalized.length()));
+        return grams(normalized, GRAM);
+    }
+
+    //Sequences of one, two and three chars of the name
+    private static Set<Long> grams(final String normalized) {
+
+        final Set<Long> grams = new LinkedHashSet<>();
+        for (int length = 1; length <= GRAM; length++) grams.addAll(grams(normalized, length));
+        return grams;
+    }
+
+    private static Set<Long> grams(final String normalized, final int length) {
+
+        final Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + length <= normalized.length(); i++) grams.add(gram(normalized, i, length));
+        return grams;
+    }
+
+    //Up to three chars packed in one long after their count, without allocating strings
+    private static long gram(final String normalized, final int from, final int length) {
+
+        long gram = length;
+        for (int i = from; i < from + length; i++) gram = (gram << 16) | normalized.charAt(i);
+        return gram;
+    }
+
+    //Sorted primitive ids, new ids are usually the biggest so adding is an append
+    private static final class IdList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(final int index) {
+            return ids[index];
+        }
+
+        boolean contains(final long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(final long id) {
+
+            if (size > 0 && ids[size - 1] >= id) {
+                final int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) return;
+                this.insertAt(-position - 1, id);
+                return;
+            }
+
+            this.insertAt(size, id);
+        }
+
+        boolean remove(final long id) {
+
+            final int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) return false;
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(final int position, final long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -2,10 +2,17 @@ package mappers.impl;
 
 import domain.employee.SuperiorEmployee;
 import dto.employee.SuperiorEmployeeDTO;
+import domain.department.Department;
+import domain.department.Level;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import mappers.interfaces.Mapper;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 @NoArgsConstructor(access = AccessLevel.PUBLIC)
 public final class SuperiorEmployeeMapperImpl implements Mapper<SuperiorEmployeeDTO, SuperiorEmployee> {
     @Override
@@ -16,9 +23,19 @@ public final class SuperiorEmployeeMapperImpl implements Mapper<SuperiorEmployee
                 .birthDate(dto.getBirthDate())
                 .age(dto.getAge())
                 .document(dto.getDocument())
-                .departmentsAndLevelsAndSalaries(dto.getDepartamentsAndLevelsAndSalaries())
+                .departmentsAndLevelsAndSalaries(copyOf(dto.getDepartamentsAndLevelsAndSalaries()))
                 .workExperience(dto.getWorkExperience())
                 .hireDate(dto.getHireDate())
                 .build();
     }
+
+    //The entity changes its jobs on updates, the map of the dto can be cached and shared by other reads
+    private static Map<Department, Map<Level, BigDecimal>> copyOf(final Map<Department, Map<Level, BigDecimal>> dls) {
+
+        if (Objects.isNull(dls)) return null;
+
+        final Map<Department, Map<Level, BigDecimal>> copy = new LinkedHashMap<>();
+        dls.forEach((department, job) -> copy.put(department, new LinkedHashMap<>(job)));
+        return copy;
+    }
 }
@@ -0,0 +1,116 @@
+package repositories.impl;
+
+import database.TransactionContext;
+import database.pool.StatementScope;
+import domain.department.Department;
+import domain.employee.Employee;
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import dto.employee.EmployeeBaseDTO;
+import executor.BoundedExecutor;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.AsyncEmployeeRepository;
+import repositories.interfaces.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+//Runs the employee repository in its own bounded executor, at most one call per connection of the pool
+@Log4j2
+public final class AsyncEmployeeRepositoryImpl implements AsyncEmployeeRepository {
+
+    private final EmployeeRepository repository;
+    private final BoundedExecutor executor;
+
+    public AsyncEmployeeRepositoryImpl(final EmployeeRepository repository, final int maxConcurrent) {
+        this.repository = Objects.requireNonNull(repository, "Employee repository can´t be null!");
+        this.executor = BoundedExecutor.virtual(maxConcurrent);
+    }
+
+    @Override
+    public CompletableFuture<Optional<EmployeeBaseDTO>> findByIdAsync(final long employeeId, final Duration timeout) {
+        return this.call(timeout, () -> repository.findById(employeeId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<EmployeeBaseDTO>> findByDocumentAsync(final String document, final Duration timeout) {
+        return this.call(timeout, () -> repository.findByDocument(document));
+    }
+
+    @Override
+    public CompletableFuture<List<EmployeeBaseDTO>> findByNameAsync(final String name, final Duration timeout) {
+        return this.call(timeout, () -> repository.findByName(name));
+    }
+
+    @Override
+    public CompletableFuture<Employee> saveAsync(final Employee employee, final Duration timeout) {
+
+        Objects.requireNonNull(employee, "Employee can´t be null!");
+
+        return this.call(timeout, () -> {
+            try {
+                return TransactionContext.inTransaction(() -> {
+                    repository.save(employee);
+                    if (employee instanceof NormalEmployee ne) repository.saveNormalEmployee(ne);
+                    else if (employee instanceof SuperiorEmployee se) repository.saveSuperiorEmployee(se);
+                    return employee;
+                });
+            } catch (RuntimeException e) {
+                //Rolled back, the id generated is not valid
+                employee.setId(null);
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSalaryAsync(final Employee employee, final Department department,
+                                                     final BigDecimal newSalary, final BigDecimal oldSalary,
+                                                     final Duration timeout) {
+        return this.call(timeout, () -> {
+            repository.updateSalary(employee, department, newSalary, oldSalary);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteByDocumentAsync(final String document, final Duration timeout) {
+        return this.call(timeout, () -> repository.deleteByDocument(document));
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /*
+        The timeout counts from the submit, including the wait for a free slot. When the future is cancelled or
+        times out, the call is not started if it is still waiting, otherwise its statements are cancelled.
+    */
+    private <T> CompletableFuture<T> call(final Duration timeout, final Supplier<T> call) {
+
+        final StatementScope scope = StatementScope.withTimeout(timeout);
+
+        final CompletableFuture<T> future = executor.submit(() -> scope.run(call))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        future.whenComplete((result, e) -> {
+            final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (cause instanceof TimeoutException || cause instanceof CancellationException) {
+                log.warn("Employee call {}, cancelling its statements", cause instanceof TimeoutException ? "timed out" : "cancelled");
+                scope.cancel();
+            }
+        });
+
+        return future;
+    }
+}
@@ -0,0 +1,252 @@
+package repositories.impl;
+
+import cache.CacheStats;
+import cache.TtlLruCache;
+import domain.department.Department;
+import domain.department.DepartmentDeletionJob;
+import dto.departament.DepartmentDTO;
+import index.TrigramIndex;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.DepartmentRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+//Read-through cache in front of the department repository, the writes invalidate the entries changed
+@Log4j2
+public final class CachedDepartmentRepositoryImpl implements DepartmentRepository {
+
+    private static final String ALL = "all";
+
+    private final DepartmentRepository delegate;
+    private final TtlLruCache<Long, DepartmentDTO> byId;
+    //Keyed by the normalized name, the same match of the repository ignoring case and accents
+    private final TtlLruCache<String, DepartmentDTO> byName;
+
+    //All departments, only cached when they fit in the max size
+    private final TtlLruCache<String, List<DepartmentDTO>> all;
+
+    //Caches holding copies of the departments, told of the id and name of each department changed or deleted
+    private final List<BiConsumer<Long, String>> listeners = new CopyOnWriteArrayList<>();
+
+    public CachedDepartmentRepositoryImpl(final DepartmentRepository delegate, final int maxSize, final long ttlMillis) {
+        this.delegate = Objects.requireNonNull(delegate, "Department repository can´t be null!");
+        this.byId = new TtlLruCache<>(maxSize, ttlMillis);
+        this.byName = new TtlLruCache<>(maxSize, ttlMillis);
+        this.all = new TtlLruCache<>(1, ttlMillis);
+    }
+
+    public void addInvalidationListener(final BiConsumer<Long, String> listener) {
+        listeners.add(Objects.requireNonNull(listener, "Invalidation listener can´t be null!"));
+    }
+
+    @Override
+    public void save(final Department department) {
+        delegate.save(department);
+        all.invalidateAll();
+    }
+
+    @Override
+    public List<DepartmentDTO> findAll() {
+
+        final Optional<List<DepartmentDTO>> cached = all.get(ALL);
+        if (cached.isPresent()) return new ArrayList<>(cached.get());
+
+        final List<DepartmentDTO> departments = delegate.findAll();
+        if (departments.size() <= byId.getMaxSize()) {
+            all.put(ALL, List.copyOf(departments));
+            departments.forEach(this::cache);
+        }
+
+        return departments;
+    }
+
+    @Override
+    public List<DepartmentDTO> findByName(final String name) {
+
+        //Same match of the name index, ignoring case and accents
+        final Optional<List<DepartmentDTO>> cached = all.get(ALL);
+        if (cached.isPresent()) {
+            final String normalizedName = TrigramIndex.normalize(name);
+            return cached.get().stream()
+                    .filter(d -> TrigramIndex.normalize(d.getName()).contains(normalizedName))
+                    .collect(Collectors.toList());
+        }
+
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Optional<DepartmentDTO> findById(final long id) {
+
+        final Optional<DepartmentDTO> cached = byId.get(id);
+        if (cached.isPresent()) return cached;
+
+        final Optional<DepartmentDTO> department = delegate.findById(id);
+        department.ifPresent(this::cache);
+        return department;
+    }
+
+    //Only the departments not cached are fetched
+    @Override
+    public Map<Long, Optional<DepartmentDTO>> findByIds(final Collection<Long> ids) {
+
+        final Map<Long, Optional<DepartmentDTO>> result = new LinkedHashMap<>();
+        final List<Long> misses = new ArrayList<>();
+
+        for (Long id : ids) {
+            final Optional<DepartmentDTO> cached = byId.get(id);
+            result.put(id, cached);
+            if (cached.isEmpty()) misses.add(id);
+        }
+
+        if (!misses.isEmpty()) {
+            delegate.findByIds(misses).forEach((id, department) -> {
+                department.ifPresent(this::cache);
+                result.put(id, department);
+            });
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Optional<DepartmentDTO>> findByNames(final Collection<String> names) {
+
+        final Map<String, Optional<DepartmentDTO>> result = new LinkedHashMap<>();
+        final List<String> misses = new ArrayList<>();
+
+        for (String name : names) {
+            final Optional<DepartmentDTO> cached = byName.get(TrigramIndex.normalize(name));
+            result.put(name, cached);
+            if (cached.isEmpty()) misses.add(name);
+        }
+
+        if (!misses.isEmpty()) {
+            delegate.findByNames(misses).forEach((name, department) -> {
+                department.ifPresent(this::cache);
+                result.put(name, department);
+            });
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<DepartmentDTO> findbyCreationDate(final LocalDate creationDateWithoutTime) {
+
+        final Optional<List<DepartmentDTO>> cached = all.get(ALL);
+        if (cached.isPresent()) {
+            return cached.get().stream()
+                    .filter(d -> Objects.nonNull(d.getCreationDate()))
+                    .filter(d -> d.getCreationDate().toLocalDate().equals(creationDateWithoutTime))
+                    .collect(Collectors.toList());
+        }
+
+        return delegate.findbyCreationDate(creationDateWithoutTime);
+    }
+
+    @Override
+    public void updateName(final Department department, final String newName) {
+
+        final String oldName = department.getName();
+        try {
+            delegate.updateName(department, newName);
+        } finally {
+            this.evict(department.getId(), oldName);
+        }
+    }
+
+    @Override
+    public int deleteById(final long id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            this.evict(id, null);
+        }
+    }
+
+    @Override
+    public int deleteByName(final String name) {
+        try {
+            return delegate.deleteByName(name);
+        } finally {
+            this.evict(null, name);
+        }
+    }
+
+    @Override
+    public DepartmentDeletionJob startDeletion(final Department department) {
+        return delegate.startDeletion(department);
+    }
+
+    @Override
+    public List<DepartmentDeletionJob> findUnfinishedDeletions() {
+        return delegate.findUnfinishedDeletions();
+    }
+
+    @Override
+    public int deleteEmployeesChunk(final DepartmentDeletionJob job, final int chunkSize) {
+        try {
+            return delegate.deleteEmployeesChunk(job, chunkSize);
+        } finally {
+            //The department itself is only deleted when the job finishes
+            listeners.forEach(listener -> listener.accept(job.getDepartmentId(), job.getDepartmentName()));
+        }
+    }
+
+    @Override
+    public boolean finishDeletion(final DepartmentDeletionJob job, final int chunkSize) {
+        try {
+            return delegate.finishDeletion(job, chunkSize);
+        } finally {
+            this.evict(job.getDepartmentId(), job.getDepartmentName());
+        }
+    }
+
+    public CacheStats getStats() {
+
+        final CacheStats ids = byId.getStats();
+        final CacheStats names = byName.getStats();
+        final CacheStats snapshot = all.getStats();
+
+        return new CacheStats(
+                ids.getHits() + names.getHits() + snapshot.getHits(),
+                ids.getMisses() + names.getMisses() + snapshot.getMisses(),
+                ids.getEvictions() + names.getEvictions() + snapshot.getEvictions(),
+                ids.getSize()
+        );
+    }
+
+    private void cache(final DepartmentDTO department) {
+        byId.put(department.getId(), department);
+        byName.put(TrigramIndex.normalize(department.getName()), department);
+    }
+
+    //The two maps evict in their own order, the entry of the other map is matched by value instead of peeked
+    private void evict(final Long id, final String name) {
+
+        log.info("Invalidating cached department {} \n", Objects.isNull(name) ? id : name);
+
+        if (Objects.nonNull(id)) {
+            byId.invalidate(id);
+            byName.invalidateIf((key, department) -> Objects.equals(department.getId(), id));
+        }
+        if (Objects.nonNull(name)) {
+            final String key = TrigramIndex.normalize(name);
+            byName.invalidate(key);
+            byId.invalidateIf((departmentId, department) -> TrigramIndex.normalize(department.getName()).equals(key));
+        }
+        all.invalidateAll();
+        listeners.forEach(listener -> listener.accept(id, name));
+    }
+}
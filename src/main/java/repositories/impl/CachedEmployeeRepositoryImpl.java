@@ -0,0 +1,435 @@
+package repositories.impl;
+
+import cache.CacheStats;
+import cache.TtlLruCache;
+import database.TransactionContext;
+import domain.department.Department;
+import domain.department.Level;
+import domain.department.SalaryAdjustment;
+import domain.employee.Employee;
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import dto.employee.EmployeeBaseDTO;
+import dto.employee.SalaryAdjustmentDTO;
+import index.TrigramIndex;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/*
+    Read-through cache of the employees found by id and document, in front of the employee repository.
+    The weight of an employee is its number of jobs plus one, bounding the memory instead of the entries.
+    Every write invalidates the employees it changed, the bulk deletes only the employees matching the filter.
+    The writes of the department repository invalidate the employees of the department through evictDepartment.
+    Reads that started before a write are not cached, so a value read before a delete is never cached after it.
+    Inside a unit of work of TransactionContext the evictions run again after its commit, and its reads are not
+    cached, they can see writes not committed yet.
+*/
+@Log4j2
+public final class CachedEmployeeRepositoryImpl implements EmployeeRepository {
+
+    private final EmployeeRepository delegate;
+    private final TtlLruCache<Long, EmployeeBaseDTO> byId;
+
+    //Secondary index, checked against the document of the cached employee
+    private final TtlLruCache<String, Long> idsByDocument;
+
+    //Held by the check of the version and the put, and by the evictions, so no eviction runs between them
+    private final Object lock = new Object();
+    private final AtomicLong writes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachedEmployeeRepositoryImpl(final EmployeeRepository delegate, final int maxWeight, final long ttlMillis) {
+        this.delegate = Objects.requireNonNull(delegate, "Employee repository can´t be null!");
+        this.byId = new TtlLruCache<>(maxWeight, ttlMillis, CachedEmployeeRepositoryImpl::weight);
+        this.idsByDocument = new TtlLruCache<>(maxWeight, ttlMillis);
+    }
+
+    @Override
+    public void save(final Employee employee) {
+        delegate.save(employee);
+    }
+
+    @Override
+    public void saveJobsInformation(final Connection c, final long id, final Map<Department, Map<Level, BigDecimal>> dls) {
+        try {
+            delegate.saveJobsInformation(c, id, dls);
+        } finally {
+            this.evict(id);
+        }
+    }
+
+    @Override
+    public void saveNormalEmployee(final NormalEmployee ne) {
+        delegate.saveNormalEmployee(ne);
+    }
+
+    @Override
+    public void saveSuperiorEmployee(final SuperiorEmployee se) {
+        delegate.saveSuperiorEmployee(se);
+    }
+
+    @Override
+    public void saveAll(final List<Employee> employees) {
+        delegate.saveAll(employees);
+    }
+
+    @Override
+    public Optional<EmployeeBaseDTO> findById(final long employeeId) {
+
+        final Optional<EmployeeBaseDTO> cached = byId.get(employeeId);
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        final long version = writes.get();
+        final Optional<EmployeeBaseDTO> employee = delegate.findById(employeeId);
+        employee.ifPresent(dto -> this.cache(dto, version));
+        return employee;
+    }
+
+    @Override
+    public Optional<EmployeeBaseDTO> findByDocument(final String document) {
+
+        final Optional<EmployeeBaseDTO> cached = this.cachedByDocument(document);
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        final long version = writes.get();
+        final Optional<EmployeeBaseDTO> employee = delegate.findByDocument(document);
+        employee.ifPresent(dto -> this.cache(dto, version));
+        return employee;
+    }
+
+    //Only the employees not cached are fetched
+    @Override
+    public Map<Long, Optional<EmployeeBaseDTO>> findByIds(final Collection<Long> employeeIds) {
+
+        final Map<Long, Optional<EmployeeBaseDTO>> result = new LinkedHashMap<>();
+        final List<Long> notCached = new ArrayList<>();
+
+        for (Long id : employeeIds) {
+            final Optional<EmployeeBaseDTO> cached = byId.get(id);
+            result.put(id, cached);
+            if (cached.isEmpty()) notCached.add(id);
+        }
+
+        hits.add(result.size() - notCached.size());
+        misses.add(notCached.size());
+
+        if (!notCached.isEmpty()) {
+            final long version = writes.get();
+            delegate.findByIds(notCached).forEach((id, employee) -> {
+                employee.ifPresent(dto -> this.cache(dto, version));
+                result.put(id, employee);
+            });
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Optional<EmployeeBaseDTO>> findByDocuments(final Collection<String> documents) {
+
+        final Map<String, Optional<EmployeeBaseDTO>> result = new LinkedHashMap<>();
+        final List<String> notCached = new ArrayList<>();
+
+        for (String document : documents) {
+            final Optional<EmployeeBaseDTO> cached = this.cachedByDocument(document);
+            result.put(document, cached);
+            if (cached.isEmpty()) notCached.add(document);
+        }
+
+        hits.add(result.size() - notCached.size());
+        misses.add(notCached.size());
+
+        if (!notCached.isEmpty()) {
+            final long version = writes.get();
+            delegate.findByDocuments(notCached).forEach((document, employee) -> {
+                employee.ifPresent(dto -> this.cache(dto, version));
+                result.put(document, employee);
+            });
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByName(final String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByHireDate(final LocalDate hireDateWithoutTime) {
+        return delegate.findByHireDate(hireDateWithoutTime);
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByHireDateRange(final LocalDate from, final LocalDate to) {
+        return delegate.findByHireDateRange(from, to);
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByAge(final int age) {
+        return delegate.findByAge(age);
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByName(final String name, final long afterId, final int limit) {
+        return delegate.findByName(name, afterId, limit);
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByAge(final int age, final long afterId, final int limit) {
+        return delegate.findByAge(age, afterId, limit);
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByHireDateRange(final LocalDate from, final LocalDate to,
+                                                     final long afterId, final int limit) {
+        return delegate.findByHireDateRange(from, to, afterId, limit);
+    }
+
+    @Override
+    public Stream<EmployeeBaseDTO> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<EmployeeBaseDTO> streamByAge(final int age) {
+        return delegate.streamByAge(age);
+    }
+
+    @Override
+    public Stream<EmployeeBaseDTO> streamByHireDateRange(final LocalDate from, final LocalDate to) {
+        return delegate.streamByHireDateRange(from, to);
+    }
+
+    @Override
+    public void updateName(final Employee employee, final String newName) {
+        try {
+            delegate.updateName(employee, newName);
+        } finally {
+            this.evict(employee.getId());
+        }
+    }
+
+    @Override
+    public void updateDocument(final Employee employee, final String newDocument) {
+        try {
+            delegate.updateDocument(employee, newDocument);
+        } finally {
+            this.evict(employee.getId());
+            this.evictDocument(newDocument);
+        }
+    }
+
+    @Override
+    public void updateLevel(final Employee employee, final Department department, final Level newLevel, final Level oldLevel) {
+        try {
+            delegate.updateLevel(employee, department, newLevel, oldLevel);
+        } finally {
+            this.evict(employee.getId());
+        }
+    }
+
+    @Override
+    public void updateSalary(final Employee employee, final Department department,
+                             final BigDecimal newSalary, final BigDecimal oldSalary) {
+        try {
+            delegate.updateSalary(employee, department, newSalary, oldSalary);
+        } finally {
+            this.evict(employee.getId());
+        }
+    }
+
+    @Override
+    public SalaryAdjustmentDTO adjustSalaries(final SalaryAdjustment adjustment, final int chunkSize, final boolean dryRun) {
+
+        if (dryRun) return delegate.adjustSalaries(adjustment, chunkSize, true);
+
+        //Evicted even on failure, the chunks before the failure are committed
+        try {
+            return delegate.adjustSalaries(adjustment, chunkSize, false);
+        } finally {
+            this.evictIf(dto -> dto.getDepartamentsAndLevelsAndSalaries().entrySet().stream()
+                    .anyMatch(job -> Objects.equals(job.getKey().getId(), adjustment.getDepartment().getId())
+                            && job.getValue().containsKey(adjustment.getLevel())));
+        }
+    }
+
+    @Override
+    public int deleteById(final long id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            this.evict(id);
+        }
+    }
+
+    @Override
+    public int deleteByName(final String name) {
+        final String normalizedName = TrigramIndex.normalize(name);
+        try {
+            return delegate.deleteByName(name);
+        } finally {
+            this.evictIf(dto -> TrigramIndex.normalize(dto.getName()).equals(normalizedName));
+        }
+    }
+
+    @Override
+    public int deleteByDocument(final String document) {
+        try {
+            return delegate.deleteByDocument(document);
+        } finally {
+            this.evictDocument(document);
+        }
+    }
+
+    @Override
+    public int deleteByHireDate(final LocalDate hireDateWithoutTime) {
+        try {
+            return delegate.deleteByHireDate(hireDateWithoutTime);
+        } finally {
+            this.evictIf(dto -> hiredBetween(dto, hireDateWithoutTime, hireDateWithoutTime));
+        }
+    }
+
+    @Override
+    public int deleteByHireDateRange(final LocalDate from, final LocalDate to) {
+        try {
+            return delegate.deleteByHireDateRange(from, to);
+        } finally {
+            this.evictIf(dto -> hiredBetween(dto, from, to));
+        }
+    }
+
+    @Override
+    public int deleteByDepartment(final Department department) {
+        try {
+            return delegate.deleteByDepartment(department);
+        } finally {
+            this.evictIf(dto -> dto.getDepartamentsAndLevelsAndSalaries().keySet().stream()
+                    .anyMatch(d -> Objects.equals(d.getId(), department.getId())));
+        }
+    }
+
+    public CacheStats getStats() {
+        final CacheStats ids = byId.getStats();
+        return new CacheStats(hits.sum(), misses.sum(), ids.getEvictions(), ids.getSize());
+    }
+
+    private Optional<EmployeeBaseDTO> cachedByDocument(final String document) {
+        return idsByDocument.peek(document)
+                .flatMap(byId::get)
+                .filter(dto -> dto.getDocument().equals(document));
+    }
+
+    //Employees with a job in the department changed or deleted, by id or by name ignoring case and accents
+    public void evictDepartment(final Long departmentId, final String departmentName) {
+
+        final String normalizedName = Objects.isNull(departmentName) ? null : TrigramIndex.normalize(departmentName);
+
+        this.evictIf(dto -> Objects.nonNull(dto.getDepartamentsAndLevelsAndSalaries())
+                && dto.getDepartamentsAndLevelsAndSalaries().keySet().stream()
+                .anyMatch(d -> (Objects.nonNull(departmentId) && Objects.equals(d.getId(), departmentId))
+                        || (Objects.nonNull(normalizedName) && Objects.nonNull(d.getName())
+                        && TrigramIndex.normalize(d.getName()).equals(normalizedName))));
+    }
+
+    //Not cached when a write happened since the read started
+    private void cache(final EmployeeBaseDTO dto, final long version) {
+        if (TransactionContext.isActive()) return;
+        synchronized (lock) {
+            if (writes.get() != version) return;
+            byId.put(dto.getId(), dto);
+            idsByDocument.put(dto.getDocument(), dto.getId());
+        }
+    }
+
+    //Now, so the reads of the unit miss the cache, and after the commit, so a read before it is not kept
+    private void evictNowAndAfterCommit(final Runnable eviction) {
+        eviction.run();
+        if (TransactionContext.isActive()) TransactionContext.afterCommit(eviction);
+    }
+
+    private void evict(final Long id) {
+        this.evictNowAndAfterCommit(() -> this.evictId(id));
+    }
+
+    private void evictId(final Long id) {
+        synchronized (lock) {
+
+            writes.incrementAndGet();
+            if (Objects.isNull(id)) return;
+
+            byId.peek(id).ifPresent(dto -> idsByDocument.invalidate(dto.getDocument()));
+            byId.invalidate(id);
+        }
+    }
+
+    //Matched by the document of the cached employee, its entry of idsByDocument can be evicted before it
+    private void evictDocument(final String document) {
+        this.evictNowAndAfterCommit(() -> this.evictByDocument(document));
+    }
+
+    private void evictByDocument(final String document) {
+        synchronized (lock) {
+            writes.incrementAndGet();
+            byId.invalidateIf((id, dto) -> dto.getDocument().equals(document));
+            idsByDocument.invalidate(document);
+        }
+    }
+
+    private void evictIf(final Predicate<EmployeeBaseDTO> deleted) {
+        this.evictNowAndAfterCommit(() -> this.evictMatching(deleted));
+    }
+
+    private void evictMatching(final Predicate<EmployeeBaseDTO> deleted) {
+
+        final Set<Long> ids = new HashSet<>();
+
+        synchronized (lock) {
+            writes.incrementAndGet();
+            byId.invalidateIf((id, dto) -> deleted.test(dto) && ids.add(id));
+            if (!ids.isEmpty()) idsByDocument.invalidateIf((document, id) -> ids.contains(id));
+        }
+
+        log.info("Invalidated {} cached employees \n", ids.size());
+    }
+
+    private static boolean hiredBetween(final EmployeeBaseDTO dto, final LocalDate from, final LocalDate to) {
+
+        if (Objects.isNull(dto.getHireDate())) return true;
+
+        final LocalDate hireDate = dto.getHireDate().toLocalDate();
+        return (Objects.isNull(from) || !hireDate.isBefore(from)) && (Objects.isNull(to) || !hireDate.isAfter(to));
+    }
+
+    private static int weight(final EmployeeBaseDTO dto) {
+        final Map<Department, Map<Level, BigDecimal>> jobs = dto.getDepartamentsAndLevelsAndSalaries();
+        return 1 + (Objects.isNull(jobs) ? 0 : jobs.size());
+    }
+}
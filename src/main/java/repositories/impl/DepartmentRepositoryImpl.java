@@ -1,10 +1,15 @@
 package repositories.impl;
 
 import domain.department.Department;
+import domain.department.DepartmentDeletionJob;
+import enums.departament.DeletionStatus;
 import repositories.interfaces.DepartmentRepository;
 import database.DbConnection;
+import database.TransactionContext;
+import database.metrics.QueryMetrics;
 import dto.departament.DepartmentDTO;
 import exceptions.DbConnectionException;
+import index.TrigramIndex;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
@@ -12,13 +17,31 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 @Log4j2
 @NoArgsConstructor
 public final class DepartmentRepositoryImpl implements DepartmentRepository {
 
+    //Names searched without LIKE '%name%' table scans, loaded in the first search
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private volatile boolean nameIndexLoaded;
+
+    //Told the ids of the employees deleted with the departments, after the commit
+    private final List<Consumer<Collection<Long>>> employeesDeletedListeners = new CopyOnWriteArrayList<>();
+
+    public void addEmployeesDeletedListener(final Consumer<Collection<Long>> listener) {
+        employeesDeletedListeners.add(Objects.requireNonNull(listener, "Employees deleted listener can´t be null!"));
+    }
+
     @Override
     public void save(final Department department) {
 
@@ -31,6 +54,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
             rs.next();
             Long id = rs.getLong(1);
             department.setId(id);
+            nameIndex.put(id, department.getName());
 
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new DbConnectionException(String.format("Departament %s already exists!", department.getName()));
@@ -53,7 +77,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 INSERT INTO departments(name)
                 VALUES (?);
                 """;
-        PreparedStatement ps = c.prepareStatement(SAVE_DEPARTAMENT, Statement.RETURN_GENERATED_KEYS);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.saveDepartament", SAVE_DEPARTAMENT, Statement.RETURN_GENERATED_KEYS);
         ps.setString(1, department.getName());
         return ps;
     }
@@ -66,7 +90,8 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
         final List<DepartmentDTO> departments = new ArrayList<>();
 
         try (Connection c = DbConnection.getConnection();
-             ResultSet rs = this.executeFindAll(c)) {
+             Statement st = QueryMetrics.create(c, "department.findAll");
+             ResultSet rs = this.executeFindAll(st)) {
 
             while (rs.next()) departments.add(this.createDepartamentDTO(rs));
 
@@ -92,11 +117,10 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 .build();
     }
 
-    private ResultSet executeFindAll(final Connection c)
+    private ResultSet executeFindAll(final Statement st)
             throws SQLException {
 
-        return c.createStatement()
-                .executeQuery("SELECT * FROM departments AS d");
+        return st.executeQuery("SELECT * FROM departments AS d");
     }
 
     @Override
@@ -125,7 +149,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
         final String FIND_BY_ID = """
                 SELECT * FROM departments WHERE id = ?
                 """;
-        PreparedStatement ps = c.prepareStatement(FIND_BY_ID);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.findById", FIND_BY_ID);
         ps.setLong(1, id);
         return ps;
     }
@@ -135,12 +159,67 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
 
         log.info("Tryning to find departments with the name {} \n", name);
 
+        final List<Long> ids = this.getNameIndex().search(name);
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        return this.findByIdList(ids);
+    }
+
+    @Override
+    public Map<Long, Optional<DepartmentDTO>> findByIds(final Collection<Long> ids) {
+
+        log.info("Tryning to find {} departments by id \n", ids.size());
+
+        final Map<Long, DepartmentDTO> found = new HashMap<>();
+        this.findByIdList(ids).forEach(d -> found.put(d.getId(), d));
+
+        final Map<Long, Optional<DepartmentDTO>> result = new LinkedHashMap<>();
+        ids.forEach(id -> result.put(id, Optional.ofNullable(found.get(id))));
+        return result;
+    }
+
+    @Override
+    public Map<String, Optional<DepartmentDTO>> findByNames(final Collection<String> names) {
+
+        log.info("Tryning to find {} departments by name \n", names.size());
+
+        //Same comparison of the database collation, ignoring case and accents
+        final Map<String, DepartmentDTO> found = new HashMap<>();
+
+        try (Connection c = DbConnection.getConnection()) {
+
+            for (List<String> chunk : InClause.chunks(names)) {
+                try (PreparedStatement ps = this.createQueryForFindByNames(c, chunk);
+                     ResultSet rs = ps.executeQuery()) {
+
+                    while (rs.next()) {
+                        final DepartmentDTO department = this.buildDepartamentDTO(rs);
+                        found.put(TrigramIndex.normalize(department.getName()), department);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+
+        final Map<String, Optional<DepartmentDTO>> result = new LinkedHashMap<>();
+        names.forEach(name -> result.put(name, Optional.ofNullable(found.get(TrigramIndex.normalize(name)))));
+        return result;
+    }
+
+    private List<DepartmentDTO> findByIdList(final Collection<Long> ids) {
+
         final List<DepartmentDTO> list = new ArrayList<>();
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForFindByName(c, name);
-             ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) list.add(this.buildDepartamentDTO(rs));
+        try (Connection c = DbConnection.getConnection()) {
+
+            for (List<Long> chunk : InClause.chunks(ids)) {
+                try (PreparedStatement ps = this.createQueryForFindByIds(c, chunk);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) list.add(this.buildDepartamentDTO(rs));
+                }
+            }
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
@@ -149,18 +228,57 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
         return list;
     }
 
-    private PreparedStatement createQueryForFindByName(final Connection c, final String name)
+    private PreparedStatement createQueryForFindByIds(final Connection c, final List<Long> ids)
             throws SQLException {
 
-        final String FIND_BY_NAME = """
-                SELECT * FROM departments WHERE name LIKE ?;
-                """;
+        final String FIND_BY_IDS = """
+                SELECT * FROM departments WHERE id IN (%s) ORDER BY id;
+                """.formatted(InClause.placeholders(ids.size()));
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.findByIds", FIND_BY_IDS);
+        for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+        return ps;
+    }
+
+    private PreparedStatement createQueryForFindByNames(final Connection c, final List<String> names)
+            throws SQLException {
 
-        PreparedStatement ps = c.prepareStatement(FIND_BY_NAME);
-        ps.setString(1, "%" + name + "%");
+        final String FIND_BY_NAMES = """
+                SELECT * FROM departments WHERE name IN (%s) ORDER BY id;
+                """.formatted(InClause.placeholders(names.size()));
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.findByNames", FIND_BY_NAMES);
+        for (int i = 0; i < names.size(); i++) ps.setString(i + 1, names.get(i));
         return ps;
     }
 
+    private TrigramIndex getNameIndex() {
+
+        if (!nameIndexLoaded) {
+            synchronized (nameIndex) {
+                if (!nameIndexLoaded) {
+                    this.loadNameIndex();
+                    nameIndexLoaded = true;
+                }
+            }
+        }
+
+        return nameIndex;
+    }
+
+    private void loadNameIndex() {
+
+        try (Connection c = DbConnection.getConnection();
+             Statement st = QueryMetrics.create(c, "department.findAllNames");
+             ResultSet rs = st.executeQuery("SELECT d.id, d.name FROM departments AS d")) {
+
+            while (rs.next()) nameIndex.put(rs.getLong("id"), rs.getString("name"));
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+    }
+
     @Override
     public List<DepartmentDTO> findbyCreationDate(final LocalDate creationDateWithoutTime) {
 
@@ -184,12 +302,14 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                                                                final LocalDate creationDateWithoutTime)
             throws SQLException {
 
-        final String FIND_BY_NAME = """
-                SELECT * FROM departments WHERE DATE(creation_date) = ?;
+        //Half-open range of the day, so the creation date index can be used
+        final String FIND_BY_CREATION_DATE = """
+                SELECT * FROM departments WHERE creation_date >= ? AND creation_date < ?;
                 """;
 
-        PreparedStatement ps = c.prepareStatement(FIND_BY_NAME);
-        ps.setDate(1, Date.valueOf(creationDateWithoutTime));
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.findByCreationDate", FIND_BY_CREATION_DATE);
+        ps.setTimestamp(1, Timestamp.valueOf(creationDateWithoutTime.atStartOfDay()));
+        ps.setTimestamp(2, Timestamp.valueOf(creationDateWithoutTime.plusDays(1).atStartOfDay()));
         return ps;
     }
 
@@ -204,6 +324,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
             if (ps.executeUpdate() == 0) throw new DbConnectionException("No updated departments!");
 
             department.setName(newName);
+            nameIndex.put(department.getId(), newName);
             department.setLastUpdateDate(LocalDateTime.now());
 
         } catch (SQLIntegrityConstraintViolationException e) {
@@ -224,7 +345,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 SET name = ?, last_update_date = NOW()
                 WHERE id = ?
                 """;
-        PreparedStatement ps = c.prepareStatement(UPDATE_BY_NAME);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.updateName", UPDATE_BY_NAME);
         ps.setString(1, newName);
         ps.setLong(2, id);
         return ps;
@@ -242,6 +363,12 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
 
             c.setAutoCommit(false);
 
+            //All the jobs of the employees leave the payroll summary, also the ones in other departments
+            PayrollSummary.subtractJobs(c, "department.lockJobsOfEmployeesById", PayrollSummary.JOBS_OF_DEPARTMENT_EMPLOYEES,
+                    ps -> ps.setLong(1, id));
+            final List<Long> employees = this.lockEmployeeIds(c, "department.lockEmployeesById",
+                    "d.id_departament = ?", ps -> ps.setLong(1, id));
+
             //Deleted associate employees
             int employeesDismissed = ps0.executeUpdate();
 
@@ -251,6 +378,8 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
             }
 
             c.commit();
+            TransactionContext.afterCommit(() -> nameIndex.remove(id));
+            this.employeesDeletedAfterCommit(employees);
             return employeesDismissed;
 
         } catch (SQLException e) {
@@ -259,6 +388,310 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
 
     }
 
+    @Override
+    public DepartmentDeletionJob startDeletion(final Department department) {
+
+        log.info("Starting deletion in chunks of departament {} \n", department.getName());
+
+        return TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+
+                //Resumed when the department is already being deleted
+                try (PreparedStatement ps = this.createQueryForFindDeletionByDepartment(c, department.getId());
+                     ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) return this.buildDeletionJob(rs);
+                }
+
+                try (PreparedStatement ps = this.createQueryForSaveDeletion(c, department)) {
+                    ps.executeUpdate();
+                }
+
+                try (PreparedStatement ps = this.createQueryForFindDeletionByDepartment(c, department.getId());
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return this.buildDeletionJob(rs);
+                }
+
+            } catch (SQLIntegrityConstraintViolationException e) {
+                throw new DbConnectionException(String.format("Departament %s is already being deleted!", department.getName()));
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
+    }
+
+    private PreparedStatement createQueryForFindDeletionByDepartment(final Connection c, final long idDepartament)
+            throws SQLException {
+
+        final String FIND_DELETION = """
+                SELECT * FROM department_deletion_jobs WHERE id_departament = ?;
+                """;
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.findDeletionByDepartment", FIND_DELETION);
+        ps.setLong(1, idDepartament);
+        return ps;
+    }
+
+    private PreparedStatement createQueryForSaveDeletion(final Connection c, final Department department)
+            throws SQLException {
+
+        final String SAVE_DELETION = """
+                INSERT INTO department_deletion_jobs (id_departament, department_name) VALUES (?, ?);
+                """;
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.saveDeletion", SAVE_DELETION);
+        ps.setLong(1, department.getId());
+        ps.setString(2, department.getName());
+        return ps;
+    }
+
+    @Override
+    public List<DepartmentDeletionJob> findUnfinishedDeletions() {
+
+        final List<DepartmentDeletionJob> jobs = new ArrayList<>();
+
+        try (Connection c = DbConnection.getConnection();
+             PreparedStatement ps = this.createQueryForFindUnfinishedDeletions(c);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) jobs.add(this.buildDeletionJob(rs));
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+
+        return jobs;
+    }
+
+    private PreparedStatement createQueryForFindUnfinishedDeletions(final Connection c)
+            throws SQLException {
+
+        final String FIND_UNFINISHED = """
+                SELECT * FROM department_deletion_jobs WHERE status = 'RUNNING' ORDER BY id;
+                """;
+        return QueryMetrics.prepare(c, "department.findUnfinishedDeletions", FIND_UNFINISHED);
+    }
+
+    @Override
+    public int deleteEmployeesChunk(final DepartmentDeletionJob job, final int chunkSize) {
+
+        final DeletionChunk chunk = TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+                return this.deleteEmployeesChunk(c, job, job.getLastEmployeeId(), chunkSize);
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
+
+        //Only after the commit
+        this.advance(job, chunk);
+        return chunk.employees();
+    }
+
+    private DeletionChunk deleteEmployeesChunk(final Connection c, final DepartmentDeletionJob job, final long afterEmployeeId,
+                                               final int chunkSize)
+            throws SQLException {
+
+        final List<Long> ids = new ArrayList<>(chunkSize);
+        try (PreparedStatement ps = this.createQueryForFindEmployeesChunk(c, job.getDepartmentId(), afterEmployeeId, chunkSize);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) ids.add(rs.getLong(1));
+        }
+
+        if (ids.isEmpty()) return new DeletionChunk(0, 0, job.getLastEmployeeId());
+
+        //Employees deleted by others in the meantime are not counted
+        long deleted = 0;
+        for (List<Long> inList : InClause.chunks(ids)) {
+
+            PayrollSummary.subtractJobs(c, "department.lockJobsOfEmployeesChunk",
+                    "dhe.id_employee IN (%s)".formatted(InClause.placeholders(inList.size())),
+                    ps -> {
+                        for (int i = 0; i < inList.size(); i++) ps.setLong(i + 1, inList.get(i));
+                    });
+
+            try (PreparedStatement ps = this.createQueryForDeleteEmployees(c, inList)) {
+                deleted += ps.executeUpdate();
+            }
+        }
+        this.employeesDeletedAfterCommit(ids);
+
+        //The last chunk of the finish starts again from the first employee, the progress never goes back
+        final long lastId = Math.max(job.getLastEmployeeId(), ids.get(ids.size() - 1));
+        try (PreparedStatement ps = this.createQueryForUpdateDeletion(c, job.getId(), lastId, deleted)) {
+            ps.executeUpdate();
+        }
+
+        return new DeletionChunk(ids.size(), deleted, lastId);
+    }
+
+    //Ids of the employees of the departments a delete removes, locked until it ends
+    private List<Long> lockEmployeeIds(final Connection c, final String name, final String filter,
+                                       final PayrollSummary.Binder binder)
+            throws SQLException {
+
+        final String LOCK_EMPLOYEES = """
+                SELECT d.id_employee FROM departaments_has_employees AS d WHERE %s FOR UPDATE;
+                """.formatted(filter);
+
+        final List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = QueryMetrics.prepare(c, name, LOCK_EMPLOYEES)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private void employeesDeletedAfterCommit(final List<Long> ids) {
+        if (ids.isEmpty()) return;
+        TransactionContext.afterCommit(() -> employeesDeletedListeners.forEach(listener -> listener.accept(ids)));
+    }
+
+    private void advance(final DepartmentDeletionJob job, final DeletionChunk chunk) {
+        job.setEmployeesDeleted(job.getEmployeesDeleted() + chunk.deleted());
+        job.setLastEmployeeId(chunk.lastEmployeeId());
+    }
+
+    private PreparedStatement createQueryForFindEmployeesChunk(final Connection c, final long idDepartament,
+                                                               final long afterEmployeeId, final int chunkSize)
+            throws SQLException {
+
+        final String FIND_EMPLOYEES_CHUNK = """
+                SELECT id_employee
+                FROM departaments_has_employees
+                WHERE id_departament = ? AND id_employee > ?
+                ORDER BY id_employee
+                LIMIT ?;
+                """;
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.findEmployeesChunk", FIND_EMPLOYEES_CHUNK);
+        ps.setLong(1, idDepartament);
+        ps.setLong(2, afterEmployeeId);
+        ps.setInt(3, chunkSize);
+        return ps;
+    }
+
+    private PreparedStatement createQueryForDeleteEmployees(final Connection c, final List<Long> ids)
+            throws SQLException {
+
+        final String DELETE_EMPLOYEES = """
+                DELETE FROM employees WHERE id IN (%s);
+                """.formatted(InClause.placeholders(ids.size()));
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.deleteEmployeesChunk", DELETE_EMPLOYEES);
+        for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+        return ps;
+    }
+
+    private PreparedStatement createQueryForUpdateDeletion(final Connection c, final long idJob,
+                                                           final long lastEmployeeId, final long deleted)
+            throws SQLException {
+
+        final String UPDATE_DELETION = """
+                UPDATE department_deletion_jobs
+                SET last_employee_id = ?, employees_deleted = employees_deleted + ?
+                WHERE id = ?;
+                """;
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.updateDeletion", UPDATE_DELETION);
+        ps.setLong(1, lastEmployeeId);
+        ps.setLong(2, deleted);
+        ps.setLong(3, idJob);
+        return ps;
+    }
+
+    //Locked, a hire commits before the finish or is rejected after it, the last chunk also finds ids behind the job
+    @Override
+    public boolean finishDeletion(final DepartmentDeletionJob job, final int chunkSize) {
+
+        final DeletionChunk chunk = TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+
+                try (PreparedStatement ps = this.createQueryForLockDepartment(c, job.getDepartmentId());
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+
+                final DeletionChunk last = this.deleteEmployeesChunk(c, job, 0, chunkSize);
+                if (this.hasEmployees(c, job.getDepartmentId())) return last;
+
+                try (PreparedStatement ps0 = this.createQueryForDeleteById(c, job.getDepartmentId());
+                     PreparedStatement ps1 = this.createQueryForFinishDeletion(c, job.getId())) {
+                    ps0.executeUpdate();
+                    ps1.executeUpdate();
+                }
+
+                return last.finished();
+
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
+
+        this.advance(job, chunk);
+        if (!chunk.departmentDeleted()) return false;
+
+        job.setStatus(DeletionStatus.FINISHED);
+        nameIndex.remove(job.getDepartmentId());
+        return true;
+    }
+
+    private PreparedStatement createQueryForLockDepartment(final Connection c, final long id)
+            throws SQLException {
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.lockDepartment", "SELECT id FROM departments WHERE id = ? FOR UPDATE;");
+        ps.setLong(1, id);
+        return ps;
+    }
+
+    private boolean hasEmployees(final Connection c, final long idDepartament) throws SQLException {
+
+        final String HAS_EMPLOYEES = """
+                SELECT 1 FROM departaments_has_employees WHERE id_departament = ? LIMIT 1;
+                """;
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, "department.hasEmployees", HAS_EMPLOYEES)) {
+            ps.setLong(1, idDepartament);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private PreparedStatement createQueryForFinishDeletion(final Connection c, final long idJob)
+            throws SQLException {
+
+        final String FINISH_DELETION = """
+                UPDATE department_deletion_jobs
+                SET status = 'FINISHED', finished_at = NOW()
+                WHERE id = ?;
+                """;
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.finishDeletion", FINISH_DELETION);
+        ps.setLong(1, idJob);
+        return ps;
+    }
+
+    private record DeletionChunk(int employees, long deleted, long lastEmployeeId, boolean departmentDeleted) {
+
+        DeletionChunk(final int employees, final long deleted, final long lastEmployeeId) {
+            this(employees, deleted, lastEmployeeId, false);
+        }
+
+        DeletionChunk finished() {
+            return new DeletionChunk(employees, deleted, lastEmployeeId, true);
+        }
+    }
+
+    private DepartmentDeletionJob buildDeletionJob(final ResultSet rs) throws SQLException {
+        return DepartmentDeletionJob.builder()
+                .id(rs.getLong("id"))
+                .departmentId(rs.getLong("id_departament"))
+                .departmentName(rs.getString("department_name"))
+                .status(DeletionStatus.valueOf(rs.getString("status")))
+                .lastEmployeeId(rs.getLong("last_employee_id"))
+                .employeesDeleted(rs.getLong("employees_deleted"))
+                .startedAt(rs.getObject("started_at", LocalDateTime.class))
+                .build();
+    }
+
     //Dismissing all employees from the departament
     private PreparedStatement createQueryForDeleteAssociatedEmployeesById(final Connection c, final long id)
             throws SQLException {
@@ -270,7 +703,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 WHERE d.id_departament = ?;
                 """;
 
-        PreparedStatement ps = c.prepareStatement(DELETE_ASSOCIATED_EMPLOYEES);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.deleteAssociatedEmployeesById", DELETE_ASSOCIATED_EMPLOYEES);
         ps.setLong(1, id);
         return ps;
     }
@@ -283,7 +716,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 WHERE id = ?
                 """;
 
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_ID);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.deleteById", DELETE_BY_ID);
         ps.setLong(1, id);
         return ps;
     }
@@ -299,6 +732,17 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
 
             //Commit delete in departament id delete method
             c.setAutoCommit(false);
+
+            PayrollSummary.subtractJobs(c, "department.lockJobsOfEmployeesByName", """
+                            dhe.id_employee IN (
+                                SELECT x.id_employee FROM departaments_has_employees AS x
+                                JOIN departments AS dp ON dp.id = x.id_departament
+                                WHERE dp.name = ?
+                            )""",
+                    ps -> ps.setString(1, name));
+            final List<Long> employees = this.lockEmployeeIds(c, "department.lockEmployeesByName",
+                    "d.id_departament IN (SELECT dp.id FROM departments AS dp WHERE dp.name = ?)", ps -> ps.setString(1, name));
+
             int rowsDeleted = ps0.executeUpdate();
 
             //Delete department
@@ -306,6 +750,8 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 throw new DbConnectionException(String.format("Departments not found by name %s!", name));
             }
             c.commit();
+            TransactionContext.afterCommit(() -> nameIndex.removeByName(name));
+            this.employeesDeletedAfterCommit(employees);
 
             return rowsDeleted;
 
@@ -323,10 +769,12 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 DELETE e FROM employees AS e
                 INNER JOIN departaments_has_employees AS d
                 ON e.id = d.id_employee
-                WHERE d.name = ? AND e.id = d.id_employee;
+                INNER JOIN departments AS dp
+                ON dp.id = d.id_departament
+                WHERE dp.name = ?;
                 """;
 
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_ID_AND_RETURNS_COUNT_EMPLOYEES);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.deleteAssociatedEmployeesByName", DELETE_BY_ID_AND_RETURNS_COUNT_EMPLOYEES);
         ps.setString(1, name);
         return ps;
     }
@@ -339,7 +787,7 @@ public final class DepartmentRepositoryImpl implements DepartmentRepository {
                 WHERE name = ?
                 """;
 
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_ID);
+        PreparedStatement ps = QueryMetrics.prepare(c, "department.deleteByName", DELETE_BY_ID);
         ps.setString(1, name);
         return ps;
     }
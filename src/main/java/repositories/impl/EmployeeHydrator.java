@@ -0,0 +1,200 @@
+package repositories.impl;
+
+import domain.department.Department;
+import domain.department.Level;
+import dto.employee.EmployeeBaseDTO;
+import dto.employee.NormalEmployeeDTO;
+import dto.employee.SuperiorEmployeeDTO;
+import exceptions.DbConnectionException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+//Builds employees with jobs and inheritance info from one query, instead of three more queries per employee
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EmployeeHydrator {
+
+    private static final String COLUMNS = """
+            SELECT
+                e.id, e.name, e.birth_date, e.age, e.document, e.hire_date,
+                d.id AS department_id, d.name AS department_name, d.creation_date AS department_creation_date,
+                dhe.level, dhe.salary,
+                ne.has_faculty, se.work_experience
+            """;
+
+    private static final String JOINS = """
+            LEFT JOIN
+                departaments_has_employees AS dhe ON dhe.id_employee = e.id
+            LEFT JOIN
+                departments AS d ON d.id = dhe.id_departament
+            LEFT JOIN
+                normal_employees AS ne ON ne.id = e.id
+            LEFT JOIN
+                superior_employees AS se ON se.id = e.id
+            """;
+
+    //One row per job of the employee, the rows of the same employee come together because of the order by id
+    public static final String SELECT_EMPLOYEES = COLUMNS + """
+            FROM
+                employees AS e
+            """ + JOINS;
+
+    /*
+        Keyset page of the employees matching the filter over the employees columns, with id > ? and LIMIT ?.
+        The limit is applied to the ids in a derived table, before the joins multiply the rows per job.
+    */
+    public static String selectPage(final String filter) {
+        return COLUMNS + """
+                FROM
+                    (SELECT id FROM employees WHERE %s AND id > ? ORDER BY id LIMIT ?) AS page
+                JOIN
+                    employees AS e ON e.id = page.id
+                """.formatted(filter) + JOINS + """
+                ORDER BY
+                    e.id
+                """;
+    }
+
+    public static List<EmployeeBaseDTO> hydrateAll(final ResultSet rs) throws SQLException {
+
+        final List<EmployeeBaseDTO> list = new ArrayList<>();
+        final Cursor cursor = new Cursor(rs);
+
+        EmployeeBaseDTO dto;
+        while ((dto = cursor.next()) != null) list.add(dto);
+
+        return list;
+    }
+
+    //Reads one employee at a time, so results can be consumed while the rows arrive
+    public static final class Cursor {
+
+        private final ResultSet rs;
+
+        //True when the result set is positioned in a row not consumed yet
+        private boolean pendingRow;
+        private boolean started;
+
+        public Cursor(final ResultSet rs) {
+            this.rs = rs;
+        }
+
+        //Returns null when there are no more employees
+        public EmployeeBaseDTO next() throws SQLException {
+
+            if (!started) {
+                started = true;
+                pendingRow = rs.next();
+            }
+
+            if (!pendingRow) return null;
+
+            final long id = rs.getLong("id");
+            final String name = rs.getString("name");
+            final LocalDate birthDate = rs.getObject("birth_date", LocalDate.class);
+            final int age = rs.getInt("age");
+            final String document = rs.getString("document");
+            final LocalDateTime hireDate = rs.getObject("hire_date", LocalDateTime.class);
+
+            final Boolean hasFaculty = rs.getObject("has_faculty") == null ? null : rs.getBoolean("has_faculty");
+            final Integer workExperience = rs.getObject("work_experience") == null ? null : rs.getInt("work_experience");
+
+            //Ordered map
+            final Map<Department, Map<Level, BigDecimal>> dls = new TreeMap<>(
+                    Comparator.comparing(Department::getName)
+            );
+
+            do {
+                addJobInformation(rs, dls);
+                pendingRow = rs.next();
+            } while (pendingRow && rs.getLong("id") == id);
+
+            if (dls.isEmpty()) {
+                throw new DbConnectionException("Employee without a job! Check your database!");
+            }
+
+            //The dto can be cached and shared, the mappers copy the jobs for the entity
+            final Map<Department, Map<Level, BigDecimal>> jobs = Collections.unmodifiableMap(dls);
+
+            if (Objects.nonNull(hasFaculty)) {
+                return buildNormalEmployeeDTO(id, name, birthDate, age, document, jobs, hasFaculty, hireDate);
+            }
+
+            if (Objects.nonNull(workExperience)) {
+                return buildSuperiorEmployeeDTO(id, name, birthDate, age, document, jobs, workExperience, hireDate);
+            }
+
+            throw new DbConnectionException(String.format("Employee %d without a type! Check your database!", id));
+        }
+    }
+
+    private static void addJobInformation(final ResultSet rs, final Map<Department, Map<Level, BigDecimal>> dls)
+            throws SQLException {
+
+        //Employee without jobs have only one row with null job columns
+        if (rs.getObject("department_id") == null) return;
+
+        final Department department = Department.builder()
+                .id(rs.getLong("department_id"))
+                .name(rs.getString("department_name"))
+                .creationDate(rs.getObject("department_creation_date", LocalDateTime.class))
+                .build();
+
+        final Level level = Level.valueOf(rs.getString("level"));
+        final BigDecimal salary = rs.getBigDecimal("salary");
+
+        dls.put(department, Map.of(level, salary));
+    }
+
+    private static EmployeeBaseDTO buildNormalEmployeeDTO(final long id,
+                                                          final String name,
+                                                          final LocalDate birthDate,
+                                                          final int age,
+                                                          final String document,
+                                                          final Map<Department, Map<Level, BigDecimal>> dls,
+                                                          final boolean hasFaculty,
+                                                          final LocalDateTime hireDate) {
+        return NormalEmployeeDTO.builder()
+                .id(id)
+                .name(name)
+                .birthDate(birthDate)
+                .age(age)
+                .document(document)
+                .departamentsAndLevelsAndSalaries(dls)
+                .hasFaculty(hasFaculty)
+                .hireDate(hireDate)
+                .build();
+    }
+
+    private static EmployeeBaseDTO buildSuperiorEmployeeDTO(final long id,
+                                                            final String name,
+                                                            final LocalDate birthDate,
+                                                            final int age,
+                                                            final String document,
+                                                            final Map<Department, Map<Level, BigDecimal>> dls,
+                                                            final int workExperience,
+                                                            final LocalDateTime hireDate) {
+        return SuperiorEmployeeDTO.builder()
+                .id(id)
+                .name(name)
+                .birthDate(birthDate)
+                .age(age)
+                .document(document)
+                .departamentsAndLevelsAndSalaries(dls)
+                .workExperience(workExperience)
+                .hireDate(hireDate)
+                .build();
+    }
+}
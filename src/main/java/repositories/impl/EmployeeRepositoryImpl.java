@@ -3,41 +3,59 @@ package repositories.impl;
 import domain.department.Department;
 import repositories.interfaces.EmployeeRepository;
 import database.DbConnection;
+import database.TransactionContext;
+import database.metrics.QueryMetrics;
 import domain.department.Level;
+import domain.department.SalaryAdjustment;
 import domain.employee.Employee;
 import domain.employee.NormalEmployee;
 import domain.employee.SuperiorEmployee;
 import dto.employee.EmployeeBaseDTO;
-import dto.employee.NormalEmployeeDTO;
-import dto.employee.SuperiorEmployeeDTO;
+import dto.employee.SalaryAdjustmentDTO;
+import enums.employee.SalaryAdjustmentType;
 import exceptions.DbConnectionException;
+import index.TrigramIndex;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Date;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Log4j2
 @NoArgsConstructor
 public final class EmployeeRepositoryImpl implements EmployeeRepository {
+
+    //Rows sent per batch in save all, bounding the size of the rewritten multi-row inserts
+    private static final int BATCH_SIZE = 500;
+
+    //Names searched without LIKE '%name%' table scans, loaded in the first search
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private volatile boolean nameIndexLoaded;
+
+    //One job in the filters of the payroll summary changes
+    private static final String JOB_FILTER = "dhe.id_departament = ? AND dhe.id_employee = ?";
+
     @Override
     public void save(final Employee employee) {
 
         log.info("Tryning to save {}.. \n", employee.getName());
 
-        //If error occurs, not open; if not occurs, open and close in save specific employee
-        final Connection c = DbConnection.getConnection();
-
-        try (PreparedStatement ps = this.createQueryForSaveBaseEmployee(c,
-                employee.getName(),
-                employee.getBirthDate(),
-                employee.getAge(),
-                employee.getDocument());
+        //Inside the unit of work of the hire, the commit is done by the unit with the specific employee
+        try (Connection c = DbConnection.getConnection();
+             PreparedStatement ps = this.createQueryForSaveBaseEmployee(c,
+                     employee.getName(),
+                     employee.getBirthDate(),
+                     employee.getAge(),
+                     employee.getDocument());
              ResultSet rs = this.executeSaveEmployee(c, ps)) {
 
             rs.next();
@@ -46,25 +64,14 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
             //Save jobs information in pivot table
             this.saveJobsInformation(c, employee.getId(), employee.getDepartmentsAndLevelsAndSalaries());
+
+            c.commit();
         }
 
         //If employee document already exists
         catch (SQLIntegrityConstraintViolationException e) {
-            try {
-                c.close();
-            } catch (SQLException ee) {
-                log.error(ee.getMessage());
-            }
-
             throw new DbConnectionException("Employee already exists!");
-
-        } catch (Exception e) {
-            try {
-                c.close();
-            } catch (SQLException ee) {
-                log.error(ee.getMessage());
-            }
-
+        } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
 
@@ -82,7 +89,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 VALUES (?, ?, ?, ?)
                 """;
 
-        PreparedStatement ps = c.prepareStatement(SAVE_BASE_EMPLOYEE, Statement.RETURN_GENERATED_KEYS);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.saveBaseEmployee", SAVE_BASE_EMPLOYEE, Statement.RETURN_GENERATED_KEYS);
 
         ps.setString(1, name);
         ps.setDate(2, Date.valueOf(birthDate));
@@ -95,7 +102,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
     private ResultSet executeSaveEmployee(final Connection c, final PreparedStatement ps)
             throws SQLException {
 
-        //Commit will be done in specific methods (superior and normal employee)
+        //Base employee and jobs together
         c.setAutoCommit(false);
 
         ps.executeUpdate();
@@ -109,20 +116,53 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Saving jobs informations.. ");
 
-        //Not commit here
+        //Not commit here, all departments sent in one batch
         try (PreparedStatement ps = this.createQueryForSaveJobsInformations(c)) {
 
-            for (Department d : dls.keySet()) {
-                Level level = dls.get(d).keySet().stream().findFirst().get();
-                BigDecimal salary = dls.get(d).get(level);
-                this.executeSaveJobsInformations(ps, d.getId(), employeeId, level, salary);
-            }
+            this.checkDepartmentsNotBeingDeleted(c, dls.keySet());
+
+            this.addJobsInformationsBatch(ps, employeeId, dls);
+            ps.executeBatch();
+
+            PayrollSummary.apply(c, new PayrollSummary.Deltas().addJobs(dls));
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
     }
 
+    //Locked until the end of the hire, like in the finish of a deletion, so no employee is left without a job
+    private void checkDepartmentsNotBeingDeleted(final Connection c, final Collection<Department> departments)
+            throws SQLException {
+
+        final List<Long> ids = departments.stream().map(Department::getId).distinct().toList();
+        if (ids.isEmpty()) return;
+
+        final String FIND_DEPARTMENTS_BEING_DELETED = """
+                SELECT d.id, dj.department_name
+                FROM departments AS d
+                LEFT JOIN department_deletion_jobs AS dj
+                ON dj.id_departament = d.id AND dj.status = 'RUNNING'
+                WHERE d.id IN (%s)
+                FOR SHARE OF d;
+                """;
+
+        for (List<Long> inList : InClause.chunks(ids)) {
+            try (PreparedStatement ps = QueryMetrics.prepare(c, "employee.lockDepartmentsOfJobs",
+                    FIND_DEPARTMENTS_BEING_DELETED.formatted(InClause.placeholders(inList.size())))) {
+
+                for (int i = 0; i < inList.size(); i++) ps.setLong(i + 1, inList.get(i));
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        final String name = rs.getString("department_name");
+                        if (Objects.nonNull(name)) throw new DbConnectionException(String.format("Departament %s is being deleted!", name));
+                    }
+                }
+            }
+        }
+    }
+
     private PreparedStatement createQueryForSaveJobsInformations(final Connection c)
             throws SQLException {
 
@@ -131,22 +171,132 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 VALUES (?,?,?,?)
                 """;
 
-        return c.prepareStatement(SAVE_JOBS_INFORMATIONS);
+        return QueryMetrics.prepare(c, "employee.saveJobsInformations", SAVE_JOBS_INFORMATIONS);
     }
 
-    private void executeSaveJobsInformations(final PreparedStatement ps,
-                                             final long departamentId,
-                                             final long employeeId,
-                                             final Level level,
-                                             final BigDecimal salary)
+    private void addJobsInformationsBatch(final PreparedStatement ps,
+                                          final long employeeId,
+                                          final Map<Department, Map<Level, BigDecimal>> dls)
             throws SQLException {
 
-        ps.setLong(1, departamentId);
-        ps.setLong(2, employeeId);
-        ps.setString(3, level.name());
-        ps.setBigDecimal(4, salary);
+        for (Department d : dls.keySet()) {
+            Level level = dls.get(d).keySet().stream().findFirst().get();
+            BigDecimal salary = dls.get(d).get(level);
+
+            ps.setLong(1, d.getId());
+            ps.setLong(2, employeeId);
+            ps.setString(3, level.name());
+            ps.setBigDecimal(4, salary);
+            ps.addBatch();
+        }
+    }
+
+    //All employees are saved in one transaction, sending each table in one batch per chunk
+    @Override
+    public void saveAll(final List<Employee> employees) {
+
+        log.info("Tryning to save {} employees in batch.. \n", employees.size());
+
+        boolean committed = false;
+
+        try (Connection c = DbConnection.getConnection()) {
+
+            c.setAutoCommit(false);
+
+            for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+                final List<Employee> chunk = employees.subList(from, Math.min(from + BATCH_SIZE, employees.size()));
+                this.saveBaseEmployeesBatch(c, chunk);
+                this.saveJobsInformationsBatch(c, chunk);
+                this.saveSpecificEmployeesBatch(c, chunk);
+            }
+
+            c.commit();
+            committed = true;
+            TransactionContext.afterCommit(() -> employees.forEach(employee -> nameIndex.put(employee.getId(), employee.getName())));
+
+        } catch (SQLException e) {
+            if (e.getCause() instanceof SQLIntegrityConstraintViolationException cause) {
+                throw new DbConnectionException(String.format("Employee already exists! %s", cause.getMessage()));
+            }
+            throw new DbConnectionException(e.getMessage());
+        } finally {
+            //Any failure before the commit is rolled back when the connection returns to the pool, so the ids are not valid
+            if (!committed) employees.forEach(employee -> employee.setId(null));
+        }
+    }
+
+    private void saveBaseEmployeesBatch(final Connection c, final List<Employee> employees)
+            throws SQLException {
+
+        final String SAVE_BASE_EMPLOYEE = """
+                INSERT INTO employees (name, birth_date, age, document)
+                VALUES (?, ?, ?, ?)
+                """;
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, "employee.saveBaseEmployeesBatch", SAVE_BASE_EMPLOYEE, Statement.RETURN_GENERATED_KEYS)) {
 
-        ps.execute();
+            for (Employee employee : employees) {
+                ps.setString(1, employee.getName());
+                ps.setDate(2, Date.valueOf(employee.getBirthDate()));
+                ps.setInt(3, employee.getAge());
+                ps.setString(4, employee.getDocument());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+
+            //Keys returned in the insertion order
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (Employee employee : employees) {
+                    if (!rs.next()) throw new DbConnectionException("Generated ids not returned for all employees!");
+                    employee.setId(rs.getLong(1));
+                }
+            }
+        }
+    }
+
+    private void saveJobsInformationsBatch(final Connection c, final List<Employee> employees)
+            throws SQLException {
+
+        final PayrollSummary.Deltas deltas = new PayrollSummary.Deltas();
+
+        this.checkDepartmentsNotBeingDeleted(c, employees.stream()
+                .flatMap(employee -> employee.getDepartmentsAndLevelsAndSalaries().keySet().stream())
+                .toList());
+
+        try (PreparedStatement ps = this.createQueryForSaveJobsInformations(c)) {
+            for (Employee employee : employees) {
+                this.addJobsInformationsBatch(ps, employee.getId(), employee.getDepartmentsAndLevelsAndSalaries());
+                deltas.addJobs(employee.getDepartmentsAndLevelsAndSalaries());
+            }
+            ps.executeBatch();
+        }
+
+        //One summary change per department and level of the chunk
+        PayrollSummary.apply(c, deltas);
+    }
+
+    private void saveSpecificEmployeesBatch(final Connection c, final List<Employee> employees)
+            throws SQLException {
+
+        try (PreparedStatement normal = QueryMetrics.prepare(c, "employee.saveNormalEmployeesBatch", "INSERT INTO normal_employees (id, has_faculty) VALUES (?, ?)");
+             PreparedStatement superior = QueryMetrics.prepare(c, "employee.saveSuperiorEmployeesBatch", "INSERT INTO superior_employees (id, work_experience) VALUES (?, ?)")) {
+
+            for (Employee employee : employees) {
+                if (employee instanceof NormalEmployee ne) {
+                    normal.setLong(1, ne.getId());
+                    normal.setBoolean(2, ne.isHasFaculty());
+                    normal.addBatch();
+                } else if (employee instanceof SuperiorEmployee se) {
+                    superior.setLong(1, se.getId());
+                    superior.setInt(2, se.getWorkExperience());
+                    superior.addBatch();
+                }
+            }
+
+            normal.executeBatch();
+            superior.executeBatch();
+        }
     }
 
     @Override
@@ -154,15 +304,12 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Tryning to save {} with your type in inheritance table \n", ne.getName());
 
-        //Get opened connection!
         try (Connection c = DbConnection.getConnection();
              PreparedStatement ps = this.createQueryForSaveNormalEmp(c, ne.getId(),
                      ne.isHasFaculty())) {
 
             ps.execute();
-
-            //Commit Employee with Pivot info and specific instance
-            c.commit();
+            TransactionContext.afterCommit(() -> nameIndex.put(ne.getId(), ne.getName()));
 
         } catch (SQLException e) {
             log.error("Process failure, employee not hired!");
@@ -179,7 +326,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 INSERT INTO normal_employees (id, has_faculty)
                 VALUES (?, ?)""";
 
-        PreparedStatement ps = c.prepareStatement(SAVE_NORMAL_EMP);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.saveNormalEmployee", SAVE_NORMAL_EMP);
         ps.setLong(1, id);
         ps.setBoolean(2, hasFaculty);
         return ps;
@@ -190,15 +337,12 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Tryning to save {} with your type in inheritance table \n", se.getName());
 
-        //Get opened connection!
         try (Connection c = DbConnection.getConnection();
              PreparedStatement ps = this.createQueryForSaveSuperiorEmp(c, se.getId(),
                      se.getWorkExperience())) {
 
             ps.execute();
-
-            //Commit Employee with Pivot info and specific instance
-            c.commit();
+            TransactionContext.afterCommit(() -> nameIndex.put(se.getId(), se.getName()));
 
         } catch (SQLException e) {
             log.error("Process failure, employee not hired!");
@@ -213,7 +357,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 INSERT INTO superior_employees (id, work_experience)
                 VALUES (?, ?)""";
 
-        PreparedStatement ps = c.prepareStatement(SAVE_NORMAL_EMP);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.saveSuperiorEmployee", SAVE_NORMAL_EMP);
         ps.setLong(1, id);
         ps.setInt(2, workExperience);
         return ps;
@@ -229,6 +373,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
             if (ps.executeUpdate() == 0) throw new DbConnectionException("Error in update employee name!");
             employee.setName(newName);
+            TransactionContext.afterCommit(() -> nameIndex.put(employee.getId(), newName));
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
@@ -243,7 +388,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 SET e.name = ?
                 WHERE e.id = ?
                 """;
-        PreparedStatement ps = c.prepareStatement(UPDATE_BY_NAME);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.updateName", UPDATE_BY_NAME);
         ps.setString(1, name);
         ps.setLong(2, id);
         return ps;
@@ -277,7 +422,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 SET e.document = ?
                 WHERE e.id = ?
                 """;
-        PreparedStatement ps = c.prepareStatement(UPDATE_BY_NAME);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.updateDocument", UPDATE_BY_NAME);
         ps.setString(1, document);
         ps.setLong(2, id);
         return ps;
@@ -288,24 +433,30 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Updating seniority of employee {} \n", employee.getName());
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForUpdateLevel(c, department.getId(), employee.getId(), newLevel)) {
+        //The job and the payroll summary in the same transaction
+        TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
 
-            if (ps.executeUpdate() == 0) throw new DbConnectionException("Error in update employee level!");
+                PayrollSummary.replaceJobs(c, "employee.lockJob", JOB_FILTER, ps -> this.bindJob(ps, department, employee), () -> {
+                    try (PreparedStatement ps = this.createQueryForUpdateLevel(c, department.getId(), employee.getId(), newLevel)) {
+                        if (ps.executeUpdate() == 0) throw new DbConnectionException("Error in update employee level!");
+                    }
+                });
 
-            //Set new level in Employee Entity
-            Map<Department, Map<Level, BigDecimal>> aux = employee.getDepartmentsAndLevelsAndSalaries();
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
 
-            final BigDecimal currentSalary = aux
-                    .get(department)
-                    .get(oldLevel);
+        //Set new level in Employee Entity
+        Map<Department, Map<Level, BigDecimal>> aux = employee.getDepartmentsAndLevelsAndSalaries();
 
-            employee.getDepartmentsAndLevelsAndSalaries()
-                    .put(department, Map.of(newLevel, currentSalary));
+        final BigDecimal currentSalary = aux
+                .get(department)
+                .get(oldLevel);
 
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
-        }
+        employee.getDepartmentsAndLevelsAndSalaries()
+                .put(department, Map.of(newLevel, currentSalary));
     }
 
     private PreparedStatement createQueryForUpdateLevel(final Connection c,
@@ -319,7 +470,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 SET level = ?
                 WHERE id_departament = ? AND id_employee = ?;
                 """;
-        PreparedStatement ps = c.prepareStatement(UPDATE_LEVEL);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.updateLevel", UPDATE_LEVEL);
         ps.setString(1, newLevel.name());
         ps.setLong(2, idDepartament);
         ps.setLong(3, idEmployee);
@@ -332,23 +483,33 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Updating salary of employee {} \n", employee.getName());
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForUpdateSalary(c, department.getId(), employee.getId(), newSalary)) {
+        TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
 
-            if (ps.executeUpdate() == 0) throw new DbConnectionException("Error in update employee salary!");
+                PayrollSummary.replaceJobs(c, "employee.lockJob", JOB_FILTER, ps -> this.bindJob(ps, department, employee), () -> {
+                    try (PreparedStatement ps = this.createQueryForUpdateSalary(c, department.getId(), employee.getId(), newSalary)) {
+                        if (ps.executeUpdate() == 0) throw new DbConnectionException("Error in update employee salary!");
+                    }
+                });
 
-            //Set new salary in Employee
-            final Level currentLevel = new ArrayList<>(employee.getDepartmentsAndLevelsAndSalaries()
-                    .get(department)
-                    .keySet()).get(0);
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
 
-            employee.getDepartmentsAndLevelsAndSalaries()
-                    .put(department, Map.of(currentLevel, newSalary));
+        //Set new salary in Employee
+        final Level currentLevel = new ArrayList<>(employee.getDepartmentsAndLevelsAndSalaries()
+                .get(department)
+                .keySet()).get(0);
 
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
-        }
+        employee.getDepartmentsAndLevelsAndSalaries()
+                .put(department, Map.of(currentLevel, newSalary));
+    }
 
+    private void bindJob(final PreparedStatement ps, final Department department, final Employee employee)
+            throws SQLException {
+        ps.setLong(1, department.getId());
+        ps.setLong(2, employee.getId());
     }
 
     private PreparedStatement createQueryForUpdateSalary(final Connection c,
@@ -362,7 +523,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 SET salary = ?
                 WHERE id_departament = ? AND id_employee = ?;
                 """;
-        PreparedStatement ps = c.prepareStatement(UPDATE_SALARY);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.updateSalary", UPDATE_SALARY);
         ps.setBigDecimal(1, newSalary);
         ps.setLong(2, idDepartament);
         ps.setLong(3, idEmployee);
@@ -370,39 +531,218 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
     }
 
     @Override
-    public Optional<EmployeeBaseDTO> findById(final long employeeId) {
+    public SalaryAdjustmentDTO adjustSalaries(final SalaryAdjustment adjustment, final int chunkSize, final boolean dryRun) {
 
-        log.info("Tryning to find by id {} \n", employeeId);
+        if (chunkSize < 1) throw new DbConnectionException("Chunk size should be at least one!");
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps0 = this.createQueryForFindBaseEmployeeById(c, employeeId);
-             ResultSet rs0 = ps0.executeQuery()) {
+        log.info("{}adjusting salaries of {} \n", dryRun ? "Dry run " : "", adjustment);
+
+        if (dryRun) {
+            try (Connection c = DbConnection.getConnection();
+                 PreparedStatement ps = this.createQueryForSalaryTotals(c, adjustment, 0, Long.MAX_VALUE, false);
+                 ResultSet rs = ps.executeQuery()) {
+
+                rs.next();
+                return this.buildSalaryAdjustment(adjustment, rs, 0, true);
+
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        }
+
+        long afterId = 0;
+        long employees = 0;
+        BigDecimal totalBefore = BigDecimal.ZERO;
+        BigDecimal totalAfter = BigDecimal.ZERO;
+        int chunks = 0;
+
+        //Each chunk in its own short transaction, holding the locks of at most chunkSize rows
+        while (true) {
 
-            //Consumed the next row here, got records in specific methods
-            if (rs0.next()) {
-                return Optional.of(this.createEmployeeBaseDTO(c, rs0, employeeId));
+            final long from = afterId;
+            final SalaryChunk chunk;
+            try {
+                chunk = TransactionContext.inTransaction(() -> this.adjustSalaryChunk(adjustment, from, chunkSize));
+            } catch (DbConnectionException e) {
+                throw new DbConnectionException(String.format(
+                        "%s Salaries of %d employees up to id %d were already adjusted!", e.getMessage(), employees, afterId));
             }
 
+            employees += chunk.employees();
+            totalBefore = totalBefore.add(chunk.totalBefore());
+            totalAfter = totalAfter.add(chunk.totalAfter());
+            chunks++;
+
+            if (chunk.lastId() == Long.MAX_VALUE) break;
+            afterId = chunk.lastId();
+        }
+
+        return SalaryAdjustmentDTO.builder()
+                .departmentId(adjustment.getDepartment().getId())
+                .level(adjustment.getLevel())
+                .employees(employees)
+                .totalBefore(totalBefore)
+                .totalAfter(totalAfter)
+                .chunks(chunks)
+                .build();
+    }
+
+    private SalaryChunk adjustSalaryChunk(final SalaryAdjustment adjustment, final long afterId, final int chunkSize) {
+
+        try (Connection c = DbConnection.getConnection()) {
+
+            //Last id of the chunk, or no upper bound when less than chunkSize employees remain
+            long lastId = Long.MAX_VALUE;
+            try (PreparedStatement ps = this.createQueryForSalaryChunkEnd(c, adjustment, afterId, chunkSize);
+                 ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) lastId = rs.getLong(1);
+            }
+
+            final SalaryAdjustmentDTO totals;
+            try (PreparedStatement ps = this.createQueryForSalaryTotals(c, adjustment, afterId, lastId, true);
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                totals = this.buildSalaryAdjustment(adjustment, rs, 1, false);
+            }
+
+            if (totals.getNegativeSalaries() > 0) {
+                throw new DbConnectionException(String.format("%d salaries would be negative!", totals.getNegativeSalaries()));
+            }
+
+            try (PreparedStatement ps = this.createQueryForAdjustSalaries(c, adjustment, afterId, lastId)) {
+                ps.executeUpdate();
+            }
+
+            //Same headcount, the totals locked above are the exact change of the summary
+            PayrollSummary.apply(c, new PayrollSummary.Deltas().add(adjustment.getDepartment().getId(), adjustment.getLevel(),
+                    0, totals.getTotalAfter().subtract(totals.getTotalBefore())));
+
+            return new SalaryChunk(lastId, totals.getEmployees(), totals.getTotalBefore(), totals.getTotalAfter());
+
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
+    }
 
-        return Optional.empty();
+    private PreparedStatement createQueryForSalaryChunkEnd(final Connection c, final SalaryAdjustment adjustment,
+                                                           final long afterId, final int chunkSize)
+            throws SQLException {
+
+        final String FIND_CHUNK_END = """
+                SELECT id_employee
+                FROM departaments_has_employees
+                WHERE id_departament = ? AND level = ? AND id_employee > ?
+                ORDER BY id_employee
+                LIMIT 1 OFFSET ?;
+                """;
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findSalaryChunkEnd", FIND_CHUNK_END);
+        ps.setLong(1, adjustment.getDepartment().getId());
+        ps.setString(2, adjustment.getLevel().name());
+        ps.setLong(3, afterId);
+        ps.setInt(4, chunkSize - 1);
+        return ps;
     }
 
-    private PreparedStatement createQueryForFindBaseEmployeeById(final Connection c, final long employeeId)
+    private PreparedStatement createQueryForSalaryTotals(final Connection c, final SalaryAdjustment adjustment,
+                                                         final long afterId, final long lastId, final boolean lock)
             throws SQLException {
 
-        final String FIND_BASE_EMP = """
+        final String newSalary = newSalaryExpression(adjustment);
+        final String SALARY_TOTALS = """
                 SELECT
-                    e.name, e.birth_date, e.age, e.document, e.hire_date
-                FROM
-                    employees AS e
+                    COUNT(*) AS employees,
+                    COALESCE(SUM(salary), 0) AS total_before,
+                    COALESCE(SUM(%s), 0) AS total_after,
+                    COALESCE(SUM(%s < 0), 0) AS negative_salaries
+                FROM departaments_has_employees
+                WHERE id_departament = ? AND level = ? AND id_employee > ? AND id_employee <= ?
+                %s;
+                """.formatted(newSalary, newSalary, lock ? "FOR UPDATE" : "");
+
+        PreparedStatement ps = QueryMetrics.prepare(c, lock ? "employee.lockSalaryTotals" : "employee.findSalaryTotals", SALARY_TOTALS);
+        ps.setBigDecimal(1, salaryOperand(adjustment));
+        ps.setBigDecimal(2, salaryOperand(adjustment));
+        ps.setLong(3, adjustment.getDepartment().getId());
+        ps.setString(4, adjustment.getLevel().name());
+        ps.setLong(5, afterId);
+        ps.setLong(6, lastId);
+        return ps;
+    }
+
+    private PreparedStatement createQueryForAdjustSalaries(final Connection c, final SalaryAdjustment adjustment,
+                                                           final long afterId, final long lastId)
+            throws SQLException {
+
+        final String ADJUST_SALARIES = """
+                UPDATE departaments_has_employees
+                SET salary = %s
+                WHERE id_departament = ? AND level = ? AND id_employee > ? AND id_employee <= ?;
+                """.formatted(newSalaryExpression(adjustment));
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.adjustSalaries", ADJUST_SALARIES);
+        ps.setBigDecimal(1, salaryOperand(adjustment));
+        ps.setLong(2, adjustment.getDepartment().getId());
+        ps.setString(3, adjustment.getLevel().name());
+        ps.setLong(4, afterId);
+        ps.setLong(5, lastId);
+        return ps;
+    }
+
+    //Rounded to the cents of the decimal(15,2) column, the same expression in the totals and in the update
+    private static String newSalaryExpression(final SalaryAdjustment adjustment) {
+        return adjustment.getType() == SalaryAdjustmentType.PERCENT ? "ROUND(salary * ?, 2)" : "ROUND(salary + ?, 2)";
+    }
+
+    //Percent 7 is the factor 1.07, absolute amounts are added as they are
+    private static BigDecimal salaryOperand(final SalaryAdjustment adjustment) {
+        return adjustment.getType() == SalaryAdjustmentType.PERCENT
+                ? BigDecimal.ONE.add(adjustment.getAmount().movePointLeft(2))
+                : adjustment.getAmount();
+    }
+
+    private SalaryAdjustmentDTO buildSalaryAdjustment(final SalaryAdjustment adjustment, final ResultSet rs,
+                                                      final int chunks, final boolean dryRun)
+            throws SQLException {
+        return SalaryAdjustmentDTO.builder()
+                .departmentId(adjustment.getDepartment().getId())
+                .level(adjustment.getLevel())
+                .employees(rs.getLong("employees"))
+                .totalBefore(rs.getBigDecimal("total_before").setScale(2, RoundingMode.HALF_UP))
+                .totalAfter(rs.getBigDecimal("total_after").setScale(2, RoundingMode.HALF_UP))
+                .negativeSalaries(rs.getLong("negative_salaries"))
+                .chunks(chunks)
+                .dryRun(dryRun)
+                .build();
+    }
+
+    private record SalaryChunk(long lastId, long employees, BigDecimal totalBefore, BigDecimal totalAfter) {
+    }
+
+    @Override
+    public Optional<EmployeeBaseDTO> findById(final long employeeId) {
+
+        log.info("Tryning to find by id {} \n", employeeId);
+
+        try (Connection c = DbConnection.getConnection();
+             PreparedStatement ps = this.createQueryForFindById(c, employeeId);
+             ResultSet rs = ps.executeQuery()) {
+
+            return Optional.ofNullable(new EmployeeHydrator.Cursor(rs).next());
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+    }
+
+    private PreparedStatement createQueryForFindById(final Connection c, final long employeeId)
+            throws SQLException {
+
+        final String FIND_BY_ID = EmployeeHydrator.SELECT_EMPLOYEES + """
                 WHERE
                     e.id = ?
                 """;
 
-        PreparedStatement ps = c.prepareStatement(FIND_BASE_EMP);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findById", FIND_BY_ID);
         ps.setLong(1, employeeId);
         return ps;
     }
@@ -412,15 +752,104 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Tryning to find by name {} \n", name);
 
-        final List<EmployeeBaseDTO> list = new ArrayList<>();
+        final List<Long> ids = this.getNameIndex().search(name);
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        final List<EmployeeBaseDTO> list = this.findByIdList(ids);
+        this.removeStaleNames(ids, list);
+
+        return list;
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByName(final String name, final long afterId, final int limit) {
+
+        log.info("Tryning to find by name {} after id {} \n", name, afterId);
+
+        final List<Long> ids = this.getNameIndex().search(name).stream()
+                .filter(id -> id > afterId)
+                .toList();
+
+        //Stale ids found in the page are replaced by the next ones, keeping the page full
+        final List<EmployeeBaseDTO> page = new ArrayList<>(limit);
+        int from = 0;
+        while (page.size() < limit && from < ids.size()) {
+
+            final List<Long> chunk = ids.subList(from, Math.min(from + limit - page.size(), ids.size()));
+            final List<EmployeeBaseDTO> found = this.findByIdList(chunk);
+            this.removeStaleNames(chunk, found);
+
+            page.addAll(found);
+            from += chunk.size();
+        }
+
+        return page;
+    }
+
+    //Employees deleted by other filters are still indexed, removed when they are not found
+    private void removeStaleNames(final List<Long> ids, final List<EmployeeBaseDTO> found) {
+
+        if (found.size() == ids.size()) return;
+
+        final Set<Long> stale = new HashSet<>(ids);
+        found.forEach(dto -> stale.remove(dto.getId()));
+        nameIndex.removeAll(stale);
+    }
+
+    private TrigramIndex getNameIndex() {
+
+        if (!nameIndexLoaded) {
+            synchronized (nameIndex) {
+                if (!nameIndexLoaded) {
+                    this.loadNameIndex();
+                    nameIndexLoaded = true;
+                }
+            }
+        }
+
+        return nameIndex;
+    }
+
+    private void loadNameIndex() {
+
+        log.info("Loading employee names index.. \n");
+
         try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps0 = this.createQueryForFindByName(c, name);
-             ResultSet rs0 = ps0.executeQuery()) {
+             PreparedStatement ps = this.createQueryForFindAllNames(c);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) nameIndex.put(rs.getLong("id"), rs.getString("name"));
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+
+        log.info("{} employee names indexed \n", nameIndex.size());
+    }
+
+    private PreparedStatement createQueryForFindAllNames(final Connection c)
+            throws SQLException {
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findAllNames", "SELECT e.id, e.name FROM employees AS e",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+        //Connector/J streams the rows one by one instead of loading the whole table
+        ps.setFetchSize(Integer.MIN_VALUE);
+        return ps;
+    }
+
+    //Fetches by primary key, in chunks to bound the IN list
+    private List<EmployeeBaseDTO> findByIdList(final Collection<Long> ids) {
+
+        final List<EmployeeBaseDTO> list = new ArrayList<>();
+
+        try (Connection c = DbConnection.getConnection()) {
 
-            while (rs0.next()) {
-                long id = rs0.getLong("id");
-                EmployeeBaseDTO dto = this.createEmployeeBaseDTO(c, rs0, id);
-                list.add(dto);
+            for (List<Long> chunk : InClause.chunks(ids)) {
+                try (PreparedStatement ps = this.createQueryForFindByIds(c, chunk);
+                     ResultSet rs = ps.executeQuery()) {
+                    list.addAll(EmployeeHydrator.hydrateAll(rs));
+                }
             }
 
         } catch (SQLException e) {
@@ -430,18 +859,72 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
         return list;
     }
 
+    private PreparedStatement createQueryForFindByIds(final Connection c, final List<Long> ids)
+            throws SQLException {
+
+        final String FIND_BY_IDS = EmployeeHydrator.SELECT_EMPLOYEES + """
+                WHERE
+                    e.id IN (%s)
+                ORDER BY
+                    e.id
+                """.formatted(InClause.placeholders(ids.size()));
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findByIds", FIND_BY_IDS);
+        for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+        return ps;
+    }
+
+    //Every distinct id informed is a key, in the order informed, empty when the employee was not found
+    @Override
+    public Map<Long, Optional<EmployeeBaseDTO>> findByIds(final Collection<Long> employeeIds) {
+
+        log.info("Tryning to find {} employees by id \n", employeeIds.size());
+
+        final Map<Long, EmployeeBaseDTO> found = new HashMap<>();
+        this.findByIdList(employeeIds).forEach(dto -> found.put(dto.getId(), dto));
+
+        final Map<Long, Optional<EmployeeBaseDTO>> result = new LinkedHashMap<>();
+        employeeIds.forEach(id -> result.put(id, Optional.ofNullable(found.get(id))));
+        return result;
+    }
+
+    @Override
+    public Map<String, Optional<EmployeeBaseDTO>> findByDocuments(final Collection<String> documents) {
+
+        log.info("Tryning to find {} employees by document \n", documents.size());
+
+        final Map<String, EmployeeBaseDTO> found = new HashMap<>();
+
+        try (Connection c = DbConnection.getConnection()) {
+
+            for (List<String> chunk : InClause.chunks(documents)) {
+                try (PreparedStatement ps = this.createQueryForFindByDocuments(c, chunk);
+                     ResultSet rs = ps.executeQuery()) {
+                    EmployeeHydrator.hydrateAll(rs).forEach(dto -> found.put(dto.getDocument(), dto));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
 
-    private PreparedStatement createQueryForFindByName(final Connection c, final String name)
+        final Map<String, Optional<EmployeeBaseDTO>> result = new LinkedHashMap<>();
+        documents.forEach(document -> result.put(document, Optional.ofNullable(found.get(document))));
+        return result;
+    }
+
+    private PreparedStatement createQueryForFindByDocuments(final Connection c, final List<String> documents)
             throws SQLException {
 
-        final String FIND_BY_NAME = """
-                    SELECT e.id, e.name, e.birth_date, e.age, e.document, e.hire_date
-                    FROM employees AS e
-                    WHERE e.name LIKE ?;
-                """;
+        final String FIND_BY_DOCUMENTS = EmployeeHydrator.SELECT_EMPLOYEES + """
+                WHERE
+                    e.document IN (%s)
+                ORDER BY
+                    e.id
+                """.formatted(InClause.placeholders(documents.size()));
 
-        PreparedStatement ps = c.prepareStatement(FIND_BY_NAME);
-        ps.setString(1, "%" + name + "%");
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findByDocuments", FIND_BY_DOCUMENTS);
+        for (int i = 0; i < documents.size(); i++) ps.setString(i + 1, documents.get(i));
         return ps;
     }
 
@@ -451,30 +934,24 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
         log.info("Tryning to find by document {} \n", document);
 
         try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps0 = this.createQueryForFindByDocument(c, document);
-             ResultSet rs0 = ps0.executeQuery()) {
+             PreparedStatement ps = this.createQueryForFindByDocument(c, document);
+             ResultSet rs = ps.executeQuery()) {
 
-            if (rs0.next()) {
-                final long id = rs0.getLong("id");
-                return Optional.of(this.createEmployeeBaseDTO(c, rs0, id));
-            }
+            return Optional.ofNullable(new EmployeeHydrator.Cursor(rs).next());
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
-
-        return Optional.empty();
     }
 
     private PreparedStatement createQueryForFindByDocument(final Connection c, final String document)
             throws SQLException {
 
-        final String FIND_BY_DOCUMENT = """
-                SELECT e.id, e.name, e.birth_date, e.age, e.document, e.hire_date
-                FROM employees AS e
-                WHERE e.document = ?;
+        final String FIND_BY_DOCUMENT = EmployeeHydrator.SELECT_EMPLOYEES + """
+                WHERE
+                    e.document = ?
                 """;
-        PreparedStatement ps = c.prepareStatement(FIND_BY_DOCUMENT);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findByDocument", FIND_BY_DOCUMENT);
         ps.setString(1, document);
         return ps;
     }
@@ -483,94 +960,275 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
     public List<EmployeeBaseDTO> findByHireDate(final LocalDate hireDateWithoutTime) {
 
         log.info("Tryning to find by hire date {} \n", hireDateWithoutTime);
-        final List<EmployeeBaseDTO> list = new ArrayList<>();
+        return this.findByHireDateBetween(hireDateWithoutTime, hireDateWithoutTime);
+    }
+
+    //Both days included
+    @Override
+    public List<EmployeeBaseDTO> findByHireDateRange(final LocalDate from, final LocalDate to) {
+
+        log.info("Tryning to find by hire date between {} and {} \n", from, to);
+        return this.findByHireDateBetween(from, to);
+    }
+
+    private List<EmployeeBaseDTO> findByHireDateBetween(final LocalDate from, final LocalDate to) {
 
         try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps0 = this.createQueryForFindByHireDate(c, hireDateWithoutTime);
-             ResultSet rs0 = ps0.executeQuery()) {
+             PreparedStatement ps = this.createQueryForFindByHireDate(c, from, to);
+             ResultSet rs = ps.executeQuery()) {
 
-            while (rs0.next()) {
-                long id = rs0.getLong("id");
-                EmployeeBaseDTO dto = this.createEmployeeBaseDTO(c, rs0, id);
-                list.add(dto);
-            }
+            return EmployeeHydrator.hydrateAll(rs);
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
-
-        return list;
     }
 
+    //Half-open range over the column, without functions, so the hire date index can be used
     private PreparedStatement createQueryForFindByHireDate(final Connection c,
-                                                           final LocalDate hireDateWithoutTime)
+                                                           final LocalDate from,
+                                                           final LocalDate to)
             throws SQLException {
 
-        final String FIND_BY_HIRE_DATE = """
-                SELECT e.id, e.name, e.birth_date, e.age, e.document, e.hire_date
-                FROM employees AS e
-                WHERE DATE(e.hire_date) = ?;
+        final String FIND_BY_HIRE_DATE = EmployeeHydrator.SELECT_EMPLOYEES + """
+                WHERE
+                    e.hire_date >= ? AND e.hire_date < ?
+                ORDER BY
+                    e.id
                 """;
 
-        PreparedStatement ps = c.prepareStatement(FIND_BY_HIRE_DATE);
-        ps.setDate(1, Date.valueOf(hireDateWithoutTime));
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findByHireDate", FIND_BY_HIRE_DATE);
+        ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+        ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
         return ps;
     }
 
     @Override
     public List<EmployeeBaseDTO> findByAge(int age) {
 
-        final List<EmployeeBaseDTO> list = new ArrayList<>();
-
         try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps0 = this.createQueryForFindByAge(c, age);
-             ResultSet rs0 = ps0.executeQuery()) {
+             PreparedStatement ps = this.createQueryForFindByAge(c, age);
+             ResultSet rs = ps.executeQuery()) {
 
-            while (rs0.next()) {
-                long id = rs0.getLong("id");
-                list.add(this.createEmployeeBaseDTO(c, rs0, id));
-            }
+            return EmployeeHydrator.hydrateAll(rs);
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
-
-        return list;
     }
 
     private PreparedStatement createQueryForFindByAge(final Connection c, final int age)
             throws SQLException {
 
-        final String FIND_BY_AGE = """
-                SELECT e.id, e.name, e.birth_date, e.age, e.document, e.hire_date
-                FROM employees AS e
-                WHERE e.age = ?;
+        final String FIND_BY_AGE = EmployeeHydrator.SELECT_EMPLOYEES + """
+                WHERE
+                    e.age = ?
+                ORDER BY
+                    e.id
                 """;
-        PreparedStatement ps = c.prepareStatement(FIND_BY_AGE);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findByAge", FIND_BY_AGE);
         ps.setInt(1, age);
         return ps;
     }
 
     @Override
-    public int deleteById(long id) {
+    public List<EmployeeBaseDTO> findByAge(final int age, final long afterId, final int limit) {
 
-        log.info("Tryning to delete employee with id {} \n", id);
+        log.info("Tryning to find by age {} after id {} \n", age, afterId);
 
         try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForDeleteById(c, id)) {
+             PreparedStatement ps = this.createQueryForFindPageByAge(c, age, afterId, limit);
+             ResultSet rs = ps.executeQuery()) {
 
-            final int deletedRows = ps.executeUpdate();
-            if (deletedRows == 0) {
-                throw new DbConnectionException(String.format("No employees found by id %d, nobody sacked!", id));
-            }
+            return EmployeeHydrator.hydrateAll(rs);
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+    }
+
+    private PreparedStatement createQueryForFindPageByAge(final Connection c,
+                                                          final int age,
+                                                          final long afterId,
+                                                          final int limit)
+            throws SQLException {
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findPageByAge", EmployeeHydrator.selectPage("age = ?"));
+        ps.setInt(1, age);
+        ps.setLong(2, afterId);
+        ps.setInt(3, limit);
+        return ps;
+    }
+
+    @Override
+    public List<EmployeeBaseDTO> findByHireDateRange(final LocalDate from,
+                                                     final LocalDate to,
+                                                     final long afterId,
+                                                     final int limit) {
 
-            return deletedRows;
+        log.info("Tryning to find by hire date between {} and {} after id {} \n", from, to, afterId);
+
+        try (Connection c = DbConnection.getConnection();
+             PreparedStatement ps = this.createQueryForFindPageByHireDate(c, from, to, afterId, limit);
+             ResultSet rs = ps.executeQuery()) {
+
+            return EmployeeHydrator.hydrateAll(rs);
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
         }
+    }
+
+    private PreparedStatement createQueryForFindPageByHireDate(final Connection c,
+                                                               final LocalDate from,
+                                                               final LocalDate to,
+                                                               final long afterId,
+                                                               final int limit)
+            throws SQLException {
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.findPageByHireDate", EmployeeHydrator.selectPage("hire_date >= ? AND hire_date < ?"));
+        ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+        ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        ps.setLong(3, afterId);
+        ps.setInt(4, limit);
+        return ps;
+    }
+
+    @Override
+    public Stream<EmployeeBaseDTO> streamAll() {
+
+        log.info("Streaming all employees \n");
+
+        return this.stream(c -> this.createQueryForStream(c, "employee.streamAll", EmployeeHydrator.SELECT_EMPLOYEES + """
+                ORDER BY
+                    e.id
+                """));
+    }
+
+    @Override
+    public Stream<EmployeeBaseDTO> streamByAge(final int age) {
+
+        log.info("Streaming employees by age {} \n", age);
+
+        return this.stream(c -> {
+            final PreparedStatement ps = this.createQueryForStream(c, "employee.streamByAge", EmployeeHydrator.SELECT_EMPLOYEES + """
+                    WHERE
+                        e.age = ?
+                    ORDER BY
+                        e.id
+                    """);
+            ps.setInt(1, age);
+            return ps;
+        });
+    }
+
+    @Override
+    public Stream<EmployeeBaseDTO> streamByHireDateRange(final LocalDate from, final LocalDate to) {
+
+        log.info("Streaming employees by hire date between {} and {} \n", from, to);
+
+        return this.stream(c -> {
+            final PreparedStatement ps = this.createQueryForStream(c, "employee.streamByHireDateRange", EmployeeHydrator.SELECT_EMPLOYEES + """
+                    WHERE
+                        e.hire_date >= ? AND e.hire_date < ?
+                    ORDER BY
+                        e.id
+                    """);
+            ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            return ps;
+        });
+    }
+
+    private PreparedStatement createQueryForStream(final Connection c, final String name, final String sql)
+            throws SQLException {
+
+        PreparedStatement ps = QueryMetrics.prepare(c, name, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+        //Connector/J streams the rows one by one instead of loading the whole result
+        ps.setFetchSize(Integer.MIN_VALUE);
+        return ps;
+    }
+
+    //Employees are mapped while the rows arrive, the connection is only released when the stream is closed
+    private Stream<EmployeeBaseDTO> stream(final QueryFactory query) {
+
+        final Connection c = DbConnection.getConnection();
+        try {
+            final PreparedStatement ps = query.create(c);
+            final ResultSet rs = ps.executeQuery();
+            final EmployeeHydrator.Cursor cursor = new EmployeeHydrator.Cursor(rs);
+
+            final Spliterator<EmployeeBaseDTO> spliterator = new Spliterators.AbstractSpliterator<>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+                @Override
+                public boolean tryAdvance(final Consumer<? super EmployeeBaseDTO> action) {
+                    try {
+                        final EmployeeBaseDTO dto = cursor.next();
+                        if (dto == null) return false;
+
+                        action.accept(dto);
+                        return true;
+
+                    } catch (SQLException e) {
+                        throw new DbConnectionException(e.getMessage());
+                    }
+                }
+            };
+
+            return StreamSupport.stream(spliterator, false).onClose(() -> this.closeStream(rs, ps, c));
+
+        } catch (SQLException | RuntimeException e) {
+            this.closeStream(c);
+            throw e instanceof SQLException ? new DbConnectionException(e.getMessage()) : (RuntimeException) e;
+        }
+    }
+
+    private void closeStream(final AutoCloseable... resources) {
+
+        DbConnectionException error = null;
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (error == null) error = new DbConnectionException(e.getMessage());
+            }
+        }
 
+        if (error != null) throw error;
+    }
+
+    @FunctionalInterface
+    private interface QueryFactory {
+        PreparedStatement create(Connection c) throws SQLException;
+    }
+
+    @Override
+    public int deleteById(long id) {
+
+        log.info("Tryning to delete employee with id {} \n", id);
+
+        final int deletedRows = TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+
+                PayrollSummary.subtractJobs(c, "employee.lockJobsById", "dhe.id_employee = ?", ps -> ps.setLong(1, id));
+
+                try (PreparedStatement ps = this.createQueryForDeleteById(c, id)) {
+                    final int deleted = ps.executeUpdate();
+                    if (deleted == 0) {
+                        throw new DbConnectionException(String.format("No employees found by id %d, nobody sacked!", id));
+                    }
+                    TransactionContext.afterCommit(() -> nameIndex.remove(id));
+                    return deleted;
+                }
+
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
 
+        return deletedRows;
     }
 
     private PreparedStatement createQueryForDeleteById(final Connection c, final long id)
@@ -580,7 +1238,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 DELETE FROM employees
                 WHERE id = ?;
                 """;
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_ID);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.deleteById", DELETE_BY_ID);
         ps.setLong(1, id);
         return ps;
     }
@@ -591,20 +1249,28 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Tryning to delete employees called {} \n", name);
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForDeleteByName(c, name)) {
+        final int deletedRows = TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
 
-            final int deletedRows = ps.executeUpdate();
-            if (deletedRows == 0) {
-                throw new DbConnectionException(String.format("No employees found by name %s, nobody sacked!", name));
-            }
+                PayrollSummary.subtractJobs(c, "employee.lockJobsByName",
+                        "dhe.id_employee IN (SELECT e.id FROM employees AS e WHERE LOWER(e.name) = LOWER(?))",
+                        ps -> ps.setString(1, name));
 
-            return deletedRows;
+                try (PreparedStatement ps = this.createQueryForDeleteByName(c, name)) {
+                    final int deleted = ps.executeUpdate();
+                    if (deleted == 0) {
+                        throw new DbConnectionException(String.format("No employees found by name %s, nobody sacked!", name));
+                    }
+                    TransactionContext.afterCommit(() -> nameIndex.removeByName(name));
+                    return deleted;
+                }
 
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
-        }
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
 
+        return deletedRows;
     }
 
     private PreparedStatement createQueryForDeleteByName(final Connection c, final String name)
@@ -615,7 +1281,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 WHERE LOWER(name) = LOWER(?);
                 """;
 
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_NAME);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.deleteByName", DELETE_BY_NAME);
         ps.setString(1, name);
         return ps;
     }
@@ -625,20 +1291,26 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
 
         log.info("Tryning to delete employee with a document {} \n", document);
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForDeleteByDocument(c, document)) {
-
-            int deletedRows = ps.executeUpdate();
-            if (deletedRows == 0) {
-                throw new DbConnectionException(String.format("No employees found by document %s, nobody sacked!", document));
-            }
+        return TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
 
-            return deletedRows;
+                PayrollSummary.subtractJobs(c, "employee.lockJobsByDocument",
+                        "dhe.id_employee IN (SELECT e.id FROM employees AS e WHERE e.document = ?)",
+                        ps -> ps.setString(1, document));
+                this.removeNamesAfterCommit(c, "employee.lockIdsByDocument", "e.document = ?", ps -> ps.setString(1, document));
 
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
-        }
+                try (PreparedStatement ps = this.createQueryForDeleteByDocument(c, document)) {
+                    int deletedRows = ps.executeUpdate();
+                    if (deletedRows == 0) {
+                        throw new DbConnectionException(String.format("No employees found by document %s, nobody sacked!", document));
+                    }
+                    return deletedRows;
+                }
 
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
     }
 
     private PreparedStatement createQueryForDeleteByDocument(final Connection c, final String document)
@@ -648,7 +1320,7 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 DELETE FROM employees
                 WHERE document = ?;
                 """;
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_DOCUMENT);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.deleteByDocument", DELETE_BY_DOCUMENT);
         ps.setString(1, document);
         return ps;
     }
@@ -656,53 +1328,98 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
     @Override
     public int deleteByHireDate(final LocalDate hireDateWithoutTime) {
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForDeleteHireDate(c, hireDateWithoutTime)) {
+        final int deletedRows = this.deleteByHireDateBetween(hireDateWithoutTime, hireDateWithoutTime);
+        if (deletedRows == 0) {
+            throw new DbConnectionException(String.format("No employees found by hire date %s, nobody sacked!",
+                    DateTimeFormatter.ofPattern("dd/MM/yyyy").format(hireDateWithoutTime)));
+        }
 
-            int deletedRows = ps.executeUpdate();
-            if (deletedRows == 0) {
-                throw new DbConnectionException(String.format("No employees found by hire date %s, nobody sacked!",
-                        DateTimeFormatter.ofPattern("dd/MM/yyyy").format(hireDateWithoutTime)));
-            }
+        return deletedRows;
+    }
 
-            return deletedRows;
+    //Both days included
+    @Override
+    public int deleteByHireDateRange(final LocalDate from, final LocalDate to) {
 
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
+        log.info("Tryning to delete employees hired between {} and {} \n", from, to);
+
+        final int deletedRows = this.deleteByHireDateBetween(from, to);
+        if (deletedRows == 0) {
+            final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            throw new DbConnectionException(String.format("No employees found hired between %s and %s, nobody sacked!",
+                    dtf.format(from), dtf.format(to)));
         }
 
+        return deletedRows;
+    }
+
+    private int deleteByHireDateBetween(final LocalDate from, final LocalDate to) {
+
+        return TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+
+                PayrollSummary.subtractJobs(c, "employee.lockJobsByHireDate",
+                        "dhe.id_employee IN (SELECT e.id FROM employees AS e WHERE e.hire_date >= ? AND e.hire_date < ?)",
+                        ps -> {
+                            ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+                            ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+                        });
+                this.removeNamesAfterCommit(c, "employee.lockIdsByHireDate", "e.hire_date >= ? AND e.hire_date < ?",
+                        ps -> {
+                            ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+                            ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+                        });
+
+                try (PreparedStatement ps = this.createQueryForDeleteHireDate(c, from, to)) {
+                    return ps.executeUpdate();
+                }
+
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
     }
 
     private PreparedStatement createQueryForDeleteHireDate(final Connection c,
-                                                           final LocalDate hireDateWithoutTime)
+                                                           final LocalDate from,
+                                                           final LocalDate to)
             throws SQLException {
 
-        final String DELETE_BY_DOCUMENT = """
+        final String DELETE_BY_HIRE_DATE = """
                 DELETE FROM employees
-                WHERE DATE(hire_date) = ?;
+                WHERE hire_date >= ? AND hire_date < ?;
                 """;
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_DOCUMENT);
-        ps.setDate(1, Date.valueOf(hireDateWithoutTime));
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.deleteByHireDate", DELETE_BY_HIRE_DATE);
+        ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+        ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
         return ps;
     }
 
     @Override
     public int deleteByDepartment(final Department department) {
 
-        try (Connection c = DbConnection.getConnection();
-             PreparedStatement ps = this.createQueryForDeleteByDepartament(c, department.getId())) {
+        return TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+
+                //All the jobs of the employees, also the ones in other departments
+                PayrollSummary.subtractJobs(c, "employee.lockJobsByDepartment", PayrollSummary.JOBS_OF_DEPARTMENT_EMPLOYEES,
+                        ps -> ps.setLong(1, department.getId()));
+                this.removeNamesAfterCommit(c, "employee.lockIdsByDepartment",
+                        "e.id IN (SELECT dhe.id_employee FROM departaments_has_employees AS dhe WHERE dhe.id_departament = ?)",
+                        ps -> ps.setLong(1, department.getId()));
+
+                try (PreparedStatement ps = this.createQueryForDeleteByDepartament(c, department.getId())) {
+                    int deletedRows = ps.executeUpdate();
+                    if (deletedRows == 0) {
+                        throw new DbConnectionException(String.format("No employees found by departament %s, nobody sacked!", department.getName()));
+                    }
+                    return deletedRows;
+                }
 
-            int deletedRows = ps.executeUpdate();
-            if (deletedRows == 0) {
-                throw new DbConnectionException(String.format("No employees found by departament %s, nobody sacked!", department.getName()));
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
             }
-
-            return deletedRows;
-
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
-        }
-
+        });
     }
 
     private PreparedStatement createQueryForDeleteByDepartament(final Connection c,
@@ -715,177 +1432,29 @@ public final class EmployeeRepositoryImpl implements EmployeeRepository {
                 ON e.id = d.id_employee
                 WHERE d.id_departament = ?;
                 """;
-        PreparedStatement ps = c.prepareStatement(DELETE_BY_DOCUMENT);
+        PreparedStatement ps = QueryMetrics.prepare(c, "employee.deleteByDepartament", DELETE_BY_DOCUMENT);
         ps.setLong(1, departamentId);
         return ps;
     }
 
-    //Return a specific type of Employee Base DTO with all atributtes
-    private EmployeeBaseDTO createEmployeeBaseDTO(final Connection c,
-                                                  final ResultSet rs0,
-                                                  final long employeeId) {
-
-        log.info("Tryning to find jobs and inheritance info.. \n");
-
-        try (PreparedStatement ps1 = this.createQueryForFindJobsInformations(c, employeeId);
-             ResultSet rs1 = ps1.executeQuery()) {
-
-            //Base employee data
-            final String name = rs0.getString("name");
-            final LocalDate birthDate = rs0.getObject("birth_date", LocalDate.class);
-            final int age = rs0.getInt("age");
-            final String document = rs0.getString("document");
-            final LocalDateTime hireDate = rs0.getObject("hire_date", LocalDateTime.class);
-
-            final Map<Department, Map<Level, BigDecimal>> dls = this.createJobsInformation(rs1);
-            if (dls.isEmpty()) {
-                throw new DbConnectionException("Employee without a job! Check your database!");
-            }
-
-            //Find normal, if exists return
-            try (PreparedStatement ps2 = this.createQueryForFindNormalEmpById(c, employeeId);
-                 ResultSet rs2 = ps2.executeQuery()) {
-                if (rs2.next()) {
-                    boolean hasFaculty = rs2.getBoolean("has_faculty");
-                    return this.buildNormalEmployeeDTO(employeeId, name, birthDate, age, document, dls, hasFaculty, hireDate);
-                }
-            }
-
-            //If not exists, find superior
-            try (PreparedStatement ps3 = this.createQueryForFindSuperiorEmpById(c, employeeId);
-                 ResultSet rs3 = ps3.executeQuery()) {
-                rs3.next();
-                int workExperience = rs3.getInt("work_experience");
-                return this.buildSuperiorEmployeeDTO(employeeId, name, birthDate, age, document, dls, workExperience, hireDate);
-            }
-
-        } catch (SQLException e) {
-            throw new DbConnectionException(e.getMessage());
-        }
-    }
-
-    private PreparedStatement createQueryForFindJobsInformations(final Connection c, final long employeeId)
-            throws SQLException {
-
-        final String FIND_JOBS_INFORMATIONS = """
-                SELECT
-                    d.id, d.name, d.creation_date, dhe.level, dhe.salary
-                FROM
-                    departments AS d
-                INNER JOIN
-                    departaments_has_employees AS dhe
-                ON
-                    d.id = dhe.id_departament
-                WHERE
-                    dhe.id_employee = ?
-                """;
-        PreparedStatement ps = c.prepareStatement(FIND_JOBS_INFORMATIONS);
-        ps.setLong(1, employeeId);
-        return ps;
-    }
-
-    private Map<Department, Map<Level, BigDecimal>> createJobsInformation(final ResultSet rs1)
+    //Ids the delete removes, locked until it ends, they leave the names index only once it commits
+    private void removeNamesAfterCommit(final Connection c, final String name, final String filter,
+                                        final PayrollSummary.Binder binder)
             throws SQLException {
 
-        //Ordered map
-        final Map<Department, Map<Level, BigDecimal>> dls = new TreeMap<>(
-                Comparator.comparing(Department::getName)
-        );
-
-        while (rs1.next()) {
-            Long id = rs1.getLong("id");
-            String name = rs1.getString("name");
-            LocalDateTime creationDate = rs1.getObject("creation_date", LocalDateTime.class);
-            Department department = Department.builder()
-                    .id(id)
-                    .name(name)
-                    .creationDate(creationDate)
-                    .build();
-
-            Level level = Level.valueOf(rs1.getString("level"));
-            BigDecimal salary = rs1.getBigDecimal("salary");
-
-            dls.put(department, Map.of(level, salary));
+        final List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = QueryMetrics.prepare(c, name, "SELECT e.id FROM employees AS e WHERE %s FOR UPDATE;".formatted(filter))) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getLong(1));
+            }
         }
 
-        return dls;
+        TransactionContext.afterCommit(() -> nameIndex.removeAll(ids));
     }
 
-    private PreparedStatement createQueryForFindNormalEmpById(final Connection c, final long employeeId)
-            throws SQLException {
-
-        final String FIND_NORMAL_EMP = """
-                SELECT
-                    ne.has_faculty
-                FROM
-                    normal_employees AS ne
-                WHERE
-                    ne.id = ?;
-                """;
-
-        PreparedStatement ps = c.prepareStatement(FIND_NORMAL_EMP);
-        ps.setLong(1, employeeId);
-        return ps;
-    }
-
-    private PreparedStatement createQueryForFindSuperiorEmpById(final Connection c, final long id)
-            throws SQLException {
-
-        final String FIND_NORMAL_EMP = """
-                SELECT
-                    se.work_experience
-                FROM
-                    superior_employees AS se
-                INNER JOIN
-                    employees AS e ON e.id = se.id
-                WHERE
-                    se.id = ?;
-                """;
-
-        PreparedStatement ps = c.prepareStatement(FIND_NORMAL_EMP);
-        ps.setLong(1, id);
-        return ps;
+    //Employees deleted by the department repository, called after its commit
+    public void removeNames(final Collection<Long> ids) {
+        nameIndex.removeAll(ids);
     }
-
-    private EmployeeBaseDTO buildNormalEmployeeDTO(final long id,
-                                                   final String name,
-                                                   final LocalDate birthDate,
-                                                   final int age,
-                                                   final String document,
-                                                   final Map<Department, Map<Level, BigDecimal>> dls,
-                                                   final boolean hasFaculty,
-                                                   final LocalDateTime hireDate) {
-        return NormalEmployeeDTO.builder()
-                .id(id)
-                .name(name)
-                .birthDate(birthDate)
-                .age(age)
-                .document(document)
-                .departamentsAndLevelsAndSalaries(dls)
-                .hasFaculty(hasFaculty)
-                .hireDate(hireDate)
-                .build();
-    }
-
-    private EmployeeBaseDTO buildSuperiorEmployeeDTO(final long id,
-                                                     final String name,
-                                                     final LocalDate birthDate,
-                                                     final int age,
-                                                     final String document,
-                                                     final Map<Department, Map<Level, BigDecimal>> dls,
-                                                     int workExperience,
-                                                     final LocalDateTime hireDate) {
-        return SuperiorEmployeeDTO.builder()
-                .id(id)
-                .name(name)
-                .birthDate(birthDate)
-                .age(age)
-                .document(document)
-                .departamentsAndLevelsAndSalaries(dls)
-                .workExperience(workExperience)
-                .hireDate(hireDate)
-                .build();
-    }
-
-
 }
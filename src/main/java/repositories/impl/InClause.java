@@ -0,0 +1,55 @@
+package repositories.impl;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/*
+    IN lists with at most MAX_SIZE values. Each chunk is padded to one of a few fixed sizes repeating its last
+    value, so any number of values is found with the same handful of sql texts and their cached statements.
+*/
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class InClause {
+
+    static final int MAX_SIZE = 1_000;
+
+    private static final int[] SIZES = {1, 4, 16, 64, 256, MAX_SIZE};
+
+    //Distinct values in the order of the input, each chunk already padded
+    static <T> List<List<T>> chunks(final Collection<T> values) {
+
+        final List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        final List<List<T>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < distinct.size(); from += MAX_SIZE) {
+            chunks.add(pad(distinct.subList(from, Math.min(from + MAX_SIZE, distinct.size()))));
+        }
+
+        return chunks;
+    }
+
+    static <T> List<T> pad(final List<T> chunk) {
+
+        int size = MAX_SIZE;
+        for (int s : SIZES) {
+            if (s >= chunk.size()) {
+                size = s;
+                break;
+            }
+        }
+
+        final List<T> padded = new ArrayList<>(size);
+        padded.addAll(chunk);
+        while (padded.size() < size) padded.add(chunk.get(chunk.size() - 1));
+        return padded;
+    }
+
+    static String placeholders(final int size) {
+        return String.join(", ", Collections.nCopies(size, "?"));
+    }
+}
@@ -0,0 +1,209 @@
+package repositories.impl;
+
+import database.DbConnection;
+import database.TransactionContext;
+import database.metrics.QueryMetrics;
+import domain.department.Level;
+import dto.departament.PayrollDriftDTO;
+import dto.departament.PayrollSliceDTO;
+import dto.departament.PayrollTotalsDTO;
+import exceptions.DbConnectionException;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.PayrollReportRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Log4j2
+@NoArgsConstructor
+public final class PayrollReportRepositoryImpl implements PayrollReportRepository {
+
+    //The index (id_departament, level, salary) covers the grouping, the jobs table is not read
+    //A slice has one row per employee, the jobs table is keyed by department and employee
+    private static final String SELECT_SLICES = """
+            SELECT
+                d.id, d.name, dhe.level,
+                COUNT(*) AS headcount, SUM(dhe.salary) AS total,
+                MIN(dhe.salary) AS min_salary, MAX(dhe.salary) AS max_salary
+            FROM
+                departaments_has_employees AS dhe
+            JOIN
+                departments AS d ON d.id = dhe.id_departament
+            %s
+            GROUP BY
+                d.id, d.name, dhe.level
+            ORDER BY
+                d.name, dhe.level
+            """;
+
+    @Override
+    public List<PayrollSliceDTO> findAllSlices() {
+
+        log.info("Aggregating the payroll of all departments \n");
+
+        try (Connection c = DbConnection.getConnection();
+             PreparedStatement ps = this.createQueryForFindAllSlices(c);
+             ResultSet rs = ps.executeQuery()) {
+
+            final List<PayrollSliceDTO> slices = new ArrayList<>();
+            while (rs.next()) slices.add(this.buildSlice(rs));
+            return slices;
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+    }
+
+    private PreparedStatement createQueryForFindAllSlices(final Connection c)
+            throws SQLException {
+        return QueryMetrics.prepare(c, "payroll.findAllSlices", SELECT_SLICES.formatted(""));
+    }
+
+    @Override
+    public List<PayrollSliceDTO> findSlicesByDepartmentIds(final Collection<Long> departmentIds) {
+
+        log.info("Aggregating the payroll of {} departments \n", departmentIds.size());
+
+        final List<PayrollSliceDTO> slices = new ArrayList<>();
+
+        try (Connection c = DbConnection.getConnection()) {
+
+            for (List<Long> chunk : InClause.chunks(departmentIds)) {
+                try (PreparedStatement ps = this.createQueryForFindSlicesByDepartmentIds(c, chunk);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) slices.add(this.buildSlice(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+
+        return slices;
+    }
+
+    private PreparedStatement createQueryForFindSlicesByDepartmentIds(final Connection c, final List<Long> ids)
+            throws SQLException {
+
+        final String FIND_SLICES_BY_DEPARTMENT_IDS = SELECT_SLICES.formatted(
+                "WHERE dhe.id_departament IN (%s)".formatted(InClause.placeholders(ids.size()))
+        );
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "payroll.findSlicesByDepartmentIds", FIND_SLICES_BY_DEPARTMENT_IDS);
+        for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+        return ps;
+    }
+
+    @Override
+    public List<PayrollSliceDTO> findSummarySlices() {
+
+        log.info("Reading the payroll summary \n");
+
+        try (Connection c = DbConnection.getConnection();
+             PreparedStatement ps = this.createQueryForFindSummarySlices(c);
+             ResultSet rs = ps.executeQuery()) {
+
+            final List<PayrollSliceDTO> slices = new ArrayList<>();
+            while (rs.next()) slices.add(this.buildSlice(rs));
+            return slices;
+
+        } catch (SQLException e) {
+            throw new DbConnectionException(e.getMessage());
+        }
+    }
+
+    private PreparedStatement createQueryForFindSummarySlices(final Connection c)
+            throws SQLException {
+
+        //Rows of the departments and levels without employees stay with zero until the reconciliation
+        final String FIND_SUMMARY_SLICES = """
+                SELECT
+                    d.id, d.name, s.level,
+                    s.headcount, s.salary_total AS total,
+                    NULL AS min_salary, NULL AS max_salary
+                FROM
+                    department_payroll_summary AS s
+                JOIN
+                    departments AS d ON d.id = s.id_departament
+                WHERE
+                    s.headcount > 0
+                ORDER BY
+                    d.name, s.level
+                """;
+        return QueryMetrics.prepare(c, "payroll.findSummarySlices", FIND_SUMMARY_SLICES);
+    }
+
+    /*
+        The summary is locked first, so the writers wait in their summary changes until the end.
+        The jobs are read after the lock in a consistent read: the writes committed before are in both,
+        and the writes waiting apply their changes over the rebuilt totals.
+    */
+    @Override
+    public List<PayrollDriftDTO> reconcileSummary() {
+
+        log.info("Reconciling the payroll summary \n");
+
+        return TransactionContext.inTransaction(() -> {
+            try (Connection c = DbConnection.getConnection()) {
+
+                final PayrollSummary.Deltas summary = PayrollSummary.lockSummary(c);
+                final PayrollSummary.Deltas jobs = PayrollSummary.sumJobs(c);
+
+                final Map<PayrollSummary.Key, PayrollSummary.Delta> keys = new TreeMap<>(PayrollSummary.Key.ORDER);
+                keys.putAll(summary.asMap());
+                keys.putAll(jobs.asMap());
+
+                final List<PayrollDriftDTO> drifts = new ArrayList<>();
+                final PayrollSummary.Deltas fixes = new PayrollSummary.Deltas();
+
+                for (PayrollSummary.Key key : keys.keySet()) {
+
+                    final PayrollSummary.Delta expected = jobs.get(key);
+                    final PayrollSummary.Delta actual = summary.get(key);
+                    if (expected.sameTotals(actual)) continue;
+
+                    drifts.add(PayrollDriftDTO.builder()
+                            .departmentId(key.departmentId())
+                            .level(key.level())
+                            .expectedHeadcount(expected.headcount())
+                            .summaryHeadcount(actual.headcount())
+                            .expectedTotal(expected.total())
+                            .summaryTotal(actual.total())
+                            .build());
+                    fixes.add(key.departmentId(), key.level(), expected.headcount(), expected.total());
+                }
+
+                PayrollSummary.overwrite(c, fixes);
+                return drifts;
+
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        });
+    }
+
+    private PayrollSliceDTO buildSlice(final ResultSet rs) throws SQLException {
+
+        final String level = rs.getString("level");
+
+        return PayrollSliceDTO.builder()
+                .departmentId(rs.getLong("id"))
+                .departmentName(rs.getString("name"))
+                .level(level == null ? null : Level.valueOf(level))
+                .totals(PayrollTotalsDTO.builder()
+                        .headcount(rs.getLong("headcount"))
+                        .total(rs.getBigDecimal("total"))
+                        .min(rs.getBigDecimal("min_salary"))
+                        .max(rs.getBigDecimal("max_salary"))
+                        .build())
+                .build();
+    }
+}
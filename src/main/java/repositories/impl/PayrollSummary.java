@@ -0,0 +1,231 @@
+package repositories.impl;
+
+import database.metrics.QueryMetrics;
+import domain.department.Department;
+import domain.department.Level;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    Incremental maintenance of department_payroll_summary, the headcount and salary total per department and level.
+    The write paths of the jobs call it with their own connection, so the summary changes in the same transaction.
+    The changes are applied ordered by department and level, two transactions lock the summary rows in the same order.
+    Jobs without a level are not summarized.
+*/
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class PayrollSummary {
+
+    //All the jobs of the employees of a department, also their jobs in other departments
+    static final String JOBS_OF_DEPARTMENT_EMPLOYEES =
+            "dhe.id_employee IN (SELECT x.id_employee FROM departaments_has_employees AS x WHERE x.id_departament = ?)";
+
+    //Totals of the jobs matching the filter over departaments_has_employees AS dhe, locking them until the end of the transaction
+    static Deltas lockJobs(final Connection c, final String name, final String filter, final Binder binder)
+            throws SQLException {
+
+        final String LOCK_JOBS = """
+                SELECT dhe.id_departament, dhe.level, COUNT(*) AS headcount, SUM(dhe.salary) AS salary_total
+                FROM departaments_has_employees AS dhe
+                WHERE dhe.level IS NOT NULL AND %s
+                GROUP BY dhe.id_departament, dhe.level
+                FOR UPDATE;
+                """.formatted(filter);
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, name, LOCK_JOBS)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                return readDeltas(rs);
+            }
+        }
+    }
+
+    //Before the jobs matching the filter are deleted
+    static void subtractJobs(final Connection c, final String name, final String filter, final Binder binder)
+            throws SQLException {
+        apply(c, lockJobs(c, name, filter, binder).negate());
+    }
+
+    //Runs the work changing the jobs matching the filter, the summary gets the totals after minus the totals before
+    static void replaceJobs(final Connection c, final String name, final String filter, final Binder binder,
+                            final Work work)
+            throws SQLException {
+
+        final Deltas before = lockJobs(c, name, filter, binder);
+        work.run();
+        apply(c, lockJobs(c, name, filter, binder).plus(before.negate()));
+    }
+
+    static void apply(final Connection c, final Deltas deltas) throws SQLException {
+
+        if (deltas.isZero()) return;
+
+        final String APPLY_DELTAS = """
+                INSERT INTO department_payroll_summary (id_departament, level, headcount, salary_total)
+                VALUES (?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    headcount = headcount + VALUES(headcount),
+                    salary_total = salary_total + VALUES(salary_total);
+                """;
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, "payroll.applySummaryDeltas", APPLY_DELTAS)) {
+            addBatch(ps, deltas);
+            ps.executeBatch();
+        }
+    }
+
+    //Replaces the totals of the departments and levels informed, used by the reconciliation
+    static void overwrite(final Connection c, final Deltas totals) throws SQLException {
+
+        if (totals.isEmpty()) return;
+
+        final String OVERWRITE_TOTALS = """
+                INSERT INTO department_payroll_summary (id_departament, level, headcount, salary_total)
+                VALUES (?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    headcount = VALUES(headcount),
+                    salary_total = VALUES(salary_total);
+                """;
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, "payroll.overwriteSummary", OVERWRITE_TOTALS)) {
+            addBatch(ps, totals);
+            ps.executeBatch();
+        }
+    }
+
+    //Reads the summary locking all its rows and gaps, the writers wait in their summary changes
+    static Deltas lockSummary(final Connection c) throws SQLException {
+
+        final String LOCK_SUMMARY = """
+                SELECT id_departament, level, headcount, salary_total
+                FROM department_payroll_summary
+                FOR UPDATE;
+                """;
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, "payroll.lockSummary", LOCK_SUMMARY);
+             ResultSet rs = ps.executeQuery()) {
+            return readDeltas(rs);
+        }
+    }
+
+    //Consistent read of the totals of all the jobs, without locks
+    static Deltas sumJobs(final Connection c) throws SQLException {
+
+        final String SUM_JOBS = """
+                SELECT id_departament, level, COUNT(*) AS headcount, SUM(salary) AS salary_total
+                FROM departaments_has_employees
+                WHERE level IS NOT NULL
+                GROUP BY id_departament, level;
+                """;
+
+        try (PreparedStatement ps = QueryMetrics.prepare(c, "payroll.sumJobs", SUM_JOBS);
+             ResultSet rs = ps.executeQuery()) {
+            return readDeltas(rs);
+        }
+    }
+
+    private static Deltas readDeltas(final ResultSet rs) throws SQLException {
+
+        final Deltas deltas = new Deltas();
+        while (rs.next()) {
+            deltas.add(rs.getLong("id_departament"), Level.valueOf(rs.getString("level")),
+                    rs.getLong("headcount"), rs.getBigDecimal("salary_total"));
+        }
+        return deltas;
+    }
+
+    private static void addBatch(final PreparedStatement ps, final Deltas deltas) throws SQLException {
+        for (Map.Entry<Key, Delta> e : deltas.values.entrySet()) {
+            ps.setLong(1, e.getKey().departmentId());
+            ps.setString(2, e.getKey().level().name());
+            ps.setLong(3, e.getValue().headcount());
+            ps.setBigDecimal(4, e.getValue().total());
+            ps.addBatch();
+        }
+    }
+
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface Work {
+        void run() throws SQLException;
+    }
+
+    record Key(long departmentId, Level level) {
+
+        static final Comparator<Key> ORDER = Comparator.comparingLong(Key::departmentId).thenComparing(Key::level);
+    }
+
+    record Delta(long headcount, BigDecimal total) {
+
+        static final Delta ZERO = new Delta(0, BigDecimal.ZERO);
+
+        Delta plus(final Delta other) {
+            return new Delta(headcount + other.headcount, total.add(other.total));
+        }
+
+        boolean sameTotals(final Delta other) {
+            return headcount == other.headcount && total.compareTo(other.total) == 0;
+        }
+    }
+
+    //Changes of headcount and salary total, ordered by department and level
+    static final class Deltas {
+
+        private final Map<Key, Delta> values = new TreeMap<>(Key.ORDER);
+
+        Deltas add(final long departmentId, final Level level, final long headcount, final BigDecimal total) {
+            values.merge(new Key(departmentId, level), new Delta(headcount, total), Delta::plus);
+            return this;
+        }
+
+        //One more job of each department
+        Deltas addJobs(final Map<Department, Map<Level, BigDecimal>> dls) {
+            dls.forEach((department, levelAndSalary) ->
+                    levelAndSalary.forEach((level, salary) -> this.add(department.getId(), level, 1, salary)));
+            return this;
+        }
+
+        Deltas plus(final Deltas other) {
+            final Deltas sum = new Deltas();
+            sum.values.putAll(values);
+            other.values.forEach((key, delta) -> sum.values.merge(key, delta, Delta::plus));
+            return sum;
+        }
+
+        Deltas negate() {
+            final Deltas negated = new Deltas();
+            values.forEach((key, delta) -> negated.values.put(key, new Delta(-delta.headcount(), delta.total().negate())));
+            return negated;
+        }
+
+        Delta get(final Key key) {
+            return values.getOrDefault(key, Delta.ZERO);
+        }
+
+        Map<Key, Delta> asMap() {
+            return Collections.unmodifiableMap(values);
+        }
+
+        boolean isEmpty() {
+            return values.isEmpty();
+        }
+
+        //Nothing to add, like an update of a salary to the same value
+        boolean isZero() {
+            return values.values().stream().allMatch(delta -> delta.sameTotals(Delta.ZERO));
+        }
+    }
+}
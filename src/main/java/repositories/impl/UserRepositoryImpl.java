@@ -2,19 +2,51 @@ package repositories.impl;
 
 import repositories.interfaces.UserRepository;
 import database.DbConnection;
+import database.metrics.QueryMetrics;
 import domain.user.User;
 import dto.user.UserDTO;
 import exceptions.DbConnectionException;
-import lombok.NoArgsConstructor;
+import index.BloomFilter;
 import lombok.extern.log4j.Log4j2;
 
 import java.sql.*;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Log4j2
-@NoArgsConstructor
 public final class UserRepositoryImpl implements UserRepository {
 
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    //The filter is sized for twice the users loaded, so the registrations after the load fit in it
+    private static final long MIN_FILTER_SIZE = 1_024;
+
+    /*
+        Usernames surely not registered are answered without the database in the registration check, most of
+        the lookups of the registration and of bulk provisioning. The unique username of the table still rejects
+        a username registered by another instance after the load. The login always reads the database.
+        The filter is rebuilt when it gets more users than it was sized for, or when many deleted users still set
+        bits in it.
+    */
+    private final double falsePositiveRate;
+    private final Object usernamesLock = new Object();
+    private volatile BloomFilter usernames;
+    private final AtomicLong deletedSinceLoad = new AtomicLong();
+    private final LongAdder skippedLookups = new LongAdder();
+
+    public UserRepositoryImpl() {
+        this(DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    public UserRepositoryImpl(final double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate should be between 0 and 1!");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
     @Override
     public void save(final User user) {
 
@@ -27,6 +59,7 @@ public final class UserRepositoryImpl implements UserRepository {
             rs.next();
             final Long id = rs.getLong(1);
             user.setId(id);
+            this.addUsername(user.getUsername());
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
@@ -41,7 +74,7 @@ public final class UserRepositoryImpl implements UserRepository {
                 INSERT INTO users (username, password) VALUES (?, ?)
                 """;
 
-        PreparedStatement ps = c.prepareStatement(SAVE_USER, Statement.RETURN_GENERATED_KEYS);
+        PreparedStatement ps = QueryMetrics.prepare(c, "user.saveUser", SAVE_USER, Statement.RETURN_GENERATED_KEYS);
         ps.setString(1, user.getUsername());
         ps.setString(2, user.getPassword());
         return ps;
@@ -64,6 +97,9 @@ public final class UserRepositoryImpl implements UserRepository {
 
             if (ps.executeUpdate() == 0) throw new DbConnectionException("Exclusion not completed!");
 
+            //Bits can´t be cleared, the username is a false positive until the next rebuild
+            deletedSinceLoad.incrementAndGet();
+
             //Workaround hehehe
             return Integer.parseInt(String.valueOf(id));
 
@@ -76,7 +112,7 @@ public final class UserRepositoryImpl implements UserRepository {
     private PreparedStatement createQueryForDeleteUser(final Connection c, final Long id)
             throws SQLException {
 
-        PreparedStatement ps = c.prepareStatement("DELETE FROM users AS u WHERE u.id = ?");
+        PreparedStatement ps = QueryMetrics.prepare(c, "user.deleteUser", "DELETE FROM users AS u WHERE u.id = ?");
         ps.setLong(1, id);
         return ps;
     }
@@ -84,6 +120,11 @@ public final class UserRepositoryImpl implements UserRepository {
     @Override
     public Optional<String> findUsername(final String username) {
 
+        if (!this.getUsernames().mightContain(username)) {
+            skippedLookups.increment();
+            return Optional.empty();
+        }
+
         log.info("Tryning to find user with username {} in the database.. \n", username);
 
         try (Connection c = DbConnection.getConnection();
@@ -105,7 +146,7 @@ public final class UserRepositoryImpl implements UserRepository {
         final String FIND_USERNAME = """
                 SELECT u.username FROM users AS u WHERE u.username = BINARY ?
                 """;
-        PreparedStatement ps = c.prepareStatement(FIND_USERNAME);
+        PreparedStatement ps = QueryMetrics.prepare(c, "user.findUsername", FIND_USERNAME);
         ps.setString(1, username);
         return ps;
     }
@@ -119,7 +160,12 @@ public final class UserRepositoryImpl implements UserRepository {
              PreparedStatement ps = this.createQueryForFindUser(c, username, password);
              ResultSet rs = ps.executeQuery()) {
 
-            if (rs.next()) return Optional.of(this.createUserDTO(rs));
+            //Users saved by other instances or directly in the table are learned by the filter on their login
+            if (rs.next()) {
+                final UserDTO user = this.createUserDTO(rs);
+                this.addUsername(user.getUsername());
+                return Optional.of(user);
+            }
 
         } catch (SQLException e) {
             throw new DbConnectionException(e.getMessage());
@@ -136,7 +182,7 @@ public final class UserRepositoryImpl implements UserRepository {
                 SELECT * FROM users AS u WHERE u.username = BINARY ? AND u.password = BINARY ?
                 """;
 
-        PreparedStatement ps = c.prepareStatement(FIND_USER);
+        PreparedStatement ps = QueryMetrics.prepare(c, "user.findUser", FIND_USER);
         ps.setString(1, username);
         ps.setString(2, password);
         return ps;
@@ -150,5 +196,88 @@ public final class UserRepositoryImpl implements UserRepository {
         return new UserDTO(id, username, password);
     }
 
+    //Builds the filter with all the usernames, called in the startup so the first lookups don´t wait the scan
+    public BloomFilter loadUsernames() {
+
+        synchronized (usernamesLock) {
+
+            log.info("Loading the usernames filter.. \n");
+
+            try (Connection c = DbConnection.getConnection()) {
+
+                final BloomFilter filter = new BloomFilter(Math.max(MIN_FILTER_SIZE, this.countUsers(c) * 2), falsePositiveRate);
+
+                try (PreparedStatement ps = this.createQueryForStreamUsernames(c);
+                     ResultSet rs = ps.executeQuery()) {
+
+                    while (rs.next()) filter.put(rs.getString("username"));
+                }
+
+                usernames = filter;
+                deletedSinceLoad.set(0);
+                return filter;
+
+            } catch (SQLException e) {
+                throw new DbConnectionException(e.getMessage());
+            }
+        }
+    }
+
+    public Optional<BloomFilter> getUsernamesFilter() {
+        return Optional.ofNullable(usernames);
+    }
+
+    //Lookups answered by the filter without the database
+    public long getSkippedLookups() {
+        return skippedLookups.sum();
+    }
 
+    private BloomFilter getUsernames() {
+
+        final BloomFilter filter = usernames;
+        if (Objects.nonNull(filter) && !this.needsRebuild(filter)) return filter;
+
+        synchronized (usernamesLock) {
+            final BloomFilter current = usernames;
+            if (Objects.nonNull(current) && !this.needsRebuild(current)) return current;
+            return this.loadUsernames();
+        }
+    }
+
+    private boolean needsRebuild(final BloomFilter filter) {
+        return filter.isSaturated() || deletedSinceLoad.get() > filter.getExpectedInsertions() / 2;
+    }
+
+    /*
+        Same lock of the load, so a user saved while the filter is rebuilt is put in the new filter.
+        Without a filter loaded the next load finds the user in the table.
+    */
+    private void addUsername(final String username) {
+        synchronized (usernamesLock) {
+            if (Objects.nonNull(usernames)) usernames.put(username);
+        }
+    }
+
+    private long countUsers(final Connection c) throws SQLException {
+        try (Statement st = QueryMetrics.create(c, "user.countUsers");
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM users")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private PreparedStatement createQueryForStreamUsernames(final Connection c)
+            throws SQLException {
+
+        final String STREAM_USERNAMES = """
+                SELECT u.username FROM users AS u WHERE u.username IS NOT NULL
+                """;
+
+        PreparedStatement ps = QueryMetrics.prepare(c, "user.streamUsernames", STREAM_USERNAMES,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+        //Connector/J streams the rows one by one instead of loading all the usernames
+        ps.setFetchSize(Integer.MIN_VALUE);
+        return ps;
+    }
 }
@@ -0,0 +1,35 @@
+package repositories.interfaces;
+
+import domain.department.Department;
+import domain.employee.Employee;
+import dto.employee.EmployeeBaseDTO;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/*
+    Employee calls that do not block the caller thread. Each call has a timeout, applied to its statements as the
+    query timeout and to the future, which completes with a TimeoutException when it expires.
+    Cancelling the future cancels the statement running in the database.
+*/
+public interface AsyncEmployeeRepository extends AutoCloseable {
+    CompletableFuture<Optional<EmployeeBaseDTO>> findByIdAsync(long employeeId, Duration timeout);
+
+    CompletableFuture<Optional<EmployeeBaseDTO>> findByDocumentAsync(String document, Duration timeout);
+
+    CompletableFuture<List<EmployeeBaseDTO>> findByNameAsync(String name, Duration timeout);
+
+    //Base employee, jobs and specific employee in one transaction
+    CompletableFuture<Employee> saveAsync(Employee employee, Duration timeout);
+
+    CompletableFuture<Void> updateSalaryAsync(Employee employee, Department department,
+                                              BigDecimal newSalary, BigDecimal oldSalary, Duration timeout);
+
+    CompletableFuture<Integer> deleteByDocumentAsync(String document, Duration timeout);
+
+    @Override
+    void close();
+}
@@ -1,10 +1,13 @@
 package repositories.interfaces;
 
 import domain.department.Department;
+import domain.department.DepartmentDeletionJob;
 import dto.departament.DepartmentDTO;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface DepartmentRepository extends EntityRepository<Department> {
@@ -14,9 +17,25 @@ public interface DepartmentRepository extends EntityRepository<Department> {
 
     Optional<DepartmentDTO> findById(long id);
 
+    //Keyed by each input in the order informed, empty when not found, names ignoring case and accents
+    Map<Long, Optional<DepartmentDTO>> findByIds(Collection<Long> ids);
+
+    Map<String, Optional<DepartmentDTO>> findByNames(Collection<String> names);
+
     List<DepartmentDTO> findbyCreationDate(LocalDate creationDateWithoutTime);
 
     void updateName(Department department, String newName);
 
     int deleteByName(String name);
+
+    //Deletion in chunks: each chunk deletes employees and saves the progress of the job in one transaction
+    DepartmentDeletionJob startDeletion(Department department);
+
+    List<DepartmentDeletionJob> findUnfinishedDeletions();
+
+    //Returns the employees of the chunk, 0 when the department has no employees left
+    int deleteEmployeesChunk(DepartmentDeletionJob job, int chunkSize);
+
+    //Last chunk and the department with it locked, false when employees hired meanwhile are left for more chunks
+    boolean finishDeletion(DepartmentDeletionJob job, int chunkSize);
 }
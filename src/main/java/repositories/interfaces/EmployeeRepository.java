@@ -2,17 +2,21 @@ package repositories.interfaces;
 
 import domain.department.Department;
 import domain.department.Level;
+import domain.department.SalaryAdjustment;
 import domain.employee.Employee;
 import domain.employee.NormalEmployee;
 import domain.employee.SuperiorEmployee;
 import dto.employee.EmployeeBaseDTO;
+import dto.employee.SalaryAdjustmentDTO;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmployeeRepository extends EntityRepository<Employee> {
     void saveJobsInformation(Connection c, long id, Map<Department, Map<Level, BigDecimal>> dls);
@@ -21,16 +25,39 @@ public interface EmployeeRepository extends EntityRepository<Employee> {
 
     void saveSuperiorEmployee(SuperiorEmployee se);
 
+    void saveAll(List<Employee> employees);
+
     Optional<EmployeeBaseDTO> findById(long employeeId);
 
     Optional<EmployeeBaseDTO> findByDocument(String document);
 
+    //Keyed by each input in the order informed, empty when not found, fetched with bounded IN lists
+    Map<Long, Optional<EmployeeBaseDTO>> findByIds(Collection<Long> employeeIds);
+
+    Map<String, Optional<EmployeeBaseDTO>> findByDocuments(Collection<String> documents);
+
     List<EmployeeBaseDTO> findByName(String name);
 
     List<EmployeeBaseDTO> findByHireDate(LocalDate hireDateWithoutTime);
 
+    List<EmployeeBaseDTO> findByHireDateRange(LocalDate from, LocalDate to);
+
     List<EmployeeBaseDTO> findByAge(int age);
 
+    //Keyset pages: employees with id greater than afterId, ordered by id, at most limit employees
+    List<EmployeeBaseDTO> findByName(String name, long afterId, int limit);
+
+    List<EmployeeBaseDTO> findByAge(int age, long afterId, int limit);
+
+    List<EmployeeBaseDTO> findByHireDateRange(LocalDate from, LocalDate to, long afterId, int limit);
+
+    //Streams hold one connection until they are closed, use them in try-with-resources
+    Stream<EmployeeBaseDTO> streamAll();
+
+    Stream<EmployeeBaseDTO> streamByAge(int age);
+
+    Stream<EmployeeBaseDTO> streamByHireDateRange(LocalDate from, LocalDate to);
+
     void updateName(Employee employee, String newName);
 
     void updateDocument(Employee employee, String newDocument);
@@ -39,12 +66,17 @@ public interface EmployeeRepository extends EntityRepository<Employee> {
 
     void updateSalary(Employee employee, Department department, BigDecimal newSalary, BigDecimal oldSalary);
 
+    //Set based update of the department and level, in chunks of employees, or only the totals when dry run
+    SalaryAdjustmentDTO adjustSalaries(SalaryAdjustment adjustment, int chunkSize, boolean dryRun);
+
     int deleteByName(String name);
 
     int deleteByDocument(String document);
 
     int deleteByHireDate(LocalDate hireDateWithoutTime);
 
+    int deleteByHireDateRange(LocalDate from, LocalDate to);
+
     int deleteByDepartment(Department department);
 
 }
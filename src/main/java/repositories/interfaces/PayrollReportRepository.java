@@ -0,0 +1,22 @@
+package repositories.interfaces;
+
+import dto.departament.PayrollDriftDTO;
+import dto.departament.PayrollSliceDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+//Aggregates computed by the database, without loading the employees
+public interface PayrollReportRepository {
+
+    //One slice per department and level, ordered by department name and level
+    List<PayrollSliceDTO> findAllSlices();
+
+    List<PayrollSliceDTO> findSlicesByDepartmentIds(Collection<Long> departmentIds);
+
+    //Headcount and salary total from the summary maintained by the writes, one row per department and level, without min and max
+    List<PayrollSliceDTO> findSummarySlices();
+
+    //Rebuilds the summary from the jobs, returning the totals that were different
+    List<PayrollDriftDTO> reconcileSummary();
+}
@@ -0,0 +1,131 @@
+package services;
+
+import domain.department.Department;
+import domain.department.DepartmentDeletionJob;
+import exceptions.DbConnectionException;
+import exceptions.DepartmentException;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.DepartmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/*
+    Deletes big departments without long locks: the employees are deleted in chunks ordered by id, each chunk
+    committed with the progress of the job, pausing between the chunks so other transactions get the locks.
+    A deletion stopped halfway, by a failure or the end of the process, continues from the last chunk committed.
+*/
+@Log4j2
+public final class DepartmentDeletionService implements AutoCloseable {
+
+    private final DepartmentRepository repository;
+
+    //One deletion at a time in the background, the chunks of different departments would compete for locks
+    private final ExecutorService background = Executors.newSingleThreadExecutor(r -> {
+        final Thread t = new Thread(r, "department-deletion");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public DepartmentDeletionService(final DepartmentRepository repository) {
+        this.repository = Objects.requireNonNull(repository, "Department repository can´t be null!");
+    }
+
+    public DepartmentDeletionJob deleteInChunks(final Department department, final int chunkSize, final long pauseMillis,
+                                                final Consumer<DepartmentDeletionJob> progress) {
+
+        Objects.requireNonNull(department, "Department can´t be null!");
+        validatePacing(chunkSize, pauseMillis);
+
+        try {
+            return this.run(repository.startDeletion(department), chunkSize, pauseMillis, progress);
+        } catch (DbConnectionException e) {
+            throw new DepartmentException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
+    public CompletableFuture<DepartmentDeletionJob> deleteInBackground(final Department department, final int chunkSize,
+                                                                       final long pauseMillis,
+                                                                       final Consumer<DepartmentDeletionJob> progress) {
+
+        Objects.requireNonNull(department, "Department can´t be null!");
+        validatePacing(chunkSize, pauseMillis);
+
+        return CompletableFuture.supplyAsync(() -> this.deleteInChunks(department, chunkSize, pauseMillis, progress), background);
+    }
+
+    //Deletions stopped before the end, continued in the background one after another
+    public List<CompletableFuture<DepartmentDeletionJob>> resumeUnfinished(final int chunkSize, final long pauseMillis,
+                                                                           final Consumer<DepartmentDeletionJob> progress) {
+
+        validatePacing(chunkSize, pauseMillis);
+
+        final List<DepartmentDeletionJob> jobs;
+        try {
+            jobs = repository.findUnfinishedDeletions();
+        } catch (DbConnectionException e) {
+            throw new DepartmentException(String.format("Error: %s", e.getMessage()), e);
+        }
+
+        final List<CompletableFuture<DepartmentDeletionJob>> futures = new ArrayList<>(jobs.size());
+        for (DepartmentDeletionJob job : jobs) {
+            log.info("Resuming {}", job);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return this.run(job, chunkSize, pauseMillis, progress);
+                } catch (DbConnectionException e) {
+                    throw new DepartmentException(String.format("Error: %s", e.getMessage()), e);
+                }
+            }, background));
+        }
+
+        return futures;
+    }
+
+    public void validatePacing(final int chunkSize, final long pauseMillis) {
+        if (chunkSize < 1) throw new DepartmentException("Chunk size should be at least one!");
+        if (pauseMillis < 0) throw new DepartmentException("Pause between chunks can´t be negative!");
+    }
+
+    private DepartmentDeletionJob run(final DepartmentDeletionJob job, final int chunkSize, final long pauseMillis,
+                                      final Consumer<DepartmentDeletionJob> progress) {
+
+        while (true) {
+
+            while (repository.deleteEmployeesChunk(job, chunkSize) == chunkSize) {
+                progress.accept(job);
+                this.pause(job, pauseMillis);
+            }
+
+            //Employees hired while the chunks ran are deleted with the department, or in more chunks when they are many
+            if (repository.finishDeletion(job, chunkSize)) break;
+
+            progress.accept(job);
+            this.pause(job, pauseMillis);
+        }
+
+        progress.accept(job);
+        return job;
+    }
+
+    private void pause(final DepartmentDeletionJob job, final long pauseMillis) {
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DepartmentException(String.format("Deletion of department %s stopped after %d employees, it will be resumed!",
+                    job.getDepartmentName(), job.getEmployeesDeleted()));
+        }
+    }
+
+    //Stops the deletion in the background after the chunk running, it is resumed in the next start
+    @Override
+    public void close() {
+        background.shutdownNow();
+    }
+}
@@ -146,16 +146,20 @@ public final class DepartmentService {
         repository.updateName(department, newName);
     }
 
-    public int deleteByOption(final DepartmentDeleteOption departmentDeleteOption) {
+    //The department is deleted in chunks by the DepartmentDeletionService, the name must match one department
+    public Department findByDeleteOption(final DepartmentDeleteOption departmentDeleteOption) {
 
         return switch (departmentDeleteOption) {
             case ID -> {
                 final long id = readLong("id");
-                yield this.deleteById(id);
+                yield this.findById(id);
             }
             case NAME -> {
                 final String name = readString("name");
-                yield this.deleteByName(name);
+                yield this.findByName(name).stream()
+                        .filter(d -> d.getName().equalsIgnoreCase(name))
+                        .findFirst()
+                        .orElseThrow(() -> new DepartmentException(String.format("Department %s not found!", name)));
             }
         };
 
@@ -0,0 +1,242 @@
+package services;
+
+import domain.department.Department;
+import domain.department.Level;
+import dto.employee.EmployeeBaseDTO;
+import dto.employee.NormalEmployeeDTO;
+import dto.employee.SuperiorEmployeeDTO;
+import enums.employee.EmployeeType;
+import enums.employee.ExportFormat;
+import enums.menu.YesOrNo;
+import exceptions.DbConnectionException;
+import exceptions.EmployeeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.EmployeeRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+    Exports all the employees with their jobs, streaming them from a forward-only result set to the file.
+    Only one employee and the write buffers are in memory, whatever the number of employees.
+    - CSV: the same columns of the import, so an export can be imported in another database
+    - JSONL: one json object per line with all the fields, including ids and hire date
+    The file is written with a temporary name and only renamed at the end, a failed export leaves no partial file.
+    The import has no escaping, a CSV value with a separator of its column fails the export instead of shifting the columns.
+*/
+@Log4j2
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class EmployeeExportService {
+
+    private static final String SEPARATOR = ";";
+    //Separators of the jobs column, besides the column separator
+    private static final String JOB_SEPARATORS = ";|:";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private EmployeeRepository repository;
+
+    public Report export(final Path output, final ExportFormat format, final boolean gzip) {
+
+        Objects.requireNonNull(output, "Output file can´t be null!");
+        Objects.requireNonNull(format, "Export format can´t be null!");
+
+        final Path partial = output.resolveSibling(output.getFileName() + ".part");
+        final Report report = new Report();
+
+        try (Stream<EmployeeBaseDTO> employees = repository.streamAll();
+             Writer writer = this.openWriter(partial, gzip)) {
+
+            if (format == ExportFormat.CSV) writer.write("name;document;birth_date;type;specific;jobs\n");
+
+            //Reused for all the lines
+            final StringBuilder line = new StringBuilder(256);
+
+            final Iterator<EmployeeBaseDTO> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+
+                final EmployeeBaseDTO employee = iterator.next();
+                line.setLength(0);
+
+                if (format == ExportFormat.CSV) this.appendCsv(line, employee);
+                else this.appendJson(line, employee);
+
+                writer.append(line).append('\n');
+                report.employees++;
+                report.jobs += employee.getDepartamentsAndLevelsAndSalaries().size();
+            }
+
+        } catch (DbConnectionException e) {
+            this.deleteQuietly(partial);
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        } catch (IOException e) {
+            this.deleteQuietly(partial);
+            throw new UncheckedIOException(String.format("Error writing %s: %s", output, e.getMessage()), e);
+        } catch (RuntimeException e) {
+            this.deleteQuietly(partial);
+            throw e;
+        }
+
+        try {
+            Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.deleteQuietly(partial);
+            throw new UncheckedIOException(String.format("Error writing %s: %s", output, e.getMessage()), e);
+        }
+
+        try {
+            report.bytes = Files.size(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error writing %s: %s", output, e.getMessage()), e);
+        }
+
+        log.info("Export to {} finished: {}", output, report);
+        return report;
+    }
+
+    //Characters encoded straight to the file channel, through gzip when compressed
+    private Writer openWriter(final Path file, final boolean gzip) throws IOException {
+
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+
+        WritableByteChannel target = channel;
+        if (gzip) {
+            final OutputStream compressed = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            target = Channels.newChannel(compressed);
+        }
+
+        return new BufferedWriter(Channels.newWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void appendCsv(final StringBuilder line, final EmployeeBaseDTO employee) {
+
+        line.append(this.csvValue(employee.getName(), SEPARATOR)).append(SEPARATOR)
+                .append(this.csvValue(employee.getDocument(), SEPARATOR)).append(SEPARATOR)
+                .append(DATE.format(employee.getBirthDate())).append(SEPARATOR);
+
+        if (employee instanceof NormalEmployeeDTO ne) {
+            line.append(EmployeeType.NORMAL).append(SEPARATOR).append(ne.isHasFaculty() ? YesOrNo.YES : YesOrNo.NO);
+        } else if (employee instanceof SuperiorEmployeeDTO se) {
+            line.append(EmployeeType.SUPERIOR).append(SEPARATOR).append(se.getWorkExperience());
+        }
+        line.append(SEPARATOR);
+
+        boolean first = true;
+        for (Map.Entry<Department, Map<Level, BigDecimal>> job : employee.getDepartamentsAndLevelsAndSalaries().entrySet()) {
+            for (Map.Entry<Level, BigDecimal> levelAndSalary : job.getValue().entrySet()) {
+                if (!first) line.append('|');
+                line.append(this.csvValue(job.getKey().getName(), JOB_SEPARATORS)).append(':')
+                        .append(levelAndSalary.getKey()).append(':')
+                        .append(levelAndSalary.getValue().toPlainString());
+                first = false;
+            }
+        }
+    }
+
+    private String csvValue(final String value, final String separators) {
+        for (int i = 0; i < value.length(); i++) {
+            if (separators.indexOf(value.charAt(i)) >= 0) {
+                throw new EmployeeException(String.format("%s can´t be exported to CSV, it has the separator %s!",
+                        value, value.charAt(i)));
+            }
+        }
+        return value;
+    }
+
+    private void appendJson(final StringBuilder line, final EmployeeBaseDTO employee) {
+
+        line.append("{\"id\":").append(employee.getId());
+        this.appendJsonField(line, "name", employee.getName());
+        this.appendJsonField(line, "document", employee.getDocument());
+        this.appendJsonField(line, "birthDate", employee.getBirthDate().toString());
+        line.append(",\"age\":").append(employee.getAge());
+        if (Objects.nonNull(employee.getHireDate())) this.appendJsonField(line, "hireDate", employee.getHireDate().toString());
+
+        if (employee instanceof NormalEmployeeDTO ne) {
+            this.appendJsonField(line, "type", EmployeeType.NORMAL.name());
+            line.append(",\"hasFaculty\":").append(ne.isHasFaculty());
+        } else if (employee instanceof SuperiorEmployeeDTO se) {
+            this.appendJsonField(line, "type", EmployeeType.SUPERIOR.name());
+            line.append(",\"workExperience\":").append(se.getWorkExperience());
+        }
+
+        line.append(",\"jobs\":[");
+        boolean first = true;
+        for (Map.Entry<Department, Map<Level, BigDecimal>> job : employee.getDepartamentsAndLevelsAndSalaries().entrySet()) {
+            for (Map.Entry<Level, BigDecimal> levelAndSalary : job.getValue().entrySet()) {
+                if (!first) line.append(',');
+                line.append("{\"departmentId\":").append(job.getKey().getId());
+                this.appendJsonField(line, "department", job.getKey().getName());
+                this.appendJsonField(line, "level", levelAndSalary.getKey().name());
+                line.append(",\"salary\":").append(levelAndSalary.getValue().toPlainString()).append('}');
+                first = false;
+            }
+        }
+        line.append("]}");
+    }
+
+    private void appendJsonField(final StringBuilder line, final String name, final String value) {
+
+        line.append(",\"").append(name).append("\":\"");
+
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (ch < 0x20) line.append(String.format("\\u%04x", (int) ch));
+                    else line.append(ch);
+                }
+            }
+        }
+
+        line.append('"');
+    }
+
+    private void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Partial export {} not deleted: {}", file, e.getMessage());
+        }
+    }
+
+    @Getter
+    public static final class Report {
+        private long employees;
+        private long jobs;
+        private long bytes;
+
+        @Override
+        public String toString() {
+            return String.format("%d employees with %d jobs, %d bytes", employees, jobs, bytes);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package services;
+
+import domain.department.Department;
+import domain.department.Level;
+import domain.employee.Employee;
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import enums.employee.EmployeeType;
+import enums.menu.YesOrNo;
+import exceptions.EmployeeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+    Imports hires from a csv file separated by ";" with the columns:
+    name;document;birth_date;type;specific;jobs
+    - type: NORMAL or SUPERIOR
+    - specific: has faculty (YES or NO) for normal employees, work experience in years for superior employees
+    - jobs: department:level:salary separated by "|", like Sales:JUNIOR:1200.00|Management:MID:3000
+*/
+@Log4j2
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true)
+public final class EmployeeImportService {
+
+    private static final String SEPARATOR = ";";
+
+    private EmployeeService employeeService;
+    private DepartmentService departmentService;
+
+    //Only one chunk of employees is kept in memory, each chunk is saved in its own transaction
+    public Report importCsv(final Path input, final Path errors, final int chunkSize) {
+
+        Objects.requireNonNull(input, "Input file can´t be null!");
+        Objects.requireNonNull(errors, "Errors file can´t be null!");
+        if (chunkSize < 1) throw new EmployeeException("Chunk size should be at least one!");
+
+        //Departments loaded once, case insensitive
+        final Map<String, Department> departments = departmentService.findAll().stream()
+                .collect(Collectors.toMap(d -> d.getName().toLowerCase(), Function.identity()));
+
+        final Report report = new Report();
+        final List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter errorWriter = Files.newBufferedWriter(errors, StandardCharsets.UTF_8)) {
+
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("name"))) continue;
+
+                report.read++;
+                try {
+                    chunk.add(new Row(lineNumber, line, this.parseEmployee(line, departments)));
+                } catch (RuntimeException e) {
+                    this.reject(errorWriter, report, lineNumber, line, e.getMessage());
+                }
+
+                if (chunk.size() == chunkSize) this.saveChunk(chunk, errorWriter, report);
+            }
+
+            this.saveChunk(chunk, errorWriter, report);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error reading %s: %s", input, e.getMessage()), e);
+        }
+
+        log.info("Import of {} finished: {}", input, report);
+        return report;
+    }
+
+    public Employee parseEmployee(final String line, final Map<String, Department> departments) {
+
+        final String[] columns = line.split(SEPARATOR, -1);
+        if (columns.length != 6) {
+            throw new EmployeeException(String.format("Expected 6 columns but found %d!", columns.length));
+        }
+
+        final String name = employeeService.validateAndFormatName(columns[0].trim());
+
+        final String document = columns[1].trim();
+        employeeService.validateDocument(document);
+
+        final LocalDate birthDate = employeeService.parseAndValidateDate(columns[2].trim());
+        final int age = employeeService.generateAge(birthDate);
+
+        final EmployeeType type = this.parseEnum(EmployeeType.class, columns[3], "employee type");
+        final Map<Department, Map<Level, BigDecimal>> dls = this.parseJobs(columns[5], departments);
+
+        final Employee employee = employeeService.createEmployee(name, document, birthDate, age, dls, type);
+
+        final String specific = columns[4].trim();
+        if (employee instanceof NormalEmployee ne) {
+            employeeService.defineHasFaculty(ne, this.parseEnum(YesOrNo.class, specific, "has faculty option"));
+        } else if (employee instanceof SuperiorEmployee se) {
+            employeeService.defineWorkExperience(se, se.getAge(), this.parseInt(specific));
+        }
+
+        return employee;
+    }
+
+    private Map<Department, Map<Level, BigDecimal>> parseJobs(final String jobs,
+                                                              final Map<String, Department> departments) {
+
+        final Map<Department, Map<Level, BigDecimal>> dls = new HashMap<>();
+
+        for (String job : jobs.split("\\|")) {
+
+            final String[] parts = job.split(":");
+            if (parts.length != 3) {
+                throw new EmployeeException(String.format("Job %s does not match the pattern department:level:salary!", job));
+            }
+
+            final Department department = departments.get(parts[0].trim().toLowerCase());
+            if (department == null) throw new EmployeeException(String.format("Department %s not found!", parts[0].trim()));
+
+            if (dls.containsKey(department)) {
+                throw new EmployeeException(String.format("Department %s repeated!", department.getName()));
+            }
+
+            final Level level = this.parseEnum(Level.class, parts[1], "level");
+            final BigDecimal salary = employeeService.validateAndFormatSalary(parts[2].trim());
+
+            dls.put(department, Map.of(level, salary));
+        }
+
+        return dls;
+    }
+
+    private <T extends Enum<T>> T parseEnum(final Class<T> enumClass, final String value, final String title) {
+        try {
+            return Enum.valueOf(enumClass, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new EmployeeException(String.format("Invalid %s: %s!", title, value), e);
+        }
+    }
+
+    private int parseInt(final String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new EmployeeException(String.format("Invalid work experience: %s!", value), e);
+        }
+    }
+
+    private void saveChunk(final List<Row> chunk, final BufferedWriter errorWriter, final Report report)
+            throws IOException {
+
+        if (chunk.isEmpty()) return;
+
+        try {
+            employeeService.saveAllEmployees(chunk.stream().map(Row::employee).toList());
+            report.imported += chunk.size();
+
+        } catch (EmployeeException e) {
+
+            //The chunk was rolled back, saving one by one to find the rejected rows
+            log.warn("Chunk with lines {} to {} failed, retrying row by row: {}",
+                    chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber(), e.getMessage());
+
+            for (Row row : chunk) {
+                try {
+                    employeeService.saveAllEmployees(List.of(row.employee()));
+                    report.imported++;
+                } catch (EmployeeException ee) {
+                    this.reject(errorWriter, report, row.lineNumber(), row.line(), ee.getMessage());
+                }
+            }
+        }
+
+        chunk.clear();
+    }
+
+    private void reject(final BufferedWriter errorWriter, final Report report,
+                        final long lineNumber, final String line, final String reason)
+            throws IOException {
+
+        report.rejected++;
+        errorWriter.write(String.format("%d%s%s%s%s", lineNumber, SEPARATOR, reason, SEPARATOR, line));
+        errorWriter.newLine();
+    }
+
+    private record Row(long lineNumber, String line, Employee employee) {
+    }
+
+    @Getter
+    public static final class Report {
+        private long read;
+        private long imported;
+        private long rejected;
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d rejected", read, imported, rejected);
+        }
+    }
+}
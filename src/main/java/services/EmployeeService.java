@@ -1,21 +1,26 @@
 package services;
 
 
+import database.TransactionContext;
 import domain.department.Department;
 import domain.department.Level;
+import domain.department.SalaryAdjustment;
 import domain.employee.Employee;
 import domain.employee.NormalEmployee;
 import domain.employee.SuperiorEmployee;
 import dto.employee.EmployeeBaseDTO;
 import dto.employee.NormalEmployeeDTO;
+import dto.employee.SalaryAdjustmentDTO;
 import dto.employee.SuperiorEmployeeDTO;
 import enums.employee.EmployeeDeleteOption;
 import enums.employee.EmployeeFindOption;
 import enums.employee.EmployeeType;
+import enums.employee.SalaryAdjustmentType;
 import enums.employee.EmployeeUpdateOption;
 import enums.menu.YesOrNo;
 import exceptions.DbConnectionException;
 import exceptions.EmployeeException;
+import executor.BoundedExecutor;
 import factory.EmployeeBuilderFactory;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -31,6 +36,8 @@ import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static utils.ReaderUtils.*;
@@ -39,9 +46,20 @@ import static utils.ReaderUtils.*;
 @AllArgsConstructor
 public final class EmployeeService {
 
+    //Employees per transaction in the salary adjustments
+    private static final int SALARY_ADJUSTMENT_CHUNK_SIZE = 1_000;
+
     private Mapper<NormalEmployeeDTO, NormalEmployee> normalMapper;
     private Mapper<SuperiorEmployeeDTO, SuperiorEmployee> superiorMapper;
     private EmployeeRepository repository;
+    private BoundedExecutor executor;
+
+    //The fan out methods run serially
+    public EmployeeService(final Mapper<NormalEmployeeDTO, NormalEmployee> normalMapper,
+                           final Mapper<SuperiorEmployeeDTO, SuperiorEmployee> superiorMapper,
+                           final EmployeeRepository repository) {
+        this(normalMapper, superiorMapper, repository, BoundedExecutor.serial());
+    }
 
     public String validateAndFormatName(final String name) {
 
@@ -191,6 +209,36 @@ public final class EmployeeService {
         else if (employee instanceof SuperiorEmployee se) repository.saveSuperiorEmployee(se);
     }
 
+    //Base employee, jobs and specific employee with one pooled connection and one commit
+    public void hire(final Employee employee) {
+
+        Objects.requireNonNull(employee, "Employee can´t be null!");
+
+        try {
+            TransactionContext.inTransaction(() -> {
+                repository.save(employee);
+                saveSpecificEmployee(employee);
+            });
+
+        } catch (DbConnectionException e) {
+            //Rolled back, the id generated is not valid
+            employee.setId(null);
+            throw new EmployeeException(String.format("Error in save: %s", e.getMessage()), e);
+        }
+    }
+
+    public void saveAllEmployees(final List<Employee> employees) {
+
+        Objects.requireNonNull(employees, "Employees can´t be null!");
+        if (employees.isEmpty()) return;
+
+        try {
+            repository.saveAll(employees);
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error in save: %s", e.getMessage()), e);
+        }
+    }
+
 
     public boolean validSalaryToUpdate(final BigDecimal oldSalary, final BigDecimal newSalary) {
         return oldSalary.compareTo(newSalary) != 0;
@@ -221,6 +269,11 @@ public final class EmployeeService {
                 );
                 yield findByHireDate(hireDateWithoutTime);
             }
+            case HIRE_DATE_RANGE -> {
+                final LocalDate from = parseAndValidateDate(readString("first hire date"));
+                final LocalDate to = parseAndValidateDate(readString("last hire date"));
+                yield findByHireDateRange(from, to);
+            }
         };
     }
 
@@ -274,6 +327,185 @@ public final class EmployeeService {
                 .collect(Collectors.toList());
     }
 
+    public List<Employee> findByHireDateRange(final LocalDate from, final LocalDate to) {
+
+        validateDateRange(from, to);
+
+        final List<EmployeeBaseDTO> list = repository.findByHireDateRange(from, to);
+
+        if (list.isEmpty()) {
+            final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            throw new EmployeeException(String.format("Employees not found hired between %s and %s!", dtf.format(from), dtf.format(to)));
+        }
+
+        return list.stream()
+                .map(this::mappperToSpecificEntity)
+                .collect(Collectors.toList());
+    }
+
+    //Reads the filter of the option and returns the pages of the employees found, by the id of the last employee shown
+    public LongFunction<List<Employee>> pagesByOption(final EmployeeFindOption option, final int limit) {
+
+        validatePageSize(limit);
+
+        return switch (option) {
+            case ID -> {
+                final List<Employee> found = findById(readLong("employee id"));
+                yield afterId -> afterId == 0 ? found : List.of();
+            }
+            case NAME -> {
+                final String name = readString("name");
+                yield afterId -> findByName(name, afterId, limit);
+            }
+            case DOCUMENT -> {
+                final List<Employee> found = findByDocument(readString("document"));
+                yield afterId -> afterId == 0 ? found : List.of();
+            }
+            case AGE -> {
+                final int age = readInt("age");
+                yield afterId -> findByAge(age, afterId, limit);
+            }
+            case HIRE_DATE -> {
+                final LocalDate hireDateWithoutTime = parseAndValidateDate(readString("hire date"));
+                yield afterId -> findByHireDateRange(hireDateWithoutTime, hireDateWithoutTime, afterId, limit);
+            }
+            case HIRE_DATE_RANGE -> {
+                final LocalDate from = parseAndValidateDate(readString("first hire date"));
+                final LocalDate to = parseAndValidateDate(readString("last hire date"));
+                yield afterId -> findByHireDateRange(from, to, afterId, limit);
+            }
+        };
+    }
+
+    public List<Employee> findByName(final String name, final long afterId, final int limit) {
+
+        Objects.requireNonNull(name, "Name can´t be null");
+        validatePageSize(limit);
+
+        final List<EmployeeBaseDTO> page = repository.findByName(name, afterId, limit);
+        if (page.isEmpty() && afterId == 0) {
+            throw new EmployeeException(String.format("Employees not found by name %s!", name));
+        }
+
+        return page.stream()
+                .map(this::mappperToSpecificEntity)
+                .collect(Collectors.toList());
+    }
+
+    public List<Employee> findByAge(final int age, final long afterId, final int limit) {
+
+        validatePageSize(limit);
+
+        final List<EmployeeBaseDTO> page = repository.findByAge(age, afterId, limit);
+        if (page.isEmpty() && afterId == 0) {
+            throw new EmployeeException(String.format("Employees not found by age %d!", age));
+        }
+
+        return page.stream()
+                .map(this::mappperToSpecificEntity)
+                .collect(Collectors.toList());
+    }
+
+    public List<Employee> findByHireDateRange(final LocalDate from, final LocalDate to,
+                                              final long afterId, final int limit) {
+
+        validateDateRange(from, to);
+        validatePageSize(limit);
+
+        final List<EmployeeBaseDTO> page = repository.findByHireDateRange(from, to, afterId, limit);
+
+        if (page.isEmpty() && afterId == 0) {
+            final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            throw new EmployeeException(String.format("Employees not found hired between %s and %s!", dtf.format(from), dtf.format(to)));
+        }
+
+        return page.stream()
+                .map(this::mappperToSpecificEntity)
+                .collect(Collectors.toList());
+    }
+
+    //Employees by id in the order of the ids, empty for the ones not found
+    public Map<Long, Optional<Employee>> findByIds(final List<Long> ids) {
+
+        Objects.requireNonNull(ids, "Ids can´t be null!");
+
+        try {
+            return this.toEntities(repository.findByIds(ids));
+
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
+    //Employees by document in the order of the documents, empty for the ones not found
+    public Map<String, Optional<Employee>> findByDocuments(final List<String> documents) {
+
+        Objects.requireNonNull(documents, "Documents can´t be null!");
+        documents.forEach(this::validateDocument);
+
+        try {
+            return this.toEntities(repository.findByDocuments(documents));
+
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
+    private <K> Map<K, Optional<Employee>> toEntities(final Map<K, Optional<EmployeeBaseDTO>> found) {
+        final Map<K, Optional<Employee>> entities = new LinkedHashMap<>();
+        found.forEach((key, dto) -> entities.put(key, dto.map(this::mappperToSpecificEntity)));
+        return entities;
+    }
+
+    //Employees matching all the criteria informed, each criteria found at the same time in the executor
+    public List<Employee> findByCriteria(final String name, final Integer age, final LocalDate from, final LocalDate to) {
+
+        final List<Supplier<List<EmployeeBaseDTO>>> finds = new ArrayList<>();
+        if (Objects.nonNull(name)) finds.add(() -> repository.findByName(name));
+        if (Objects.nonNull(age)) finds.add(() -> repository.findByAge(age));
+        if (Objects.nonNull(from) || Objects.nonNull(to)) {
+            if (Objects.isNull(from) || Objects.isNull(to)) {
+                throw new EmployeeException("Both hire dates should be informed!");
+            }
+            validateDateRange(from, to);
+            finds.add(() -> repository.findByHireDateRange(from, to));
+        }
+
+        if (finds.isEmpty()) throw new EmployeeException("At least one criteria should be informed!");
+
+        final List<List<EmployeeBaseDTO>> results;
+        try {
+            results = executor.map(finds, Supplier::get);
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        }
+
+        //Ids found by all the criteria, keeping the order of the first criteria
+        final Set<Long> ids = results.get(0).stream().map(EmployeeBaseDTO::getId).collect(Collectors.toSet());
+        results.subList(1, results.size())
+                .forEach(list -> ids.retainAll(list.stream().map(EmployeeBaseDTO::getId).collect(Collectors.toSet())));
+
+        final List<Employee> list = results.get(0).stream()
+                .filter(dto -> ids.contains(dto.getId()))
+                .map(this::mappperToSpecificEntity)
+                .collect(Collectors.toList());
+
+        if (list.isEmpty()) throw new EmployeeException("Employees not found by the criteria!");
+        return list;
+    }
+
+    public void validatePageSize(final int limit) {
+        if (limit < 1) throw new EmployeeException("Page size should be at least one!");
+    }
+
+    public void validateDateRange(final LocalDate from, final LocalDate to) {
+
+        Objects.requireNonNull(from, "First date can´t be null!");
+        Objects.requireNonNull(to, "Last date can´t be null!");
+
+        if (from.isAfter(to)) throw new EmployeeException("First date can´t be after the last date!");
+    }
+
     public void updateByOption(final EmployeeUpdateOption option, final Employee employee) {
 
         switch (option) {
@@ -358,6 +590,52 @@ public final class EmployeeService {
     }
 
 
+    //Totals computed first, the adjustment is applied only when no salary gets negative
+    public SalaryAdjustmentDTO adjustSalaries(final SalaryAdjustment adjustment, final boolean dryRun) {
+
+        validateSalaryAdjustment(adjustment);
+
+        try {
+            final SalaryAdjustmentDTO preview = repository.adjustSalaries(adjustment, SALARY_ADJUSTMENT_CHUNK_SIZE, true);
+
+            if (preview.getNegativeSalaries() > 0) {
+                throw new EmployeeException(String.format("%d salaries would be negative!", preview.getNegativeSalaries()));
+            }
+            if (dryRun) return preview;
+
+            if (preview.getEmployees() == 0) {
+                throw new EmployeeException(String.format("No %s employees found in department %s!",
+                        adjustment.getLevel(), adjustment.getDepartment().getName()));
+            }
+
+            return repository.adjustSalaries(adjustment, SALARY_ADJUSTMENT_CHUNK_SIZE, false);
+
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
+    public void validateSalaryAdjustment(final SalaryAdjustment adjustment) {
+
+        Objects.requireNonNull(adjustment, "Salary adjustment can´t be null!");
+        Objects.requireNonNull(adjustment.getDepartment(), "Department can´t be null!");
+        Objects.requireNonNull(adjustment.getLevel(), "Level can´t be null!");
+        Objects.requireNonNull(adjustment.getType(), "Adjustment type can´t be null!");
+        Objects.requireNonNull(adjustment.getAmount(), "Adjustment amount can´t be null!");
+
+        if (adjustment.getAmount().signum() == 0) throw new EmployeeException("Adjustment amount can´t be zero!");
+
+        if (adjustment.getType() == SalaryAdjustmentType.PERCENT
+                && adjustment.getAmount().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new EmployeeException("Percent adjustment should be greater than -100!");
+        }
+
+        if (adjustment.getType() == SalaryAdjustmentType.ABSOLUTE && adjustment.getAmount().stripTrailingZeros().scale() > 2) {
+            throw new EmployeeException(String.format("Absolute adjustment %s has more than two decimal places!",
+                    adjustment.getAmount()));
+        }
+    }
+
     public int deleteByOption(final EmployeeDeleteOption option, final List<Department> departments) {
 
         return switch (option) {
@@ -379,6 +657,11 @@ public final class EmployeeService {
                 );
                 yield deleteByHireDate(hireDateWithoutTime);
             }
+            case HIRE_DATE_RANGE -> {
+                final LocalDate from = parseAndValidateDate(readString("first hire date"));
+                final LocalDate to = parseAndValidateDate(readString("last hire date"));
+                yield deleteByHireDateRange(from, to);
+            }
             case DEPARTMENT -> {
                 final Department department = readElement("department", departments);
                 yield deleteByDepartment(department);
@@ -403,6 +686,21 @@ public final class EmployeeService {
         }
     }
 
+    //Each document in its own call and unit of work, a failure skips the documents not started, the others stay deleted
+    public int deleteByDocuments(final List<String> documents) {
+
+        Objects.requireNonNull(documents, "Documents can´t be null!");
+        documents.forEach(this::validateDocument);
+
+        try {
+            return executor.map(documents, repository::deleteByDocument).stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
     public int deleteByDocument(final String document) {
         try {
             return repository.deleteByDocument(document);
@@ -419,6 +717,17 @@ public final class EmployeeService {
         }
     }
 
+    public int deleteByHireDateRange(final LocalDate from, final LocalDate to) {
+
+        validateDateRange(from, to);
+
+        try {
+            return repository.deleteByHireDateRange(from, to);
+        } catch (DbConnectionException e) {
+            throw new EmployeeException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
     public int deleteByDepartment(final Department department) {
         try {
             return repository.deleteByDepartment(department);
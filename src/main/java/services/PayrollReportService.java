@@ -0,0 +1,122 @@
+package services;
+
+import domain.department.Level;
+import dto.departament.DepartmentPayrollDTO;
+import dto.departament.PayrollDriftDTO;
+import dto.departament.PayrollReportDTO;
+import dto.departament.PayrollSliceDTO;
+import dto.departament.PayrollTotalsDTO;
+import exceptions.DbConnectionException;
+import exceptions.DepartmentException;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.log4j.Log4j2;
+import repositories.interfaces.PayrollReportRepository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+    Payroll reports from the aggregates of the database, one slice per department and level.
+    The report by department, by level and of the whole company are rolled up from the same slices.
+    The summary report reads the totals kept by the writes, without min and max, in time of departments instead of jobs.
+*/
+@Log4j2
+@FieldDefaults(makeFinal = true)
+@AllArgsConstructor
+public final class PayrollReportService {
+
+    //Below this number of slices splitting the rollups between threads costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 5_000;
+
+    private PayrollReportRepository repository;
+
+    public PayrollReportDTO report() {
+        return this.report(this.call(repository::findAllSlices));
+    }
+
+    //For the frequent reads, like dashboards polling the totals
+    public PayrollReportDTO summaryReport() {
+        return this.report(this.call(repository::findSummarySlices));
+    }
+
+    //Rebuilds the summary, the drifts mean a write path changing jobs without changing the summary
+    public List<PayrollDriftDTO> reconcileSummary() {
+
+        final List<PayrollDriftDTO> drifts = this.call(repository::reconcileSummary);
+
+        if (drifts.isEmpty()) log.info("Payroll summary reconciled without drifts");
+        drifts.forEach(drift -> log.warn("Payroll summary drift fixed: {}", drift));
+
+        return drifts;
+    }
+
+    public PayrollReportDTO report(final Collection<Long> departmentIds) {
+        Objects.requireNonNull(departmentIds, "Department ids can´t be null!");
+        return this.report(this.call(() -> repository.findSlicesByDepartmentIds(departmentIds)));
+    }
+
+    public List<DepartmentPayrollDTO> reportByDepartment(final Collection<Long> departmentIds) {
+        Objects.requireNonNull(departmentIds, "Department ids can´t be null!");
+        return this.rollupByDepartment(this.call(() -> repository.findSlicesByDepartmentIds(departmentIds)));
+    }
+
+    //Departments ordered by name, each one with its levels
+    public List<DepartmentPayrollDTO> rollupByDepartment(final List<PayrollSliceDTO> slices) {
+
+        final Map<Long, List<PayrollSliceDTO>> byDepartment = this.stream(slices)
+                .collect(Collectors.groupingBy(PayrollSliceDTO::getDepartmentId));
+
+        return this.stream(List.copyOf(byDepartment.values()))
+                .map(departmentSlices -> DepartmentPayrollDTO.builder()
+                        .departmentId(departmentSlices.get(0).getDepartmentId())
+                        .departmentName(departmentSlices.get(0).getDepartmentName())
+                        .totals(this.rollupOverall(departmentSlices))
+                        .levels(this.rollupByLevel(departmentSlices))
+                        .build())
+                .sorted(Comparator.comparing(DepartmentPayrollDTO::getDepartmentName)
+                        .thenComparingLong(DepartmentPayrollDTO::getDepartmentId))
+                .toList();
+    }
+
+    //The jobs without a level are only in the totals
+    public Map<Level, PayrollTotalsDTO> rollupByLevel(final List<PayrollSliceDTO> slices) {
+        return this.stream(slices)
+                .filter(slice -> Objects.nonNull(slice.getLevel()))
+                .collect(Collectors.groupingBy(PayrollSliceDTO::getLevel, () -> new EnumMap<>(Level.class),
+                        Collectors.reducing(PayrollTotalsDTO.EMPTY, PayrollSliceDTO::getTotals, PayrollTotalsDTO::merge)));
+    }
+
+    public PayrollTotalsDTO rollupOverall(final List<PayrollSliceDTO> slices) {
+        return this.stream(slices)
+                .map(PayrollSliceDTO::getTotals)
+                .reduce(PayrollTotalsDTO.EMPTY, PayrollTotalsDTO::merge);
+    }
+
+    private PayrollReportDTO report(final List<PayrollSliceDTO> slices) {
+        return PayrollReportDTO.builder()
+                .departments(this.rollupByDepartment(slices))
+                .levels(this.rollupByLevel(slices))
+                .overall(this.rollupOverall(slices))
+                .build();
+    }
+
+    private <T> T call(final Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (DbConnectionException e) {
+            throw new DepartmentException(String.format("Error: %s", e.getMessage()), e);
+        }
+    }
+
+    private <T> Stream<T> stream(final List<T> list) {
+        return list.size() >= PARALLEL_THRESHOLD ? list.parallelStream() : list.stream();
+    }
+}
@@ -0,0 +1,41 @@
+package services;
+
+import exceptions.DepartmentException;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//Reconciles the payroll summary after each interval in a background thread, "payroll reconcile" of CommandRunner runs it on demand
+@Log4j2
+public final class PayrollSummaryReconciler implements AutoCloseable {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "payroll-summary-reconciler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PayrollSummaryReconciler(final PayrollReportService service, final long intervalMillis) {
+
+        Objects.requireNonNull(service, "Payroll report service can´t be null!");
+        if (intervalMillis < 1) throw new IllegalArgumentException("Reconciliation interval should be at least one millisecond!");
+
+        //Not in the start, the scan of all the jobs would compete with the first commands for the pool
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                service.reconcileSummary();
+            } catch (DepartmentException e) {
+                //Tried again in the next interval
+                log.error(e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,194 @@
+package app;
+
+import exceptions.EmployeeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import services.DepartmentDeletionService;
+import services.DepartmentService;
+import services.EmployeeExportService;
+import services.EmployeeService;
+import services.PayrollReportService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommandRunnerTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @Mock
+    private DepartmentService departmentService;
+
+    @Mock
+    private DepartmentDeletionService deletionService;
+
+    @Mock
+    private PayrollReportService payrollService;
+
+    @Mock
+    private EmployeeExportService exportService;
+
+    @TempDir
+    Path dir;
+
+    private CommandRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new CommandRunner(employeeService, departmentService, deletionService, payrollService, exportService, 500, 0);
+    }
+
+    @Test
+    @DisplayName("Should be split by spaces keeping the text between double quotes together")
+    void givenTokenize_whenThereAreQuotes_thenKeepTheQuotedTextTogether() {
+        assertEquals(List.of("find-employee", "name", "John Smith"), CommandRunner.tokenize("  find-employee name \"John Smith\" "));
+        assertEquals(List.of("hire", "", "x"), CommandRunner.tokenize("hire \"\" x"));
+        assertEquals(List.of("ab cd"), CommandRunner.tokenize("a\"b c\"d"));
+    }
+
+    @Test
+    @DisplayName("Should be return no tokens when the line is blank")
+    void givenTokenize_whenTheLineIsBlank_thenReturnEmpty() {
+        assertEquals(List.of(), CommandRunner.tokenize(""));
+        assertEquals(List.of(), CommandRunner.tokenize(" \t "));
+    }
+
+    @Test
+    @DisplayName("Should be throw IllegalArgumentException when a double quote is not closed")
+    void givenTokenize_whenAQuoteIsNotClosed_thenThrowIllegalArgumentException() {
+        assertEquals("Double quote not closed!",
+                assertThrows(IllegalArgumentException.class, () -> CommandRunner.tokenize("find-employee name \"John")).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be return 0 when the command succeeds")
+    void givenRun_whenTheCommandSucceeds_thenReturnZero() {
+
+        when(employeeService.findById(1L)).thenReturn(List.of());
+
+        assertEquals(0, runner.run(new String[]{"find-employee", "id", "1"}));
+        verify(employeeService, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be return 1 when the command is unknown")
+    void givenRun_whenTheCommandIsUnknown_thenReturnOne() {
+        assertEquals(1, runner.run(new String[]{"fire", "everyone"}));
+        verifyNoInteractions(employeeService, departmentService, deletionService);
+    }
+
+    @Test
+    @DisplayName("Should be return 1 when the service throws")
+    void givenRun_whenTheServiceThrows_thenReturnOne() {
+
+        when(employeeService.findByDocument("123")).thenThrow(new EmployeeException("Employee not found by document 123!"));
+
+        assertEquals(1, runner.run(new String[]{"find-employee", "document", "123"}));
+    }
+
+    @Test
+    @DisplayName("Should be return 1 without calling the services when arguments are missing or invalid")
+    void givenRun_whenTheArgumentsAreInvalid_thenReturnOneWithoutCallingTheServices() {
+
+        assertEquals(1, runner.run(new String[]{"find-employee", "id"}));
+        assertEquals(1, runner.run(new String[]{"find-employee", "id", "one"}));
+        assertEquals(1, runner.run(new String[]{"find-employee", "age", "30"}));
+        assertEquals(1, runner.run(new String[]{"update-salary", "123"}));
+        assertEquals(1, runner.run(new String[]{"delete-department", "id"}));
+        assertEquals(1, runner.run(new String[]{"run"}));
+
+        verifyNoInteractions(employeeService, departmentService, deletionService);
+    }
+
+    @Test
+    @DisplayName("Should be reject a hire argument with the separator of the columns")
+    void givenHire_whenAnArgumentHasTheSeparator_thenReturnOneWithoutHiring() {
+
+        assertEquals(1, runner.run(new String[]{"hire", "John;123", "456", "01/01/1990", "NORMAL", "YES", "Sales:JUNIOR:1000"}));
+        assertEquals(1, runner.run(new String[]{"hire", "John", "123;456", "01/01/1990", "NORMAL", "YES", "Sales:JUNIOR:1000"}));
+
+        verifyNoInteractions(employeeService, departmentService);
+    }
+
+    @Test
+    @DisplayName("Should be reject a hire with more arguments than the columns")
+    void givenHire_whenThereAreTooManyArguments_thenReturnOneWithoutHiring() {
+
+        assertEquals(1, runner.run(new String[]{"hire", "John", "Smith", "123", "01/01/1990", "NORMAL", "YES", "Sales:JUNIOR:1000"}));
+
+        verifyNoInteractions(employeeService, departmentService);
+    }
+
+    @Test
+    @DisplayName("Should be run every line of the file and count the failed ones")
+    void givenRunFile_whenSomeLinesFail_thenRunTheOthersAndCountTheFailures() throws IOException {
+
+        when(employeeService.findById(anyLong())).thenReturn(List.of());
+        final Path commands = Files.writeString(dir.resolve("commands.txt"), """
+                # Comments and blank lines are skipped
+
+                find-employee id 1
+                fire everyone
+                find-employee name "John
+                find-employee id 2
+                """);
+
+        assertEquals(2, runner.runFile(commands.toString()));
+        verify(employeeService, times(1)).findById(1L);
+        verify(employeeService, times(1)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should be return 1 when any line of the command file fails and 0 when all succeed")
+    void givenRun_whenTheCommandIsRun_thenReturnOneOnlyWhenALineFails() throws IOException {
+
+        when(employeeService.findById(anyLong())).thenReturn(List.of());
+        final Path good = Files.writeString(dir.resolve("good.txt"), "find-employee id 1\nfind-employee id 2\n");
+        final Path bad = Files.writeString(dir.resolve("bad.txt"), "find-employee id 1\nfind-employee id x\n");
+
+        assertEquals(0, runner.run(new String[]{"run", good.toString()}));
+        assertEquals(1, runner.run(new String[]{"run", bad.toString()}));
+    }
+
+    @Test
+    @DisplayName("Should be fail the line of a command file that runs another command file")
+    void givenRunFile_whenALineRunsAnotherFile_thenFailTheLineWithoutRunningIt() throws IOException {
+
+        final Path inner = Files.writeString(dir.resolve("inner.txt"), "find-employee id 1\n");
+        final Path outer = Files.writeString(dir.resolve("outer.txt"), "run " + inner + "\n");
+
+        assertEquals(1, runner.runFile(outer.toString()));
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    @DisplayName("Should be return 1 when the command file does not exist")
+    void givenRun_whenTheFileDoesNotExist_thenReturnOne() {
+        assertEquals(1, runner.run(new String[]{"run", dir.resolve("missing.txt").toString()}));
+    }
+
+    @Test
+    @DisplayName("Should be reconcile the payroll summary on demand and reject unknown payroll options")
+    void givenPayroll_whenTheOptionIsReconcile_thenReconcileTheSummary() {
+
+        when(payrollService.reconcileSummary()).thenReturn(List.of());
+
+        assertEquals(0, runner.run(new String[]{"payroll", "reconcile"}));
+        assertEquals(1, runner.run(new String[]{"payroll", "rebuild"}));
+
+        verify(payrollService, times(1)).reconcileSummary();
+        verify(payrollService, never()).report();
+    }
+}
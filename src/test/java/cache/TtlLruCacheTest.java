@@ -0,0 +1,165 @@
+package cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlLruCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private TtlLruCache<Long, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TtlLruCache<>(2, 1_000, nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should be return the value cached before the ttl")
+    void givenGet_whenTheEntryIsYoungerThanTheTtl_thenReturnTheValue() {
+
+        cache.put(1L, "Sales");
+        nanos.addAndGet(1_000 * 1_000_000L);
+
+        assertEquals(Optional.of("Sales"), cache.get(1L));
+        assertEquals(1, cache.getStats().getHits());
+    }
+
+    @Test
+    @DisplayName("Should be return empty and evict the entry after the ttl")
+    void givenGet_whenTheEntryIsOlderThanTheTtl_thenReturnEmptyAndEvict() {
+
+        cache.put(1L, "Sales");
+        nanos.addAndGet(1_001 * 1_000_000L);
+
+        assertEquals(Optional.empty(), cache.get(1L));
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Should be evict the least recently used entry above the max size")
+    void givenPut_whenAboveTheMaxSize_thenEvictTheLeastRecentlyUsed() {
+
+        cache.put(1L, "Sales");
+        cache.put(2L, "Finance");
+        cache.get(1L);
+        cache.put(3L, "Support");
+
+        assertEquals(Optional.of("Sales"), cache.peek(1L));
+        assertEquals(Optional.empty(), cache.peek(2L));
+        assertEquals(Optional.of("Support"), cache.peek(3L));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should be not refresh the entry when peeking")
+    void givenPeek_whenAboveTheMaxSize_thenTheEntryPeekedIsEvicted() {
+
+        cache.put(1L, "Sales");
+        cache.put(2L, "Finance");
+        cache.peek(1L);
+        cache.put(3L, "Support");
+
+        assertEquals(Optional.empty(), cache.peek(1L));
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+    @Test
+    @DisplayName("Should be remove only the entries matched")
+    void givenInvalidateIf_whenSomeEntriesMatch_thenRemoveOnlyThem() {
+
+        cache.put(1L, "Sales");
+        cache.put(2L, "Finance");
+
+        assertEquals(1, cache.invalidateIf((id, name) -> name.startsWith("F")));
+
+        assertEquals(Optional.of("Sales"), cache.peek(1L));
+        assertEquals(Optional.empty(), cache.peek(2L));
+        assertEquals(1, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("Should be remove the entry invalidated and all entries when invalidating all")
+    void givenInvalidate_whenTheEntryIsCached_thenRemoveIt() {
+
+        cache.put(1L, "Sales");
+        cache.put(2L, "Finance");
+
+        cache.invalidate(1L);
+        assertEquals(Optional.empty(), cache.peek(1L));
+        assertEquals(1, cache.getWeight());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("Should be throw IllegalArgumentException when the max size or the ttl are less than one")
+    void givenConstructor_whenMaxSizeOrTtlAreLessThanOne_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new TtlLruCache<Long, String>(0, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new TtlLruCache<Long, String>(1, 0));
+    }
+
+    @Test
+    @DisplayName("Should be evict by the sum of the weights when there is a weigher")
+    void givenPut_whenTheWeightIsAboveTheMax_thenEvictUntilTheWeightFits() {
+
+        final TtlLruCache<Long, String> weighed = new TtlLruCache<>(5, 1_000, String::length, nanos::get);
+
+        weighed.put(1L, "abc");
+        weighed.put(2L, "de");
+        assertEquals(5, weighed.getWeight());
+
+        weighed.put(3L, "f");
+
+        assertEquals(Optional.empty(), weighed.peek(1L));
+        assertEquals(3, weighed.getWeight());
+        assertEquals(2, weighed.getStats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should be replace the weight of the entry when putting the same key")
+    void givenPut_whenTheKeyIsCached_thenReplaceItsWeight() {
+
+        final TtlLruCache<Long, String> weighed = new TtlLruCache<>(10, 1_000, String::length, nanos::get);
+
+        weighed.put(1L, "abcd");
+        weighed.put(1L, "ab");
+        assertEquals(2, weighed.getWeight());
+
+        weighed.invalidateIf((id, value) -> true);
+        assertEquals(0, weighed.getWeight());
+    }
+
+    @Test
+    @DisplayName("Should be keep the entry just added even when it alone is heavier than the max")
+    void givenPut_whenTheEntryIsHeavierThanTheMax_thenKeepOnlyIt() {
+
+        final TtlLruCache<Long, String> weighed = new TtlLruCache<>(5, 1_000, String::length, nanos::get);
+
+        weighed.put(1L, "ab");
+        weighed.put(2L, "abcdefgh");
+
+        assertEquals(Optional.empty(), weighed.peek(1L));
+        assertEquals(Optional.of("abcdefgh"), weighed.peek(2L));
+        assertEquals(8, weighed.getWeight());
+    }
+
+    @Test
+    @DisplayName("Should be weigh at least one when the weigher returns less")
+    void givenPut_whenTheWeigherReturnsZero_thenWeighOne() {
+
+        final TtlLruCache<Long, String> weighed = new TtlLruCache<>(5, 1_000, String::length, nanos::get);
+
+        weighed.put(1L, "");
+        assertEquals(1, weighed.getWeight());
+    }
+}
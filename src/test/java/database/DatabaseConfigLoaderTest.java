@@ -0,0 +1,150 @@
+package database;
+
+import database.pool.PoolConfig;
+import exceptions.DbConnectionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConfigLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should be load the defaults of the classpath without other sources")
+    void givenLoad_whenThereAreNoOtherSources_thenUseTheClasspathDefaults() {
+
+        final PoolConfig config = DatabaseConfigLoader.load(Map.of(), new Properties());
+
+        assertEquals("jdbc:mysql://localhost/company", config.getUrl());
+        assertEquals(10, config.getMaxSize());
+        assertEquals("true", config.getDriverProperties().get("rewriteBatchedStatements"));
+    }
+
+    @Test
+    @DisplayName("Should be override the file by the environment and the environment by the system properties")
+    void givenLoad_whenAllSourcesHaveTheKey_thenSystemOverridesEnvironmentOverridesFile() throws IOException {
+
+        final Path file = Files.writeString(dir.resolve("db.properties"), """
+                db.pool.maxSize=20
+                db.pool.minSize=3
+                db.pool.borrowTimeoutMillis=1000
+                """);
+
+        final Properties system = new Properties();
+        system.setProperty("db.config", file.toString());
+        system.setProperty("db.pool.maxSize", "40");
+
+        final PoolConfig config = DatabaseConfigLoader.load(
+                Map.of("DB_POOL_MAX_SIZE", "30", "DB_POOL_MIN_SIZE", "4"), system);
+
+        assertEquals(40, config.getMaxSize());
+        assertEquals(4, config.getMinSize());
+        assertEquals(1000, config.getBorrowTimeoutMillis());
+        assertEquals(600_000, config.getIdleTimeoutMillis());
+    }
+
+    @Test
+    @DisplayName("Should be read the file informed in the DB_CONFIG environment variable")
+    void givenLoad_whenTheFileIsInTheEnvironment_thenReadTheFile() throws IOException {
+
+        final Path file = Files.writeString(dir.resolve("db.properties"), "db.username=reports\n");
+
+        final PoolConfig config = DatabaseConfigLoader.load(Map.of("DB_CONFIG", file.toString()), new Properties());
+
+        assertEquals("reports", config.getUsername());
+    }
+
+    @Test
+    @DisplayName("Should be pass the db.driver. keys to the driver")
+    void givenBuild_whenThereAreDriverKeys_thenAddThemToTheDriverProperties() {
+
+        final Properties properties = this.valid();
+        properties.setProperty("db.driver.sslMode", " DISABLED ");
+        properties.setProperty("db.socketTimeoutMillis", "5000");
+
+        final Map<String, String> driver = DatabaseConfigLoader.build(properties).getDriverProperties();
+
+        assertEquals("DISABLED", driver.get("sslMode"));
+        assertEquals("5000", driver.get("socketTimeout"));
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException with all the invalid values")
+    void givenBuild_whenValuesAreInvalid_thenThrowDbConnectionExceptionWithAllErrors() {
+
+        final Properties properties = this.valid();
+        properties.setProperty("db.pool.maxSize", "0");
+        properties.setProperty("db.pool.borrowTimeoutMillis", "soon");
+        properties.setProperty("db.cachePrepStmts", "yes");
+
+        final DbConnectionException e = assertThrows(DbConnectionException.class, () -> DatabaseConfigLoader.build(properties));
+
+        assertTrue(e.getMessage().contains("db.pool.maxSize should be at least 1 but was 0"), e.getMessage());
+        assertTrue(e.getMessage().contains("db.pool.borrowTimeoutMillis should be a number but was soon"), e.getMessage());
+        assertTrue(e.getMessage().contains("db.cachePrepStmts should be true or false but was yes"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException when the url is missing or not MySQL")
+    void givenBuild_whenTheUrlIsInvalid_thenThrowDbConnectionException() {
+
+        final Properties missing = this.valid();
+        missing.remove("db.url");
+        assertTrue(assertThrows(DbConnectionException.class, () -> DatabaseConfigLoader.build(missing))
+                .getMessage().contains("db.url is required"));
+
+        final Properties other = this.valid();
+        other.setProperty("db.url", "jdbc:postgresql://localhost/company?ssl=true");
+        final String message = assertThrows(DbConnectionException.class, () -> DatabaseConfigLoader.build(other)).getMessage();
+        assertTrue(message.contains("is not a MySQL jdbc url"), message);
+        assertTrue(message.contains("db.url should not have properties"), message);
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException when the min size is greater than the max size")
+    void givenBuild_whenMinSizeIsGreaterThanMaxSize_thenThrowDbConnectionException() {
+
+        final Properties properties = this.valid();
+        properties.setProperty("db.pool.minSize", "5");
+        properties.setProperty("db.pool.maxSize", "2");
+
+        assertEquals("Invalid database configuration: db.pool.minSize 5 is greater than db.pool.maxSize 2",
+                assertThrows(DbConnectionException.class, () -> DatabaseConfigLoader.build(properties)).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException when cursor fetch is on without server prepared statements")
+    void givenBuild_whenCursorFetchWithoutServerPrepStmts_thenThrowDbConnectionException() {
+
+        final Properties properties = this.valid();
+        properties.setProperty("db.useCursorFetch", "true");
+        properties.setProperty("db.useServerPrepStmts", "false");
+
+        assertTrue(assertThrows(DbConnectionException.class, () -> DatabaseConfigLoader.build(properties))
+                .getMessage().contains("db.useCursorFetch needs db.useServerPrepStmts=true"));
+    }
+
+    @Test
+    @DisplayName("Should be convert the keys to environment variable names")
+    void givenEnvName_whenTheKeyIsCamelCase_thenReturnUpperSnakeCase() {
+        assertEquals("DB_POOL_MAX_SIZE", DatabaseConfigLoader.envName("db.pool.maxSize"));
+        assertEquals("DB_CONFIG", DatabaseConfigLoader.envName("db.config"));
+    }
+
+    private Properties valid() {
+        final Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:mysql://localhost/company");
+        properties.setProperty("db.username", "root");
+        return properties;
+    }
+}
@@ -0,0 +1,89 @@
+package database;
+
+import database.pool.PoolConfig;
+import database.pool.StubStatementDriver;
+import exceptions.DbConnectionException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    The actions after the commit of a unit of work, over the static pool of DbConnection.
+    Runs in its own JVM, the static-pool-tests execution of the pom.
+*/
+class TransactionContextTest {
+
+    @BeforeAll
+    static void setUpPool() throws SQLException {
+        StubStatementDriver.register();
+        DbConnection.configure(PoolConfig.builder()
+                .url(StubStatementDriver.URL)
+                .minSize(0)
+                .maxSize(2)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should be run the action at once when the thread has no unit of work")
+    void givenAfterCommit_whenNoUnitIsActive_thenRunItNow() {
+
+        final List<String> actions = new ArrayList<>();
+
+        TransactionContext.afterCommit(() -> actions.add("evict"));
+
+        assertEquals(List.of("evict"), actions);
+    }
+
+    @Test
+    @DisplayName("Should be run the action of an inner unit only after the outermost unit commits")
+    void givenAfterCommit_whenCalledInAnInnerUnit_thenRunItAfterTheOutermostCommit() {
+
+        final List<String> actions = new ArrayList<>();
+
+        TransactionContext.inTransaction(() -> {
+            TransactionContext.inTransaction(() -> TransactionContext.afterCommit(() -> actions.add("evict")));
+            assertTrue(actions.isEmpty(), "The inner commit doesn´t end the transaction");
+            actions.add("last write");
+        });
+
+        assertEquals(List.of("last write", "evict"), actions);
+    }
+
+    @Test
+    @DisplayName("Should be drop the action when the unit of work rolls back")
+    void givenAfterCommit_whenTheUnitRollsBack_thenNeverRunIt() {
+
+        final List<String> actions = new ArrayList<>();
+
+        assertThrows(DbConnectionException.class, () -> TransactionContext.inTransaction(() -> {
+            TransactionContext.afterCommit(() -> actions.add("evict"));
+            throw new DbConnectionException("Error in the unit!");
+        }));
+        TransactionContext.inTransaction(() -> actions.add("next unit"));
+
+        assertEquals(List.of("next unit"), actions);
+        assertFalse(TransactionContext.isActive());
+    }
+
+    @Test
+    @DisplayName("Should be run the other actions when one of them fails after the commit")
+    void givenAfterCommit_whenAnActionFails_thenRunTheOthers() {
+
+        final List<String> actions = new ArrayList<>();
+
+        TransactionContext.inTransaction(() -> {
+            TransactionContext.afterCommit(() -> {
+                throw new IllegalStateException("Error in the action!");
+            });
+            TransactionContext.afterCommit(() -> actions.add("evict"));
+        });
+
+        assertEquals(List.of("evict"), actions);
+    }
+}
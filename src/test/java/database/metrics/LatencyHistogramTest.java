@@ -0,0 +1,108 @@
+package database.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    //The last bucket, of the values from 15 * 2^37 up, clamped at 2^41
+    private static final int LAST_BUCKET = 311;
+
+    @Test
+    @DisplayName("Should be count the values below 16 in exact buckets")
+    void givenBucketOf_whenTheValueIsBelowSixteen_thenTheBucketIsTheValue() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.upperBoundOf(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Should be split each power of two in 8 contiguous buckets")
+    void givenUpperBoundOf_whenEachBucket_thenTheNextValueStartsTheNextBucket() {
+
+        assertEquals(16, LatencyHistogram.bucketOf(16));
+        assertEquals(17, LatencyHistogram.upperBoundOf(16));
+        assertEquals(16, LatencyHistogram.bucketOf(17));
+        assertEquals(17, LatencyHistogram.bucketOf(18));
+
+        for (int bucket = 0; bucket < LAST_BUCKET; bucket++) {
+            final long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper), "upper bound of " + bucket);
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1), "value after " + bucket);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be overestimate any value by at most 12.5%")
+    void givenUpperBoundOf_whenRandomValues_thenTheErrorIsAtMostAnEighth() {
+
+        final Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            final long value = 16 + (random.nextLong() >>> (23 + random.nextInt(40)));
+            final long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value));
+            assertTrue(upper >= value, "value " + value);
+            assertTrue(upper - value <= value / 8, "value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be put the values from 2^41 up in the last bucket")
+    void givenBucketOf_whenTheValueIsAboveTheRange_thenClampItToTheLastBucket() {
+
+        assertEquals(LAST_BUCKET, LatencyHistogram.bucketOf((1L << 41) - 1));
+        assertEquals(LAST_BUCKET, LatencyHistogram.bucketOf(1L << 41));
+        assertEquals(LAST_BUCKET, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+        assertEquals((1L << 41) - 1, LatencyHistogram.upperBoundOf(LAST_BUCKET));
+    }
+
+    @Test
+    @DisplayName("Should be answer the percentiles with the upper bound of their bucket and the exact max")
+    void givenSnapshot_whenValuesAreRecorded_thenComputeThePercentiles() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) histogram.record(value);
+
+        final LatencyStats stats = histogram.snapshot();
+        assertEquals(100, stats.getCount());
+        assertEquals(50, stats.getMeanNanos());
+        assertEquals(51, stats.getP50Nanos());
+        assertEquals(95, stats.getP95Nanos());
+        assertEquals(103, stats.getP99Nanos());
+        assertEquals(100, stats.getMaxNanos());
+    }
+
+    @Test
+    @DisplayName("Should be record the values above the range with their real max")
+    void givenSnapshot_whenAValueIsAboveTheRange_thenKeepItsMax() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+
+        final LatencyStats stats = histogram.snapshot();
+        assertEquals(2, stats.getCount());
+        assertEquals(0, stats.getP50Nanos(), "Negative values are recorded as zero");
+        assertEquals((1L << 41) - 1, stats.getP99Nanos());
+        assertEquals(Long.MAX_VALUE, stats.getMaxNanos());
+    }
+
+    @Test
+    @DisplayName("Should be empty after the reset")
+    void givenReset_whenValuesWereRecorded_thenTheSnapshotIsEmpty() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.reset();
+
+        assertSame(LatencyStats.EMPTY, histogram.snapshot());
+
+        histogram.record(10);
+        assertEquals(1, histogram.snapshot().getCount());
+        assertEquals(10, histogram.snapshot().getMaxNanos());
+    }
+}
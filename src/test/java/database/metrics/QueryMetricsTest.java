@@ -0,0 +1,147 @@
+package database.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueryMetricsTest {
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    //The registry is static, each test counts its own statement
+    private String name;
+
+    @BeforeEach
+    void setUp(final TestInfo info) {
+        name = "test." + info.getTestMethod().orElseThrow().getName();
+    }
+
+    @Test
+    @DisplayName("Should be time the prepare and the execute and count the rows changed")
+    void givenExecuteUpdate_whenRowsAreChanged_thenRecordTheExecuteAndTheRows() throws SQLException {
+
+        when(connection.prepareStatement("UPDATE x")).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(3);
+
+        final PreparedStatement ps = QueryMetrics.prepare(connection, name, "UPDATE x");
+        ps.setLong(1, 24L);
+        assertEquals(3, ps.executeUpdate());
+
+        final StatementStats stats = QueryMetrics.find(name).orElseThrow();
+        assertEquals(1, stats.getPrepare().getCount());
+        assertEquals(1, stats.getExecutions());
+        assertEquals(3, stats.getRows());
+        assertEquals(0, stats.getErrors());
+        verify(statement).setLong(1, 24L);
+    }
+
+    @Test
+    @DisplayName("Should be count one row for each statement of the batch without info, and none for the failed ones")
+    void givenExecuteBatch_whenTheDriverHasNoCounts_thenCountOneRowEach() throws SQLException {
+
+        when(connection.prepareStatement("INSERT x")).thenReturn(statement);
+        when(statement.executeBatch()).thenReturn(new int[]{2, Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED});
+
+        QueryMetrics.prepare(connection, name, "INSERT x").executeBatch();
+
+        assertEquals(3, QueryMetrics.find(name).orElseThrow().getRows());
+    }
+
+    @Test
+    @DisplayName("Should be time the fetch once and count the rows read until the end of the result set")
+    void givenExecuteQuery_whenAllTheRowsAreRead_thenRecordTheFetchOnce() throws SQLException {
+
+        when(connection.prepareStatement("SELECT x")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(7L);
+
+        try (ResultSet rs = QueryMetrics.prepare(connection, name, "SELECT x").executeQuery()) {
+            while (rs.next()) assertEquals(7L, rs.getLong(1));
+        }
+
+        final StatementStats stats = QueryMetrics.find(name).orElseThrow();
+        assertEquals(1, stats.getFetch().getCount());
+        assertEquals(2, stats.getRows());
+        verify(resultSet).close();
+    }
+
+    @Test
+    @DisplayName("Should be record the fetch when the result set is closed before its end")
+    void givenClose_whenTheResultSetWasNotReadToTheEnd_thenRecordTheRowsRead() throws SQLException {
+
+        when(connection.prepareStatement("SELECT x")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+
+        final ResultSet rs = QueryMetrics.prepare(connection, name, "SELECT x").executeQuery();
+        rs.next();
+        assertEquals(0, QueryMetrics.find(name).orElseThrow().getFetch().getCount());
+
+        rs.close();
+        rs.close();
+
+        final StatementStats stats = QueryMetrics.find(name).orElseThrow();
+        assertEquals(1, stats.getFetch().getCount());
+        assertEquals(1, stats.getRows());
+    }
+
+    @Test
+    @DisplayName("Should be count the errors of the prepare, the execute and the fetch, throwing them unchanged")
+    void givenSQLException_whenThePrepareTheExecuteOrTheFetchFails_thenCountTheErrors() throws SQLException {
+
+        final SQLException broken = new SQLException("Broken!");
+        when(connection.prepareStatement("SELECT broken")).thenThrow(broken);
+        when(connection.prepareStatement("SELECT x")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet).thenThrow(broken);
+        when(resultSet.next()).thenThrow(broken);
+
+        assertSame(broken, assertThrows(SQLException.class, () -> QueryMetrics.prepare(connection, name, "SELECT broken")));
+
+        final PreparedStatement ps = QueryMetrics.prepare(connection, name, "SELECT x");
+        final ResultSet rs = ps.executeQuery();
+        assertSame(broken, assertThrows(SQLException.class, rs::next));
+        assertSame(broken, assertThrows(SQLException.class, ps::executeQuery));
+
+        final StatementStats stats = QueryMetrics.find(name).orElseThrow();
+        assertEquals(3, stats.getErrors());
+        assertEquals(2, stats.getExecutions(), "The failed execute is timed too");
+    }
+
+    @Test
+    @DisplayName("Should be keep the counters of the names created and clear them on reset")
+    void givenReset_whenAStatementWasRecorded_thenClearItsCounters() throws SQLException {
+
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeUpdate("DELETE x")).thenReturn(1);
+
+        QueryMetrics.create(connection, name).executeUpdate("DELETE x");
+        assertEquals(1, QueryMetrics.find(name).orElseThrow().getExecutions());
+
+        QueryMetrics.reset();
+
+        assertEquals(0, QueryMetrics.find(name).orElseThrow().getExecutions());
+        assertTrue(QueryMetrics.find("test.never.prepared").isEmpty());
+    }
+}
@@ -0,0 +1,169 @@
+package database.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private StubStatementDriver driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        driver = StubStatementDriver.register();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) pool.close();
+    }
+
+    @Test
+    @DisplayName("Should be fail the borrow after the timeout when all the connections are lent")
+    void givenGetConnection_whenAllTheConnectionsAreLent_thenThrowAfterTheTimeout() throws SQLException {
+
+        pool = new ConnectionPool(config().maxSize(1).borrowTimeoutMillis(50).build());
+
+        try (Connection ignored = pool.getConnection()) {
+            final long start = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, () -> pool.getConnection());
+            assertTrue(System.nanoTime() - start >= 50_000_000L);
+        }
+
+        assertEquals(1, pool.getStats().getBorrowTimeouts());
+        assertEquals(0, pool.getStats().getActive());
+    }
+
+    @Test
+    @DisplayName("Should be open the min size connections when the pool is created")
+    void givenNewPool_whenTheMinSizeIsSet_thenOpenTheMinSizeConnections() {
+
+        pool = new ConnectionPool(config().minSize(2).build());
+
+        assertEquals(2, driver.getConnections().size());
+        assertEquals(2, pool.getStats().getTotal());
+        assertEquals(2, pool.getStats().getIdle());
+    }
+
+    @Test
+    @DisplayName("Should be close the connections idle for longer than the timeout, keeping the min size")
+    void givenEviction_whenConnectionsAreIdleForLongerThanTheTimeout_thenCloseThemDownToTheMinSize() throws Exception {
+
+        pool = new ConnectionPool(config().minSize(1).idleTimeoutMillis(20).evictionIntervalMillis(10).build());
+
+        try (Connection ignored = pool.getConnection(); Connection ignoredToo = pool.getConnection()) {
+            assertEquals(2, pool.getStats().getTotal());
+        }
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.getStats().getTotal() > 1 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+        assertEquals(1, pool.getStats().getTotal());
+        assertEquals(1, pool.getStats().getDestroyed());
+        assertEquals(1, driver.getConnections().stream().filter(physical -> physical.closed).count());
+    }
+
+    @Test
+    @DisplayName("Should be replace on borrow the idle connection dropped by the server")
+    void givenGetConnection_whenTheIdleConnectionIsNotValid_thenReplaceIt() throws SQLException {
+
+        pool = new ConnectionPool(config().validationBypassMillis(0).build());
+
+        pool.getConnection().close();
+        driver.getConnections().get(0).valid = false;
+
+        try (Connection c = pool.getConnection()) {
+            assertFalse(c.isClosed());
+        }
+
+        assertEquals(2, driver.getConnections().size());
+        assertTrue(driver.getConnections().get(0).closed);
+        assertEquals(1, pool.getStats().getValidationFailures());
+        assertEquals(1, pool.getStats().getDestroyed());
+        assertEquals(1, pool.getStats().getTotal());
+    }
+
+    @Test
+    @DisplayName("Should be count the connections lent, idle, created and borrowed")
+    void givenGetStats_whenConnectionsAreLentAndReturned_thenCountThem() throws SQLException {
+
+        pool = new ConnectionPool(config().build());
+
+        final Connection first = pool.getConnection();
+        final Connection second = pool.getConnection();
+        first.close();
+
+        final PoolStats stats = pool.getStats();
+        assertEquals(2, stats.getTotal());
+        assertEquals(1, stats.getIdle());
+        assertEquals(1, stats.getActive());
+        assertEquals(2, stats.getBorrowed());
+        assertEquals(2, stats.getCreated());
+        assertEquals(0, stats.getWaiting());
+
+        second.close();
+        assertEquals(0, pool.getStats().getActive());
+    }
+
+    @Test
+    @DisplayName("Should be give the next borrower the session settings the connection was created with")
+    void givenRelease_whenTheBorrowerChangedTheSessionSettings_thenRestoreThem() throws SQLException {
+
+        pool = new ConnectionPool(config().maxSize(1).build());
+
+        try (Connection c = pool.getConnection()) {
+            c.setReadOnly(true);
+            c.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            c.setCatalog("reports");
+            c.setSchema("reports");
+        }
+
+        try (Connection c = pool.getConnection()) {
+            assertFalse(c.isReadOnly());
+            assertEquals(Connection.TRANSACTION_REPEATABLE_READ, c.getTransactionIsolation());
+            assertEquals("employees", c.getCatalog());
+            assertEquals("employees", c.getSchema());
+        }
+
+        assertEquals(1, driver.getConnections().size());
+    }
+
+    @Test
+    @DisplayName("Should be not close again on release the statements the borrower closed")
+    void givenRelease_whenTheBorrowerClosedItsStatements_thenCloseThemOnce() throws SQLException {
+
+        pool = new ConnectionPool(config().build());
+
+        try (Connection c = pool.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (Statement ignored = c.createStatement()) {
+                    assertNotNull(ignored);
+                }
+            }
+            c.createStatement();
+        }
+
+        final List<StubStatementDriver.Recorded> statements = driver.getStatements();
+        assertEquals(4, statements.size());
+        statements.forEach(st -> assertEquals(1, st.closes));
+    }
+
+    private static PoolConfig.PoolConfigBuilder config() {
+        return PoolConfig.builder()
+                .url(StubStatementDriver.URL)
+                .minSize(0)
+                .maxSize(4)
+                .borrowTimeoutMillis(5_000)
+                .statementCacheSize(0);
+    }
+}
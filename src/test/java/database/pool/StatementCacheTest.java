@@ -0,0 +1,127 @@
+package database.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+
+    private StubStatementDriver driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        driver = StubStatementDriver.register();
+        pool = StubStatementDriver.pool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should be reuse the physical statement of the same sql after it is closed")
+    void givenPrepareStatement_whenTheSameSqlWasClosed_thenReuseThePhysicalStatement() throws SQLException {
+
+        try (Connection c = pool.getConnection()) {
+            c.prepareStatement("SELECT 1").close();
+            c.prepareStatement("SELECT 1").close();
+        }
+
+        assertEquals(1, driver.getStatements().size());
+        assertFalse(driver.getStatements().get(0).closed);
+        assertEquals(1, pool.getStatementCacheStats().getHits());
+        assertEquals(1, pool.getStatementCacheStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Should be close the least recently returned statement when the cache is full")
+    void givenClose_whenTheCacheIsFull_thenCloseTheLeastRecentlyReturned() throws SQLException {
+
+        try (Connection c = pool.getConnection()) {
+            c.prepareStatement("SELECT 1").close();
+            c.prepareStatement("SELECT 2").close();
+            c.prepareStatement("SELECT 3").close();
+            c.prepareStatement("SELECT 1").close();
+        }
+
+        final List<StubStatementDriver.Recorded> statements = driver.getStatements();
+        assertEquals(4, statements.size(), "SELECT 1 should be prepared again after its eviction");
+        assertTrue(statements.get(0).closed);
+        assertTrue(statements.get(1).closed, "SELECT 2 was the least recently returned when SELECT 1 came back");
+        assertFalse(statements.get(2).closed);
+        assertFalse(statements.get(3).closed);
+        assertEquals(2, pool.getStatementCacheStats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should be close instead of cache the statement with max rows changed")
+    void givenClose_whenTheMaxRowsWasChanged_thenCloseTheStatement() throws SQLException {
+
+        try (Connection c = pool.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement("SELECT 1")) {
+                ps.setMaxRows(10);
+            }
+            c.prepareStatement("SELECT 1").close();
+        }
+
+        final List<StubStatementDriver.Recorded> statements = driver.getStatements();
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).closed);
+        assertEquals(0, statements.get(1).maxRows);
+        assertFalse(statements.get(1).closed);
+    }
+
+    @Test
+    @DisplayName("Should be reset the query timeout when the statement goes back to the cache")
+    void givenClose_whenTheQueryTimeoutWasSet_thenResetItToZero() throws SQLException {
+
+        try (Connection c = pool.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement("SELECT 1")) {
+                ps.setQueryTimeout(7);
+            }
+            c.prepareStatement("SELECT 1").close();
+        }
+
+        assertEquals(1, driver.getStatements().size());
+        assertEquals(List.of(7, 0), driver.getStatements().get(0).queryTimeouts);
+    }
+
+    @Test
+    @DisplayName("Should be throw SQLException when using a statement already returned to the cache")
+    void givenExecuteQuery_whenTheStatementWasClosed_thenThrowSQLException() throws SQLException {
+
+        try (Connection c = pool.getConnection()) {
+            final PreparedStatement ps = c.prepareStatement("SELECT 1");
+            ps.close();
+
+            assertTrue(ps.isClosed());
+            assertThrows(SQLException.class, ps::executeQuery);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be close every statement when the cache is disabled")
+    void givenClose_whenTheCacheIsDisabled_thenCloseTheStatement() throws SQLException {
+
+        pool.close();
+        pool = StubStatementDriver.pool(0);
+
+        try (Connection c = pool.getConnection()) {
+            c.prepareStatement("SELECT 1").close();
+            c.prepareStatement("SELECT 1").close();
+        }
+
+        assertEquals(2, driver.getStatements().size());
+        assertTrue(driver.getStatements().stream().allMatch(s -> s.closed));
+    }
+}
@@ -0,0 +1,114 @@
+package database.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementScopeTest {
+
+    private StubStatementDriver driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        driver = StubStatementDriver.register();
+        pool = StubStatementDriver.pool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should be set the query timeout in seconds, rounded up, of the statements created in the scope")
+    void givenRun_whenAStatementIsCreated_thenSetTheQueryTimeout() {
+
+        StatementScope.withTimeout(Duration.ofMillis(1_500)).run(() -> this.query("SELECT 1"));
+
+        assertEquals(2, driver.getStatements().get(0).queryTimeouts.get(0));
+    }
+
+    @Test
+    @DisplayName("Should be not set a query timeout on the statements created outside a scope")
+    void givenStatement_whenCreatedOutsideAScope_thenDontSetTheQueryTimeout() {
+
+        this.query("SELECT 1");
+
+        assertEquals(List.of(), driver.getStatements().get(0).queryTimeouts);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Should be cancel the statement running in another thread")
+    void givenCancel_whenAStatementIsRunningInAnotherThread_thenCancelTheStatement() throws Exception {
+
+        final StatementScope scope = StatementScope.withTimeout(Duration.ofSeconds(30));
+        final CompletableFuture<Void> call = CompletableFuture.runAsync(() -> scope.run(() -> this.query("SELECT SLEEP(60)")));
+
+        while (driver.getStatements().isEmpty()) Thread.onSpinWait();
+        final StubStatementDriver.Recorded statement = driver.getStatements().get(0);
+        assertTrue(statement.running.await(5, TimeUnit.SECONDS));
+
+        scope.cancel();
+
+        final CompletionException e = assertThrows(CompletionException.class, call::join);
+        assertEquals("Query execution was interrupted", e.getCause().getCause().getMessage());
+        assertSame(Thread.currentThread(), statement.cancelledBy);
+        assertTrue(scope.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Should be reset the query timeout of the statement returned to the cache")
+    void givenClose_whenTheStatementIsCached_thenResetTheQueryTimeout() {
+
+        StatementScope.withTimeout(Duration.ofSeconds(3)).run(() -> this.query("SELECT 1"));
+        this.query("SELECT 1");
+
+        final List<StubStatementDriver.Recorded> statements = driver.getStatements();
+        assertEquals(1, statements.size(), "The statement should be reused from the cache");
+        assertEquals(List.of(3, 0), statements.get(0).queryTimeouts);
+        assertEquals(2, statements.get(0).executions);
+    }
+
+    @Test
+    @DisplayName("Should be throw CancellationException when running a scope already cancelled")
+    void givenRun_whenTheScopeIsCancelled_thenThrowCancellationException() {
+
+        final StatementScope scope = StatementScope.withTimeout(Duration.ofSeconds(1));
+        scope.cancel();
+
+        assertThrows(CancellationException.class, () -> scope.run(() -> this.query("SELECT 1")));
+        assertTrue(driver.getStatements().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should be throw IllegalArgumentException when the timeout is not positive")
+    void givenWithTimeout_whenTheTimeoutIsZero_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StatementScope.withTimeout(Duration.ZERO));
+    }
+
+    private Void query(final String sql) {
+        try (Connection c = pool.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.executeQuery();
+            return null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
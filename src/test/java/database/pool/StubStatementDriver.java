@@ -0,0 +1,212 @@
+package database.pool;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/*
+    Driver of physical connections whose prepared statements record the calls of the pool, the cache and the scope.
+    A query with SLEEP blocks until the statement is cancelled, like a long query cancelled by the server.
+    The connections keep their session settings and can be made invalid, like a connection dropped by the server.
+*/
+public final class StubStatementDriver implements Driver {
+
+    public static final String URL = "jdbc:stub:statements";
+
+    private static final StubStatementDriver INSTANCE = new StubStatementDriver();
+
+    private final List<Recorded> statements = new CopyOnWriteArrayList<>();
+    private final List<Physical> connections = new CopyOnWriteArrayList<>();
+
+    public static synchronized StubStatementDriver register() throws SQLException {
+        if (DriverManager.drivers().noneMatch(d -> d == INSTANCE)) DriverManager.registerDriver(INSTANCE);
+        INSTANCE.statements.clear();
+        INSTANCE.connections.clear();
+        return INSTANCE;
+    }
+
+    public static ConnectionPool pool(final int statementCacheSize) {
+        return new ConnectionPool(PoolConfig.builder()
+                .url(URL)
+                .minSize(0)
+                .maxSize(4)
+                .borrowTimeoutMillis(5_000)
+                .statementCacheSize(statementCacheSize)
+                .build());
+    }
+
+    //Physical statements in the order they were prepared
+    public List<Recorded> getStatements() {
+        return statements;
+    }
+
+    //Physical connections in the order they were opened
+    public List<Physical> getConnections() {
+        return connections;
+    }
+
+    @Override
+    public Connection connect(final String url, final Properties info) {
+        return this.acceptsURL(url) ? this.newConnection() : null;
+    }
+
+    @Override
+    public boolean acceptsURL(final String url) {
+        return URL.equals(url);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private Connection newConnection() {
+
+        final boolean[] autoCommit = {true};
+        final Physical physical = new Physical();
+        connections.add(physical);
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> this.newStatement((String) args[0]);
+                    case "createStatement" -> this.newStatement(null);
+                    case "setAutoCommit" -> {
+                        autoCommit[0] = (boolean) args[0];
+                        yield null;
+                    }
+                    case "getAutoCommit" -> autoCommit[0];
+                    case "setReadOnly" -> {
+                        physical.readOnly = (boolean) args[0];
+                        yield null;
+                    }
+                    case "isReadOnly" -> physical.readOnly;
+                    case "setTransactionIsolation" -> {
+                        physical.isolation = (int) args[0];
+                        yield null;
+                    }
+                    case "getTransactionIsolation" -> physical.isolation;
+                    case "setCatalog" -> {
+                        physical.catalog = (String) args[0];
+                        yield null;
+                    }
+                    case "getCatalog" -> physical.catalog;
+                    case "setSchema" -> {
+                        physical.schema = (String) args[0];
+                        yield null;
+                    }
+                    case "getSchema" -> physical.schema;
+                    case "isValid" -> physical.valid;
+                    case "close" -> {
+                        physical.closed = true;
+                        yield null;
+                    }
+                    case "isClosed" -> physical.closed;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                });
+    }
+
+    private PreparedStatement newStatement(final String sql) {
+
+        final Recorded recorded = new Recorded(sql);
+        statements.add(recorded);
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setQueryTimeout" -> {
+                        recorded.queryTimeouts.add((int) args[0]);
+                        yield null;
+                    }
+                    case "setMaxRows" -> {
+                        recorded.maxRows = (int) args[0];
+                        yield null;
+                    }
+                    case "executeQuery" -> {
+                        recorded.executions++;
+                        if (sql != null && sql.contains("SLEEP")) {
+                            recorded.running.countDown();
+                            if (!recorded.cancelled.await(10, TimeUnit.SECONDS)) throw new SQLException("Never cancelled!");
+                            throw new SQLException("Query execution was interrupted");
+                        }
+                        yield null;
+                    }
+                    case "cancel" -> {
+                        recorded.cancelledBy = Thread.currentThread();
+                        recorded.cancelled.countDown();
+                        yield null;
+                    }
+                    case "close" -> {
+                        recorded.closed = true;
+                        recorded.closes++;
+                        yield null;
+                    }
+                    case "isClosed" -> recorded.closed;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                });
+    }
+
+    public static final class Physical {
+
+        public volatile boolean valid = true;
+        public volatile boolean closed;
+        public volatile boolean readOnly;
+        public volatile int isolation = Connection.TRANSACTION_REPEATABLE_READ;
+        public volatile String catalog = "employees";
+        public volatile String schema = "employees";
+
+        private Physical() {
+        }
+    }
+
+    public static final class Recorded {
+
+        public final String sql;
+        public final List<Integer> queryTimeouts = new CopyOnWriteArrayList<>();
+        public final CountDownLatch running = new CountDownLatch(1);
+        public final CountDownLatch cancelled = new CountDownLatch(1);
+        public volatile Thread cancelledBy;
+        public volatile boolean closed;
+        public volatile int maxRows;
+        public volatile int executions;
+        public volatile int closes;
+
+        private Recorded(final String sql) {
+            this.sql = sql;
+        }
+    }
+}
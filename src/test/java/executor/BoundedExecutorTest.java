@@ -0,0 +1,120 @@
+package executor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedExecutorTest {
+
+    @Test
+    @DisplayName("Should be return the results in the order of the inputs")
+    void givenMap_whenAllCallsSucceed_thenReturnResultsInOrder() {
+        try (BoundedExecutor executor = BoundedExecutor.virtual(3)) {
+            assertEquals(List.of(2, 4, 6, 8), executor.map(List.of(1, 2, 3, 4), i -> i * 2));
+        }
+    }
+
+    @Test
+    @DisplayName("Should be never run more calls at the same time than the max concurrent")
+    void givenMap_whenThereAreMoreInputsThanPermits_thenRunAtMostMaxConcurrent() {
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+
+        try (BoundedExecutor executor = BoundedExecutor.virtual(2)) {
+            executor.map(IntStream.range(0, 20).boxed().toList(), i -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return running.decrementAndGet();
+            });
+        }
+
+        assertTrue(peak.get() <= 2);
+    }
+
+    @Test
+    @DisplayName("Should be skip the calls waiting for a permit after a failure and throw the failure")
+    void givenMap_whenACallFails_thenTheCallsWaitingArentRun() {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final IllegalStateException failure = new IllegalStateException("Lock wait timeout");
+
+        try (BoundedExecutor executor = BoundedExecutor.virtual(1)) {
+
+            final IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> executor.map(IntStream.range(0, 10).boxed().toList(), i -> {
+                        calls.incrementAndGet();
+                        throw failure;
+                    }));
+
+            //Not the cancellation of a call skipped before the failed one
+            assertSame(failure, e);
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should be let the calls running finish after a failure")
+    void givenMap_whenACallFailsWhileOthersRun_thenTheRunningCallsFinish() throws InterruptedException {
+
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final CountDownLatch slowFinished = new CountDownLatch(1);
+
+        try (BoundedExecutor executor = BoundedExecutor.virtual(2)) {
+
+            assertThrows(IllegalStateException.class, () -> executor.map(List.of("slow", "fails"), input -> {
+                if (input.equals("slow")) {
+                    slowStarted.countDown();
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    slowFinished.countDown();
+                    return input;
+                }
+                try {
+                    slowStarted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Lock wait timeout");
+            }));
+        }
+
+        assertTrue(slowFinished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should be stop the serial calls at the first failure")
+    void givenMap_whenSerialAndACallFails_thenTheNextCallsArentRun() {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        try (BoundedExecutor executor = BoundedExecutor.serial()) {
+
+            final IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> executor.map(List.of(1, 2, 3), i -> {
+                        calls.incrementAndGet();
+                        if (i == 2) throw new IllegalStateException("Lock wait timeout");
+                        return i;
+                    }));
+
+            assertEquals("Lock wait timeout", e.getMessage());
+        }
+
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,73 @@
+package index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 20_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    @DisplayName("Should be answer maybe present for every string put")
+    void givenMightContain_whenTheStringWasPut_thenReturnTrue() {
+
+        final BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) filter.put("user" + i);
+
+        for (int i = 0; i < INSERTIONS; i++) assertTrue(filter.mightContain("user" + i), "False negative for user" + i);
+    }
+
+    @Test
+    @DisplayName("Should be measure a false positive rate close to the target when filled as expected")
+    void givenMightContain_whenFilledWithTheExpectedInsertions_thenFalsePositiveRateIsCloseToTheTarget() {
+
+        for (double target : new double[]{0.01, 0.001}) {
+
+            final BloomFilter filter = new BloomFilter(INSERTIONS, target);
+            for (int i = 0; i < INSERTIONS; i++) filter.put("user" + i);
+
+            int falsePositives = 0;
+            for (int i = 0; i < PROBES; i++) if (filter.mightContain("other" + i)) falsePositives++;
+
+            final double measured = (double) falsePositives / PROBES;
+            assertTrue(measured <= target * 1.5, String.format("Measured %.5f for the target %.5f", measured, target));
+            assertEquals(target, filter.getExpectedFalsePositiveRate(), target * 0.5);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be saturated only after more strings than expected")
+    void givenIsSaturated_whenPutMoreThanExpected_thenReturnTrue() {
+
+        final BloomFilter filter = new BloomFilter(10, 0.01);
+        for (int i = 0; i < 10; i++) filter.put("user" + i);
+        assertFalse(filter.isSaturated());
+
+        filter.put("user10");
+        assertTrue(filter.isSaturated());
+        assertEquals(11, filter.getInsertions());
+    }
+
+    @Test
+    @DisplayName("Should be size the bits and hashes from the expected insertions and the false positive rate")
+    void givenConstructor_whenTheRateIsOnePercent_thenUseAboutTenBitsAndSevenHashesPerString() {
+
+        final BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        //m = -n ln(p) / ln(2)² = 9586 bits, rounded up to 150 words
+        assertEquals(9_600, filter.getBits());
+        assertEquals(7, filter.getHashes());
+        assertEquals(1_200, filter.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should be throw IllegalArgumentException when the insertions or the rate are invalid")
+    void givenConstructor_whenArgumentsAreInvalid_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+}
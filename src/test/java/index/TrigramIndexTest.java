@@ -0,0 +1,139 @@
+package index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "João Silva");
+        index.put(2, "Joana Souza");
+        index.put(3, "Ann Smith");
+        index.put(4, "JOSÉ ÁVILA");
+    }
+
+    @Test
+    @DisplayName("Should be normalize to lower case without accents")
+    void givenNormalize_whenTheTextHasAccentsAndUpperCase_thenReturnLowerCaseWithoutAccents() {
+        assertEquals("joao silva", TrigramIndex.normalize("João Silva"));
+        assertEquals("jose avila", TrigramIndex.normalize("JOSÉ ÁVILA"));
+        assertEquals("francoise", TrigramIndex.normalize("Françoise"));
+        assertEquals("", TrigramIndex.normalize(""));
+    }
+
+    @Test
+    @DisplayName("Should be find the names containing the text ignoring case and accents, in ascending ids")
+    void givenSearch_whenTheTextIsInSomeNames_thenReturnTheirIdsInOrder() {
+        assertEquals(List.of(1L, 2L), index.search("JOA"));
+        assertEquals(List.of(1L), index.search("joão s"));
+        assertEquals(List.of(4L), index.search("avila"));
+        assertEquals(List.of(2L, 3L), index.search("n"));
+    }
+
+    @Test
+    @DisplayName("Should be confirm the whole text when the trigrams are in the name out of order")
+    void givenSearch_whenTheTrigramsAreOutOfOrder_thenReturnEmpty() {
+
+        index.put(5, "abcxbcd");
+
+        assertEquals(List.of(), index.search("abcd"));
+        assertEquals(List.of(5L), index.search("xbcd"));
+        assertEquals(List.of(), index.search("zzz"));
+    }
+
+    @Test
+    @DisplayName("Should be read the single chars and pairs of the names when the text is shorter than a trigram")
+    void givenSearch_whenTheTextIsShorterThanATrigram_thenReadItsPostings() {
+        assertEquals(List.of(1L, 2L, 4L), index.search("jo"));
+        assertEquals(List.of(3L), index.search("NN"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search(""));
+        assertEquals(List.of(), index.search("qx"));
+    }
+
+    @Test
+    @DisplayName("Should be replace the name of an id put again")
+    void givenPut_whenTheIdIsIndexed_thenReplaceItsName() {
+
+        index.put(1, "Mary");
+
+        assertEquals(List.of(2L), index.search("joa"));
+        assertEquals(List.of(1L), index.search("mary"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Should be remove the id from all its trigrams")
+    void givenRemove_whenTheIdIsIndexed_thenItIsNotFound() {
+
+        index.remove(1);
+        index.remove(99);
+
+        assertEquals(List.of(2L), index.search("joa"));
+        assertEquals(List.of(2L, 4L), index.search("jo"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Should be remove only the ids with exactly the name, ignoring case and accents")
+    void givenRemoveByName_whenSomeNamesMatch_thenRemoveOnlyThem() {
+
+        index.put(5, "joao silva");
+        index.put(6, "João Silvana");
+
+        assertEquals(2, index.removeByName("JOAO SILVA"));
+        assertEquals(0, index.removeByName("João"));
+
+        assertEquals(List.of(6L), index.search("silva"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Should be find the same ids of a contains over the names for random names")
+    void givenSearch_whenTheNamesAreRandom_thenMatchAContainsOverTheNames() {
+
+        final Random random = new Random(7);
+        final List<String> names = new ArrayList<>();
+        final TrigramIndex randomIndex = new TrigramIndex();
+
+        //Out of order ids, so the lists of ids get inserts in the middle
+        final List<Long> ids = LongStream.range(0, 2_000).boxed().collect(Collectors.toList());
+        Collections.shuffle(ids, random);
+
+        for (int i = 0; i < 2_000; i++) names.add(this.randomName(random));
+        for (Long id : ids) randomIndex.put(id, names.get(id.intValue()));
+        for (long id = 0; id < 2_000; id += 3) randomIndex.remove(id);
+
+        for (String text : List.of("ab", "abc", "bca", "cab a", "aaa", "c", " ", "a b")) {
+
+            final List<Long> expected = LongStream.range(0, 2_000)
+                    .filter(id -> id % 3 != 0)
+                    .filter(id -> names.get((int) id).toLowerCase(Locale.ROOT).contains(text))
+                    .boxed()
+                    .toList();
+
+            assertEquals(expected, randomIndex.search(text), text);
+        }
+    }
+
+    private String randomName(final Random random) {
+        final StringBuilder name = new StringBuilder();
+        final int length = 3 + random.nextInt(8);
+        for (int i = 0; i < length; i++) name.append(" abcABC".charAt(random.nextInt(7)));
+        return name.toString();
+    }
+}
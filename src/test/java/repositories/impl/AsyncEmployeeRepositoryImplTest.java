@@ -0,0 +1,105 @@
+package repositories.impl;
+
+import database.pool.ConnectionPool;
+import database.pool.StubStatementDriver;
+import dto.employee.EmployeeBaseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.EmployeeRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncEmployeeRepositoryImplTest {
+
+    @Mock
+    private EmployeeRepository repository;
+
+    private StubStatementDriver driver;
+    private ConnectionPool pool;
+    private AsyncEmployeeRepositoryImpl async;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        driver = StubStatementDriver.register();
+        pool = StubStatementDriver.pool(4);
+        async = new AsyncEmployeeRepositoryImpl(repository, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        async.close();
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should be return the employee with the query timeout applied to its statements")
+    void givenFindByIdAsync_whenTheQueryIsFast_thenReturnTheEmployee() throws Exception {
+
+        when(repository.findById(1L)).thenAnswer(i -> this.query("SELECT 1"));
+
+        assertEquals(Optional.empty(), async.findByIdAsync(1L, Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(5, 0), driver.getStatements().get(0).queryTimeouts);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Should be complete with TimeoutException and cancel the statement running when the timeout expires")
+    void givenFindByIdAsync_whenTheQueryIsSlow_thenTimeoutAndCancelTheStatement() throws Exception {
+
+        when(repository.findById(1L)).thenAnswer(i -> this.query("SELECT SLEEP(60)"));
+
+        final CompletableFuture<Optional<EmployeeBaseDTO>> future = async.findByIdAsync(1L, Duration.ofMillis(200));
+
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+
+        final StubStatementDriver.Recorded statement = driver.getStatements().get(0);
+        assertTrue(statement.cancelled.await(5, TimeUnit.SECONDS));
+        assertNotNull(statement.cancelledBy);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Should be cancel the statement running when the future is cancelled")
+    void givenFindByIdAsync_whenTheFutureIsCancelled_thenCancelTheStatement() throws Exception {
+
+        when(repository.findById(1L)).thenAnswer(i -> this.query("SELECT SLEEP(60)"));
+
+        final CompletableFuture<Optional<EmployeeBaseDTO>> future = async.findByIdAsync(1L, Duration.ofSeconds(30));
+        while (driver.getStatements().isEmpty()) Thread.onSpinWait();
+        final StubStatementDriver.Recorded statement = driver.getStatements().get(0);
+        assertTrue(statement.running.await(5, TimeUnit.SECONDS));
+
+        future.cancel(true);
+
+        assertTrue(statement.cancelled.await(5, TimeUnit.SECONDS));
+        assertSame(Thread.currentThread(), statement.cancelledBy);
+    }
+
+    private Optional<EmployeeBaseDTO> query(final String sql) throws SQLException {
+        try (Connection c = pool.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.executeQuery();
+            return Optional.empty();
+        }
+    }
+}
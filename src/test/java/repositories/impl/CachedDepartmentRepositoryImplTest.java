@@ -0,0 +1,154 @@
+package repositories.impl;
+
+import dto.departament.DepartmentDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.DepartmentRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedDepartmentRepositoryImplTest {
+
+    @Mock
+    private DepartmentRepository delegate;
+
+    private CachedDepartmentRepositoryImpl repository;
+    private DepartmentDTO sales;
+    private DepartmentDTO finance;
+    private DepartmentDTO support;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachedDepartmentRepositoryImpl(delegate, 2, 300_000);
+        sales = DepartmentDTO.builder().id(1L).name("Sales").build();
+        finance = DepartmentDTO.builder().id(2L).name("Finance").build();
+        support = DepartmentDTO.builder().id(3L).name("Support").build();
+    }
+
+    @Test
+    @DisplayName("Should be read the department once and then return it from the cache")
+    void givenFindById_whenCalledTwice_thenReadTheDelegateOnce() {
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(sales));
+
+        assertSame(sales, repository.findById(1L).orElseThrow());
+        assertSame(sales, repository.findById(1L).orElseThrow());
+
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be cache all departments when they fit in the max size")
+    void givenFindAll_whenTheDepartmentsFit_thenReadTheDelegateOnce() {
+
+        when(delegate.findAll()).thenReturn(List.of(sales, finance));
+
+        assertEquals(2, repository.findAll().size());
+        assertEquals(2, repository.findAll().size());
+        assertSame(sales, repository.findById(1L).orElseThrow());
+
+        verify(delegate, times(1)).findAll();
+        verify(delegate, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should be not cache all departments when they are more than the max size")
+    void givenFindAll_whenTheDepartmentsDontFit_thenReadTheDelegateEachTime() {
+
+        when(delegate.findAll()).thenReturn(List.of(sales, finance, support));
+
+        repository.findAll();
+        repository.findAll();
+
+        verify(delegate, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should be evict the name entry when deleting by id after the id entry was evicted")
+    void givenDeleteById_whenOnlyTheNameEntryIsCached_thenEvictTheNameEntry() {
+
+        when(delegate.findByNames(List.of("Sales"))).thenReturn(Map.of("Sales", Optional.of(sales)));
+        when(delegate.findById(anyLong())).thenAnswer(i -> Optional.of(i.getArgument(0, Long.class) == 2L ? finance : support));
+
+        repository.findByNames(List.of("Sales"));
+        //The id entry of Sales is the least recently used of byId
+        repository.findById(2L);
+        repository.findById(3L);
+
+        repository.deleteById(1L);
+        repository.findByNames(List.of("Sales"));
+
+        verify(delegate, times(2)).findByNames(List.of("Sales"));
+    }
+
+    @Test
+    @DisplayName("Should be evict the id entry when deleting by name after the name entry was evicted")
+    void givenDeleteByName_whenOnlyTheIdEntryIsCached_thenEvictTheIdEntry() {
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(sales));
+        when(delegate.findByNames(anyCollection())).thenAnswer(i -> Map.of("x", Optional.of(finance)));
+
+        repository.findById(1L);
+        //The name entry of Sales is the least recently used of byName
+        repository.findByNames(List.of("Finance"));
+        when(delegate.findByNames(anyCollection())).thenAnswer(i -> Map.of("x", Optional.of(support)));
+        repository.findByNames(List.of("Support"));
+
+        repository.deleteByName("SALES");
+        repository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be read all departments again after a rename")
+    void givenUpdateName_whenAllDepartmentsAreCached_thenReadThemAgain() {
+
+        when(delegate.findAll()).thenReturn(List.of(sales, finance));
+        repository.findAll();
+
+        repository.updateName(domain.department.Department.builder().id(1L).name("Sales").build(), "Marketing");
+        repository.findAll();
+
+        verify(delegate, times(2)).findAll();
+        verify(delegate, times(1)).updateName(any(), eq("Marketing"));
+    }
+
+    @Test
+    @DisplayName("Should be return the department cached when the name is spelled with other case and accents")
+    void givenFindByNames_whenTheNameHasAccents_thenReturnFromTheCache() {
+
+        final DepartmentDTO research = DepartmentDTO.builder().id(4L).name("Pesquisa e Inovação").build();
+        when(delegate.findById(4L)).thenReturn(Optional.of(research));
+        repository.findById(4L);
+
+        final Map<String, Optional<DepartmentDTO>> found = repository.findByNames(List.of("PESQUISA E INOVACAO"));
+
+        assertSame(research, found.get("PESQUISA E INOVACAO").orElseThrow());
+        verify(delegate, never()).findByNames(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should be evict the department when deleting by a name spelled without accents")
+    void givenDeleteByName_whenTheNameHasNoAccents_thenEvictTheDepartment() {
+
+        final DepartmentDTO research = DepartmentDTO.builder().id(4L).name("Pesquisa e Inovação").build();
+        when(delegate.findById(4L)).thenReturn(Optional.of(research));
+        repository.findById(4L);
+
+        repository.deleteByName("pesquisa e inovacao");
+        repository.findById(4L);
+
+        verify(delegate, times(2)).findById(4L);
+    }
+}
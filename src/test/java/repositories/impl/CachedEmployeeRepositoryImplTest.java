@@ -0,0 +1,215 @@
+package repositories.impl;
+
+import domain.department.Department;
+import domain.department.DepartmentDeletionJob;
+import domain.department.Level;
+import domain.employee.NormalEmployee;
+import dto.employee.EmployeeBaseDTO;
+import dto.employee.NormalEmployeeDTO;
+import mappers.impl.NormalEmployeeMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.DepartmentRepository;
+import repositories.interfaces.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedEmployeeRepositoryImplTest {
+
+    @Mock
+    private EmployeeRepository delegate;
+
+    @Mock
+    private DepartmentRepository departmentDelegate;
+
+    private CachedEmployeeRepositoryImpl repository;
+    private Department sales;
+    private Department finance;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachedEmployeeRepositoryImpl(delegate, 10, 300_000);
+        sales = Department.builder().id(24L).name("Sales").build();
+        finance = Department.builder().id(25L).name("Finance").build();
+    }
+
+    @Test
+    @DisplayName("Should be read the employee once and then return it from the cache by id and document")
+    void givenFindByIdAndDocument_whenCached_thenReadTheDelegateOnce() {
+
+        final EmployeeBaseDTO john = employee(1L, "11111111111", sales);
+        when(delegate.findById(1L)).thenReturn(Optional.of(john));
+
+        repository.findById(1L);
+
+        assertSame(john, repository.findById(1L).orElseThrow());
+        assertSame(john, repository.findByDocument("11111111111").orElseThrow());
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, never()).findByDocument(any());
+        assertEquals(2, repository.getStats().getHits());
+    }
+
+    @Test
+    @DisplayName("Should be evict the employee deleted by document when its document entry was evicted first")
+    void givenDeleteByDocument_whenTheDocumentEntryWasEvicted_thenEvictTheEmployee() {
+
+        repository = new CachedEmployeeRepositoryImpl(delegate, 2, 300_000);
+        when(delegate.findById(anyLong())).thenAnswer(i -> {
+            final long id = i.getArgument(0);
+            return Optional.of(employee(id, "doc" + id));
+        });
+
+        repository.findById(1L);
+        repository.findById(2L);
+        //Refreshes 1 in byId only, so the next put evicts 2 from byId and the document of 1
+        repository.findById(1L);
+        repository.findById(3L);
+
+        repository.deleteByDocument("doc1");
+        repository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be not cache a read that started before a write")
+    void givenFindById_whenAWriteHappensDuringTheRead_thenDontCacheTheRead() {
+
+        when(delegate.findById(1L)).thenAnswer(i -> {
+            repository.deleteById(1L);
+            return Optional.of(employee(1L, "11111111111", sales));
+        });
+
+        repository.findById(1L);
+        repository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be keep the cached jobs when the employee mapped from them is updated")
+    void givenFindById_whenTheMappedEmployeeChangesItsJobs_thenTheCachedEmployeeKeepsThem() {
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(employee(1L, "11111111111", sales)));
+
+        final NormalEmployee entity = new NormalEmployeeMapperImpl()
+                .dtoToEntity((NormalEmployeeDTO) repository.findById(1L).orElseThrow());
+        entity.getDepartmentsAndLevelsAndSalaries().put(sales, Map.of(Level.SENIOR, new BigDecimal("9000.00")));
+        entity.getDepartmentsAndLevelsAndSalaries().put(finance, Map.of(Level.JUNIOR, new BigDecimal("1000.00")));
+
+        final EmployeeBaseDTO cached = repository.findById(1L).orElseThrow();
+        assertEquals(Map.of(sales, Map.of(Level.JUNIOR, new BigDecimal("1000.00"))), cached.getDepartamentsAndLevelsAndSalaries());
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be evict only the employees of the department when deleting by department")
+    void givenDeleteByDepartment_whenEmployeesOfOtherDepartmentsAreCached_thenKeepThem() {
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(employee(1L, "11111111111", sales)));
+        when(delegate.findById(2L)).thenReturn(Optional.of(employee(2L, "22222222222", finance)));
+        repository.findById(1L);
+        repository.findById(2L);
+
+        repository.deleteByDepartment(sales);
+        repository.findById(1L);
+        repository.findById(2L);
+
+        verify(delegate, times(2)).findById(1L);
+        verify(delegate, times(1)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should be evict the employees of a department deleted through the department repository")
+    void givenDepartmentDeleteById_whenTheListenerIsAdded_thenEvictTheEmployeesOfTheDepartment() {
+
+        final CachedDepartmentRepositoryImpl departments = new CachedDepartmentRepositoryImpl(departmentDelegate, 10, 300_000);
+        departments.addInvalidationListener(repository::evictDepartment);
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(employee(1L, "11111111111", sales)));
+        when(delegate.findById(2L)).thenReturn(Optional.of(employee(2L, "22222222222", finance)));
+        repository.findById(1L);
+        repository.findById(2L);
+
+        departments.deleteById(24L);
+        repository.findById(1L);
+        repository.findById(2L);
+
+        verify(delegate, times(2)).findById(1L);
+        verify(delegate, times(1)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should be evict the employees of a department deleted by name ignoring case and accents")
+    void givenDepartmentDeleteByName_whenTheListenerIsAdded_thenEvictTheEmployeesOfTheDepartment() {
+
+        final CachedDepartmentRepositoryImpl departments = new CachedDepartmentRepositoryImpl(departmentDelegate, 10, 300_000);
+        departments.addInvalidationListener(repository::evictDepartment);
+
+        final Department research = Department.builder().id(26L).name("Pesquisa e Inovação").build();
+        when(delegate.findById(1L)).thenReturn(Optional.of(employee(1L, "11111111111", research)));
+        repository.findById(1L);
+
+        departments.deleteByName("PESQUISA E INOVACAO");
+        repository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be evict the employees of a department after each chunk of a deletion in chunks")
+    void givenDeleteEmployeesChunk_whenTheListenerIsAdded_thenEvictTheEmployeesOfTheDepartment() {
+
+        final CachedDepartmentRepositoryImpl departments = new CachedDepartmentRepositoryImpl(departmentDelegate, 10, 300_000);
+        departments.addInvalidationListener(repository::evictDepartment);
+        final DepartmentDeletionJob job = DepartmentDeletionJob.builder().id(1L).departmentId(24L).departmentName("Sales").build();
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(employee(1L, "11111111111", sales)));
+        repository.findById(1L);
+
+        departments.deleteEmployeesChunk(job, 500);
+        repository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should be evict the employees with the old department name after a rename")
+    void givenDepartmentUpdateName_whenTheListenerIsAdded_thenEvictTheEmployeesOfTheDepartment() {
+
+        final CachedDepartmentRepositoryImpl departments = new CachedDepartmentRepositoryImpl(departmentDelegate, 10, 300_000);
+        departments.addInvalidationListener(repository::evictDepartment);
+
+        when(delegate.findById(1L)).thenReturn(Optional.of(employee(1L, "11111111111", sales)));
+        repository.findById(1L);
+
+        departments.updateName(Department.builder().id(24L).name("Sales").build(), "Marketing");
+        repository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    private static EmployeeBaseDTO employee(final long id, final String document, final Department... departments) {
+
+        final Map<Department, Map<Level, BigDecimal>> jobs = new HashMap<>();
+        for (Department d : departments) jobs.put(d, Map.of(Level.JUNIOR, new BigDecimal("1000.00")));
+
+        return NormalEmployeeDTO.builder()
+                .id(id)
+                .name("John")
+                .document(document)
+                .departamentsAndLevelsAndSalaries(jobs)
+                .build();
+    }
+}
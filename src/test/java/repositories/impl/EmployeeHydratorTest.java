@@ -0,0 +1,182 @@
+package repositories.impl;
+
+import domain.department.Department;
+import domain.department.Level;
+import dto.employee.EmployeeBaseDTO;
+import dto.employee.NormalEmployeeDTO;
+import dto.employee.SuperiorEmployeeDTO;
+import exceptions.DbConnectionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Employees built from the rows of the joins, over a stub result set with one row per job
+class EmployeeHydratorTest {
+
+    private static final LocalDateTime CREATION = LocalDateTime.of(2020, 1, 1, 8, 0);
+
+    @Test
+    @DisplayName("Should be build a normal and a superior employee with their types")
+    void givenHydrateAll_whenANormalAndASuperiorEmployee_thenBuildBothTypes() throws SQLException {
+
+        final List<EmployeeBaseDTO> employees = EmployeeHydrator.hydrateAll(resultSet(
+                row(1L, "John", true, null, 24L, "Sales", "JUNIOR", "1000.00"),
+                row(2L, "Mary", null, 7, 25L, "Finance", "SENIOR", "9000.00")
+        ));
+
+        assertEquals(2, employees.size());
+
+        final NormalEmployeeDTO john = assertInstanceOf(NormalEmployeeDTO.class, employees.get(0));
+        assertEquals(1L, john.getId());
+        assertEquals("John", john.getName());
+        assertEquals(LocalDate.of(1990, 1, 1), john.getBirthDate());
+        assertEquals("doc1", john.getDocument());
+        assertTrue(john.isHasFaculty());
+
+        final SuperiorEmployeeDTO mary = assertInstanceOf(SuperiorEmployeeDTO.class, employees.get(1));
+        assertEquals(7, mary.getWorkExperience());
+        assertEquals(Map.of(Level.SENIOR, new BigDecimal("9000.00")), jobsByName(mary).get("Finance"));
+    }
+
+    @Test
+    @DisplayName("Should be put the jobs of the consecutive rows of an employee in one employee, ordered by department")
+    void givenCursor_whenAnEmployeeHasSeveralJobs_thenBuildOneEmployeeWithAllOfThem() throws SQLException {
+
+        final EmployeeHydrator.Cursor cursor = new EmployeeHydrator.Cursor(resultSet(
+                row(1L, "John", true, null, 24L, "Sales", "JUNIOR", "1000.00"),
+                row(1L, "John", true, null, 25L, "Finance", "MID", "2000.00"),
+                row(1L, "John", true, null, 26L, "Accounting", "SENIOR", "3000.00"),
+                row(2L, "Mary", true, null, 24L, "Sales", "MID", "1500.00")
+        ));
+
+        final EmployeeBaseDTO john = cursor.next();
+        assertEquals(List.of("Accounting", "Finance", "Sales"), new ArrayList<>(jobsByName(john).keySet()));
+        assertEquals(Map.of(Level.MID, new BigDecimal("2000.00")), jobsByName(john).get("Finance"));
+
+        final EmployeeBaseDTO mary = cursor.next();
+        assertEquals(2L, mary.getId());
+        assertEquals(1, mary.getDepartamentsAndLevelsAndSalaries().size());
+
+        assertNull(cursor.next());
+        assertNull(cursor.next());
+    }
+
+    @Test
+    @DisplayName("Should be share no mutable jobs, the dto can be cached")
+    void givenCursor_whenTheEmployeeIsBuilt_thenItsJobsCantBeChanged() throws SQLException {
+
+        final EmployeeBaseDTO john = new EmployeeHydrator.Cursor(resultSet(
+                row(1L, "John", true, null, 24L, "Sales", "JUNIOR", "1000.00")
+        )).next();
+
+        assertThrows(UnsupportedOperationException.class, () -> john.getDepartamentsAndLevelsAndSalaries().clear());
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException when the employee has no job")
+    void givenCursor_whenTheEmployeeHasNoJob_thenThrowDbConnectionException() {
+
+        final EmployeeHydrator.Cursor cursor = new EmployeeHydrator.Cursor(resultSet(
+                row(1L, "John", true, null, null, null, null, null)
+        ));
+
+        final DbConnectionException e = assertThrows(DbConnectionException.class, cursor::next);
+        assertEquals("Employee without a job! Check your database!", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException when the employee has no type")
+    void givenCursor_whenTheEmployeeHasNoType_thenThrowDbConnectionException() {
+
+        final EmployeeHydrator.Cursor cursor = new EmployeeHydrator.Cursor(resultSet(
+                row(3L, "John", null, null, 24L, "Sales", "JUNIOR", "1000.00")
+        ));
+
+        final DbConnectionException e = assertThrows(DbConnectionException.class, cursor::next);
+        assertEquals("Employee 3 without a type! Check your database!", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be limit the ids of the page before the joins, so the page keeps whole employees")
+    void givenSelectPage_whenTheEmployeesHaveSeveralJobs_thenLimitTheIdsBeforeTheJoins() throws SQLException {
+
+        final String sql = EmployeeHydrator.selectPage("age = ?");
+
+        assertTrue(sql.contains("(SELECT id FROM employees WHERE age = ? AND id > ? ORDER BY id LIMIT ?) AS page"), sql);
+        assertEquals(sql.indexOf("LIMIT"), sql.lastIndexOf("LIMIT"), "Only the derived table is limited");
+        assertTrue(sql.indexOf("LIMIT") < sql.indexOf("LEFT JOIN"));
+
+        //A page of 2 ids with 2 jobs each has 4 rows, a LIMIT 2 over the rows would cut the second employee
+        final List<EmployeeBaseDTO> page = EmployeeHydrator.hydrateAll(resultSet(
+                row(5L, "John", true, null, 24L, "Sales", "JUNIOR", "1000.00"),
+                row(5L, "John", true, null, 25L, "Finance", "JUNIOR", "1000.00"),
+                row(8L, "Mary", null, 3, 24L, "Sales", "MID", "2000.00"),
+                row(8L, "Mary", null, 3, 25L, "Finance", "MID", "2000.00")
+        ));
+
+        assertEquals(List.of(5L, 8L), page.stream().map(EmployeeBaseDTO::getId).toList());
+        page.forEach(employee -> assertEquals(2, employee.getDepartamentsAndLevelsAndSalaries().size()));
+    }
+
+    private static Map<String, Map<Level, BigDecimal>> jobsByName(final EmployeeBaseDTO employee) {
+        final Map<String, Map<Level, BigDecimal>> jobs = new LinkedHashMap<>();
+        for (Map.Entry<Department, Map<Level, BigDecimal>> job : employee.getDepartamentsAndLevelsAndSalaries().entrySet()) {
+            jobs.put(job.getKey().getName(), job.getValue());
+        }
+        return jobs;
+    }
+
+    private static Map<String, Object> row(final long id, final String name, final Boolean hasFaculty,
+                                           final Integer workExperience, final Long departmentId,
+                                           final String departmentName, final String level, final String salary) {
+
+        final Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("birth_date", LocalDate.of(1990, 1, 1));
+        row.put("age", 34);
+        row.put("document", "doc" + id);
+        row.put("hire_date", CREATION);
+        row.put("department_id", departmentId);
+        row.put("department_name", departmentName);
+        row.put("department_creation_date", departmentId == null ? null : CREATION);
+        row.put("level", level);
+        row.put("salary", salary == null ? null : new BigDecimal(salary));
+        row.put("has_faculty", hasFaculty);
+        row.put("work_experience", workExperience);
+        return row;
+    }
+
+    @SafeVarargs
+    private static ResultSet resultSet(final Map<String, Object>... rows) {
+
+        final int[] row = {-1};
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++row[0] < rows.length;
+                    case "getLong" -> (long) rows[row[0]].get((String) args[0]);
+                    case "getInt" -> (int) rows[row[0]].get((String) args[0]);
+                    case "getBoolean" -> (boolean) rows[row[0]].get((String) args[0]);
+                    case "getString" -> (String) rows[row[0]].get((String) args[0]);
+                    case "getBigDecimal" -> (BigDecimal) rows[row[0]].get((String) args[0]);
+                    case "getObject" -> rows[row[0]].get((String) args[0]);
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,251 @@
+package repositories.impl;
+
+import database.DbConnection;
+import database.TransactionContext;
+import database.pool.PoolConfig;
+import domain.department.Department;
+import domain.department.Level;
+import domain.department.SalaryAdjustment;
+import domain.employee.Employee;
+import domain.employee.NormalEmployee;
+import enums.employee.SalaryAdjustmentType;
+import exceptions.DbConnectionException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Batch save over a stub driver whose queries find no rows, and that can return one generated key less than
+    the rows inserted. Runs in its own JVM, the static-pool-tests execution of the pom.
+*/
+class EmployeeRepositoryImplTest {
+
+    private static final AtomicBoolean committed = new AtomicBoolean();
+    private static final AtomicBoolean missingKey = new AtomicBoolean();
+    private static final List<String> queries = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void setUpPool() throws SQLException {
+        DriverManager.registerDriver(new StubDriver());
+        DbConnection.configure(PoolConfig.builder()
+                .url(StubDriver.URL)
+                .minSize(0)
+                .maxSize(1)
+                .build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        committed.set(false);
+        missingKey.set(false);
+    }
+
+    @Test
+    @DisplayName("Should be clear the ids when the generated ids are not returned for all the employees")
+    void givenSaveAll_whenAGeneratedIdIsMissing_thenThrowDbConnectionExceptionAndClearTheIds() {
+
+        missingKey.set(true);
+        final Department sales = Department.builder().id(24L).name("Sales").build();
+        final List<Employee> employees = List.of(employee("Jon", sales), employee("Ann", sales));
+
+        final DbConnectionException e = assertThrows(DbConnectionException.class,
+                () -> new EmployeeRepositoryImpl().saveAll(employees));
+
+        assertEquals("Generated ids not returned for all employees!", e.getMessage());
+        assertFalse(committed.get());
+        employees.forEach(employee -> assertNull(employee.getId()));
+    }
+
+    @Test
+    @DisplayName("Should be index the names of the employees saved once the unit of work commits")
+    void givenSaveAll_whenTheUnitCommits_thenIndexTheNames() {
+
+        final EmployeeRepositoryImpl repository = new EmployeeRepositoryImpl();
+        final Department sales = Department.builder().id(24L).name("Sales").build();
+        repository.findByName("Jon");
+
+        TransactionContext.inTransaction(() -> repository.saveAll(List.of(employee("Jon", sales))));
+        queries.clear();
+
+        //Found by the index, so the employee is read
+        repository.findByName("Jon");
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    @DisplayName("Should be not index the names of the employees saved when the unit of work rolls back")
+    void givenSaveAll_whenTheUnitRollsBack_thenDontIndexTheNames() {
+
+        final EmployeeRepositoryImpl repository = new EmployeeRepositoryImpl();
+        final Department sales = Department.builder().id(24L).name("Sales").build();
+        repository.findByName("Jon");
+
+        assertThrows(DbConnectionException.class, () -> TransactionContext.inTransaction(() -> {
+            repository.saveAll(List.of(employee("Jon", sales)));
+            throw new DbConnectionException("Error after the save!");
+        }));
+        queries.clear();
+
+        //Not in the index, answered without the database
+        assertTrue(repository.findByName("Jon").isEmpty());
+        assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should be throw DbConnectionException when the chunk size of the salary adjustment is less than one")
+    void givenAdjustSalaries_whenTheChunkSizeIsZero_thenThrowDbConnectionException() {
+
+        final SalaryAdjustment adjustment = SalaryAdjustment.builder()
+                .department(Department.builder().id(24L).name("Sales").build())
+                .level(Level.JUNIOR)
+                .type(SalaryAdjustmentType.PERCENT)
+                .amount(new BigDecimal("5"))
+                .build();
+        queries.clear();
+
+        final DbConnectionException e = assertThrows(DbConnectionException.class,
+                () -> new EmployeeRepositoryImpl().adjustSalaries(adjustment, 0, false));
+
+        assertEquals("Chunk size should be at least one!", e.getMessage());
+        assertTrue(queries.isEmpty());
+    }
+
+    private static Employee employee(final String name, final Department department) {
+        return NormalEmployee.builder()
+                .name(name)
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .age(34)
+                .document(name)
+                .departmentsAndLevelsAndSalaries(Map.of(department, Map.of(Level.JUNIOR, new BigDecimal("1000.00"))))
+                .build();
+    }
+
+    private static final class StubDriver implements Driver {
+
+        private static final String URL = "jdbc:stub:employees";
+
+        @Override
+        public Connection connect(final String url, final Properties info) {
+            return this.acceptsURL(url) ? newConnection() : null;
+        }
+
+        @Override
+        public boolean acceptsURL(final String url) {
+            return URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        private static Connection newConnection() {
+
+            final boolean[] autoCommit = {true};
+
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> newStatement((String) args[0]);
+                        case "setAutoCommit" -> {
+                            autoCommit[0] = (boolean) args[0];
+                            yield null;
+                        }
+                        case "getAutoCommit" -> autoCommit[0];
+                        case "commit" -> {
+                            committed.set(true);
+                            yield null;
+                        }
+                        case "isValid" -> true;
+                        case "isClosed" -> false;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> null;
+                    });
+        }
+
+        private static PreparedStatement newStatement(final String sql) {
+
+            //The pool caches the statement, so the rows of a batch are counted again in each one
+            final int[] rows = {0};
+            final int[] executed = {0};
+
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "addBatch" -> {
+                            rows[0]++;
+                            yield null;
+                        }
+                        case "executeBatch" -> {
+                            executed[0] = rows[0];
+                            rows[0] = 0;
+                            yield new int[executed[0]];
+                        }
+                        case "getGeneratedKeys" -> newKeys(missingKey.get() ? executed[0] - 1 : executed[0]);
+                        case "executeQuery" -> {
+                            queries.add(sql);
+                            yield newKeys(0);
+                        }
+                        case "isClosed" -> false;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> null;
+                    });
+        }
+
+        private static ResultSet newKeys(final int keys) {
+
+            final int[] row = {0};
+
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "next" -> ++row[0] <= keys;
+                        case "getLong" -> (long) row[0];
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> null;
+                    });
+        }
+    }
+}
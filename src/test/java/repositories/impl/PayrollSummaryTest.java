@@ -0,0 +1,104 @@
+package repositories.impl;
+
+import domain.department.Department;
+import domain.department.Level;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayrollSummaryTest {
+
+    @Test
+    @DisplayName("Should be merge the changes of the same department and level")
+    void givenAdd_whenTheKeyRepeats_thenMergeTheChanges() {
+
+        final PayrollSummary.Deltas deltas = new PayrollSummary.Deltas()
+                .add(1, Level.JUNIOR, 1, new BigDecimal("1000.00"))
+                .add(1, Level.JUNIOR, 2, new BigDecimal("500.50"))
+                .add(1, Level.SENIOR, 1, new BigDecimal("3000.00"));
+
+        assertEquals(2, deltas.asMap().size());
+        assertTrue(deltas.get(new PayrollSummary.Key(1, Level.JUNIOR))
+                .sameTotals(new PayrollSummary.Delta(3, new BigDecimal("1500.5"))));
+        assertSame(PayrollSummary.Delta.ZERO, deltas.get(new PayrollSummary.Key(2, Level.JUNIOR)));
+    }
+
+    @Test
+    @DisplayName("Should be order the changes by department and then by level")
+    void givenAsMap_whenAddedOutOfOrder_thenOrderByDepartmentAndLevel() {
+
+        final PayrollSummary.Deltas deltas = new PayrollSummary.Deltas()
+                .add(2, Level.JUNIOR, 1, BigDecimal.ONE)
+                .add(1, Level.SENIOR, 1, BigDecimal.ONE)
+                .add(1, Level.JUNIOR, 1, BigDecimal.ONE);
+
+        assertEquals(List.of(new PayrollSummary.Key(1, Level.JUNIOR), new PayrollSummary.Key(1, Level.SENIOR),
+                new PayrollSummary.Key(2, Level.JUNIOR)), List.copyOf(deltas.asMap().keySet()));
+    }
+
+    @Test
+    @DisplayName("Should be add one job of each department with its salary")
+    void givenAddJobs_whenTheEmployeeHasManyDepartments_thenAddOneJobToEach() {
+
+        final Department sales = Department.builder().id(1L).name("Sales").build();
+        final Department it = Department.builder().id(2L).name("IT").build();
+
+        final PayrollSummary.Deltas deltas = new PayrollSummary.Deltas().addJobs(Map.of(
+                sales, Map.of(Level.JUNIOR, new BigDecimal("1000")),
+                it, Map.of(Level.SENIOR, new BigDecimal("2000"))));
+
+        assertTrue(deltas.get(new PayrollSummary.Key(1, Level.JUNIOR))
+                .sameTotals(new PayrollSummary.Delta(1, new BigDecimal("1000"))));
+        assertTrue(deltas.get(new PayrollSummary.Key(2, Level.SENIOR))
+                .sameTotals(new PayrollSummary.Delta(1, new BigDecimal("2000"))));
+    }
+
+    @Test
+    @DisplayName("Should be negate the headcount and the total of every change without changing the original")
+    void givenNegate_whenHasChanges_thenNegateEachOne() {
+
+        final PayrollSummary.Deltas deltas = new PayrollSummary.Deltas().add(1, Level.JUNIOR, 2, new BigDecimal("1500"));
+        final PayrollSummary.Deltas negated = deltas.negate();
+
+        assertTrue(negated.get(new PayrollSummary.Key(1, Level.JUNIOR))
+                .sameTotals(new PayrollSummary.Delta(-2, new BigDecimal("-1500"))));
+        assertTrue(deltas.get(new PayrollSummary.Key(1, Level.JUNIOR))
+                .sameTotals(new PayrollSummary.Delta(2, new BigDecimal("1500"))));
+    }
+
+    @Test
+    @DisplayName("Should be zero when the totals after minus the totals before cancel out")
+    void givenIsZero_whenTheChangesCancelOut_thenReturnTrue() {
+
+        final PayrollSummary.Deltas before = new PayrollSummary.Deltas().add(1, Level.JUNIOR, 1, new BigDecimal("1000.00"));
+        final PayrollSummary.Deltas sameSalary = new PayrollSummary.Deltas().add(1, Level.JUNIOR, 1, new BigDecimal("1000"));
+        final PayrollSummary.Deltas raise = new PayrollSummary.Deltas().add(1, Level.JUNIOR, 1, new BigDecimal("1100"));
+
+        assertTrue(sameSalary.plus(before.negate()).isZero());
+        assertFalse(sameSalary.plus(before.negate()).isEmpty());
+        assertFalse(raise.plus(before.negate()).isZero());
+        assertTrue(new PayrollSummary.Deltas().isZero());
+        assertTrue(new PayrollSummary.Deltas().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should be sum both sides without changing them")
+    void givenPlus_whenTheKeysOverlap_thenSumThemInANewDeltas() {
+
+        final PayrollSummary.Deltas a = new PayrollSummary.Deltas().add(1, Level.JUNIOR, 1, BigDecimal.TEN);
+        final PayrollSummary.Deltas b = new PayrollSummary.Deltas()
+                .add(1, Level.JUNIOR, 1, BigDecimal.ONE)
+                .add(2, Level.JUNIOR, 1, BigDecimal.ONE);
+
+        final PayrollSummary.Deltas sum = a.plus(b);
+
+        assertTrue(sum.get(new PayrollSummary.Key(1, Level.JUNIOR)).sameTotals(new PayrollSummary.Delta(2, new BigDecimal("11"))));
+        assertEquals(2, sum.asMap().size());
+        assertEquals(1, a.asMap().size());
+    }
+}
@@ -0,0 +1,271 @@
+package repositories.impl;
+
+import database.DbConnection;
+import database.pool.PoolConfig;
+import domain.user.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    The usernames filter over a stub users table behind the static pool of DbConnection.
+    Runs in its own JVM, the static-pool-tests execution of the pom.
+*/
+class UserRepositoryImplTest {
+
+    //Username to id and password
+    private static final Map<String, Object[]> users = new ConcurrentHashMap<>();
+    private static final AtomicLong ids = new AtomicLong();
+    private static final AtomicInteger scans = new AtomicInteger();
+    private static final AtomicInteger lookups = new AtomicInteger();
+
+    private UserRepositoryImpl repository;
+
+    @BeforeAll
+    static void setUpPool() throws SQLException {
+        DriverManager.registerDriver(new StubDriver());
+        DbConnection.configure(PoolConfig.builder()
+                .url(StubDriver.URL)
+                .minSize(0)
+                .maxSize(2)
+                .build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        users.clear();
+        scans.set(0);
+        lookups.set(0);
+        repository = new UserRepositoryImpl(0.01);
+    }
+
+    @Test
+    @DisplayName("Should be answer the usernames not registered without the database")
+    void givenFindUsername_whenTheUsernameIsNotRegistered_thenSkipTheDatabase() {
+
+        insertDirectly("Jayy", "*");
+        repository.loadUsernames();
+
+        assertTrue(repository.findUsername("Someone").isEmpty());
+        assertEquals("Jayy", repository.findUsername("Jayy").orElseThrow());
+        assertEquals(1, lookups.get());
+        assertEquals(1, repository.getSkippedLookups());
+    }
+
+    @Test
+    @DisplayName("Should be log in a user inserted after the filter was loaded")
+    void givenFindUser_whenTheUserWasInsertedAfterTheLoad_thenReadTheDatabase() {
+
+        repository.loadUsernames();
+        insertDirectly("Other", "secret");
+
+        assertEquals("Other", repository.findUser("Other", "secret").orElseThrow().getUsername());
+        assertEquals(1, scans.get());
+
+        //Learned on the login
+        assertEquals("Other", repository.findUsername("Other").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should be put the user saved in the filter without loading it again")
+    void givenSave_whenTheFilterIsLoaded_thenTheUsernameIsFound() {
+
+        repository.loadUsernames();
+        repository.save(new User("New", "*"));
+
+        assertEquals("New", repository.findUsername("New").orElseThrow());
+        assertEquals(1, scans.get());
+    }
+
+    @Test
+    @DisplayName("Should be rebuild the filter when it gets more users than it was sized for")
+    void givenFindUsername_whenTheFilterIsSaturated_thenRebuildIt() {
+
+        repository.loadUsernames();
+        final long expected = repository.getUsernamesFilter().orElseThrow().getExpectedInsertions();
+
+        for (int i = 0; i <= expected; i++) repository.save(new User("user" + i, "*"));
+        assertTrue(repository.getUsernamesFilter().orElseThrow().isSaturated());
+
+        repository.findUsername("Someone");
+
+        assertEquals(2, scans.get());
+        assertFalse(repository.getUsernamesFilter().orElseThrow().isSaturated());
+        assertEquals("user0", repository.findUsername("user0").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should be rebuild the filter when the users deleted are more than half of its size")
+    void givenFindUsername_whenManyUsersWereDeleted_thenRebuildIt() {
+
+        repository.loadUsernames();
+        final long expected = repository.getUsernamesFilter().orElseThrow().getExpectedInsertions();
+
+        final List<Long> deleted = new ArrayList<>();
+        for (int i = 0; i <= expected / 2; i++) {
+            final User user = new User("user" + i, "*");
+            repository.save(user);
+            deleted.add(user.getId());
+        }
+
+        for (int i = 0; i < expected / 2; i++) repository.deleteById(deleted.get(i));
+        repository.findUsername("Someone");
+        assertEquals(1, scans.get(), "Not rebuilt until more than half of the size was deleted");
+
+        repository.deleteById(deleted.get((int) (expected / 2)));
+        repository.findUsername("Someone");
+
+        assertEquals(2, scans.get());
+        assertTrue(repository.findUsername("user0").isEmpty());
+    }
+
+    private static long insertDirectly(final String username, final String password) {
+        final long id = ids.incrementAndGet();
+        users.put(username, new Object[]{id, password});
+        return id;
+    }
+
+    private static final class StubDriver implements Driver {
+
+        private static final String URL = "jdbc:stub:users";
+
+        @Override
+        public Connection connect(final String url, final Properties info) {
+            return this.acceptsURL(url) ? newConnection() : null;
+        }
+
+        @Override
+        public boolean acceptsURL(final String url) {
+            return URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        private static Connection newConnection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> newStatement((String) args[0]);
+                        case "createStatement" -> newStatement(null);
+                        case "getAutoCommit", "isValid" -> true;
+                        case "isClosed" -> false;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> null;
+                    });
+        }
+
+        //The statements of UserRepositoryImpl, told apart by their sql
+        private static PreparedStatement newStatement(final String prepared) {
+
+            final Map<Integer, Object> parameters = new HashMap<>();
+            final List<Map<String, Object>> generated = new ArrayList<>();
+
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "setString", "setLong" -> {
+                            parameters.put((int) args[0], args[1]);
+                            yield null;
+                        }
+                        case "execute" -> {
+                            final long id = insertDirectly((String) parameters.get(1), (String) parameters.get(2));
+                            //The pool caches the statement, only the keys of the last execute are returned
+                            generated.clear();
+                            generated.add(Map.of("1", id));
+                            yield true;
+                        }
+                        case "getGeneratedKeys" -> newResultSet(generated);
+                        case "executeUpdate" -> {
+                            final long id = (long) parameters.get(1);
+                            yield users.entrySet().removeIf(e -> (long) e.getValue()[0] == id) ? 1 : 0;
+                        }
+                        case "executeQuery" -> newResultSet(query(prepared != null ? prepared : (String) args[0], parameters));
+                        case "isClosed" -> false;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> null;
+                    });
+        }
+
+        private static List<Map<String, Object>> query(final String sql, final Map<Integer, Object> parameters) {
+
+            final List<Map<String, Object>> rows = new ArrayList<>();
+
+            if (sql.contains("COUNT(*)")) {
+                rows.add(Map.of("1", (long) users.size()));
+            } else if (sql.contains("IS NOT NULL")) {
+                scans.incrementAndGet();
+                users.keySet().forEach(username -> rows.add(Map.of("username", username)));
+            } else {
+                lookups.incrementAndGet();
+                final Object[] user = users.get((String) parameters.get(1));
+                final boolean passwordMatches = !sql.contains("password") || (user != null && user[1].equals(parameters.get(2)));
+                if (user != null && passwordMatches) {
+                    rows.add(Map.of("id", user[0], "username", parameters.get(1), "password", user[1]));
+                }
+            }
+
+            return rows;
+        }
+
+        private static ResultSet newResultSet(final List<Map<String, Object>> rows) {
+
+            final int[] row = {-1};
+
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "next" -> ++row[0] < rows.size();
+                        case "getString" -> (String) rows.get(row[0]).get(String.valueOf(args[0]));
+                        case "getLong" -> (long) rows.get(row[0]).get(String.valueOf(args[0]));
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package services;
+
+import domain.department.Department;
+import domain.department.DepartmentDeletionJob;
+import exceptions.DbConnectionException;
+import exceptions.DepartmentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.DepartmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentDeletionServiceTest {
+
+    @Mock
+    private DepartmentRepository repository;
+
+    private DepartmentDeletionService service;
+    private Department sales;
+    private DepartmentDeletionJob job;
+
+    @BeforeEach
+    void setUp() {
+        service = new DepartmentDeletionService(repository);
+        sales = Department.builder().id(24L).name("Sales").build();
+        job = DepartmentDeletionJob.builder().id(1L).departmentId(24L).departmentName("Sales").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Should be throw DepartmentException when the chunk size is less than one")
+    void givenDeleteInChunks_whenChunkSizeIsLessThanOne_thenThrowDepartmentException() {
+
+        final DepartmentException e = assertThrows(DepartmentException.class,
+                () -> service.deleteInChunks(sales, 0, 0, j -> {
+                }));
+
+        assertEquals("Chunk size should be at least one!", e.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Should be delete the chunks until the last partial chunk and then finish the deletion")
+    void givenDeleteInChunks_whenTheLastChunkIsPartial_thenFinishTheDeletion() {
+
+        when(repository.startDeletion(sales)).thenReturn(job);
+        when(repository.deleteEmployeesChunk(job, 2)).thenReturn(2, 2, 1);
+        when(repository.finishDeletion(job, 2)).thenReturn(true);
+
+        final List<DepartmentDeletionJob> reports = new ArrayList<>();
+        final DepartmentDeletionJob result = service.deleteInChunks(sales, 2, 0, reports::add);
+
+        assertSame(job, result);
+        assertEquals(3, reports.size());
+        verify(repository, times(3)).deleteEmployeesChunk(job, 2);
+        verify(repository, times(1)).finishDeletion(job, 2);
+    }
+
+    @Test
+    @DisplayName("Should be throw DepartmentException without finishing when a chunk fails in the database")
+    void givenDeleteInChunks_whenTheChunkFails_thenThrowDepartmentExceptionWithoutFinishing() {
+
+        when(repository.startDeletion(sales)).thenReturn(job);
+        when(repository.deleteEmployeesChunk(job, 2)).thenReturn(2).thenThrow(new DbConnectionException("Lock wait timeout"));
+
+        final DepartmentException e = assertThrows(DepartmentException.class,
+                () -> service.deleteInChunks(sales, 2, 0, j -> {
+                }));
+
+        assertEquals("Error: Lock wait timeout", e.getMessage());
+        verify(repository, never()).finishDeletion(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should be resume the unfinished deletions in the background")
+    void givenResumeUnfinished_whenHasUnfinishedJobs_thenContinueTheJobs() {
+
+        when(repository.findUnfinishedDeletions()).thenReturn(List.of(job));
+        when(repository.deleteEmployeesChunk(job, 10)).thenReturn(0);
+        when(repository.finishDeletion(job, 10)).thenReturn(true);
+
+        final List<DepartmentDeletionJob> resumed = service.resumeUnfinished(10, 0, j -> {
+        }).stream().map(f -> f.join()).toList();
+
+        assertEquals(List.of(job), resumed);
+        verify(repository, times(1)).finishDeletion(job, 10);
+    }
+
+    @Test
+    @DisplayName("Should be stop the deletion in the background on close and resume it from the last chunk")
+    void givenDeleteInBackground_whenInterruptedBetweenChunks_thenResumeWithoutFinishingTwice() throws InterruptedException {
+
+        when(repository.startDeletion(sales)).thenReturn(job);
+        when(repository.deleteEmployeesChunk(job, 2)).thenReturn(2, 1);
+
+        //The first chunk is committed, the deletion stops in the pause before the second
+        final CountDownLatch firstChunk = new CountDownLatch(1);
+        final CompletableFuture<DepartmentDeletionJob> stopped = service.deleteInBackground(sales, 2, 60_000,
+                j -> firstChunk.countDown());
+        assertTrue(firstChunk.await(5, TimeUnit.SECONDS));
+        service.close();
+
+        final CompletionException e = assertThrows(CompletionException.class, stopped::join);
+        assertInstanceOf(DepartmentException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().endsWith("it will be resumed!"));
+        verify(repository, never()).finishDeletion(any(), anyInt());
+
+        //Next start of the process
+        when(repository.findUnfinishedDeletions()).thenReturn(List.of(job));
+        when(repository.finishDeletion(job, 2)).thenReturn(true);
+        final DepartmentDeletionService restarted = new DepartmentDeletionService(repository);
+        try {
+            final List<DepartmentDeletionJob> resumed = restarted.resumeUnfinished(2, 0, j -> {
+            }).stream().map(CompletableFuture::join).toList();
+
+            assertEquals(List.of(job), resumed);
+        } finally {
+            restarted.close();
+        }
+
+        verify(repository, times(1)).startDeletion(sales);
+        verify(repository, times(2)).deleteEmployeesChunk(job, 2);
+        verify(repository, times(1)).finishDeletion(job, 2);
+    }
+
+    @Test
+    @DisplayName("Should be continue the chunks when the finish finds employees hired during the deletion")
+    void givenDeleteInChunks_whenEmployeesWereHiredDuringTheDeletion_thenDeleteThemBeforeFinishing() {
+
+        when(repository.startDeletion(sales)).thenReturn(job);
+        when(repository.deleteEmployeesChunk(job, 2)).thenReturn(1, 2, 0);
+        //The first finish deleted a full chunk of late hires and left the department
+        when(repository.finishDeletion(job, 2)).thenReturn(false, true);
+
+        final List<DepartmentDeletionJob> reports = new ArrayList<>();
+        assertSame(job, service.deleteInChunks(sales, 2, 0, reports::add));
+
+        verify(repository, times(3)).deleteEmployeesChunk(job, 2);
+        verify(repository, times(2)).finishDeletion(job, 2);
+        assertEquals(3, reports.size());
+    }
+}
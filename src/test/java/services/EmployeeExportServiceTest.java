@@ -0,0 +1,204 @@
+package services;
+
+import domain.department.Department;
+import domain.department.Level;
+import dto.employee.EmployeeBaseDTO;
+import dto.employee.NormalEmployeeDTO;
+import dto.employee.SuperiorEmployeeDTO;
+import enums.employee.ExportFormat;
+import exceptions.DbConnectionException;
+import exceptions.EmployeeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.EmployeeRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeExportServiceTest {
+
+    @Mock
+    private EmployeeRepository repository;
+
+    @TempDir
+    private Path dir;
+
+    private EmployeeExportService service;
+    private List<EmployeeBaseDTO> employees;
+
+    @BeforeEach
+    void setUp() {
+
+        service = new EmployeeExportService(repository);
+
+        final Department sales = Department.builder().id(24L).name("Sales").build();
+        final Department management = Department.builder().id(27L).name("Management").build();
+
+        final Map<Department, Map<Level, BigDecimal>> jonJobs = new TreeMap<>((a, b) -> a.getName().compareTo(b.getName()));
+        jonJobs.put(sales, Map.of(Level.JUNIOR, new BigDecimal("1200.50")));
+        jonJobs.put(management, Map.of(Level.MID, new BigDecimal("3000.00")));
+
+        employees = List.of(
+                NormalEmployeeDTO.builder()
+                        .id(50L)
+                        .name("Jon \"Snow\"")
+                        .birthDate(LocalDate.of(1990, 10, 10))
+                        .age(33)
+                        .document("123.456.789-10")
+                        .hireDate(LocalDateTime.of(2023, 1, 2, 3, 4, 5))
+                        .departamentsAndLevelsAndSalaries(jonJobs)
+                        .hasFaculty(true)
+                        .build(),
+                SuperiorEmployeeDTO.builder()
+                        .id(51L)
+                        .name("Ann")
+                        .birthDate(LocalDate.of(1980, 1, 1))
+                        .age(44)
+                        .document("123.456.789-11")
+                        .departamentsAndLevelsAndSalaries(Map.of(sales, Map.of(Level.SENIOR, new BigDecimal("5000.00"))))
+                        .workExperience(10)
+                        .build()
+        );
+    }
+
+    @Test
+    @DisplayName("Should be export the employees in the csv format of the import and close the stream")
+    void givenExport_whenFormatIsCsv_thenWriteTheImportColumnsAndCloseTheStream() throws IOException {
+
+        final AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamAll()).thenReturn(employees.stream().onClose(() -> closed.set(true)));
+
+        final Path output = dir.resolve("employees.csv");
+        final EmployeeExportService.Report report = service.export(output, ExportFormat.CSV, false);
+
+        assertEquals(List.of(
+                "name;document;birth_date;type;specific;jobs",
+                "Jon \"Snow\";123.456.789-10;10/10/1990;NORMAL;YES;Management:MID:3000.00|Sales:JUNIOR:1200.50",
+                "Ann;123.456.789-11;01/01/1980;SUPERIOR;10;Sales:SENIOR:5000.00"
+        ), Files.readAllLines(output));
+
+        assertEquals(2, report.getEmployees());
+        assertEquals(3, report.getJobs());
+        assertEquals(Files.size(output), report.getBytes());
+        assertTrue(closed.get());
+        assertFalse(Files.exists(dir.resolve("employees.csv.part")));
+    }
+
+    @Test
+    @DisplayName("Should be export one escaped json object per line compressed with gzip")
+    void givenExport_whenFormatIsJsonLinesWithGzip_thenWriteCompressedJsonLines() throws IOException {
+
+        when(repository.streamAll()).thenReturn(employees.stream());
+
+        final Path output = dir.resolve("employees.jsonl.gz");
+        service.export(output, ExportFormat.of(output.toString()), true);
+
+        final List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(output)), StandardCharsets.UTF_8))) {
+            lines = reader.lines().toList();
+        }
+
+        assertEquals(2, lines.size());
+        assertEquals("{\"id\":50,\"name\":\"Jon \\\"Snow\\\"\",\"document\":\"123.456.789-10\",\"birthDate\":\"1990-10-10\","
+                + "\"age\":33,\"hireDate\":\"2023-01-02T03:04:05\",\"type\":\"NORMAL\",\"hasFaculty\":true,\"jobs\":["
+                + "{\"departmentId\":27,\"department\":\"Management\",\"level\":\"MID\",\"salary\":3000.00},"
+                + "{\"departmentId\":24,\"department\":\"Sales\",\"level\":\"JUNIOR\",\"salary\":1200.50}]}", lines.get(0));
+        assertTrue(lines.get(1).contains("\"type\":\"SUPERIOR\",\"workExperience\":10"));
+    }
+
+    @Test
+    @DisplayName("Should be throw EmployeeException and leave no file when the stream fails in the database")
+    void givenExport_whenTheStreamFails_thenThrowEmployeeExceptionWithoutFiles() {
+
+        when(repository.streamAll()).thenReturn(Stream.concat(employees.stream(), Stream.<EmployeeBaseDTO>generate(() -> {
+            throw new DbConnectionException("Connection reset");
+        })));
+
+        final Path output = dir.resolve("employees.csv");
+        final EmployeeException e = assertThrows(EmployeeException.class, () -> service.export(output, ExportFormat.CSV, false));
+
+        assertEquals("Error: Connection reset", e.getMessage());
+        assertFalse(Files.exists(output));
+        assertFalse(Files.exists(dir.resolve("employees.csv.part")));
+    }
+
+    @Test
+    @DisplayName("Should be delete the partial file when the stream fails with any exception")
+    void givenExport_whenTheStreamFailsWithAnUnexpectedException_thenRethrowWithoutFiles() {
+
+        when(repository.streamAll()).thenReturn(Stream.concat(employees.stream(), Stream.<EmployeeBaseDTO>generate(() -> {
+            throw new IllegalStateException("Level not mapped");
+        })));
+
+        final Path output = dir.resolve("employees.jsonl");
+        final IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.export(output, ExportFormat.JSONL, false));
+
+        assertEquals("Level not mapped", e.getMessage());
+        assertFalse(Files.exists(output));
+        assertFalse(Files.exists(dir.resolve("employees.jsonl.part")));
+    }
+
+    @Test
+    @DisplayName("Should be throw EmployeeException and leave no file when a department name has a csv separator")
+    void givenExport_whenADepartmentNameHasASeparator_thenThrowEmployeeExceptionWithoutFiles() throws IOException {
+
+        for (String name : List.of("R;D", "R|D", "R:D")) {
+
+            final Department department = Department.builder().id(30L).name(name).build();
+            when(repository.streamAll()).thenReturn(Stream.of(SuperiorEmployeeDTO.builder()
+                    .id(52L)
+                    .name("Bob")
+                    .birthDate(LocalDate.of(1985, 5, 5))
+                    .document("123.456.789-12")
+                    .departamentsAndLevelsAndSalaries(Map.of(department, Map.of(Level.MID, new BigDecimal("2000.00"))))
+                    .workExperience(3)
+                    .build()));
+
+            final Path output = dir.resolve("employees.csv");
+            final EmployeeException e = assertThrows(EmployeeException.class, () -> service.export(output, ExportFormat.CSV, false));
+
+            assertTrue(e.getMessage().startsWith(name + " can´t be exported to CSV"));
+            assertFalse(Files.exists(output));
+            assertFalse(Files.exists(dir.resolve("employees.csv.part")));
+        }
+
+        //Only the csv columns have separators
+        final Path json = dir.resolve("employees.jsonl");
+        when(repository.streamAll()).thenReturn(Stream.of(SuperiorEmployeeDTO.builder()
+                .id(52L)
+                .name("Bob")
+                .birthDate(LocalDate.of(1985, 5, 5))
+                .document("123.456.789-12")
+                .departamentsAndLevelsAndSalaries(Map.of(Department.builder().id(30L).name("R;D").build(),
+                        Map.of(Level.MID, new BigDecimal("2000.00"))))
+                .workExperience(3)
+                .build()));
+
+        service.export(json, ExportFormat.JSONL, false);
+        assertTrue(Files.readString(json).contains("\"department\":\"R;D\""));
+    }
+}
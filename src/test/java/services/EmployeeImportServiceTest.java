@@ -0,0 +1,138 @@
+package services;
+
+import domain.department.Department;
+import domain.department.Level;
+import domain.employee.Employee;
+import domain.employee.SuperiorEmployee;
+import exceptions.DbConnectionException;
+import exceptions.EmployeeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.EmployeeRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeImportServiceTest {
+
+    @Mock
+    private EmployeeRepository repository;
+    @Mock
+    private DepartmentService departmentService;
+
+    @TempDir
+    private Path dir;
+
+    private EmployeeImportService service;
+    private Department sales;
+
+    @BeforeEach
+    void setUp() {
+        service = new EmployeeImportService(new EmployeeService(null, null, repository), departmentService);
+        sales = Department.builder().id(24L).name("Sales").build();
+    }
+
+    private Path writeCsv(final String... lines) throws IOException {
+        final List<String> content = new ArrayList<>();
+        content.add("name;document;birth_date;type;specific;jobs");
+        content.addAll(List.of(lines));
+        return Files.write(dir.resolve("hires.csv"), content);
+    }
+
+    @Test
+    @DisplayName("Should be throw EmployeeException when the chunk size is less than one")
+    void givenImportCsv_whenChunkSizeIsLessThanOne_thenThrowEmployeeException() {
+
+        final EmployeeException e = assertThrows(EmployeeException.class,
+                () -> service.importCsv(dir.resolve("any.csv"), dir.resolve("errors.csv"), 0));
+
+        assertEquals("Chunk size should be at least one!", e.getMessage());
+        verifyNoInteractions(repository, departmentService);
+    }
+
+    @Test
+    @DisplayName("Should be parse the row with the jobs information and the specific atributtes")
+    void givenParseEmployee_whenRowIsValid_thenReturnEmployeeWithJobs() {
+
+        final Employee employee = service.parseEmployee("jon;123.456.789-10;10/10/1990;SUPERIOR;5;sales:SENIOR:1200,50",
+                Map.of("sales", sales));
+
+        final SuperiorEmployee se = assertInstanceOf(SuperiorEmployee.class, employee);
+        assertEquals("Jon", se.getName());
+        assertEquals(5, se.getWorkExperience());
+        assertEquals(Map.of(Level.SENIOR, new BigDecimal("1200.50")), se.getDepartmentsAndLevelsAndSalaries().get(sales));
+    }
+
+    @Test
+    @DisplayName("Should be save the valid rows in chunks and write the invalid rows in the errors file")
+    void givenImportCsv_whenHasInvalidRows_thenSaveValidRowsInChunksAndRejectInvalidRows() throws IOException {
+
+        when(departmentService.findAll()).thenReturn(List.of(sales));
+
+        final Path input = this.writeCsv(
+                "Jon;123.456.789-10;10/10/1990;NORMAL;YES;Sales:JUNIOR:1000",
+                "Peter;123.456.789-11;10/10/1990;NORMAL;NO;Unknown:JUNIOR:1000",
+                "Mary;123.456.789-12;10/10/1990;NORMAL;NO;Sales:MID:2000",
+                "Ann;123.456.789-13;10/10/1990;SUPERIOR;10;Sales:SENIOR:3000"
+        );
+        final Path errors = dir.resolve("errors.csv");
+
+        final EmployeeImportService.Report report = service.importCsv(input, errors, 2);
+
+        assertEquals(4, report.getRead());
+        assertEquals(3, report.getImported());
+        assertEquals(1, report.getRejected());
+
+        final List<String> rejected = Files.readAllLines(errors);
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0).startsWith("3;Department Unknown not found!"));
+
+        verify(departmentService, times(1)).findAll();
+        verify(repository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should be retry the rows one by one when the chunk fails in the database")
+    void givenImportCsv_whenTheChunkFails_thenRetryRowByRowAndRejectTheFailedRow() throws IOException {
+
+        when(departmentService.findAll()).thenReturn(List.of(sales));
+
+        doAnswer(param -> {
+            List<Employee> employees = param.getArgument(0);
+            if (employees.stream().anyMatch(e -> e.getName().equals("Peter"))) {
+                throw new DbConnectionException("Employee already exists!");
+            }
+            return null;
+        }).when(repository).saveAll(anyList());
+
+        final Path input = this.writeCsv(
+                "Jon;123.456.789-10;10/10/1990;NORMAL;YES;Sales:JUNIOR:1000",
+                "Peter;123.456.789-10;10/10/1990;NORMAL;NO;Sales:JUNIOR:1000"
+        );
+        final Path errors = dir.resolve("errors.csv");
+
+        final EmployeeImportService.Report report = service.importCsv(input, errors, 10);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertTrue(Files.readAllLines(errors).get(0).startsWith("3;Error in save: Employee already exists!"));
+
+        //One try with the chunk and one per row
+        verify(repository, times(3)).saveAll(anyList());
+    }
+}
@@ -0,0 +1,301 @@
+package services;
+
+import database.DbConnection;
+import database.pool.PoolConfig;
+import domain.department.Department;
+import domain.department.Level;
+import domain.employee.Employee;
+import domain.employee.NormalEmployee;
+import domain.employee.SuperiorEmployee;
+import exceptions.DbConnectionException;
+import exceptions.EmployeeException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import repositories.interfaces.EmployeeRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/*
+    Hundreds of hires and updates from many threads through the real pool and units of work.
+    The physical connections are stubs that count the calls made by a thread while another thread
+    holds their transaction, which would mean a connection shared by two units of work.
+    Runs in its own JVM, the static-pool-tests execution of the pom: DbConnection.configure only works before
+    any other test creates the static pool.
+*/
+class EmployeeServiceStressTest {
+
+    private static final int THREADS = 32;
+    private static final int HIRES = 400;
+    private static final int UPDATES = 400;
+    private static final int POOL_SIZE = 8;
+
+    private static final AtomicInteger violations = new AtomicInteger();
+    private static final AtomicInteger commits = new AtomicInteger();
+    private static final AtomicInteger rollbacks = new AtomicInteger();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    //Physical connections used by each hire
+    private final Map<Long, Set<Connection>> connectionsByHire = new ConcurrentHashMap<>();
+
+    @BeforeAll
+    static void setUpPool() throws SQLException {
+        DriverManager.registerDriver(new StubDriver());
+        DbConnection.configure(PoolConfig.builder()
+                .url(StubDriver.URL)
+                .minSize(0)
+                .maxSize(POOL_SIZE)
+                .borrowTimeoutMillis(10_000)
+                .build());
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Should be run concurrent hires and updates without sharing connections between units of work")
+    void givenConcurrentHiresAndUpdates_whenRunInManyThreads_thenEachUnitOfWorkHasItsOwnConnection() throws Exception {
+
+        final EmployeeService service = new EmployeeService(null, null, this.repository());
+        final Department department = Department.builder().id(1L).name("Stress").build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < HIRES; i++) {
+                final boolean normal = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    service.hire(this.newEmployee(normal, department));
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < UPDATES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final Employee employee = this.newEmployee(true, department);
+                    service.updateSalary(employee, department, new BigDecimal("2000.00"), new BigDecimal("1000.00"));
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, violations.get(), "Connections used by a thread inside the transaction of another thread");
+        assertEquals(HIRES, connectionsByHire.size());
+        connectionsByHire.forEach((id, connections) ->
+                assertEquals(1, connections.size(), String.format("Hire %d used more than one connection", id)));
+
+        //One commit per hire unit of work and one per update
+        assertEquals(HIRES + UPDATES, commits.get());
+
+        final int active = DbConnection.getPoolStats().getActive();
+        assertEquals(0, active, "Connections not given back to the pool");
+        assertTrue(DbConnection.getPoolStats().getTotal() <= POOL_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should be roll back the whole hire and clear the id when the specific employee fails")
+    void givenHire_whenSpecificEmployeeFails_thenRollbackOnceAndClearTheId() {
+
+        final EmployeeRepository repository = this.repository();
+        doAnswer(param -> {
+            try (Connection c = DbConnection.getConnection()) {
+                c.getAutoCommit();
+            }
+            throw new DbConnectionException("Duplicate entry");
+        }).when(repository).saveSuperiorEmployee(any());
+
+        final EmployeeService service = new EmployeeService(null, null, repository);
+        final Employee employee = this.newEmployee(false, Department.builder().id(1L).name("Stress").build());
+
+        final int commitsBefore = commits.get();
+        final int rollbacksBefore = rollbacks.get();
+
+        final EmployeeException e = assertThrows(EmployeeException.class, () -> service.hire(employee));
+
+        assertEquals("Error in save: Duplicate entry", e.getMessage());
+        assertNull(employee.getId());
+        assertEquals(commitsBefore, commits.get());
+        assertEquals(rollbacksBefore + 1, rollbacks.get());
+        assertEquals(0, DbConnection.getPoolStats().getActive());
+    }
+
+    private Employee newEmployee(final boolean normal, final Department department) {
+
+        final Map<Department, Map<Level, BigDecimal>> dls = Map.of(department, Map.of(Level.JUNIOR, new BigDecimal("1000.00")));
+
+        return normal
+                ? NormalEmployee.builder().name("Normal").departmentsAndLevelsAndSalaries(dls).build()
+                : SuperiorEmployee.builder().name("Superior").departmentsAndLevelsAndSalaries(dls).build();
+    }
+
+    //Repository that only borrows connections and uses them as the real one does
+    private EmployeeRepository repository() {
+
+        final EmployeeRepository repository = mock(EmployeeRepository.class);
+
+        doAnswer(param -> {
+            final Employee employee = param.getArgument(0);
+            employee.setId(ids.incrementAndGet());
+
+            try (Connection c = DbConnection.getConnection()) {
+                c.setAutoCommit(false);
+                this.use(c, employee.getId());
+            }
+            return null;
+        }).when(repository).save(any());
+
+        doAnswer(param -> {
+            final Employee employee = param.getArgument(0);
+
+            try (Connection c = DbConnection.getConnection()) {
+                this.use(c, employee.getId());
+                c.commit();
+            }
+            return null;
+        }).when(repository).saveNormalEmployee(any());
+
+        doAnswer(param -> {
+            final Employee employee = param.getArgument(0);
+
+            try (Connection c = DbConnection.getConnection()) {
+                this.use(c, employee.getId());
+                c.commit();
+            }
+            return null;
+        }).when(repository).saveSuperiorEmployee(any());
+
+        doAnswer(param -> {
+            try (Connection c = DbConnection.getConnection()) {
+                c.setAutoCommit(false);
+                c.getAutoCommit();
+                Thread.yield();
+                c.commit();
+            }
+            return null;
+        }).when(repository).updateSalary(any(), any(), any(), any());
+
+        return repository;
+    }
+
+    private void use(final Connection c, final long employeeId) throws SQLException {
+        connectionsByHire.computeIfAbsent(employeeId, id -> ConcurrentHashMap.newKeySet()).add(c.unwrap(Connection.class));
+        c.getAutoCommit();
+        Thread.yield();
+    }
+
+    private static final class StubDriver implements Driver {
+
+        private static final String URL = "jdbc:stub:company";
+
+        @Override
+        public Connection connect(final String url, final Properties info) {
+            return this.acceptsURL(url) ? newConnection() : null;
+        }
+
+        @Override
+        public boolean acceptsURL(final String url) {
+            return URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        //The thread that turned off the auto commit owns the connection until it is turned on again
+        private static Connection newConnection() {
+
+            final AtomicReference<Thread> owner = new AtomicReference<>();
+            final boolean[] autoCommit = {true};
+
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+
+                        final Thread current = Thread.currentThread();
+                        final Thread holder = owner.get();
+                        if (holder != null && holder != current) violations.incrementAndGet();
+
+                        return switch (method.getName()) {
+                            case "setAutoCommit" -> {
+                                autoCommit[0] = (boolean) args[0];
+                                if (autoCommit[0]) owner.set(null);
+                                else if (!owner.compareAndSet(null, current) && owner.get() != current) violations.incrementAndGet();
+                                yield null;
+                            }
+                            case "getAutoCommit" -> autoCommit[0];
+                            case "commit" -> {
+                                commits.incrementAndGet();
+                                yield null;
+                            }
+                            case "rollback" -> {
+                                rollbacks.incrementAndGet();
+                                yield null;
+                            }
+                            case "isValid" -> true;
+                            case "isClosed" -> false;
+                            case "unwrap" -> proxy;
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> null;
+                        };
+                    });
+        }
+    }
+}
@@ -2,17 +2,23 @@ package services;
 
 import domain.department.Department;
 import domain.department.Level;
+import domain.department.SalaryAdjustment;
 import domain.employee.Employee;
 import domain.employee.NormalEmployee;
 import domain.employee.SuperiorEmployee;
 import dto.base.BaseDto;
+import dto.employee.EmployeeBaseDTO;
 import dto.employee.NormalEmployeeDTO;
+import dto.employee.SalaryAdjustmentDTO;
 import dto.employee.SuperiorEmployeeDTO;
 import enums.employee.EmployeeType;
+import enums.employee.SalaryAdjustmentType;
 import enums.menu.YesOrNo;
 import exceptions.DbConnectionException;
 import exceptions.EmployeeException;
+import executor.BoundedExecutor;
 import mappers.interfaces.Mapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -33,6 +39,9 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -510,6 +519,53 @@ class EmployeeServiceTest {
     }
 
 
+    @DisplayName("** Save all employees methods **")
+    @Nested
+    class SaveAllEmployeesTests {
+
+        private List<Employee> employees;
+
+        @BeforeEach
+        void setUp() {
+            employees = List.of(NormalEmployee.builder().build(), SuperiorEmployee.builder().build());
+        }
+
+        @Test
+        @DisplayName("Should be throw NullPointerException when the employees list is null")
+        void givenSaveAllEmployees_whenEmployeesIsNull_thenThrowNPEException() {
+
+            final NullPointerException e = assertThrows(NullPointerException.class,
+                    () -> service.saveAllEmployees(null));
+
+            final String expectedMessage = "Employees can´t be null!";
+            assertEquals(expectedMessage, e.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should be not call the repository when the employees list is empty")
+        void givenSaveAllEmployees_whenEmployeesIsEmpty_thenDoNothing() {
+            service.saveAllEmployees(List.of());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be throw Employee Exception when the batch fails")
+        void givenSaveAllEmployees_whenTheBatchFails_thenThrowEmployeeException() {
+
+            final String expectedCauseMessage = "Employee already exists!";
+            doThrow(new DbConnectionException(expectedCauseMessage)).when(repository).saveAll(employees);
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.saveAllEmployees(employees));
+
+            assertNotNull(e.getCause());
+            assertEquals(String.format("Error in save: %s", expectedCauseMessage), e.getMessage());
+
+            verify(repository).saveAll(employees);
+        }
+
+    }
+
     @DisplayName("** Find by id **")
     @Nested
     class FindByIdTests {
@@ -650,6 +706,317 @@ class EmployeeServiceTest {
 
     }
 
+    @DisplayName("** Find by name page **")
+    @Nested
+    class FindByNamePageTests {
+
+        private String name;
+        private int limit;
+
+        @BeforeEach
+        void setUp() {
+            name = "Michelangelo";
+            limit = 2;
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when the page size is less than one")
+        void givenFindByNamePage_whenLimitIsLessThanOne_thenThrowEmployeeException() {
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.findByName(name, 0, 0));
+
+            assertEquals("Page size should be at least one!", e.getMessage());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when the first page is empty")
+        void givenFindByNamePage_whenFirstPageIsEmpty_thenThrowEmployeeException() {
+
+            when(repository.findByName(name, 0, limit)).thenReturn(List.of());
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.findByName(name, 0, limit));
+
+            final String expectedMessage = String.format("Employees not found by name %s!", name);
+            assertEquals(expectedMessage, e.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should be return an empty list when there are no more pages")
+        void givenFindByNamePage_whenNextPageIsEmpty_thenReturnEmptyList() {
+
+            when(repository.findByName(name, 10, limit)).thenReturn(List.of());
+
+            assertTrue(service.findByName(name, 10, limit).isEmpty());
+            verifyNoInteractions(mapper);
+        }
+
+        @Test
+        @DisplayName("Should be return the page with mapped employees after the id passed")
+        void givenFindByNamePage_whenPageIsFound_thenReturnMappedEmployees() {
+
+            final NormalEmployeeDTO nDto = NormalEmployeeDTO.builder().id(11L).name(name).build();
+            final SuperiorEmployeeDTO sDto = SuperiorEmployeeDTO.builder().id(12L).name(name).build();
+
+            when(repository.findByName(name, 10, limit)).thenReturn(List.of(nDto, sDto));
+            when(mapper.dtoToEntity(nDto)).thenReturn(NormalEmployee.builder().id(nDto.getId()).build());
+            when(mapper.dtoToEntity(sDto)).thenReturn(SuperiorEmployee.builder().id(sDto.getId()).build());
+
+            final List<Employee> page = service.findByName(name, 10, limit);
+
+            assertEquals(2, page.size());
+            assertEquals(11L, page.get(0).getId());
+            assertInstanceOf(SuperiorEmployee.class, page.get(1));
+
+            verify(repository).findByName(name, 10, limit);
+        }
+
+    }
+
+    @DisplayName("** Fan out methods **")
+    @Nested
+    class FanOutTests {
+
+        private EmployeeService parallelService;
+        private BoundedExecutor executor;
+
+        @BeforeEach
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void setUp() {
+            executor = BoundedExecutor.virtual(4);
+            parallelService = new EmployeeService((Mapper) mapper, (Mapper) mapper, repository, executor);
+        }
+
+        @AfterEach
+        void tearDown() {
+            executor.close();
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when no criteria is informed")
+        void givenFindByCriteria_whenNoCriteriaIsInformed_thenThrowEmployeeException() {
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> parallelService.findByCriteria(null, null, null, null));
+
+            assertEquals("At least one criteria should be informed!", e.getMessage());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when only one hire date is informed")
+        void givenFindByCriteria_whenOnlyOneHireDateIsInformed_thenThrowEmployeeException() {
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> parallelService.findByCriteria(null, null, LocalDate.of(2024, 1, 1), null));
+
+            assertEquals("Both hire dates should be informed!", e.getMessage());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be return only the employees found by all the criteria")
+        void givenFindByCriteria_whenNameAndAgeAreInformed_thenReturnTheIntersection() {
+
+            final NormalEmployeeDTO both = NormalEmployeeDTO.builder().id(1L).name("Jon").age(30).build();
+            final NormalEmployeeDTO onlyName = NormalEmployeeDTO.builder().id(2L).name("Jonas").age(40).build();
+            final NormalEmployeeDTO onlyAge = NormalEmployeeDTO.builder().id(3L).name("Mary").age(30).build();
+
+            when(repository.findByName("Jon")).thenReturn(List.of(both, onlyName));
+            when(repository.findByAge(30)).thenReturn(List.of(both, onlyAge));
+            when(mapper.dtoToEntity(both)).thenReturn(NormalEmployee.builder().id(both.getId()).build());
+
+            final List<Employee> list = parallelService.findByCriteria("Jon", 30, null, null);
+
+            assertEquals(1, list.size());
+            assertEquals(1L, list.get(0).getId());
+        }
+
+        @Test
+        @DisplayName("Should be sum the employees deleted by each document")
+        void givenDeleteByDocuments_whenDocumentsAreDeleted_thenReturnTheSum() {
+
+            final List<String> documents = List.of("123.456.789-10", "123.456.789-11", "123.456.789-12");
+            when(repository.deleteByDocument(anyString())).thenReturn(1);
+
+            assertEquals(3, parallelService.deleteByDocuments(documents));
+            verify(repository, times(3)).deleteByDocument(anyString());
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when one of the deletes fails")
+        void givenDeleteByDocuments_whenOneDeleteFails_thenThrowEmployeeException() {
+
+            when(repository.deleteByDocument(anyString())).thenReturn(1);
+            when(repository.deleteByDocument("123.456.789-11")).thenThrow(new DbConnectionException("Lock wait timeout"));
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> parallelService.deleteByDocuments(List.of("123.456.789-10", "123.456.789-11")));
+
+            assertEquals("Error: Lock wait timeout", e.getMessage());
+        }
+    }
+
+    @DisplayName("** Multi get methods **")
+    @Nested
+    class MultiGetTests {
+
+        @Test
+        @DisplayName("Should be return the employees by id in the order of the ids, empty for the ones not found")
+        void givenFindByIds_whenSomeIdsAreNotFound_thenReturnThemEmptyInOrder() {
+
+            final NormalEmployeeDTO second = NormalEmployeeDTO.builder().id(2L).name("Jon").build();
+            final NormalEmployeeDTO first = NormalEmployeeDTO.builder().id(7L).name("Mary").build();
+
+            final Map<Long, Optional<EmployeeBaseDTO>> found = new LinkedHashMap<>();
+            found.put(7L, Optional.of(first));
+            found.put(5L, Optional.empty());
+            found.put(2L, Optional.of(second));
+
+            when(repository.findByIds(List.of(7L, 5L, 2L))).thenReturn(found);
+            when(mapper.dtoToEntity(first)).thenReturn(NormalEmployee.builder().id(7L).build());
+            when(mapper.dtoToEntity(second)).thenReturn(NormalEmployee.builder().id(2L).build());
+
+            final Map<Long, Optional<Employee>> employees = service.findByIds(List.of(7L, 5L, 2L));
+
+            assertEquals(List.of(7L, 5L, 2L), new ArrayList<>(employees.keySet()));
+            assertEquals(7L, employees.get(7L).orElseThrow().getId());
+            assertTrue(employees.get(5L).isEmpty());
+            assertEquals(2L, employees.get(2L).orElseThrow().getId());
+            verify(repository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should be return the employees by document, empty for the documents not found")
+        void givenFindByDocuments_whenADocumentIsNotFound_thenReturnItEmpty() {
+
+            final NormalEmployeeDTO jon = NormalEmployeeDTO.builder().id(2L).name("Jon").document("123.456.789-10").build();
+
+            final Map<String, Optional<EmployeeBaseDTO>> found = new LinkedHashMap<>();
+            found.put("123.456.789-11", Optional.empty());
+            found.put("123.456.789-10", Optional.of(jon));
+
+            when(repository.findByDocuments(List.of("123.456.789-11", "123.456.789-10"))).thenReturn(found);
+            when(mapper.dtoToEntity(jon)).thenReturn(NormalEmployee.builder().id(2L).build());
+
+            final Map<String, Optional<Employee>> employees = service.findByDocuments(List.of("123.456.789-11", "123.456.789-10"));
+
+            assertEquals(List.of("123.456.789-11", "123.456.789-10"), new ArrayList<>(employees.keySet()));
+            assertTrue(employees.get("123.456.789-11").isEmpty());
+            assertEquals(2L, employees.get("123.456.789-10").orElseThrow().getId());
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException without finding when one document is invalid")
+        void givenFindByDocuments_whenOneDocumentIsInvalid_thenThrowEmployeeException() {
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.findByDocuments(List.of("123.456.789-10", "123")));
+
+            assertEquals("Invalid document: 123 does not match the pattern!", e.getMessage());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when the multi get fails in the database")
+        void givenFindByDocuments_whenRepositoryFails_thenThrowEmployeeException() {
+
+            when(repository.findByDocuments(List.of("123.456.789-10"))).thenThrow(new DbConnectionException("Timeout"));
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.findByDocuments(List.of("123.456.789-10")));
+
+            assertEquals("Error: Timeout", e.getMessage());
+        }
+    }
+
+    @DisplayName("** Salary adjustment **")
+    @Nested
+    class SalaryAdjustmentTests {
+
+        private SalaryAdjustment adjustment;
+
+        @BeforeEach
+        void setUp() {
+            adjustment = SalaryAdjustment.builder()
+                    .department(Department.builder().id(24L).name("Sales").build())
+                    .level(Level.SENIOR)
+                    .type(SalaryAdjustmentType.PERCENT)
+                    .amount(new BigDecimal("7"))
+                    .build();
+        }
+
+        private SalaryAdjustmentDTO totals(final long employees, final long negativeSalaries, final boolean dryRun) {
+            return SalaryAdjustmentDTO.builder()
+                    .departmentId(24L)
+                    .level(Level.SENIOR)
+                    .employees(employees)
+                    .totalBefore(new BigDecimal("1000.00"))
+                    .totalAfter(new BigDecimal("1070.00"))
+                    .negativeSalaries(negativeSalaries)
+                    .dryRun(dryRun)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should be return the totals without adjusting when it is a dry run")
+        void givenAdjustSalaries_whenDryRun_thenReturnTotalsWithoutAdjusting() {
+
+            when(repository.adjustSalaries(eq(adjustment), anyInt(), eq(true))).thenReturn(this.totals(1, 0, true));
+
+            final SalaryAdjustmentDTO result = service.adjustSalaries(adjustment, true);
+
+            assertEquals(new BigDecimal("70.00"), result.getDelta());
+            verify(repository, never()).adjustSalaries(any(), anyInt(), eq(false));
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException without adjusting when a salary would be negative")
+        void givenAdjustSalaries_whenSalaryWouldBeNegative_thenThrowEmployeeException() {
+
+            when(repository.adjustSalaries(eq(adjustment), anyInt(), eq(true))).thenReturn(this.totals(3, 2, true));
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.adjustSalaries(adjustment, false));
+
+            assertEquals("2 salaries would be negative!", e.getMessage());
+            verify(repository, never()).adjustSalaries(any(), anyInt(), eq(false));
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when the absolute amount has more than two decimal places")
+        void givenAdjustSalaries_whenAbsoluteAmountHasThreeDecimals_thenThrowEmployeeException() {
+
+            final SalaryAdjustment absolute = SalaryAdjustment.builder()
+                    .department(adjustment.getDepartment())
+                    .level(Level.SENIOR)
+                    .type(SalaryAdjustmentType.ABSOLUTE)
+                    .amount(new BigDecimal("10.005"))
+                    .build();
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.adjustSalaries(absolute, false));
+
+            assertEquals("Absolute adjustment 10.005 has more than two decimal places!", e.getMessage());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be adjust the salaries after checking the totals")
+        void givenAdjustSalaries_whenTotalsAreValid_thenAdjustSalaries() {
+
+            when(repository.adjustSalaries(eq(adjustment), anyInt(), eq(true))).thenReturn(this.totals(1, 0, true));
+            when(repository.adjustSalaries(eq(adjustment), anyInt(), eq(false))).thenReturn(this.totals(1, 0, false));
+
+            final SalaryAdjustmentDTO result = service.adjustSalaries(adjustment, false);
+
+            assertFalse(result.isDryRun());
+            verify(repository, times(1)).adjustSalaries(adjustment, 1_000, false);
+        }
+    }
+
     @DisplayName("** Find by document **")
     @Nested
     class FindByDocumentTests {
@@ -866,6 +1233,74 @@ class EmployeeServiceTest {
 
     }
 
+    @DisplayName("** Find by hire date range **")
+    @Nested
+    class FindByHireDateRangeTests {
+        private LocalDate from;
+        private LocalDate to;
+
+        @BeforeEach
+        void setUp() {
+            from = LocalDate.now().minusDays(7);
+            to = LocalDate.now();
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when the first date is after the last date")
+        void givenFindByHireDateRange_whenFirstDateIsAfterLastDate_thenThrowEmployeeException() {
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.findByHireDateRange(to, from));
+
+            assertEquals("First date can´t be after the last date!", e.getMessage());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when employees not found in the hire date range")
+        void givenFindByHireDateRange_whenEmployeesNotFound_thenThrowEmployeeException() {
+
+            when(repository.findByHireDateRange(from, to)).thenReturn(Collections.emptyList());
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.findByHireDateRange(from, to));
+
+            final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            final String expectedMessage = String.format("Employees not found hired between %s and %s!", dtf.format(from), dtf.format(to));
+            assertEquals(expectedMessage, e.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should be return the employees mapped when employees are found in the hire date range")
+        void givenFindByHireDateRange_whenEmployeesFound_thenReturnMappedList() {
+
+            final NormalEmployeeDTO dto = NormalEmployeeDTO.builder().build();
+            final NormalEmployee employeeExpected = NormalEmployee.builder().build();
+
+            when(repository.findByHireDateRange(from, to)).thenReturn(List.of(dto));
+            when(mapper.dtoToEntity(dto)).thenReturn(employeeExpected);
+
+            assertEquals(List.of(employeeExpected), service.findByHireDateRange(from, to));
+
+            verify(repository).findByHireDateRange(from, to);
+        }
+
+        @Test
+        @DisplayName("Should be throw EmployeeException when no employees are deleted in the hire date range")
+        void givenDeleteByHireDateRange_whenNoEmployeesFound_thenThrowEmployeeException() {
+
+            final String expectedCauseMessage = "No employees found, nobody sacked!";
+            doThrow(new DbConnectionException(expectedCauseMessage)).when(repository).deleteByHireDateRange(from, to);
+
+            final EmployeeException e = assertThrows(EmployeeException.class,
+                    () -> service.deleteByHireDateRange(from, to));
+
+            assertEquals(String.format("Error: %s", expectedCauseMessage), e.getMessage());
+            verify(repository).deleteByHireDateRange(from, to);
+        }
+
+    }
+
     @Nested
     @DisplayName("** Update name **")
     class UpdateNameAndDocumentTests {
@@ -0,0 +1,178 @@
+package services;
+
+import domain.department.Level;
+import dto.departament.DepartmentPayrollDTO;
+import dto.departament.PayrollDriftDTO;
+import dto.departament.PayrollReportDTO;
+import dto.departament.PayrollSliceDTO;
+import dto.departament.PayrollTotalsDTO;
+import exceptions.DbConnectionException;
+import exceptions.DepartmentException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repositories.interfaces.PayrollReportRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollReportServiceTest {
+
+    @Mock
+    private PayrollReportRepository repository;
+
+    @InjectMocks
+    private PayrollReportService service;
+
+    private static PayrollSliceDTO slice(final long departmentId, final String name, final Level level,
+                                        final long headcount, final String total, final String min, final String max) {
+        return PayrollSliceDTO.builder()
+                .departmentId(departmentId)
+                .departmentName(name)
+                .level(level)
+                .totals(PayrollTotalsDTO.builder()
+                        .headcount(headcount)
+                        .total(new BigDecimal(total))
+                        .min(new BigDecimal(min))
+                        .max(new BigDecimal(max))
+                        .build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should be roll up the slices by department, by level and overall")
+    void givenReport_whenHasSlicesOfTwoDepartments_thenRollUpByDepartmentLevelAndOverall() {
+
+        when(repository.findAllSlices()).thenReturn(List.of(
+                slice(2, "Sales", Level.JUNIOR, 2, "2400.00", "1200.00", "1200.00"),
+                slice(2, "Sales", Level.SENIOR, 1, "5000.00", "5000.00", "5000.00"),
+                slice(1, "Management", Level.JUNIOR, 3, "3100.00", "1000.00", "1100.00")
+        ));
+
+        final PayrollReportDTO report = service.report();
+
+        assertEquals(List.of("Management", "Sales"),
+                report.getDepartments().stream().map(DepartmentPayrollDTO::getDepartmentName).toList());
+
+        final DepartmentPayrollDTO sales = report.getDepartments().get(1);
+        assertEquals(3, sales.getTotals().getHeadcount());
+        assertEquals(new BigDecimal("7400.00"), sales.getTotals().getTotal());
+        assertEquals(new BigDecimal("2466.67"), sales.getTotals().getAverage());
+        assertEquals(new BigDecimal("1200.00"), sales.getTotals().getMin());
+        assertEquals(new BigDecimal("5000.00"), sales.getTotals().getMax());
+        assertEquals(Set.of(Level.JUNIOR, Level.SENIOR), sales.getLevels().keySet());
+
+        final PayrollTotalsDTO juniors = report.getLevels().get(Level.JUNIOR);
+        assertEquals(5, juniors.getHeadcount());
+        assertEquals(new BigDecimal("5500.00"), juniors.getTotal());
+        assertEquals(new BigDecimal("1000.00"), juniors.getMin());
+
+        assertEquals(6, report.getOverall().getHeadcount());
+        assertEquals(new BigDecimal("10500.00"), report.getOverall().getTotal());
+        assertEquals(new BigDecimal("5000.00"), report.getOverall().getMax());
+        assertTrue(report.toString().contains("Overall: 6 jobs, total 10500.00"), report.toString());
+    }
+
+    @Test
+    @DisplayName("Should be return the same rollups when the slices are rolled up in parallel")
+    void givenRollupOverall_whenHasManySlices_thenReturnTheSameTotalsOfTheSum() {
+
+        final List<PayrollSliceDTO> slices = LongStream.rangeClosed(1, 20_000)
+                .mapToObj(id -> slice(id, "D" + id, Level.values()[(int) (id % 3)], 1, id + ".00", id + ".00", id + ".00"))
+                .toList();
+
+        final PayrollTotalsDTO overall = service.rollupOverall(slices);
+        final Map<Level, PayrollTotalsDTO> levels = service.rollupByLevel(slices);
+
+        assertEquals(20_000, overall.getHeadcount());
+        assertEquals(new BigDecimal("200010000.00"), overall.getTotal());
+        assertEquals(new BigDecimal("1.00"), overall.getMin());
+        assertEquals(new BigDecimal("20000.00"), overall.getMax());
+        assertEquals(20_000, levels.values().stream().mapToLong(PayrollTotalsDTO::getHeadcount).sum());
+        assertEquals(20_000, service.rollupByDepartment(slices).size());
+    }
+
+    @Test
+    @DisplayName("Should be return empty totals when there are no salaries")
+    void givenReport_whenHasNoSlices_thenReturnEmptyTotals() {
+
+        when(repository.findSlicesByDepartmentIds(List.of(1L))).thenReturn(List.of());
+
+        final PayrollReportDTO report = service.report(List.of(1L));
+
+        assertTrue(report.getDepartments().isEmpty());
+        assertTrue(report.getLevels().isEmpty());
+        assertEquals(0, report.getOverall().getHeadcount());
+        assertEquals(BigDecimal.ZERO, report.getOverall().getAverage());
+    }
+
+    @Test
+    @DisplayName("Should be throw DepartmentException when the aggregation fails in the database")
+    void givenReport_whenTheQueryFails_thenThrowDepartmentException() {
+
+        when(repository.findAllSlices()).thenThrow(new DbConnectionException("Connection refused"));
+
+        final DepartmentException e = assertThrows(DepartmentException.class, () -> service.report());
+
+        assertEquals("Error: Connection refused", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be roll up the summary slices without min and max")
+    void givenSummaryReport_whenHasSummarySlices_thenRollUpTotalsWithoutMinAndMax() {
+
+        final PayrollTotalsDTO juniors = PayrollTotalsDTO.builder().headcount(2).total(new BigDecimal("2400.00")).build();
+        final PayrollTotalsDTO seniors = PayrollTotalsDTO.builder().headcount(1).total(new BigDecimal("5000.00")).build();
+
+        when(repository.findSummarySlices()).thenReturn(List.of(
+                PayrollSliceDTO.builder().departmentId(2).departmentName("Sales").level(Level.JUNIOR).totals(juniors).build(),
+                PayrollSliceDTO.builder().departmentId(2).departmentName("Sales").level(Level.SENIOR).totals(seniors).build()
+        ));
+
+        final PayrollReportDTO report = service.summaryReport();
+
+        assertEquals(3, report.getOverall().getHeadcount());
+        assertEquals(new BigDecimal("7400.00"), report.getOverall().getTotal());
+        assertNull(report.getOverall().getMin());
+        assertNull(report.getOverall().getMax());
+        verify(repository, never()).findAllSlices();
+    }
+
+    @Test
+    @DisplayName("Should be return the drifts fixed by the reconciliation of the summary")
+    void givenReconcileSummary_whenSummaryDrifted_thenReturnTheDrifts() {
+
+        final PayrollDriftDTO drift = PayrollDriftDTO.builder()
+                .departmentId(24)
+                .level(Level.JUNIOR)
+                .expectedHeadcount(3)
+                .summaryHeadcount(2)
+                .expectedTotal(new BigDecimal("3600.00"))
+                .summaryTotal(new BigDecimal("2400.00"))
+                .build();
+        when(repository.reconcileSummary()).thenReturn(List.of(drift));
+
+        assertEquals(List.of(drift), service.reconcileSummary());
+    }
+
+    @Test
+    @DisplayName("Should be throw DepartmentException when the reconciliation fails in the database")
+    void givenReconcileSummary_whenTheTransactionFails_thenThrowDepartmentException() {
+
+        when(repository.reconcileSummary()).thenThrow(new DbConnectionException("Deadlock found when trying to get lock"));
+
+        final DepartmentException e = assertThrows(DepartmentException.class, () -> service.reconcileSummary());
+
+        assertEquals("Error: Deadlock found when trying to get lock", e.getMessage());
+    }
+}